@@ -598,9 +598,64 @@ build() {
     fi
 }
 
+# 生成 AppCDS 归档：解压 JAR 为普通 classpath（CDS 不支持嵌套 JAR），以 spring.context.exit=onRefresh
+# 做一次训练启动（上下文刷新后退出，不连接行情源），退出时写出 $CDS_DIR/app.jsa
+CDS_DIR="$BACKEND_DIR/target/cds"
+
+build_cds() {
+    if ! auto_build; then
+        print_error "打包失败，无法生成 CDS 归档"
+        return 1
+    fi
+    local jar_path=$(find_jar_file)
+    rm -rf "$CDS_DIR"
+    mkdir -p "$CDS_DIR"
+    print_info "解压 $jar_path 到 $CDS_DIR"
+    (cd "$CDS_DIR" && jar -xf "$jar_path")
+    # classpath 顺序固定，训练与运行必须一致
+    local classpath="$CDS_DIR/BOOT-INF/classes"
+    for lib in $(ls "$CDS_DIR"/BOOT-INF/lib/*.jar | sort); do
+        classpath="$classpath:$lib"
+    done
+    echo "$classpath" > "$CDS_DIR/classpath.txt"
+
+    print_info "训练启动，生成 CDS 归档..."
+    # 训练只为加载类，不能动线上状态：关闭热重启（否则恢复的行情会写进共享 Redis，退出时还会覆盖 data/warm-state.bin），
+    # 改用进程内存储，不导出共享报价表、不发布 tick 总线、不加入集群
+    java -XX:ArchiveClassesAtExit="$CDS_DIR/app.jsa" -Dspring.context.exit=onRefresh \
+        -cp "$classpath" $MAIN_CLASS \
+        --warm.enabled=false --md.store.type=memory --md.mmap.enabled=false \
+        --ticks.stream.enabled=false --cluster.enabled=false > "$CDS_DIR/training.log" 2>&1
+    if [ -f "$CDS_DIR/app.jsa" ]; then
+        print_info "CDS 归档已生成: $CDS_DIR/app.jsa"
+        return 0
+    fi
+    print_error "CDS 归档生成失败，请查看 $CDS_DIR/training.log"
+    return 1
+}
+
+# 使用 CDS 归档启动（不重新打包，需先执行 cds）
+start_cds() {
+    if is_running; then
+        print_warn "后端服务已经在运行中 (PID: $(cat "$PID_FILE"))"
+        return 1
+    fi
+    if [ ! -f "$CDS_DIR/app.jsa" ] || [ ! -f "$CDS_DIR/classpath.txt" ]; then
+        print_error "未找到 CDS 归档，请先执行: $0 cds"
+        return 1
+    fi
+    mkdir -p "$GC_LOG_DIR"
+    cd "$BACKEND_DIR" || exit 1
+    nohup java $JVM_OPTS -XX:SharedArchiveFile="$CDS_DIR/app.jsa" \
+        -cp "$(cat "$CDS_DIR/classpath.txt")" $MAIN_CLASS > "$LOG_FILE" 2>&1 &
+    echo $! > "$PID_FILE"
+    print_info "后端服务进程已启动（CDS）(PID: $(cat "$PID_FILE"))"
+    wait_for_service 60
+}
+
 # 显示帮助信息
 usage() {
-    echo "用法: $0 {start|stop|restart|status|logs|build|help}"
+    echo "用法: $0 {start|stop|restart|status|logs|build|cds|start-cds|help}"
     echo ""
     echo "命令说明:"
     echo "  start   - 启动后端服务"
@@ -609,6 +664,8 @@ usage() {
     echo "  status  - 查看服务状态"
     echo "  logs    - 查看服务日志（实时）"
     echo "  build   - 打包项目（生成JAR文件）"
+    echo "  cds     - 打包并生成 AppCDS 归档（target/cds/app.jsa）"
+    echo "  start-cds - 使用 CDS 归档启动（不重新打包）"
     echo "  help    - 显示帮助信息"
     echo ""
     echo "配置文件:"
@@ -643,6 +700,12 @@ main() {
         build)
             build
             ;;
+        cds)
+            build_cds
+            ;;
+        start-cds)
+            start_cds
+            ;;
         help|--help|-h)
             usage
             ;;
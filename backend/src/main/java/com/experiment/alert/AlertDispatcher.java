@@ -0,0 +1,105 @@
+package com.experiment.alert;
+
+import com.experiment.cluster.ClusterCoordinator;
+import com.experiment.metrics.IngestMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 提醒分发：每个启用的 {@link AlertSink} 一个有界队列 + 一个守护线程。
+ * {@link #publish} 只做 offer，不阻塞检测线程；队列满时丢弃该 sink 的事件并计数。
+ * 送达后记录检测到送达的延迟（alert.notify.latency，按 sink 区分）。
+ * 集群模式下非分析主节点只投递 {@link AlertSink#perNode()} 的 sink。
+ */
+@Component
+public class AlertDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertDispatcher.class);
+
+    private final List<AlertSink> sinks;
+    private final List<Channel> channels = new ArrayList<>();
+    /** 集群模式下的协调器，单机模式下不存在 */
+    private final ObjectProvider<ClusterCoordinator> cluster;
+
+    /** 每个 sink 的队列容量 */
+    @Value("${alerts.queue-capacity:1024}")
+    private int queueCapacity;
+
+    public AlertDispatcher(List<AlertSink> sinks, ObjectProvider<ClusterCoordinator> cluster) {
+        this.sinks = sinks;
+        this.cluster = cluster;
+    }
+
+    @PostConstruct
+    public void start() {
+        for (AlertSink sink : sinks) {
+            if (!sink.enabled()) continue;
+            Channel channel = new Channel(sink, new ArrayBlockingQueue<>(queueCapacity));
+            Thread t = new Thread(channel, "alert-" + sink.name());
+            t.setDaemon(true);
+            channel.thread = t;
+            channels.add(channel);
+            t.start();
+        }
+        log.info("[AlertDispatcher] sinks: {}", channels.stream().map(c -> c.sink.name()).toList());
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Channel channel : channels) {
+            channel.thread.interrupt();
+        }
+    }
+
+    /** 非阻塞投递到所有 sink */
+    public void publish(AlertEvent event) {
+        ClusterCoordinator coordinator = cluster.getIfAvailable();
+        boolean leader = coordinator == null || coordinator.isAnalyticsLeader();
+        for (Channel channel : channels) {
+            if (!leader && !channel.sink.perNode()) continue;
+            if (!channel.queue.offer(event)) {
+                IngestMetrics.alertDropped(channel.sink.name());
+            }
+        }
+    }
+
+    private static final class Channel implements Runnable {
+        final AlertSink sink;
+        final BlockingQueue<AlertEvent> queue;
+        Thread thread;
+
+        Channel(AlertSink sink, BlockingQueue<AlertEvent> queue) {
+            this.sink = sink;
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                AlertEvent event;
+                try {
+                    event = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    sink.publish(event);
+                    IngestMetrics.alertNotified(sink.name(), System.nanoTime() - event.detectedNanos());
+                } catch (Exception e) {
+                    IngestMetrics.alertSinkFailure(sink.name());
+                    log.debug("[AlertDispatcher] sink {} failed: {}", sink.name(), e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.experiment.alert;
+
+import com.experiment.config.ExchangeFeeRates;
+import com.experiment.config.Exchanges;
+import com.experiment.config.Symbols;
+import com.experiment.metrics.IngestMetrics;
+import com.experiment.service.MarketDataListener;
+import com.experiment.service.MarketDataService;
+import com.experiment.spread.SpotQuoteColumns;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 现货价差实时提醒：不等待每秒一轮的 {@link com.experiment.task.SpreadArbitrageStatsTask}，
+ * 作为 {@link MarketDataListener} 在现货报价写入 {@link SpotQuoteColumns} 后立即重算包含该交易所的组合，
+ * 按 {@link AlertRule}（最低利润率、最短持续时间、最大报价年龄、滞回与去抖）维护每条规则每个组合的状态，
+ * 状态变化时交给 {@link AlertDispatcher} 非阻塞分发。
+ * <p>
+ * 持续时间未到或去抖未过的组合在没有新报价时由 alerts.sweep-ms 的定时扫描补判，报价过期也由扫描解除。
+ * 规则来自 classpath:alerts.json，alerts.file 指向外部文件时按 alerts.reload-ms 检查修改并热加载，重载后状态清空；
+ * 替换前旧规则集先停止判定，其中已触发的组合各发一条 CLOSE，订阅方不会留下永远不解除的 OPEN。
+ * <p>
+ * 热重启时 {@link #exportState()} / {@link #restoreState} 保存与恢复计时中和已触发的组合；恢复后 alerts.restore-grace-ms 内
+ * 报价缺失或过期不解除已有状态，等待各交易所重新推送，避免重启造成一次多余的 CLOSE/OPEN。
+ */
+@Component
+public class AlertEngine implements MarketDataListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertEngine.class);
+    private static final String DEFAULT_RESOURCE = "/alerts.json";
+    private static final long ALL_EXCHANGES = -1L;
+
+    private final MarketDataService marketDataService;
+    private final SpotQuoteColumns quotes;
+    private final AlertDispatcher dispatcher;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${alerts.file:}")
+    private String file;
+
+    /** 持续时间/去抖/报价过期的补判周期 */
+    @Value("${alerts.sweep-ms:20}")
+    private long sweepMs;
+
+    /** 恢复状态后的宽限期（毫秒） */
+    @Value("${alerts.restore-grace-ms:5000}")
+    private long restoreGraceMs;
+
+    private volatile RuleSet ruleSet;
+    /** 此时间之前报价缺失不解除状态，见 {@link #restoreState} */
+    private volatile long restoreGraceUntil;
+    private long lastModifiedMs = -1;
+    private ScheduledExecutorService sweeper;
+
+    public AlertEngine(MarketDataService marketDataService, SpotQuoteColumns quotes, AlertDispatcher dispatcher) {
+        this.marketDataService = marketDataService;
+        this.quotes = quotes;
+        this.dispatcher = dispatcher;
+    }
+
+    @PostConstruct
+    public void start() {
+        ruleSet = new RuleSet(loadDefaults());
+        reloadIfChanged();
+        // SpotQuoteColumns 已先于本 Bean 注册，回调时列数组已是最新报价
+        marketDataService.addListener(this);
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "alert-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+        log.info("[AlertEngine] started with {} rule(s)", ruleSet.rules.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) sweeper.shutdownNow();
+    }
+
+    public List<AlertRule> getRules() {
+        return ruleSet.rules;
+    }
+
+    @Scheduled(fixedDelayString = "${alerts.reload-ms:5000}", initialDelayString = "${alerts.reload-ms:5000}")
+    public synchronized void reloadIfChanged() {
+        if (file == null || file.isBlank()) return;
+        Path path = Path.of(file);
+        try {
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (modified == lastModifiedMs) return;
+            RuleSet next = new RuleSet(AlertRule.parse(objectMapper.readTree(path.toFile())));
+            closeAll(ruleSet);
+            ruleSet = next;
+            lastModifiedMs = modified;
+            log.info("Loaded {} alert rule(s) from {}", ruleSet.rules.size(), path);
+        } catch (Exception e) {
+            log.warn("Failed to load alert rules from {}, keeping previous: {}", path, e.getMessage());
+        }
+    }
+
+    /** 停止旧规则集的判定，并为其中已触发的组合发出 CLOSE（无报价，margin 为 NaN） */
+    private void closeAll(RuleSet set) {
+        set.retired = true;
+        int n = Exchanges.count();
+        long now = System.currentTimeMillis();
+        long nanos = System.nanoTime();
+        for (int s = 0; s < set.symbols.length; s++) {
+            SymbolAlerts sa = set.symbols[s];
+            synchronized (sa) {
+                for (int r = 0; r < set.rules.size(); r++) {
+                    PairState[] states = sa.states[r];
+                    for (int idx = 0; idx < states.length; idx++) {
+                        PairState st = states[idx];
+                        if (st == null || !st.open) continue;
+                        emit(AlertEvent.CLOSE, set.rules.get(r), s, idx / n, idx % n, sa, Double.NaN,
+                                now - st.aboveSince, -1, now, nanos);
+                        st.open = false;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onSpotPrice(String exchange, String symbol, BigDecimal price, BigDecimal bid, BigDecimal ask) {
+        // 重放的历史报价不触发提醒，组合状态由 restoreState 恢复
+        if (MarketDataService.replaying()) return;
+        int e = Exchanges.ordinal(exchange);
+        int s = Symbols.ordinal(symbol);
+        if (e < 0 || s < 0) return;
+        evaluate(ruleSet, s, 1L << e);
+    }
+
+    private void sweep() {
+        try {
+            RuleSet set = ruleSet;
+            for (int s = 0; s < Symbols.count(); s++) {
+                evaluate(set, s, ALL_EXCHANGES);
+            }
+        } catch (Exception e) {
+            // 异常不能逃出 scheduleWithFixedDelay，否则后续扫描全部停止
+            log.warn("[AlertEngine] sweep error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 重算币种 s 中买入或卖出交易所落在 touched 位图内的组合。
+     * 扫描（touched 为全部交易所）只在该币种有计时中或已触发的状态时执行。
+     */
+    private void evaluate(RuleSet set, int s, long touched) {
+        if (set.rules.isEmpty()) return;
+        SymbolAlerts sa = set.symbols[s];
+        synchronized (sa) {
+            if (set.retired) return;
+            if (touched == ALL_EXCHANGES && sa.active == 0) return;
+            long now = System.currentTimeMillis();
+            long nanos = System.nanoTime();
+            long valid = quotes.snapshot(s, now - set.maxQuoteAgeMs, sa.buy, sa.sell, sa.updatedAt);
+            double[] feeMatrix = ExchangeFeeRates.current().spotPairFeeMatrix();
+            int n = Exchanges.count();
+            for (int r = 0; r < set.rules.size(); r++) {
+                AlertRule rule = set.rules.get(r);
+                if (rule.symbolIdx() >= 0 && rule.symbolIdx() != s) continue;
+                PairState[] states = sa.states[r];
+                for (int buy = 0; buy < n; buy++) {
+                    for (int sell = 0; sell < n; sell++) {
+                        if (buy == sell || (((1L << buy) | (1L << sell)) & touched) == 0) continue;
+                        if (!rule.matches(s, buy, sell)) continue;
+                        int idx = buy * n + sell;
+                        double margin = Double.NaN;
+                        long quoteAge = -1;
+                        if ((valid & (1L << buy)) != 0 && (valid & (1L << sell)) != 0) {
+                            quoteAge = now - Math.min(sa.updatedAt[buy], sa.updatedAt[sell]);
+                            if (quoteAge <= rule.maxQuoteAgeMs()) {
+                                // 缺手续费时矩阵为 NaN，视为不达标
+                                margin = (sa.sell[sell] - sa.buy[buy]) / sa.buy[buy] * 100 - feeMatrix[idx];
+                            }
+                        }
+                        PairState st = states[idx];
+                        if (margin >= rule.minMarginPct()) {
+                            if (st == null) st = states[idx] = new PairState();
+                            if (st.aboveSince == 0) {
+                                st.aboveSince = now;
+                                sa.active++;
+                            }
+                            if (!st.open && now - st.aboveSince >= rule.minDurationMs()
+                                    && now - st.lastOpenAt >= rule.debounceMs()) {
+                                st.open = true;
+                                st.lastOpenAt = now;
+                                emit(AlertEvent.OPEN, rule, s, buy, sell, sa, margin, now - st.aboveSince, quoteAge, now, nanos);
+                            }
+                        } else if (st != null && st.aboveSince != 0) {
+                            if (Double.isNaN(margin) && now < restoreGraceUntil) continue;
+                            if (!st.open) {
+                                st.aboveSince = 0;
+                                sa.active--;
+                            } else if (!(margin >= rule.clearMarginPct())) {
+                                // 跌破解除阈值或报价失效（NaN）才解除，介于两阈值之间保持触发状态
+                                emit(AlertEvent.CLOSE, rule, s, buy, sell, sa, margin, now - st.aboveSince, quoteAge, now, nanos);
+                                st.open = false;
+                                st.aboveSince = 0;
+                                sa.active--;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** 导出计时中、已触发或仍在去抖期的组合状态 */
+    public List<PairSnapshot> exportState() {
+        RuleSet set = ruleSet;
+        int n = Exchanges.count();
+        List<PairSnapshot> out = new ArrayList<>();
+        for (int s = 0; s < set.symbols.length; s++) {
+            SymbolAlerts sa = set.symbols[s];
+            synchronized (sa) {
+                for (int r = 0; r < set.rules.size(); r++) {
+                    PairState[] states = sa.states[r];
+                    for (int idx = 0; idx < states.length; idx++) {
+                        PairState st = states[idx];
+                        if (st == null || (st.aboveSince == 0 && st.lastOpenAt == 0)) continue;
+                        out.add(new PairSnapshot(set.rules.get(r).id(), Symbols.key(s), Exchanges.name(idx / n),
+                                Exchanges.name(idx % n), st.aboveSince, st.open, st.lastOpenAt));
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 恢复 {@link #exportState()} 的结果：按规则 id 与名称对应，规则已删除或不再匹配的跳过，已有实时状态的组合不覆盖。
+     *
+     * @return 恢复的组合数
+     */
+    public int restoreState(List<PairSnapshot> snapshots) {
+        RuleSet set = ruleSet;
+        Map<String, Integer> ruleIdx = new HashMap<>();
+        for (int r = 0; r < set.rules.size(); r++) ruleIdx.put(set.rules.get(r).id(), r);
+        int n = Exchanges.count();
+        int restored = 0;
+        restoreGraceUntil = System.currentTimeMillis() + restoreGraceMs;
+        for (PairSnapshot p : snapshots) {
+            Integer r = ruleIdx.get(p.ruleId());
+            int s = Symbols.ordinal(p.symbol());
+            int buy = Exchanges.ordinal(p.buy());
+            int sell = Exchanges.ordinal(p.sell());
+            if (r == null || s < 0 || buy < 0 || sell < 0 || !set.rules.get(r).matches(s, buy, sell)) continue;
+            SymbolAlerts sa = set.symbols[s];
+            synchronized (sa) {
+                PairState[] states = sa.states[r];
+                if (states[buy * n + sell] != null) continue;
+                PairState st = states[buy * n + sell] = new PairState();
+                st.aboveSince = p.aboveSince();
+                st.open = p.open() && p.aboveSince() != 0;
+                st.lastOpenAt = p.lastOpenAt();
+                if (st.aboveSince != 0) sa.active++;
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    /** 一个组合的提醒状态，symbol 为行情 key（如 BTCUSDT） */
+    public record PairSnapshot(String ruleId, String symbol, String buy, String sell,
+                               long aboveSince, boolean open, long lastOpenAt) {}
+
+    private void emit(String type, AlertRule rule, int s, int buy, int sell, SymbolAlerts sa,
+                      double margin, long durationMs, long quoteAgeMs, long now, long nanos) {
+        boolean priced = !Double.isNaN(margin);
+        IngestMetrics.alertFired(rule.id(), type);
+        dispatcher.publish(new AlertEvent(type, rule.id(), Symbols.base(s), Exchanges.name(buy), Exchanges.name(sell),
+                priced ? sa.buy[buy] : Double.NaN, priced ? sa.sell[sell] : Double.NaN, margin,
+                durationMs, quoteAgeMs, now, nanos));
+    }
+
+    private static List<AlertRule> loadDefaults() {
+        try (InputStream in = AlertEngine.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) throw new IllegalStateException("Missing classpath resource " + DEFAULT_RESOURCE);
+            return AlertRule.parse(new ObjectMapper().readTree(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** 一份规则及其全部状态，重载时整体替换 */
+    private static final class RuleSet {
+        final List<AlertRule> rules;
+        final long maxQuoteAgeMs;
+        final SymbolAlerts[] symbols = new SymbolAlerts[Symbols.count()];
+        /** 已被重载替换，不再判定，见 {@link #closeAll} */
+        volatile boolean retired;
+
+        RuleSet(List<AlertRule> rules) {
+            this.rules = List.copyOf(rules);
+            this.maxQuoteAgeMs = rules.stream().mapToLong(AlertRule::maxQuoteAgeMs).max().orElse(0);
+            for (int s = 0; s < symbols.length; s++) {
+                symbols[s] = new SymbolAlerts(rules.size());
+            }
+        }
+    }
+
+    /** 单币种的报价快照缓冲区与各规则各组合（按 买入序号 × 交易所数 + 卖出序号 索引）的状态，读写均在对象锁内 */
+    private static final class SymbolAlerts {
+        final double[] buy = new double[Exchanges.count()];
+        final double[] sell = new double[Exchanges.count()];
+        final long[] updatedAt = new long[Exchanges.count()];
+        final PairState[][] states;
+        /** aboveSince != 0 的状态数，为 0 时扫描跳过该币种 */
+        int active;
+
+        SymbolAlerts(int ruleCount) {
+            states = new PairState[ruleCount][Exchanges.count() * Exchanges.count()];
+        }
+    }
+
+    private static final class PairState {
+        /** 开始达标的时间，0 表示未达标 */
+        long aboveSince;
+        boolean open;
+        long lastOpenAt;
+    }
+}
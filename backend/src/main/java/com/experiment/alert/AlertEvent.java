@@ -0,0 +1,37 @@
+package com.experiment.alert;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * 一次提醒状态变化（百分比字段均为 %）。
+ *
+ * @param type          OPEN：利润率持续达标触发；CLOSE：跌破解除阈值或报价失效
+ * @param ruleId        命中的规则
+ * @param symbol        币种（如 BTC）
+ * @param exchangeBuy   买入交易所（按卖一买入）
+ * @param exchangeSell  卖出交易所（按买一卖出）
+ * @param buyPrice      买入价，CLOSE 且报价失效时为 NaN
+ * @param sellPrice     卖出价，CLOSE 且报价失效时为 NaN
+ * @param marginPct     扣费后利润率，CLOSE 且报价失效时为 NaN
+ * @param durationMs    OPEN：达标已持续时长；CLOSE：从开始达标到解除的时长
+ * @param quoteAgeMs    两边报价中较旧一条的年龄
+ * @param detectedAt    检测时间（毫秒）
+ * @param detectedNanos 检测时的 System.nanoTime()，用于统计检测到送达的延迟
+ */
+public record AlertEvent(
+        String type,
+        String ruleId,
+        String symbol,
+        String exchangeBuy,
+        String exchangeSell,
+        double buyPrice,
+        double sellPrice,
+        double marginPct,
+        long durationMs,
+        long quoteAgeMs,
+        long detectedAt,
+        @JsonIgnore long detectedNanos
+) {
+    public static final String OPEN = "OPEN";
+    public static final String CLOSE = "CLOSE";
+}
@@ -0,0 +1,83 @@
+package com.experiment.alert;
+
+import com.experiment.config.Exchanges;
+import com.experiment.config.Symbols;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一条价差提醒规则（百分比字段均为 %，扣除一 maker 一 taker 最小往返手续费后）。
+ *
+ * @param id             规则名，出现在事件中
+ * @param symbol         币种（如 BTC），null 表示全部
+ * @param exchangeBuy    买入交易所，null 表示任意
+ * @param exchangeSell   卖出交易所，null 表示任意
+ * @param minMarginPct   利润率达到该值开始计时
+ * @param clearMarginPct 已触发的提醒在利润率跌破该值时才解除（滞回），不大于 minMarginPct
+ * @param minDurationMs  利润率持续达标该时长后才触发，0 表示立即触发
+ * @param maxQuoteAgeMs  两边报价中较旧一条超过该时长视为失效
+ * @param debounceMs     同一规则同一组合两次触发的最小间隔
+ * @param symbolIdx      币种序号，-1 表示全部
+ * @param buyIdx         买入交易所序号，-1 表示任意
+ * @param sellIdx        卖出交易所序号，-1 表示任意
+ */
+public record AlertRule(
+        String id,
+        String symbol,
+        String exchangeBuy,
+        String exchangeSell,
+        double minMarginPct,
+        double clearMarginPct,
+        long minDurationMs,
+        long maxQuoteAgeMs,
+        long debounceMs,
+        @JsonIgnore int symbolIdx,
+        @JsonIgnore int buyIdx,
+        @JsonIgnore int sellIdx
+) {
+
+    /** 规则是否作用于组合 (symbol, buy, sell)，参数均为序号 */
+    public boolean matches(int symbol, int buy, int sell) {
+        return (symbolIdx < 0 || symbolIdx == symbol)
+                && (buyIdx < 0 || buyIdx == buy)
+                && (sellIdx < 0 || sellIdx == sell);
+    }
+
+    /**
+     * 解析配置：{"rules": [{id, symbol, exchangeBuy, exchangeSell, minMarginPct, clearMarginPct, minDurationMs, maxQuoteAgeMs, debounceMs}]}。
+     * clearMarginPct 缺省为 minMarginPct 的一半；指定了未跟踪的币种或交易所的规则忽略。
+     */
+    public static List<AlertRule> parse(JsonNode root) {
+        List<AlertRule> rules = new ArrayList<>();
+        for (JsonNode r : root.path("rules")) {
+            String symbol = text(r, "symbol");
+            String buy = text(r, "exchangeBuy");
+            String sell = text(r, "exchangeSell");
+            int symbolIdx = symbol != null ? Symbols.ordinal(symbol.toUpperCase() + "USDT") : -1;
+            int buyIdx = buy != null ? Exchanges.ordinal(buy.toLowerCase()) : -1;
+            int sellIdx = sell != null ? Exchanges.ordinal(sell.toLowerCase()) : -1;
+            if ((symbol != null && symbolIdx < 0) || (buy != null && buyIdx < 0) || (sell != null && sellIdx < 0)) continue;
+            double min = r.path("minMarginPct").asDouble(0.1);
+            double clear = Math.min(r.path("clearMarginPct").asDouble(min / 2), min);
+            rules.add(new AlertRule(
+                    r.path("id").asText("rule-" + rules.size()),
+                    symbol != null ? symbol.toUpperCase() : null,
+                    buy != null ? buy.toLowerCase() : null,
+                    sell != null ? sell.toLowerCase() : null,
+                    min, clear,
+                    Math.max(r.path("minDurationMs").asLong(0), 0),
+                    Math.max(r.path("maxQuoteAgeMs").asLong(3000), 0),
+                    Math.max(r.path("debounceMs").asLong(10_000), 0),
+                    symbolIdx, buyIdx, sellIdx));
+        }
+        return rules;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode v = node.get(field);
+        return v == null || v.isNull() || v.asText().isBlank() ? null : v.asText();
+    }
+}
@@ -0,0 +1,26 @@
+package com.experiment.alert;
+
+/**
+ * 提醒输出端。每个 sink 由 {@link AlertDispatcher} 分配独立队列与线程，
+ * publish 可以阻塞（如网络请求），只会拖慢自身队列，不影响检测线程与其它 sink。
+ */
+public interface AlertSink {
+
+    /** sink 名，用于线程名与指标标签 */
+    String name();
+
+    /** 未启用的 sink 不分配队列与线程 */
+    default boolean enabled() {
+        return true;
+    }
+
+    /**
+     * 集群模式下是否每个节点都投递（如推送给连到本节点的 SSE 客户端）。默认 false：只由分析主节点投递，
+     * 各节点的引擎都看到全部行情，外部通知因此不会重复发送。
+     */
+    default boolean perNode() {
+        return false;
+    }
+
+    void publish(AlertEvent event) throws Exception;
+}
@@ -0,0 +1,26 @@
+package com.experiment.alert;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * 将提醒写入日志（logger 名 com.experiment.alert.LogAlertSink，可在 logback 中单独输出到文件）。
+ */
+@Component
+public class LogAlertSink implements AlertSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LogAlertSink.class);
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void publish(AlertEvent e) {
+        log.info("[Alert] {} rule={} {} buy={}@{} sell={}@{} margin={}% duration={}ms quoteAge={}ms",
+                e.type(), e.ruleId(), e.symbol(), e.exchangeBuy(), e.buyPrice(), e.exchangeSell(), e.sellPrice(),
+                String.format("%.4f", e.marginPct()), e.durationMs(), e.quoteAgeMs());
+    }
+}
@@ -0,0 +1,74 @@
+package com.experiment.alert;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 通过 Server-Sent Events 推送提醒给前端（/api/alerts/stream）。
+ * 保留最近 {@value #RECENT} 条事件，新连接先补发这些事件；发送失败的连接直接移除。
+ * 新连接加入与补发在 recent 锁内完成，发布方在同一把锁内追加事件并取连接快照，
+ * 因此每个事件对新连接要么在补发中、要么在实时推送中，恰好送达一次。
+ */
+@Component
+public class SseAlertSink implements AlertSink {
+
+    private static final int RECENT = 20;
+    private static final String EVENT_NAME = "alert";
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final Deque<AlertEvent> recent = new ArrayDeque<>();
+
+    @Override
+    public String name() {
+        return "sse";
+    }
+
+    /** 客户端连在各自的节点上，每个节点都要推送 */
+    @Override
+    public boolean perNode() {
+        return true;
+    }
+
+    /** 注册一个不超时的 SSE 连接并补发最近事件 */
+    public SseEmitter register() {
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        synchronized (recent) {
+            emitters.add(emitter);
+            try {
+                for (AlertEvent e : recent) {
+                    emitter.send(SseEmitter.event().name(EVENT_NAME).data(e));
+                }
+            } catch (Exception e) {
+                emitters.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+        return emitter;
+    }
+
+    @Override
+    public void publish(AlertEvent event) {
+        List<SseEmitter> targets;
+        synchronized (recent) {
+            if (recent.size() >= RECENT) recent.removeFirst();
+            recent.addLast(event);
+            targets = new ArrayList<>(emitters);
+        }
+        for (SseEmitter emitter : targets) {
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(event));
+            } catch (Exception e) {
+                emitters.remove(emitter);
+            }
+        }
+    }
+}
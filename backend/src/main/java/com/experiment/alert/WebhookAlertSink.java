@@ -0,0 +1,51 @@
+package com.experiment.alert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * 以 JSON POST 到 alerts.webhook.url，未配置时不启用。
+ * 本地调试可指向 {@code http://localhost:8080/api/alerts/webhook}（{@link com.experiment.controller.AlertController} 中的接收端）。
+ */
+@Component
+public class WebhookAlertSink implements AlertSink {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    @Value("${alerts.webhook.url:}")
+    private String url;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public boolean enabled() {
+        return url != null && !url.isBlank();
+    }
+
+    @Override
+    public void publish(AlertEvent event) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(event)))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 300) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+    }
+}
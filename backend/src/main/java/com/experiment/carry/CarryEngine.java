@@ -0,0 +1,304 @@
+package com.experiment.carry;
+
+import com.experiment.config.ExchangeFeeRates;
+import com.experiment.config.Exchanges;
+import com.experiment.funding.FundingSchedules;
+import com.experiment.service.MarketDataListener;
+import com.experiment.service.MarketDataService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * 资金费率套利实时引擎：
+ * - PERP_PERP：资金费率低的交易所做多永续、高的交易所做空永续，赚取资金费差
+ * - SPOT_PERP：买现货 + 资金费率为正的交易所做空永续（期现套利），含同所与跨所
+ * <p>
+ * 作为 {@link MarketDataListener} 挂在行情写入路径上：某交易所某币种的资金费率/价格更新时，
+ * 只重算与该交易所相关的组合（O(交易所数)），结果常驻内存，查询时按净收益排序。
+ * 资金费率按 {@link FundingSchedules} 统一折算为 8h，手续费取 {@link ExchangeFeeRates} 的期货/现货 taker 费率（开平仓双边）。
+ * 开仓价取可成交价：多头腿（买永续/买现货）用卖一，空头腿（卖永续）用买一，行情未带买卖盘时退回最新价。
+ * 费率表缺失的交易所按默认 taker 费率估算，组合标记 feesEstimated，并对每个交易所告警一次。
+ * <p>
+ * 热重启时 {@link #exportState()} / {@link #restoreState} 保存与恢复各交易所的资金费率与可成交价（连同各自的更新时间），
+ * 恢复后重算组合：排名不依赖存储中的行情能否重放（共享存储中已有同一值时不重放），过期规则仍按原始时间生效。
+ */
+@Component
+public class CarryEngine implements MarketDataListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CarryEngine.class);
+
+    /** 交易所数，数组按 {@link Exchanges} 序号索引 */
+    private static final int MAX_EXCHANGES = Exchanges.count();
+    /** 超过该时长未更新的行情不参与排名（与行情缓存 TTL 一致） */
+    private static final long STALE_MS = 15_000;
+    private static final double PERIODS_PER_YEAR_8H = 3 * 365;
+    /** 费率表缺失时的估算值（%） */
+    private static final double DEFAULT_FUTURES_TAKER_PCT = 0.05;
+    private static final double DEFAULT_SPOT_TAKER_PCT = 0.1;
+    private final MarketDataService marketDataService;
+    private final Map<String, SymbolState> symbols = new ConcurrentHashMap<>();
+    /** 已告警过费率缺失的 交易所:种类 */
+    private final Set<String> missingFeeWarned = ConcurrentHashMap.newKeySet();
+
+    /** 预期持有时长（小时），决定资金费差收取几个周期以摊薄手续费 */
+    @Value("${carry.holding-hours:24}")
+    private double holdingHours;
+
+    public CarryEngine(MarketDataService marketDataService) {
+        this.marketDataService = marketDataService;
+    }
+
+    @PostConstruct
+    public void register() {
+        marketDataService.addListener(this);
+    }
+
+    @Override
+    public void onFundingRate(String exchange, String symbol, BigDecimal rate, Long nextFundingTime) {
+        if (rate == null) return;
+        double rate8hPct = FundingSchedules.of(exchange, symbol).to8h(rate.doubleValue()) * 100;
+        update(exchange, symbol, (s, i) -> {
+            s.funding8hPct[i] = rate8hPct;
+            s.fundingAt[i] = MarketDataService.eventTimeMillis();
+        });
+    }
+
+    @Override
+    public void onFuturesPrice(String exchange, String symbol, BigDecimal price, BigDecimal bid, BigDecimal ask) {
+        if (price == null) return;
+        double buy = executable(ask, price);
+        double sell = executable(bid, price);
+        update(exchange, symbol, (s, i) -> {
+            s.perpAsk[i] = buy;
+            s.perpBid[i] = sell;
+            s.perpAt[i] = MarketDataService.eventTimeMillis();
+        });
+    }
+
+    @Override
+    public void onSpotPrice(String exchange, String symbol, BigDecimal price, BigDecimal bid, BigDecimal ask) {
+        if (price == null) return;
+        double buy = executable(ask, price);
+        update(exchange, symbol, (s, i) -> {
+            s.spotAsk[i] = buy;
+            s.spotAt[i] = MarketDataService.eventTimeMillis();
+        });
+    }
+
+    /** 导出有数据的 币种 × 交易所 输入 */
+    public List<LegSnapshot> exportState() {
+        List<LegSnapshot> out = new ArrayList<>();
+        for (SymbolState s : symbols.values()) {
+            synchronized (s) {
+                for (int i = 0; i < MAX_EXCHANGES; i++) {
+                    if (s.fundingAt[i] == 0 && s.perpAt[i] == 0 && s.spotAt[i] == 0) continue;
+                    out.add(new LegSnapshot(s.symbol, Exchanges.name(i), s.funding8hPct[i], s.fundingAt[i],
+                            s.perpAsk[i], s.perpBid[i], s.perpAt[i], s.spotAsk[i], s.spotAt[i]));
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 恢复 {@link #exportState()} 的结果并重算相关组合；每个字段只在快照比当前值新时采用，不覆盖已到达的实时行情。
+     *
+     * @return 恢复的 币种 × 交易所 数
+     */
+    public int restoreState(List<LegSnapshot> snapshots) {
+        int restored = 0;
+        for (LegSnapshot l : snapshots) {
+            int idx = Exchanges.ordinal(l.exchange());
+            if (idx < 0) continue;
+            SymbolState s = symbols.computeIfAbsent(l.symbol(), SymbolState::new);
+            synchronized (s) {
+                boolean changed = false;
+                if (l.fundingAt() > s.fundingAt[idx]) {
+                    s.funding8hPct[idx] = l.funding8hPct();
+                    s.fundingAt[idx] = l.fundingAt();
+                    changed = true;
+                }
+                if (l.perpAt() > s.perpAt[idx]) {
+                    s.perpAsk[idx] = l.perpAsk();
+                    s.perpBid[idx] = l.perpBid();
+                    s.perpAt[idx] = l.perpAt();
+                    changed = true;
+                }
+                if (l.spotAt() > s.spotAt[idx]) {
+                    s.spotAsk[idx] = l.spotAsk();
+                    s.spotAt[idx] = l.spotAt();
+                    changed = true;
+                }
+                if (!changed) continue;
+                recompute(s, idx);
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    /** 一个 币种 × 交易所 的引擎输入，缺失的价格/费率为 NaN、时间为 0 */
+    public record LegSnapshot(String symbol, String exchange, double funding8hPct, long fundingAt,
+                              double perpAsk, double perpBid, long perpAt, double spotAsk, long spotAt) {}
+
+    /** 有有效买卖盘价用买卖盘，否则退回最新价 */
+    private static double executable(BigDecimal side, BigDecimal last) {
+        return side != null && side.signum() > 0 ? side.doubleValue() : last.doubleValue();
+    }
+
+    /**
+     * 按净收益降序返回组合。
+     *
+     * @param symbol 币种（如 BTC），null 表示全部
+     * @param type   PERP_PERP / SPOT_PERP，null 表示全部
+     */
+    public List<CarryOpportunity> getRanked(String symbol, String type, int limit) {
+        long minUpdatedAt = System.currentTimeMillis() - STALE_MS;
+        List<CarryOpportunity> result = new ArrayList<>();
+        for (Map.Entry<String, SymbolState> e : symbols.entrySet()) {
+            if (symbol != null && !e.getKey().equals(symbol.toUpperCase() + "USDT")) continue;
+            for (CarryOpportunity o : e.getValue().opportunities.values()) {
+                if (o.updatedAt() < minUpdatedAt) continue;
+                if (type != null && !type.equalsIgnoreCase(o.type())) continue;
+                result.add(o);
+            }
+        }
+        result.sort(Comparator.comparingDouble(CarryOpportunity::netPct).reversed());
+        return result.size() > limit ? result.subList(0, Math.max(limit, 0)) : result;
+    }
+
+    private void update(String exchange, String symbol, ObjIntConsumer<SymbolState> write) {
+        int idx = Exchanges.ordinal(exchange);
+        if (idx < 0) return;
+        SymbolState state = symbols.computeIfAbsent(symbol, SymbolState::new);
+        synchronized (state) {
+            write.accept(state, idx);
+            recompute(state, idx);
+        }
+    }
+
+    /** 只重算包含交易所 idx 的组合 */
+    private void recompute(SymbolState s, int idx) {
+        for (int k = 0; k < MAX_EXCHANGES; k++) {
+            if (k != idx) {
+                perpPerp(s, idx, k);
+                spotPerp(s, idx, k);
+                spotPerp(s, k, idx);
+            }
+        }
+        spotPerp(s, idx, idx);
+    }
+
+    private void perpPerp(SymbolState s, int a, int b) {
+        if (Double.isNaN(s.funding8hPct[a]) || Double.isNaN(s.funding8hPct[b])
+                || Double.isNaN(s.perpAsk[a]) || Double.isNaN(s.perpAsk[b])) return;
+        int lo = s.funding8hPct[a] <= s.funding8hPct[b] ? a : b;
+        int hi = lo == a ? b : a;
+        s.opportunities.remove(key(CarryOpportunity.PERP_PERP, hi, lo));
+        double fee = 2 * (futuresTaker(lo) + futuresTaker(hi));
+        boolean estimated = !hasFuturesFee(lo) || !hasFuturesFee(hi);
+        long at = min(s.fundingAt[lo], s.fundingAt[hi], s.perpAt[lo], s.perpAt[hi]);
+        s.opportunities.put(key(CarryOpportunity.PERP_PERP, lo, hi), build(CarryOpportunity.PERP_PERP, s.symbol,
+                lo, hi, s.perpAsk[lo], s.perpBid[hi], s.funding8hPct[lo], s.funding8hPct[hi], fee, estimated, at));
+    }
+
+    /** spotIdx 所买现货，perpIdx 所做空永续；仅当空头腿资金费率为正时成立 */
+    private void spotPerp(SymbolState s, int spotIdx, int perpIdx) {
+        String key = key(CarryOpportunity.SPOT_PERP, spotIdx, perpIdx);
+        if (Double.isNaN(s.spotAsk[spotIdx]) || Double.isNaN(s.perpBid[perpIdx]) || Double.isNaN(s.funding8hPct[perpIdx])
+                || s.funding8hPct[perpIdx] <= 0) {
+            s.opportunities.remove(key);
+            return;
+        }
+        double fee = 2 * (spotTaker(spotIdx) + futuresTaker(perpIdx));
+        boolean estimated = !hasSpotFee(spotIdx) || !hasFuturesFee(perpIdx);
+        long at = min(s.spotAt[spotIdx], s.perpAt[perpIdx], s.fundingAt[perpIdx], Long.MAX_VALUE);
+        s.opportunities.put(key, build(CarryOpportunity.SPOT_PERP, s.symbol,
+                spotIdx, perpIdx, s.spotAsk[spotIdx], s.perpBid[perpIdx], 0, s.funding8hPct[perpIdx], fee, estimated, at));
+    }
+
+    private CarryOpportunity build(String type, String symbol, int longIdx, int shortIdx, double longPrice, double shortPrice,
+                                   double longFunding, double shortFunding, double feePct, boolean feesEstimated,
+                                   long updatedAt) {
+        double diff = shortFunding - longFunding;
+        double basis = (shortPrice - longPrice) / longPrice * 100;
+        double net = diff * (holdingHours / 8) + basis - feePct;
+        return new CarryOpportunity(type, symbol, Exchanges.name(longIdx), Exchanges.name(shortIdx),
+                longPrice, shortPrice, longFunding, shortFunding, diff, diff * PERIODS_PER_YEAR_8H,
+                basis, feePct, net, feesEstimated, updatedAt);
+    }
+
+    private double futuresTaker(int idx) {
+        BigDecimal fee = ExchangeFeeRates.current().getFuturesTakerPct(idx);
+        if (fee != null) return fee.doubleValue();
+        warnMissingFee(idx, "futures", DEFAULT_FUTURES_TAKER_PCT);
+        return DEFAULT_FUTURES_TAKER_PCT;
+    }
+
+    private double spotTaker(int idx) {
+        BigDecimal fee = ExchangeFeeRates.current().getSpotTakerPct(idx);
+        if (fee != null) return fee.doubleValue();
+        warnMissingFee(idx, "spot", DEFAULT_SPOT_TAKER_PCT);
+        return DEFAULT_SPOT_TAKER_PCT;
+    }
+
+    private static boolean hasFuturesFee(int idx) {
+        return ExchangeFeeRates.current().getFuturesTakerPct(idx) != null;
+    }
+
+    private static boolean hasSpotFee(int idx) {
+        return ExchangeFeeRates.current().getSpotTakerPct(idx) != null;
+    }
+
+    private void warnMissingFee(int idx, String market, double fallbackPct) {
+        if (missingFeeWarned.add(Exchanges.name(idx) + ":" + market)) {
+            log.warn("[Carry] no {} taker fee configured for {}, estimating {}%", market, Exchanges.name(idx), fallbackPct);
+        }
+    }
+
+    private static String key(String type, int longIdx, int shortIdx) {
+        return type + ":" + longIdx + ":" + shortIdx;
+    }
+
+    private static long min(long a, long b, long c, long d) {
+        return Math.min(Math.min(a, b), Math.min(c, d));
+    }
+
+    /** 单币种各交易所的最新资金费率/可成交价，按交易所序号存放在原始数组中，NaN 表示缺失 */
+    private static final class SymbolState {
+        final String symbol;
+        final double[] funding8hPct = nanArray();
+        /** 永续买入价（卖一）与卖出价（买一） */
+        final double[] perpAsk = nanArray();
+        final double[] perpBid = nanArray();
+        /** 现货买入价（卖一） */
+        final double[] spotAsk = nanArray();
+        final long[] fundingAt = new long[MAX_EXCHANGES];
+        final long[] perpAt = new long[MAX_EXCHANGES];
+        final long[] spotAt = new long[MAX_EXCHANGES];
+        final Map<String, CarryOpportunity> opportunities = new ConcurrentHashMap<>();
+
+        SymbolState(String symbol) {
+            this.symbol = symbol;
+        }
+
+        private static double[] nanArray() {
+            double[] a = new double[MAX_EXCHANGES];
+            Arrays.fill(a, Double.NaN);
+            return a;
+        }
+    }
+}
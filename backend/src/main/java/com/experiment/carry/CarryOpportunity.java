@@ -0,0 +1,40 @@
+package com.experiment.carry;
+
+/**
+ * 一个资金费率套利组合（百分比字段均为 %）。
+ *
+ * @param type               PERP_PERP：A 所做多永续 / B 所做空永续；SPOT_PERP：A 所买现货 / B 所做空永续
+ * @param longExchange       做多（或买入现货）的交易所
+ * @param shortExchange      做空永续的交易所
+ * @param longPrice          多头腿可成交价（卖一，无买卖盘时为最新价）
+ * @param shortPrice         空头腿可成交价（买一，无买卖盘时为最新价）
+ * @param longFunding8hPct   多头腿资金费率（折算为 8h），现货腿为 0
+ * @param shortFunding8hPct  空头腿资金费率（折算为 8h）
+ * @param fundingDiff8hPct   每 8h 净收取的资金费 = short - long
+ * @param annualizedPct      资金费差年化
+ * @param basisPct           开仓价差 = (short - long) / long，收敛时兑现
+ * @param feePct             开平仓双边 taker 手续费合计
+ * @param netPct             持有 holdingHours 的预期净收益 = 资金费差 × 周期数 + 价差 - 手续费
+ * @param feesEstimated      任一腿的 taker 费率未配置、按默认值估算
+ * @param updatedAt          组成该组合的最旧一条行情的时间（毫秒）
+ */
+public record CarryOpportunity(
+        String type,
+        String symbol,
+        String longExchange,
+        String shortExchange,
+        double longPrice,
+        double shortPrice,
+        double longFunding8hPct,
+        double shortFunding8hPct,
+        double fundingDiff8hPct,
+        double annualizedPct,
+        double basisPct,
+        double feePct,
+        double netPct,
+        boolean feesEstimated,
+        long updatedAt
+) {
+    public static final String PERP_PERP = "PERP_PERP";
+    public static final String SPOT_PERP = "SPOT_PERP";
+}
@@ -0,0 +1,265 @@
+package com.experiment.cluster;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 集群模式（cluster.enabled=true）：按交易所把行情连接分配到各节点，多实例横向分摊采集而不是重复采集。
+ * <p>
+ * 每个节点每 renew-ms 执行一轮：
+ * 1. 心跳登记本节点，读取存活节点列表
+ * 2. 按 rendezvous hashing 计算每个交易所的目标节点（节点加入/离开时只迁移受影响的交易所）
+ * 3. 目标是本节点且租约空闲 → 获取租约并启动；已持有但目标变为其它节点 → 停止并释放，由目标节点下一轮接管；
+ *    已持有且仍是目标 → 续期，续期失败（租约被他人获取）立即停止
+ * <p>
+ * 节点宕机时其心跳与租约在 lease-ms 后过期，其余节点最多再过一个 renew-ms 接管。
+ * 同一交易所的 WebSocket 与 HTTP 行情源整体分配到同一节点，使 {@link com.experiment.service.SourceArbiter} 的仲裁仍在单个进程内完成。
+ * <p>
+ * 另有一个分析租约（{@value #ANALYTICS}，同样按 rendezvous hashing 选出目标节点）：持有者为分析主节点，
+ * 只有它写价差快照并向外部 sink 投递提醒，避免每个节点各写一份。各节点的分析引擎经 {@link ClusterMarketDataRelay}
+ * 收到全部交易所的行情，不只是本节点采集的部分。
+ */
+@Component
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+public class ClusterCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterCoordinator.class);
+
+    /** 分析租约名，不与交易所名冲突 */
+    static final String ANALYTICS = "@analytics";
+
+    private final List<FeedGroup> groups;
+    private final LeaseStore store;
+    /** 本节点持有的交易所 → 本地认定的租约到期时间（毫秒），协调存储不可用时据此自行停止 */
+    private final Map<String, Long> owned = new ConcurrentHashMap<>();
+    /** 本节点持有分析租约时为本地认定的到期时间，否则为 0 */
+    private volatile long analyticsUntil;
+
+    @Value("${cluster.node-id:}")
+    private String nodeId;
+
+    /** 租约与心跳有效期 */
+    @Value("${cluster.lease-ms:5000}")
+    private long leaseMs;
+
+    /** 协调周期 */
+    @Value("${cluster.renew-ms:1000}")
+    private long renewMs;
+
+    private ScheduledExecutorService scheduler;
+
+    public ClusterCoordinator(List<FeedGroup> groups,
+                              ObjectProvider<StringRedisTemplate> redis,
+                              @Value("${cluster.coordinator:redis}") String coordinator) {
+        this.groups = groups;
+        this.store = "memory".equalsIgnoreCase(coordinator)
+                ? new InMemoryLeaseStore()
+                : new RedisLeaseStore(redis.getObject());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (nodeId == null || nodeId.isBlank()) nodeId = defaultNodeId();
+        Gauge.builder("cluster.feeds.owned", owned, Map::size).register(Metrics.globalRegistry);
+        Gauge.builder("cluster.analytics.leader", this, c -> c.isAnalyticsLeader() ? 1 : 0).register(Metrics.globalRegistry);
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cluster-coordinator");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, 0, renewMs, TimeUnit.MILLISECONDS);
+        log.info("[Cluster] node {} joined, {} feed(s), lease {}ms, renew {}ms", nodeId, allFeeds().size(), leaseMs, renewMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+        for (String feed : new ArrayList<>(owned.keySet())) {
+            stopFeed(feed);
+            try {
+                store.release(feed, nodeId);
+            } catch (Exception e) {
+                log.debug("[Cluster] release {} failed: {}", feed, e.getMessage());
+            }
+        }
+        if (analyticsUntil > 0) {
+            analyticsUntil = 0;
+            try {
+                store.release(ANALYTICS, nodeId);
+            } catch (Exception e) {
+                log.debug("[Cluster] release {} failed: {}", ANALYTICS, e.getMessage());
+            }
+        }
+        try {
+            store.leave(nodeId);
+        } catch (Exception e) {
+            log.debug("[Cluster] leave failed: {}", e.getMessage());
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /** 本节点当前持有的交易所 */
+    public Set<String> getOwnedFeeds() {
+        return new TreeSet<>(owned.keySet());
+    }
+
+    public List<String> getLiveNodes() {
+        return store.liveNodes();
+    }
+
+    /** 本节点是否为分析主节点（写价差快照、投递外部提醒）；本地认定的租约到期后即不再是 */
+    public boolean isAnalyticsLeader() {
+        return analyticsUntil > System.currentTimeMillis();
+    }
+
+    private void tick() {
+        try {
+            store.heartbeat(nodeId, leaseMs);
+            List<String> nodes = store.liveNodes();
+            if (!nodes.contains(nodeId)) nodes.add(nodeId);
+            for (String feed : allFeeds()) {
+                boolean desired = nodeId.equals(owner(feed, nodes));
+                if (owned.containsKey(feed)) {
+                    if (!desired) {
+                        stopFeed(feed);
+                        store.release(feed, nodeId);
+                        log.info("[Cluster] handed over {} to {}", feed, owner(feed, nodes));
+                    } else if (store.renew(feed, nodeId, leaseMs)) {
+                        owned.put(feed, System.currentTimeMillis() + leaseMs);
+                    } else {
+                        stopFeed(feed);
+                        log.warn("[Cluster] lost lease for {}", feed);
+                    }
+                } else if (desired && store.tryAcquire(feed, nodeId, leaseMs)) {
+                    owned.put(feed, System.currentTimeMillis() + leaseMs);
+                    startFeed(feed);
+                    log.info("[Cluster] acquired {}", feed);
+                }
+            }
+            coordinateAnalytics(nodes);
+        } catch (Exception e) {
+            // 协调存储不可用：保留已持有的交易所直到本地认定的租约到期，避免与接管节点重复采集
+            log.warn("[Cluster] coordination error: {}", e.getMessage());
+            long now = System.currentTimeMillis();
+            for (Map.Entry<String, Long> entry : owned.entrySet()) {
+                if (entry.getValue() <= now) {
+                    stopFeed(entry.getKey());
+                    log.warn("[Cluster] lease for {} expired locally", entry.getKey());
+                }
+            }
+        }
+    }
+
+    private void coordinateAnalytics(List<String> nodes) {
+        boolean desired = nodeId.equals(owner(ANALYTICS, nodes));
+        if (analyticsUntil > 0) {
+            if (!desired) {
+                analyticsUntil = 0;
+                store.release(ANALYTICS, nodeId);
+                log.info("[Cluster] handed over analytics to {}", owner(ANALYTICS, nodes));
+            } else if (store.renew(ANALYTICS, nodeId, leaseMs)) {
+                analyticsUntil = System.currentTimeMillis() + leaseMs;
+            } else {
+                analyticsUntil = 0;
+                log.warn("[Cluster] lost analytics lease");
+            }
+        } else if (desired && store.tryAcquire(ANALYTICS, nodeId, leaseMs)) {
+            analyticsUntil = System.currentTimeMillis() + leaseMs;
+            log.info("[Cluster] acquired analytics");
+        }
+    }
+
+    private void startFeed(String feed) {
+        for (FeedGroup group : groups) {
+            if (!group.feeds().contains(feed)) continue;
+            try {
+                group.startFeed(feed);
+            } catch (Exception e) {
+                log.warn("[Cluster] start {} failed: {}", feed, e.getMessage());
+            }
+        }
+    }
+
+    private void stopFeed(String feed) {
+        owned.remove(feed);
+        for (FeedGroup group : groups) {
+            if (!group.feeds().contains(feed)) continue;
+            try {
+                group.stopFeed(feed);
+            } catch (Exception e) {
+                log.warn("[Cluster] stop {} failed: {}", feed, e.getMessage());
+            }
+        }
+    }
+
+    private Set<String> allFeeds() {
+        Set<String> feeds = new TreeSet<>();
+        for (FeedGroup group : groups) {
+            feeds.addAll(group.feeds());
+        }
+        return feeds;
+    }
+
+    /** rendezvous hashing：得分最高的节点为目标节点 */
+    static String owner(String feed, List<String> nodes) {
+        String best = null;
+        long bestScore = Long.MIN_VALUE;
+        for (String node : nodes) {
+            long score = mix(hash64(node + "|" + feed));
+            if (best == null || score > bestScore || (score == bestScore && node.compareTo(best) < 0)) {
+                best = node;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private static long hash64(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+}
@@ -0,0 +1,212 @@
+package com.experiment.cluster;
+
+import com.experiment.fx.FxRates;
+import com.experiment.fx.QuoteCurrency;
+import com.experiment.metrics.IngestMetrics;
+import com.experiment.service.MarketDataService;
+import com.experiment.store.MarketDataStore.Kind;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 集群行情转发：集群模式下每个节点只采集分到的交易所，本组件把本节点写入存储的每个值经 Redis pub/sub
+ * （频道 cluster:md）广播给其它节点，收到的值交给 {@link MarketDataService#applyRelayed}，
+ * 使各节点的价差、资金费率套利与提醒引擎都基于全部交易所的行情。
+ * <p>
+ * - 发送：写入路径只做一次 offer 到有界队列，队列满时丢弃并计数；专用线程攒批后一次 pipeline 发送
+ * - 接收：单线程按到达顺序应用，同一 slot 的值保持写入节点上的顺序；本节点发出的消息忽略
+ * - 消息：节点 ID、币种、交易所（UTF）+ 种类序号（1 字节）+ 存储值（长度 + 字节，即 {@code MarketDataCodec} 编码）
+ * - 汇率：本节点采集的稳定币汇率（{@link FxRates#addUpdateListener}）同样转发，种类字节为 {@value #FX_KIND}、
+ *   币种位置为计价币名、值为 8 字节 double；接收方写入 {@link FxRates#applyRelayed}，未持有 bitfinex / binance
+ *   租约的节点据此折算 USD / USDC 计价的行情，而不是一直按 1:1
+ * <p>
+ * pub/sub 不保证送达：漏掉的值由该 slot 的下一条行情覆盖。cluster.coordinator=memory 时各协调器在同一进程内，无需转发。
+ */
+@Component
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+public class ClusterMarketDataRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterMarketDataRelay.class);
+    private static final String CHANNEL = "cluster:md";
+    private static final Kind[] KINDS = Kind.values();
+    /** 汇率消息的种类字节 */
+    static final int FX_KIND = 0xFF;
+
+    private final MarketDataService marketDataService;
+    private final ClusterCoordinator coordinator;
+    private final ObjectProvider<StringRedisTemplate> redisProvider;
+    private final boolean enabled;
+
+    @Value("${cluster.relay.queue-capacity:65536}")
+    private int queueCapacity;
+
+    @Value("${cluster.relay.batch-size:256}")
+    private int batchSize;
+
+    private StringRedisTemplate redis;
+    private BlockingQueue<byte[]> queue;
+    private Thread flusher;
+    private RedisMessageListenerContainer container;
+    private ExecutorService receiver;
+    private volatile boolean running = true;
+
+    public ClusterMarketDataRelay(MarketDataService marketDataService, ClusterCoordinator coordinator,
+                                  ObjectProvider<StringRedisTemplate> redisProvider,
+                                  @Value("${cluster.coordinator:redis}") String coordinatorType) {
+        this.marketDataService = marketDataService;
+        this.coordinator = coordinator;
+        this.redisProvider = redisProvider;
+        this.enabled = !"memory".equalsIgnoreCase(coordinatorType);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        redis = redisProvider.getObject();
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        flusher = new Thread(this::flushLoop, "cluster-relay-out");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        receiver = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "cluster-relay-in");
+            t.setDaemon(true);
+            return t;
+        });
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redis.getRequiredConnectionFactory());
+        container.setTaskExecutor(receiver);
+        container.addMessageListener((message, pattern) -> onMessage(message), new ChannelTopic(CHANNEL));
+        container.afterPropertiesSet();
+        container.start();
+
+        marketDataService.addStoreWriteListener(this::offer);
+        FxRates.addUpdateListener(this::offerFx);
+        log.info("[Cluster] relaying store writes on {}", CHANNEL);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (flusher != null) flusher.interrupt();
+        if (container != null) {
+            try {
+                container.destroy();
+            } catch (Exception e) {
+                log.debug("[Cluster] relay listener stop failed: {}", e.getMessage());
+            }
+        }
+        if (receiver != null) receiver.shutdownNow();
+    }
+
+    private void offer(String symbol, String exchange, Kind kind, byte[] value) {
+        if (!queue.offer(encode(coordinator.getNodeId(), symbol, exchange, kind, value))) {
+            IngestMetrics.clusterRelay("out", "dropped", 1);
+        }
+    }
+
+    private void offerFx(QuoteCurrency currency, double toUsdt) {
+        if (!queue.offer(encodeFx(coordinator.getNodeId(), currency, toUsdt))) {
+            IngestMetrics.clusterRelay("out", "dropped", 1);
+        }
+    }
+
+    private void flushLoop() {
+        List<byte[]> batch = new ArrayList<>(batchSize);
+        byte[] channel = CHANNEL.getBytes(StandardCharsets.UTF_8);
+        while (running) {
+            try {
+                byte[] first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                redis.executePipelined((RedisCallback<Object>) c -> {
+                    for (byte[] message : batch) {
+                        c.publish(channel, message);
+                    }
+                    return null;
+                });
+                IngestMetrics.clusterRelay("out", "sent", batch.size());
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                IngestMetrics.clusterRelay("out", "failed", batch.size());
+                log.debug("[Cluster] relay publish failed for {} value(s): {}", batch.size(), e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void onMessage(Message message) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message.getBody()))) {
+            String node = in.readUTF();
+            if (node.equals(coordinator.getNodeId())) return;
+            String symbol = in.readUTF();
+            String exchange = in.readUTF();
+            int kind = in.readUnsignedByte();
+            byte[] value = new byte[in.readInt()];
+            in.readFully(value);
+            if (kind == FX_KIND) {
+                FxRates.applyRelayed(QuoteCurrency.valueOf(symbol), ByteBuffer.wrap(value).getDouble());
+                IngestMetrics.clusterRelay("in", "applied", 1);
+                return;
+            }
+            if (kind >= KINDS.length) throw new IOException("unknown kind " + kind);
+            boolean applied = marketDataService.applyRelayed(symbol, exchange, KINDS[kind], value);
+            IngestMetrics.clusterRelay("in", applied ? "applied" : "stale", 1);
+        } catch (Exception e) {
+            IngestMetrics.clusterRelay("in", "failed", 1);
+            log.debug("[Cluster] relay message rejected: {}", e.getMessage());
+        }
+    }
+
+    static byte[] encode(String node, String symbol, String exchange, Kind kind, byte[] value) {
+        return encode(node, symbol, exchange, kind.ordinal(), value);
+    }
+
+    static byte[] encodeFx(String node, QuoteCurrency currency, double toUsdt) {
+        return encode(node, currency.name(), "", FX_KIND, ByteBuffer.allocate(Double.BYTES).putDouble(toUsdt).array());
+    }
+
+    private static byte[] encode(String node, String symbol, String exchange, int kind, byte[] value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(value.length + 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(node);
+            out.writeUTF(symbol);
+            out.writeUTF(exchange);
+            out.writeByte(kind);
+            out.writeInt(value.length);
+            out.write(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,19 @@
+package com.experiment.cluster;
+
+import java.util.Set;
+
+/**
+ * 可按交易所启停的一组行情源（WebSocket 连接或 HTTP 轮询）。
+ * 集群模式下由 {@link ClusterCoordinator} 按租约决定本节点启动哪些交易所；单机模式下启动时全部启动。
+ */
+public interface FeedGroup {
+
+    /** 本组可运行的交易所名 */
+    Set<String> feeds();
+
+    /** 启动该交易所的全部行情源，已运行时忽略 */
+    void startFeed(String exchange);
+
+    /** 停止该交易所的全部行情源，未运行时忽略 */
+    void stopFeed(String exchange);
+}
@@ -0,0 +1,58 @@
+package com.experiment.cluster;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 进程内租约存储：不依赖 Redis，用于单机运行集群模式或本地调试（同一 JVM 内多个协调器共享一份状态）。
+ */
+public class InMemoryLeaseStore implements LeaseStore {
+
+    private final Map<String, Long> nodes = new HashMap<>();
+    private final Map<String, Lease> leases = new HashMap<>();
+
+    @Override
+    public synchronized void heartbeat(String nodeId, long ttlMs) {
+        nodes.put(nodeId, System.currentTimeMillis() + ttlMs);
+    }
+
+    @Override
+    public synchronized void leave(String nodeId) {
+        nodes.remove(nodeId);
+    }
+
+    @Override
+    public synchronized List<String> liveNodes() {
+        long now = System.currentTimeMillis();
+        nodes.values().removeIf(expiresAt -> expiresAt <= now);
+        return new ArrayList<>(nodes.keySet());
+    }
+
+    @Override
+    public synchronized boolean tryAcquire(String feed, String nodeId, long ttlMs) {
+        long now = System.currentTimeMillis();
+        Lease lease = leases.get(feed);
+        if (lease != null && lease.expiresAt > now && !lease.nodeId.equals(nodeId)) return false;
+        leases.put(feed, new Lease(nodeId, now + ttlMs));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean renew(String feed, String nodeId, long ttlMs) {
+        long now = System.currentTimeMillis();
+        Lease lease = leases.get(feed);
+        if (lease == null || lease.expiresAt <= now || !lease.nodeId.equals(nodeId)) return false;
+        leases.put(feed, new Lease(nodeId, now + ttlMs));
+        return true;
+    }
+
+    @Override
+    public synchronized void release(String feed, String nodeId) {
+        Lease lease = leases.get(feed);
+        if (lease != null && lease.nodeId.equals(nodeId)) leases.remove(feed);
+    }
+
+    private record Lease(String nodeId, long expiresAt) {}
+}
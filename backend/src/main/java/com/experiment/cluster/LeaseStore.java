@@ -0,0 +1,28 @@
+package com.experiment.cluster;
+
+import java.util.List;
+
+/**
+ * 集群协调存储：节点心跳与交易所租约。租约为「交易所 → 节点」的带过期时间的独占记录。
+ * 实现：{@link RedisLeaseStore}（多进程）、{@link InMemoryLeaseStore}（单进程替身）。
+ */
+public interface LeaseStore {
+
+    /** 登记/续期本节点，ttlMs 内未再次心跳视为离开 */
+    void heartbeat(String nodeId, long ttlMs);
+
+    /** 主动离开 */
+    void leave(String nodeId);
+
+    /** 当前存活节点 */
+    List<String> liveNodes();
+
+    /** 租约空闲或已属于本节点时获取/续期 */
+    boolean tryAcquire(String feed, String nodeId, long ttlMs);
+
+    /** 仅当租约仍属于本节点时续期，返回 false 表示租约已丢失 */
+    boolean renew(String feed, String nodeId, long ttlMs);
+
+    /** 仅当租约属于本节点时释放 */
+    void release(String feed, String nodeId);
+}
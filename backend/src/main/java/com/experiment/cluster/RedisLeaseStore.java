@@ -0,0 +1,71 @@
+package com.experiment.cluster;
+
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis 租约存储：
+ * - 节点：每个节点一个 cluster:node:{节点 ID}，SET PX 心跳，由 Redis 按 TTL 过期（过期时间只取决于 Redis 的时钟，
+ *   节点间的时钟偏差不影响存活判断），SCAN 列出存活节点
+ * - 租约：cluster:lease:{交易所} = 节点 ID，SET NX PX 获取，续期/释放用 Lua 比较持有者后 PEXPIRE / DEL
+ */
+public class RedisLeaseStore implements LeaseStore {
+
+    private static final String NODE_PREFIX = "cluster:node:";
+    private static final String LEASE_PREFIX = "cluster:lease:";
+
+    private static final DefaultRedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+    private static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redis;
+
+    public RedisLeaseStore(StringRedisTemplate redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public void heartbeat(String nodeId, long ttlMs) {
+        redis.opsForValue().set(NODE_PREFIX + nodeId, "1", Duration.ofMillis(ttlMs));
+    }
+
+    @Override
+    public void leave(String nodeId) {
+        redis.delete(NODE_PREFIX + nodeId);
+    }
+
+    @Override
+    public List<String> liveNodes() {
+        List<String> nodes = new ArrayList<>();
+        try (Cursor<String> cursor = redis.scan(ScanOptions.scanOptions().match(NODE_PREFIX + "*").count(100).build())) {
+            cursor.forEachRemaining(key -> nodes.add(key.substring(NODE_PREFIX.length())));
+        }
+        return nodes;
+    }
+
+    @Override
+    public boolean tryAcquire(String feed, String nodeId, long ttlMs) {
+        Boolean acquired = redis.opsForValue().setIfAbsent(LEASE_PREFIX + feed, nodeId, Duration.ofMillis(ttlMs));
+        return Boolean.TRUE.equals(acquired) || renew(feed, nodeId, ttlMs);
+    }
+
+    @Override
+    public boolean renew(String feed, String nodeId, long ttlMs) {
+        Long r = redis.execute(RENEW, List.of(LEASE_PREFIX + feed), nodeId, String.valueOf(ttlMs));
+        return r != null && r == 1L;
+    }
+
+    @Override
+    public void release(String feed, String nodeId) {
+        redis.execute(RELEASE, List.of(LEASE_PREFIX + feed), nodeId);
+    }
+}
@@ -0,0 +1,44 @@
+package com.experiment.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 交易所序号注册表：固定顺序的交易所列表，名称 ↔ 序号（0..N-1），供按序号索引的数组/矩阵使用。
+ */
+public final class Exchanges {
+
+    /** 展示与计算顺序 */
+    public static final List<String> ALL = List.of(
+            "binance", "okx", "bybit", "gateio", "mexc", "bitget",
+            "coinex", "cryptocom",
+            "kucoin", "htx", "bingx", "coinw",
+            "kraken", "bitfinex", "hyperliquid", "bitunix",
+            "whitebit", "lbank", "dydx"
+    );
+
+    private static final Map<String, Integer> ORDINALS = new HashMap<>();
+
+    static {
+        for (int i = 0; i < ALL.size(); i++) {
+            ORDINALS.put(ALL.get(i), i);
+        }
+    }
+
+    private Exchanges() {}
+
+    public static int count() {
+        return ALL.size();
+    }
+
+    /** 交易所序号，未知交易所返回 -1 */
+    public static int ordinal(String exchange) {
+        Integer i = exchange != null ? ORDINALS.get(exchange) : null;
+        return i != null ? i : -1;
+    }
+
+    public static String name(int ordinal) {
+        return ALL.get(ordinal);
+    }
+}
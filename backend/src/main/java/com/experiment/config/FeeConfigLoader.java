@@ -0,0 +1,50 @@
+package com.experiment.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 外部手续费配置热加载：fees.file 指向与 classpath:fees.json 同格式的文件（如调整 VIP 档位），
+ * 启动时加载，之后按 fees.reload-ms 检查修改时间，变化则重新解析并原子替换 {@link ExchangeFeeRates} 的快照。
+ * 解析失败时保留上一份配置。未配置 fees.file 时只使用 classpath 默认值。
+ */
+@Component
+public class FeeConfigLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(FeeConfigLoader.class);
+
+    @Value("${fees.file:}")
+    private String file;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private long lastModifiedMs = -1;
+
+    @PostConstruct
+    public void init() {
+        reloadIfChanged();
+    }
+
+    @Scheduled(fixedDelayString = "${fees.reload-ms:5000}", initialDelayString = "${fees.reload-ms:5000}")
+    public synchronized void reloadIfChanged() {
+        if (file == null || file.isBlank()) return;
+        Path path = Path.of(file);
+        try {
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (modified == lastModifiedMs) return;
+            FeeSchedule schedule = FeeSchedule.parse(objectMapper.readTree(path.toFile()));
+            ExchangeFeeRates.install(schedule);
+            lastModifiedMs = modified;
+            log.info("Loaded fee schedule from {}", path);
+        } catch (Exception e) {
+            log.warn("Failed to load fee schedule from {}, keeping previous: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.experiment.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 一份不可变的手续费快照：按 {@link Exchanges} 序号索引的现货/期货 maker/taker 费率（%），
+ * 以及预先算好的 N×N 现货价差组合最小往返手续费矩阵（一 maker 一 taker，取总和较小者）。
+ * 配置变更时整体重建后由 {@link ExchangeFeeRates#install(FeeSchedule)} 原子替换，热路径只读数组。
+ */
+public final class FeeSchedule {
+
+    private static final String DEFAULT_TIER = "default";
+
+    private final int n;
+    private final String[] tiers;
+    private final BigDecimal[] spotMaker;
+    private final BigDecimal[] spotTaker;
+    private final BigDecimal[] futuresMaker;
+    private final BigDecimal[] futuresTaker;
+    private final String[] spotDisplay;
+    private final String[] futuresDisplay;
+    /** 按 buy * n + sell 索引；任一边缺费率时为 null */
+    private final BigDecimal[] spotPairTotal;
+    private final BigDecimal[] spotPairBuy;
+    private final BigDecimal[] spotPairSell;
+    /** spotPairTotal 的 double 版本，缺费率为 NaN，供价差热循环预筛 */
+    private final double[] spotPairTotalD;
+
+    private FeeSchedule(int n) {
+        this.n = n;
+        this.tiers = new String[n];
+        this.spotMaker = new BigDecimal[n];
+        this.spotTaker = new BigDecimal[n];
+        this.futuresMaker = new BigDecimal[n];
+        this.futuresTaker = new BigDecimal[n];
+        this.spotDisplay = new String[n];
+        this.futuresDisplay = new String[n];
+        this.spotPairTotal = new BigDecimal[n * n];
+        this.spotPairBuy = new BigDecimal[n * n];
+        this.spotPairSell = new BigDecimal[n * n];
+        this.spotPairTotalD = new double[n * n];
+        Arrays.fill(spotPairTotalD, Double.NaN);
+    }
+
+    /**
+     * 解析配置：{"accountTiers": {交易所: 档位}, "exchanges": {交易所: {档位: {spotMaker, spotTaker, futuresMaker, futuresTaker}}}}。
+     * 账户未指定档位或档位不存在时使用 default；未知交易所忽略。
+     */
+    public static FeeSchedule parse(JsonNode root) {
+        FeeSchedule s = new FeeSchedule(Exchanges.count());
+        JsonNode accountTiers = root.path("accountTiers");
+        Iterator<Map.Entry<String, JsonNode>> it = root.path("exchanges").fields();
+        while (it.hasNext()) {
+            Map.Entry<String, JsonNode> e = it.next();
+            int idx = Exchanges.ordinal(e.getKey().toLowerCase());
+            if (idx < 0) continue;
+            String tier = accountTiers.path(e.getKey()).asText(DEFAULT_TIER);
+            JsonNode fees = e.getValue().get(tier);
+            if (fees == null || !fees.isObject()) {
+                tier = DEFAULT_TIER;
+                fees = e.getValue().path(DEFAULT_TIER);
+            }
+            s.tiers[idx] = tier;
+            s.spotMaker[idx] = decimal(fees, "spotMaker");
+            s.spotTaker[idx] = decimal(fees, "spotTaker");
+            s.futuresMaker[idx] = decimal(fees, "futuresMaker");
+            s.futuresTaker[idx] = decimal(fees, "futuresTaker");
+            s.spotDisplay[idx] = display(s.spotMaker[idx], s.spotTaker[idx]);
+            s.futuresDisplay[idx] = display(s.futuresMaker[idx], s.futuresTaker[idx]);
+        }
+        s.buildSpotPairs();
+        return s;
+    }
+
+    private void buildSpotPairs() {
+        for (int buy = 0; buy < n; buy++) {
+            for (int sell = 0; sell < n; sell++) {
+                if (spotMaker[buy] == null || spotTaker[buy] == null || spotMaker[sell] == null || spotTaker[sell] == null) {
+                    continue;
+                }
+                BigDecimal totalA = spotMaker[buy].add(spotTaker[sell]); // 买 maker、卖 taker
+                BigDecimal totalB = spotTaker[buy].add(spotMaker[sell]); // 买 taker、卖 maker
+                int k = buy * n + sell;
+                if (totalA.compareTo(totalB) <= 0) {
+                    spotPairTotal[k] = totalA;
+                    spotPairBuy[k] = spotMaker[buy];
+                    spotPairSell[k] = spotTaker[sell];
+                } else {
+                    spotPairTotal[k] = totalB;
+                    spotPairBuy[k] = spotTaker[buy];
+                    spotPairSell[k] = spotMaker[sell];
+                }
+                spotPairTotalD[k] = spotPairTotal[k].doubleValue();
+            }
+        }
+    }
+
+    /** 当前生效的档位，未配置返回 null */
+    public String getTier(int exchange) {
+        return tiers[exchange];
+    }
+
+    public BigDecimal getSpotMakerPct(int exchange) {
+        return spotMaker[exchange];
+    }
+
+    public BigDecimal getSpotTakerPct(int exchange) {
+        return spotTaker[exchange];
+    }
+
+    public BigDecimal getFuturesMakerPct(int exchange) {
+        return futuresMaker[exchange];
+    }
+
+    public BigDecimal getFuturesTakerPct(int exchange) {
+        return futuresTaker[exchange];
+    }
+
+    /** 展示用 "maker%/taker%"，两者相同时为单值，未配置返回 null */
+    public String getSpotDisplay(int exchange) {
+        return spotDisplay[exchange];
+    }
+
+    public String getFuturesDisplay(int exchange) {
+        return futuresDisplay[exchange];
+    }
+
+    /** 在 buy 所买入、sell 所卖出的最小往返手续费（%），缺费率返回 null */
+    public BigDecimal spotPairFeePct(int buy, int sell) {
+        return spotPairTotal[buy * n + sell];
+    }
+
+    /** 按 buy * 交易所数 + sell 索引的最小往返手续费（%）矩阵，缺费率为 NaN；调用方只读 */
+    public double[] spotPairFeeMatrix() {
+        return spotPairTotalD;
+    }
+
+    /** 最小组合下买入侧费率（%） */
+    public BigDecimal spotPairBuyFeePct(int buy, int sell) {
+        return spotPairBuy[buy * n + sell];
+    }
+
+    /** 最小组合下卖出侧费率（%） */
+    public BigDecimal spotPairSellFeePct(int buy, int sell) {
+        return spotPairSell[buy * n + sell];
+    }
+
+    private static BigDecimal decimal(JsonNode node, String field) {
+        JsonNode v = node.get(field);
+        if (v == null || v.isNull()) return null;
+        try {
+            return new BigDecimal(v.asText());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String display(BigDecimal maker, BigDecimal taker) {
+        if (maker == null || taker == null) return null;
+        String m = maker.stripTrailingZeros().toPlainString() + "%";
+        if (maker.compareTo(taker) == 0) return m;
+        return m + "/" + taker.stripTrailingZeros().toPlainString() + "%";
+    }
+}
@@ -1,5 +1,7 @@
 package com.experiment.config;
 
+import com.experiment.metrics.HttpClientMetricsInterceptor;
+import com.experiment.ratelimit.RateLimitInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
@@ -22,7 +24,7 @@ public class RestTemplateConfig {
 
     @Bean
     public RestTemplate restTemplate() {
-        return new RestTemplate();
+        return withMetrics(new RestTemplate());
     }
 
     /** Kraken 全量 tickers 响应大(~150KB)，需更长超时 */
@@ -31,7 +33,7 @@ public class RestTemplateConfig {
         SimpleClientHttpRequestFactory f = new SimpleClientHttpRequestFactory();
         f.setConnectTimeout(15000);
         f.setReadTimeout(30000);
-        return new RestTemplate(f);
+        return withMetrics(new RestTemplate(f));
     }
 
     /**
@@ -64,6 +66,13 @@ public class RestTemplateConfig {
         };
         sslFactory.setConnectTimeout(10000);
         sslFactory.setReadTimeout(15000);
-        return new RestTemplate(sslFactory);
+        return withMetrics(new RestTemplate(sslFactory));
+    }
+
+    /** 挂载限流与请求耗时/状态码指标拦截器（限流在外层，等待时间不计入请求耗时） */
+    private static RestTemplate withMetrics(RestTemplate restTemplate) {
+        restTemplate.getInterceptors().add(new RateLimitInterceptor());
+        restTemplate.getInterceptors().add(new HttpClientMetricsInterceptor());
+        return restTemplate;
     }
 }
@@ -1,5 +1,6 @@
 package com.experiment.config;
 
+import com.experiment.metrics.StartupTimeline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -10,7 +11,8 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * 为已存在的 spread_arbitrage_snapshots 表添加 spot_fee_buy_pct、spot_fee_sell_pct 列（仅执行一次）。
+ * 为已存在的 spread_arbitrage_snapshots 表添加 spot_fee_buy_pct、spot_fee_sell_pct、exec_profit_10k_pct、exec_profit_100k_pct 列（仅执行一次）。
+ * INFORMATION_SCHEMA 查询与 ALTER 在后台虚拟线程执行，不阻塞上下文刷新；写入快照前用 {@link #isDone()} 确认已完成。
  */
 @Component
 public class SpreadSnapshotTableMigration {
@@ -18,13 +20,31 @@ public class SpreadSnapshotTableMigration {
     private static final Logger log = LoggerFactory.getLogger(SpreadSnapshotTableMigration.class);
 
     private final JdbcTemplate jdbcTemplate;
+    private volatile boolean done;
 
     public SpreadSnapshotTableMigration(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
     }
 
     @PostConstruct
-    public void addFeeColumnsIfMissing() {
+    public void start() {
+        Thread.ofVirtual().name("spread-snapshot-migration").start(() -> {
+            try {
+                addFeeColumnsIfMissing();
+                addExecutableProfitColumnsIfMissing();
+            } finally {
+                done = true;
+                StartupTimeline.mark(StartupTimeline.MIGRATION_DONE);
+            }
+        });
+    }
+
+    /** 表结构检查是否已结束（成功或跳过） */
+    public boolean isDone() {
+        return done;
+    }
+
+    private void addFeeColumnsIfMissing() {
         try {
             List<Map<String, Object>> cols = jdbcTemplate.queryForList(
                     "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'spread_arbitrage_snapshots' AND COLUMN_NAME IN ('spot_fee_buy_pct','spot_fee_sell_pct')");
@@ -42,4 +62,23 @@ public class SpreadSnapshotTableMigration {
             log.debug("[Migration] spread_arbitrage_snapshots fee columns check skipped or failed: {}", e.getMessage());
         }
     }
+
+    private void addExecutableProfitColumnsIfMissing() {
+        try {
+            List<Map<String, Object>> cols = jdbcTemplate.queryForList(
+                    "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'spread_arbitrage_snapshots' AND COLUMN_NAME IN ('exec_profit_10k_pct','exec_profit_100k_pct')");
+            boolean has10k = cols.stream().anyMatch(m -> "exec_profit_10k_pct".equals(m.get("COLUMN_NAME")));
+            boolean has100k = cols.stream().anyMatch(m -> "exec_profit_100k_pct".equals(m.get("COLUMN_NAME")));
+            if (!has10k) {
+                jdbcTemplate.execute("ALTER TABLE spread_arbitrage_snapshots ADD COLUMN exec_profit_10k_pct DECIMAL(10,4) NULL COMMENT '按订单簿吃单 $10k 的可成交利润率%'");
+                log.info("[Migration] Added column spread_arbitrage_snapshots.exec_profit_10k_pct");
+            }
+            if (!has100k) {
+                jdbcTemplate.execute("ALTER TABLE spread_arbitrage_snapshots ADD COLUMN exec_profit_100k_pct DECIMAL(10,4) NULL COMMENT '按订单簿吃单 $100k 的可成交利润率%'");
+                log.info("[Migration] Added column spread_arbitrage_snapshots.exec_profit_100k_pct");
+            }
+        } catch (Exception e) {
+            log.debug("[Migration] spread_arbitrage_snapshots executable profit columns check skipped or failed: {}", e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,51 @@
+package com.experiment.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 币种序号注册表：跟踪的币种固定顺序，行情 key（如 BTCUSDT）↔ 序号（0..N-1），与 {@link Exchanges} 一起索引列式数组。
+ */
+public final class Symbols {
+
+    /** 币种（基础币），顺序即序号 */
+    public static final List<String> BASES = List.of("BTC", "ETH", "SOL", "XRP", "HYPE", "DOGE", "BNB");
+
+    private static final String QUOTE = "USDT";
+    private static final String[] KEYS = new String[BASES.size()];
+    private static final Map<String, Integer> ORDINALS = new HashMap<>();
+
+    static {
+        for (int i = 0; i < BASES.size(); i++) {
+            KEYS[i] = BASES.get(i) + QUOTE;
+            ORDINALS.put(KEYS[i], i);
+        }
+    }
+
+    private Symbols() {}
+
+    public static int count() {
+        return KEYS.length;
+    }
+
+    /** 行情 key（如 BTCUSDT）的序号，未跟踪的币种返回 -1 */
+    public static int ordinal(String symbolKey) {
+        Integer i = symbolKey != null ? ORDINALS.get(symbolKey) : null;
+        return i != null ? i : -1;
+    }
+
+    public static String base(int ordinal) {
+        return BASES.get(ordinal);
+    }
+
+    /** 行情 key，如 BTCUSDT */
+    public static String key(int ordinal) {
+        return KEYS[ordinal];
+    }
+
+    /** 全部行情 key，顺序即序号 */
+    public static List<String> keys() {
+        return List.of(KEYS);
+    }
+}
@@ -0,0 +1,61 @@
+package com.experiment.controller;
+
+import com.experiment.alert.AlertEngine;
+import com.experiment.alert.SseAlertSink;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 价差提醒 API：SSE 实时推送、当前规则，以及供 alerts.webhook.url 本地联调的 webhook 接收端（保留最近 {@value #WEBHOOK_HISTORY} 条）。
+ */
+@RestController
+@RequestMapping("/api/alerts")
+public class AlertController {
+
+    private static final int WEBHOOK_HISTORY = 100;
+
+    private final AlertEngine alertEngine;
+    private final SseAlertSink sseAlertSink;
+    private final Deque<Map<String, Object>> webhookReceived = new ArrayDeque<>();
+
+    public AlertController(AlertEngine alertEngine, SseAlertSink sseAlertSink) {
+        this.alertEngine = alertEngine;
+        this.sseAlertSink = sseAlertSink;
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return sseAlertSink.register();
+    }
+
+    @GetMapping("/rules")
+    public ResponseEntity<Map<String, Object>> rules() {
+        return ResponseEntity.ok(Map.of("rules", alertEngine.getRules()));
+    }
+
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> receiveWebhook(@RequestBody Map<String, Object> event) {
+        synchronized (webhookReceived) {
+            if (webhookReceived.size() >= WEBHOOK_HISTORY) webhookReceived.removeFirst();
+            webhookReceived.addLast(event);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/webhook")
+    public ResponseEntity<Map<String, Object>> webhookHistory() {
+        List<Map<String, Object>> received;
+        synchronized (webhookReceived) {
+            received = new ArrayList<>(webhookReceived);
+        }
+        return ResponseEntity.ok(Map.of("received", received));
+    }
+}
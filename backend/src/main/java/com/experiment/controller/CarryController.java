@@ -0,0 +1,33 @@
+package com.experiment.controller;
+
+import com.experiment.carry.CarryEngine;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 资金费率套利 API：返回按持有期预期净收益排序的永续/永续、现货/永续组合。
+ */
+@RestController
+@RequestMapping("/api")
+public class CarryController {
+
+    private final CarryEngine carryEngine;
+
+    public CarryController(CarryEngine carryEngine) {
+        this.carryEngine = carryEngine;
+    }
+
+    @GetMapping("/carry")
+    public ResponseEntity<Map<String, Object>> getCarry(@RequestParam(required = false) String symbol,
+                                                        @RequestParam(required = false) String type,
+                                                        @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(Map.of(
+                "opportunities", carryEngine.getRanked(symbol, type, limit)
+        ));
+    }
+}
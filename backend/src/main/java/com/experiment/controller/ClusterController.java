@@ -0,0 +1,35 @@
+package com.experiment.controller;
+
+import com.experiment.cluster.ClusterCoordinator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 集群状态 API（仅集群模式）：本节点 ID、存活节点、本节点持有的交易所及是否为分析主节点。
+ */
+@RestController
+@RequestMapping("/api/cluster")
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "true")
+public class ClusterController {
+
+    private final ClusterCoordinator coordinator;
+
+    public ClusterController(ClusterCoordinator coordinator) {
+        this.coordinator = coordinator;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(Map.of(
+                "nodeId", coordinator.getNodeId(),
+                "liveNodes", coordinator.getLiveNodes(),
+                "ownedFeeds", coordinator.getOwnedFeeds(),
+                "analyticsLeader", coordinator.isAnalyticsLeader()
+        ));
+    }
+}
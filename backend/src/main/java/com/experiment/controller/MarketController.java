@@ -25,7 +25,17 @@ public class MarketController {
     @GetMapping("/market/{symbol}")
     public ResponseEntity<Map<String, Object>> getMarketData(@PathVariable String symbol) {
         List<MarketDataDTO> data = marketDataService.getMarketDataBySymbol(symbol);
-        // 记录空数据的交易所，便于排查
+        if (log.isDebugEnabled()) {
+            logEmptyFields(symbol, data);
+        }
+        return ResponseEntity.ok(Map.of(
+                "symbol", symbol.toUpperCase(),
+                "data", data
+        ));
+    }
+
+    /** 记录空数据的交易所，便于排查（仅 DEBUG，避免每次请求都在热路径上打日志） */
+    private void logEmptyFields(String symbol, List<MarketDataDTO> data) {
         List<String> emptyFunding = new ArrayList<>();
         List<String> emptyFutures = new ArrayList<>();
         List<String> emptySpot = new ArrayList<>();
@@ -34,11 +44,7 @@ public class MarketController {
             if (d.futuresPrice() == null) emptyFutures.add(d.exchange());
             if (d.spotPrice() == null) emptySpot.add(d.exchange());
         }
-        log.info("[api/market/{}] emptyFunding={}, emptyFutures={}, emptySpot={}",
+        log.debug("[api/market/{}] emptyFunding={}, emptyFutures={}, emptySpot={}",
                 symbol.toUpperCase(), emptyFunding, emptyFutures, emptySpot);
-        return ResponseEntity.ok(Map.of(
-                "symbol", symbol.toUpperCase(),
-                "data", data
-        ));
     }
 }
@@ -0,0 +1,70 @@
+package com.experiment.controller;
+
+import com.experiment.websocket.SubscriptionManager;
+import com.experiment.websocket.WebSocketRunner;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * WebSocket 订阅管理 API：查看各行情流当前订阅的 topic 与分片连接数，运行时增删 topic。
+ * 格式不合法的 topic（由各交易所 {@link com.experiment.websocket.SubscriptionProtocol#isValidTopic} 判定）整体以 400 拒绝。
+ * topic 格式由交易所决定，如 binance 的 adausdt@markPrice@1s、bybit 的 tickers.ADAUSDT、okx 的 tickers:ADA-USDT-SWAP。
+ */
+@RestController
+@RequestMapping("/api/ws/subscriptions")
+public class SubscriptionController {
+
+    private final WebSocketRunner webSocketRunner;
+
+    public SubscriptionController(WebSocketRunner webSocketRunner) {
+        this.webSocketRunner = webSocketRunner;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> list() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        for (SubscriptionManager manager : webSocketRunner.getSubscriptions().values()) {
+            body.put(manager.getName(), Map.of(
+                    "connections", manager.getClients().size(),
+                    "topics", manager.getTopics()
+            ));
+        }
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * 请求体：{"add":["..."],"remove":["..."]}，两者均可省略。
+     */
+    @PostMapping("/{stream}")
+    public ResponseEntity<Map<String, Object>> update(@PathVariable String stream,
+                                                      @RequestBody Map<String, List<String>> request) {
+        SubscriptionManager manager = webSocketRunner.getSubscriptions().get(stream);
+        if (manager == null) {
+            return ResponseEntity.notFound().build();
+        }
+        List<String> add = request.getOrDefault("add", List.of());
+        List<String> remove = request.getOrDefault("remove", List.of());
+        List<String> invalid = Stream.concat(add.stream(), remove.stream())
+                .filter(topic -> !manager.isValidTopic(topic))
+                .toList();
+        if (!invalid.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "stream", stream,
+                    "error", "invalid topic format",
+                    "topics", invalid
+            ));
+        }
+        if (!remove.isEmpty()) manager.unsubscribe(remove);
+        if (!add.isEmpty()) manager.subscribe(add);
+        return ResponseEntity.ok(Map.of(
+                "stream", stream,
+                "connections", manager.getClients().size(),
+                "topics", manager.getTopics()
+        ));
+    }
+}
@@ -0,0 +1,91 @@
+package com.experiment.funding;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * 资金费率结算规则：结算周期、锚点、单位与上下限。
+ * <p>
+ * 结算时刻为 anchorMs + k * intervalMs，下一次结算时间直接由 epoch 毫秒算术得到，不分配日期对象。
+ * 原始费率先乘 unitScale 转为小数（如 Bitunix 以百分比返回），再按 cap/floor 截断，最后按周期折算为 8h / 年化。
+ */
+public final class FundingSchedule {
+
+    private static final long HOUR_MS = 3_600_000L;
+    private static final int HOURS_PER_YEAR = 365 * 24;
+
+    private final int intervalHours;
+    private final long intervalMs;
+    private final long anchorMs;
+    private final BigDecimal unitScale;
+    private final BigDecimal cap;
+    private final BigDecimal floor;
+    private final BigDecimal factor8h;
+    private final BigDecimal factorYear;
+    private final double unitScaleD;
+    private final double capD;
+    private final double floorD;
+    private final double factor8hD;
+
+    /**
+     * @param intervalHours 结算周期（小时）
+     * @param anchorMs      任一结算时刻的 epoch 毫秒（UTC 整点对齐时为 0）
+     * @param unitScale     原始费率转为小数的倍数，null 视为 1
+     * @param cap           单周期费率上限（小数），null 表示不限
+     * @param floor         单周期费率下限（小数），null 表示不限
+     */
+    public FundingSchedule(int intervalHours, long anchorMs, BigDecimal unitScale, BigDecimal cap, BigDecimal floor) {
+        if (intervalHours <= 0) throw new IllegalArgumentException("intervalHours must be positive: " + intervalHours);
+        this.intervalHours = intervalHours;
+        this.intervalMs = intervalHours * HOUR_MS;
+        this.anchorMs = anchorMs;
+        this.unitScale = unitScale != null ? unitScale : BigDecimal.ONE;
+        this.cap = cap;
+        this.floor = floor;
+        this.factor8h = BigDecimal.valueOf(8).divide(BigDecimal.valueOf(intervalHours), MathContext.DECIMAL64);
+        // 8760 不能被 5、7 等周期整除，须按小数计算，不能用整数除法
+        this.factorYear = BigDecimal.valueOf(HOURS_PER_YEAR).divide(BigDecimal.valueOf(intervalHours), MathContext.DECIMAL64);
+        this.unitScaleD = this.unitScale.doubleValue();
+        this.capD = cap != null ? cap.doubleValue() : Double.POSITIVE_INFINITY;
+        this.floorD = floor != null ? floor.doubleValue() : Double.NEGATIVE_INFINITY;
+        this.factor8hD = 8.0 / intervalHours;
+    }
+
+    /** 整点对齐、小数单位、不限幅 */
+    public static FundingSchedule every(int intervalHours) {
+        return new FundingSchedule(intervalHours, 0L, null, null, null);
+    }
+
+    public int getIntervalHours() {
+        return intervalHours;
+    }
+
+    /** 严格晚于 nowMs 的下一个结算时刻 */
+    public long nextSettlement(long nowMs) {
+        return anchorMs + (Math.floorDiv(nowMs - anchorMs, intervalMs) + 1) * intervalMs;
+    }
+
+    /** 原始费率 → 单周期小数费率（含单位换算与上下限） */
+    public BigDecimal normalize(BigDecimal raw) {
+        BigDecimal rate = unitScale.compareTo(BigDecimal.ONE) == 0 ? raw : raw.multiply(unitScale);
+        if (cap != null && rate.compareTo(cap) > 0) return cap;
+        if (floor != null && rate.compareTo(floor) < 0) return floor;
+        return rate;
+    }
+
+    /** 原始费率 → 8h 小数费率 */
+    public BigDecimal to8h(BigDecimal raw) {
+        return normalize(raw).multiply(factor8h, MathContext.DECIMAL64).stripTrailingZeros();
+    }
+
+    /** 原始费率 → 年化小数收益（按 365 天、不复利） */
+    public BigDecimal annualized(BigDecimal raw) {
+        return normalize(raw).multiply(factorYear, MathContext.DECIMAL64).stripTrailingZeros();
+    }
+
+    /** {@link #to8h(BigDecimal)} 的 double 版本，供热路径使用 */
+    public double to8h(double raw) {
+        double rate = Math.max(floorD, Math.min(capD, raw * unitScaleD));
+        return rate * factor8hD;
+    }
+}
@@ -0,0 +1,44 @@
+package com.experiment.funding;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * 各交易所资金费率结算规则表，类加载时构建一次，之后只读。
+ * handler / fetcher 不是 Spring Bean，与 {@link com.experiment.config.ExchangeFeeRates} 一样通过静态入口访问。
+ * <p>
+ * 查找顺序：交易对级覆盖 → 交易所默认 → {@link #DEFAULT}（8h，UTC 00/08/16 结算）。
+ */
+public final class FundingSchedules {
+
+    public static final FundingSchedule DEFAULT = FundingSchedule.every(8);
+
+    private static final FundingSchedule HOURLY = FundingSchedule.every(1);
+
+    /** 交易所默认规则，未列出的按 DEFAULT */
+    private static final Map<String, FundingSchedule> EXCHANGES = Map.of(
+            // Hyperliquid 每小时结算，单小时费率上限 4%
+            "hyperliquid", new FundingSchedule(1, 0L, null, new BigDecimal("0.04"), new BigDecimal("-0.04")),
+            "dydx", HOURLY,
+            // Kraken PF_ 合约按小时结算（fetcher 已将 fundingRate / indexPrice 换算为小数）
+            "kraken", HOURLY,
+            "cryptocom", HOURLY,
+            "coinbase", HOURLY,
+            // Bitunix 返回百分比
+            "bitunix", new FundingSchedule(8, 0L, new BigDecimal("0.01"), null, null)
+    );
+
+    /** 交易对级覆盖（交易所 → 交易对 → 规则），用于同一交易所内周期不同的合约 */
+    private static final Map<String, Map<String, FundingSchedule>> INSTRUMENTS = Map.of();
+
+    private FundingSchedules() {}
+
+    public static FundingSchedule of(String exchange, String symbol) {
+        Map<String, FundingSchedule> overrides = INSTRUMENTS.get(exchange);
+        if (overrides != null) {
+            FundingSchedule s = overrides.get(symbol);
+            if (s != null) return s;
+        }
+        return EXCHANGES.getOrDefault(exchange, DEFAULT);
+    }
+}
@@ -0,0 +1,148 @@
+package com.experiment.fx;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 稳定币汇率表：各计价币 → USDT 的实时汇率，由现有行情流喂入
+ * （Bitfinex tUSTUSD 提供 USDT/USD，Binance USDCUSDT 提供 USDC/USDT）。
+ * <p>
+ * 汇率以 volatile double 保存，折算是一次读 + 一次乘法；首个报价到达前按 1:1 平价折算。
+ * handler / fetcher 不是 Spring Bean，与指标一样通过静态入口访问。
+ * <p>
+ * 集群模式下只有持有 bitfinex / binance 租约的节点收到这两路报价：本节点采集的汇率经 {@link #addUpdateListener}
+ * 交给集群转发，其它节点以 {@link #applyRelayed} 写入，各节点按同一汇率折算 USD / USDC 计价的行情。
+ */
+public final class FxRates {
+
+    private static final Logger log = LoggerFactory.getLogger(FxRates.class);
+
+    /** 稳定币汇率合理区间，超出视为坏报价丢弃 */
+    private static final double MIN_RATE = 0.8;
+    private static final double MAX_RATE = 1.2;
+    /** 汇率变动超过该比例（1bp）才通知监听方重算已入库报价 */
+    private static final double NOTIFY_THRESHOLD = 1e-4;
+
+    /** 1 USD 折合多少 USDT */
+    private static volatile double usdToUsdt = 1.0;
+    /** 1 USDC 折合多少 USDT */
+    private static volatile double usdcToUsdt = 1.0;
+    private static volatile long usdUpdatedAt;
+    private static volatile long usdcUpdatedAt;
+    /** 上次通知时的汇率，在 set 的类锁内读写 */
+    private static double usdNotified = 1.0;
+    private static double usdcNotified = 1.0;
+
+    private static final List<Consumer<QuoteCurrency>> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final List<BiConsumer<QuoteCurrency, Double>> UPDATE_LISTENERS = new CopyOnWriteArrayList<>();
+
+    private FxRates() {}
+
+    /** 1 单位 currency 折合多少 USDT */
+    public static double rate(QuoteCurrency currency) {
+        return switch (currency) {
+            case USDT -> 1.0;
+            case USD -> usdToUsdt;
+            case USDC -> usdcToUsdt;
+        };
+    }
+
+    /** 汇率最近更新时间（毫秒），USDT 恒为 0，尚未收到报价也为 0 */
+    public static long updatedAt(QuoteCurrency currency) {
+        return switch (currency) {
+            case USDT -> 0L;
+            case USD -> usdUpdatedAt;
+            case USDC -> usdcUpdatedAt;
+        };
+    }
+
+    /** 将以 currency 计价的价格折算为 USDT，null 原样返回 */
+    public static BigDecimal toUsdt(BigDecimal price, QuoteCurrency currency) {
+        if (price == null || currency == QuoteCurrency.USDT) return price;
+        return price.multiply(BigDecimal.valueOf(rate(currency)), MathContext.DECIMAL64);
+    }
+
+    /** 汇率明显变动时回调，参数为变动的计价币 */
+    public static void addListener(Consumer<QuoteCurrency> listener) {
+        LISTENERS.add(listener);
+    }
+
+    /** 本节点行情流每次更新汇率后回调（计价币、1 单位折合多少 USDT），{@link #applyRelayed} 写入的不回调 */
+    public static void addUpdateListener(BiConsumer<QuoteCurrency, Double> listener) {
+        UPDATE_LISTENERS.add(listener);
+    }
+
+    /** USDT/USD 报价：1 USDT 值多少 USD（如 Bitfinex tUSTUSD） */
+    public static void onUsdtUsd(double usdPerUsdt) {
+        if (!valid(usdPerUsdt)) return;
+        double toUsdt = 1.0 / usdPerUsdt;
+        set(QuoteCurrency.USD, toUsdt);
+        notifyUpdate(QuoteCurrency.USD, toUsdt);
+    }
+
+    /** USDC/USDT 报价：1 USDC 值多少 USDT（如 Binance USDCUSDT） */
+    public static void onUsdcUsdt(double usdtPerUsdc) {
+        if (!valid(usdtPerUsdc)) return;
+        set(QuoteCurrency.USDC, usdtPerUsdc);
+        notifyUpdate(QuoteCurrency.USDC, usdtPerUsdc);
+    }
+
+    /** 集群其它节点采集的汇率（1 单位 currency 折合多少 USDT） */
+    public static void applyRelayed(QuoteCurrency currency, double toUsdt) {
+        if (currency == QuoteCurrency.USDT || !valid(toUsdt)) return;
+        set(currency, toUsdt);
+    }
+
+    /** 优先取买一/卖一中间价，缺失时用最新价 */
+    public static double mid(BigDecimal last, BigDecimal bid, BigDecimal ask) {
+        if (bid != null && ask != null) return (bid.doubleValue() + ask.doubleValue()) / 2;
+        return last != null ? last.doubleValue() : Double.NaN;
+    }
+
+    private static boolean valid(double rate) {
+        return rate >= MIN_RATE && rate <= MAX_RATE;
+    }
+
+    private static synchronized void set(QuoteCurrency currency, double toUsdt) {
+        long now = System.currentTimeMillis();
+        if (currency == QuoteCurrency.USD) {
+            usdToUsdt = toUsdt;
+            usdUpdatedAt = now;
+            if (Math.abs(toUsdt / usdNotified - 1) < NOTIFY_THRESHOLD) return;
+            usdNotified = toUsdt;
+        } else {
+            usdcToUsdt = toUsdt;
+            usdcUpdatedAt = now;
+            if (Math.abs(toUsdt / usdcNotified - 1) < NOTIFY_THRESHOLD) return;
+            usdcNotified = toUsdt;
+        }
+        notifyListeners(currency);
+    }
+
+    private static void notifyUpdate(QuoteCurrency currency, double toUsdt) {
+        for (BiConsumer<QuoteCurrency, Double> l : UPDATE_LISTENERS) {
+            try {
+                l.accept(currency, toUsdt);
+            } catch (RuntimeException e) {
+                log.debug("FX update listener failed on {}: {}", currency, e.getMessage());
+            }
+        }
+    }
+
+    private static void notifyListeners(QuoteCurrency currency) {
+        for (Consumer<QuoteCurrency> l : LISTENERS) {
+            try {
+                l.accept(currency);
+            } catch (RuntimeException e) {
+                log.debug("FX listener failed on {}: {}", currency, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.experiment.fx;
+
+/**
+ * 行情原始计价币。系统统一以 USDT 为记账单位（Redis key 均为 *USDT），其余计价币在入库时按 {@link FxRates} 折算。
+ */
+public enum QuoteCurrency {
+    USDT,
+    USD,
+    USDC
+}
@@ -0,0 +1,28 @@
+package com.experiment.metrics;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * RestTemplate 拦截器：按交易所 host 记录每次 HTTP 请求耗时与状态码（IO 异常记为 IO_ERROR）。
+ */
+public class HttpClientMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String host = request.getURI().getHost();
+        long start = System.nanoTime();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            IngestMetrics.httpRequest(host, String.valueOf(response.getStatusCode().value()), System.nanoTime() - start);
+            return response;
+        } catch (IOException e) {
+            IngestMetrics.httpRequest(host, "IO_ERROR", System.nanoTime() - start);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.experiment.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 采集链路指标（WebSocket 消息、解析失败、重连、HTTP 轮询与限流、存储读写、快照落库、提醒分发）。
+ * <p>
+ * handler / fetcher 不是 Spring Bean，统一通过 Micrometer 全局注册表登记，
+ * Spring Boot 会把 Prometheus 注册表挂到全局注册表下，由 /actuator/prometheus 输出。
+ * 计数器按 name+tags 缓存，热路径上只有一次 ConcurrentHashMap 查找。
+ */
+public final class IngestMetrics {
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+
+    private IngestMetrics() {}
+
+    /** WebSocket 收到一条消息（connection 为连接名，如 binance / binance-spot） */
+    public static void wsMessage(String connection) {
+        counter("ws.messages", "exchange", connection).increment();
+    }
+
+    /** handler 解析消息失败 */
+    public static void parseFailure(String exchange) {
+        counter("ws.parse.failures", "exchange", exchange).increment();
+    }
+
+    /** WebSocket 发起重连 */
+    public static void reconnect(String connection) {
+        counter("ws.reconnects", "exchange", connection).increment();
+    }
+
+    /** WebSocket 收到的字节数（stage: wire 为 TLS 解密前的线上字节，decoded 为解压后的消息体） */
+    public static void wsBytes(String connection, String stage, long bytes) {
+        counter("ws.bytes", "exchange", connection, "stage", stage).increment(bytes);
+    }
+
+    /** WebSocket 握手完成时 permessage-deflate 的协商结果 */
+    public static void wsDeflateNegotiated(String connection, boolean enabled) {
+        counter("ws.deflate.negotiations", "exchange", connection, "result", enabled ? "on" : "off").increment();
+    }
+
+    /** WebSocket 消息被拒绝（reason: gzip 为解压失败或解压后超过 ws.transport.max-message-bytes） */
+    public static void wsRejected(String connection, String reason) {
+        counter("ws.messages.rejected", "exchange", connection, "reason", reason).increment();
+    }
+
+    /** 冗余连接：另一条连接已送达的重复消息被丢弃 */
+    public static void wsDuplicate(String connection) {
+        counter("ws.duplicates.dropped", "exchange", connection).increment();
+    }
+
+    /** 冗余连接：某条连接静默超时被强制重连 */
+    public static void wsStall(String connection) {
+        counter("ws.stall.reconnects", "exchange", connection).increment();
+    }
+
+    /** 订单簿增量序号断档，触发重新同步 */
+    public static void bookGap(String exchange) {
+        counter("orderbook.sequence.gaps", "exchange", exchange).increment();
+    }
+
+    /** 订单簿完成一次（重新）同步 */
+    public static void bookSynced(String exchange) {
+        counter("orderbook.syncs", "exchange", exchange).increment();
+    }
+
+    /** 存储层写入一条行情（kind: funding / futures / spot） */
+    public static void marketDataWrite(String exchange, String kind, long nanos) {
+        counter("md.updates", "exchange", exchange, "kind", kind).increment();
+        timer("md.store.write", "kind", kind).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** 存储层读取一个币种的全部交易所数据 */
+    public static void marketDataRead(long nanos) {
+        timer("md.store.read").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** 来源仲裁丢弃或抑制一次写入（source: websocket / http，reason: priority / stale / unchanged） */
+    public static void writeSuppressed(String exchange, String source, String reason) {
+        counter("md.writes.suppressed", "exchange", exchange, "source", source, "reason", reason).increment();
+    }
+
+    /** 限流器让请求等待令牌（priority: price / funding / metadata） */
+    public static void rateLimitWait(String exchange, String priority, long nanos) {
+        timer("ratelimit.wait", "exchange", exchange, "priority", priority).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** 限流器拒绝请求（reason: 优先级名，或 blocked 表示 429/418 封禁中） */
+    public static void rateLimitRejected(String exchange, String reason) {
+        counter("ratelimit.rejected", "exchange", exchange, "reason", reason).increment();
+    }
+
+    /** 交易所返回 429 / 418 */
+    public static void rateLimitResponse(String exchange, String status) {
+        counter("ratelimit.responses", "exchange", exchange, "status", status).increment();
+    }
+
+    /** 单个 fetcher 一轮 fetchAndSave 耗时 */
+    public static void httpPollCycle(String exchange, long nanos, boolean success) {
+        timer("http.poll.cycle", "exchange", exchange, "outcome", success ? "success" : "error")
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** 单次 HTTP 请求耗时与状态码（status 为 HTTP 状态码或 IO_ERROR） */
+    public static void httpRequest(String host, String status, long nanos) {
+        timer("http.client.requests.exchange", "host", host, "status", status).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** 价差任务一轮耗时 */
+    public static void spreadCycle(long nanos) {
+        timer("spread.cycle").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** 价差任务一轮的并行计算阶段耗时（不含落库） */
+    public static void spreadEvaluate(long nanos) {
+        timer("spread.evaluate").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** 价差任务因上一轮超时而推迟，skippedTicks 为跳过的调度拍数 */
+    public static void spreadOverrun(long skippedTicks) {
+        counter("spread.cycle.overruns").increment();
+        counter("spread.cycle.skipped.ticks").increment(skippedTicks);
+    }
+
+    /** 价差任务本轮有分片未在截止时间内完成 */
+    public static void spreadDeadlineMissed(int partitions) {
+        counter("spread.partition.deadline.missed").increment(partitions);
+    }
+
+    /** 快照批量写库：行数与耗时 */
+    public static void snapshotFlush(int rows, long nanos) {
+        counter("spread.snapshot.rows").increment(rows);
+        timer("spread.snapshot.flush").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** 未写入快照表而丢弃的行（reason: migration 为表结构迁移期间暂存已满） */
+    public static void snapshotDropped(String reason, int rows) {
+        counter("spread.snapshot.dropped", "reason", reason).increment(rows);
+    }
+
+    /** 提醒状态变化（type: OPEN / CLOSE） */
+    public static void alertFired(String rule, String type) {
+        counter("alert.events", "rule", rule, "type", type).increment();
+    }
+
+    /** 提醒从检测到 sink 送达完成的延迟 */
+    public static void alertNotified(String sink, long nanos) {
+        timer("alert.notify.latency", "sink", sink).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** sink 队列已满，事件被丢弃 */
+    public static void alertDropped(String sink) {
+        counter("alert.dropped", "sink", sink).increment();
+    }
+
+    /** sink 发送失败 */
+    public static void alertSinkFailure(String sink) {
+        counter("alert.sink.failures", "sink", sink).increment();
+    }
+
+    /** tick 总线一批 XADD 发送完成：条数与 pipeline 耗时 */
+    public static void tickStreamPublished(int ticks, long nanos) {
+        counter("ticks.stream.published").increment(ticks);
+        timer("ticks.stream.flush").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** tick 总线队列已满，丢弃一条 */
+    public static void tickStreamDropped() {
+        counter("ticks.stream.dropped").increment();
+    }
+
+    /** tick 总线一批发送失败 */
+    public static void tickStreamFailed(int ticks) {
+        counter("ticks.stream.failed").increment(ticks);
+    }
+
+    /** 存储拒绝一次写入（store 为实现名，reason 如 unknown-exchange） */
+    public static void storeRejected(String store, String exchange, String reason) {
+        counter("md.store.rejected", "store", store, "exchange", exchange, "reason", reason).increment();
+    }
+
+    /** 集群行情转发（direction: out 为发往其它节点，in 为应用其它节点的值；result: sent / dropped / failed / applied / stale） */
+    public static void clusterRelay(String direction, String result, int count) {
+        counter("cluster.relay", "direction", direction, "result", result).increment(count);
+    }
+
+    /** 启动阶段距 JVM 启动的耗时 */
+    public static void startupPhase(String phase, long elapsedMs) {
+        timer("startup.time", "phase", phase).record(elapsedMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static Counter counter(String name, String... tags) {
+        return COUNTERS.computeIfAbsent(key(name, tags), k -> Counter.builder(name).tags(tags).register(Metrics.globalRegistry));
+    }
+
+    private static Timer timer(String name, String... tags) {
+        return TIMERS.computeIfAbsent(key(name, tags), k -> Timer.builder(name).tags(tags).register(Metrics.globalRegistry));
+    }
+
+    private static String key(String name, String... tags) {
+        if (tags.length == 0) return name;
+        StringBuilder sb = new StringBuilder(name);
+        for (String t : tags) {
+            sb.append('|').append(t);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,39 @@
+package com.experiment.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 启动时间线：各启动阶段距 JVM 启动的毫秒数，每个阶段只记录第一次，指标 startup.time{phase=...}。
+ * first_quote（首条报价写入存储）即 time-to-first-tick。
+ */
+public final class StartupTimeline {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeline.class);
+
+    /** 上下文刷新完成，开始并行启动行情源 */
+    public static final String FEEDS_STARTING = "feeds_starting";
+    /** ApplicationReadyEvent */
+    public static final String APPLICATION_READY = "application_ready";
+    /** 首条实时报价写入存储 */
+    public static final String FIRST_QUOTE = "first_quote";
+    /** 后台表结构检查完成 */
+    public static final String MIGRATION_DONE = "migration_done";
+
+    private static final long JVM_START_MS = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private static final Set<String> MARKED = ConcurrentHashMap.newKeySet();
+
+    private StartupTimeline() {}
+
+    /** 记录阶段完成；同一阶段重复调用只有第一次生效，热路径上只多一次集合查询 */
+    public static void mark(String phase) {
+        if (MARKED.contains(phase) || !MARKED.add(phase)) return;
+        long elapsedMs = System.currentTimeMillis() - JVM_START_MS;
+        IngestMetrics.startupPhase(phase, elapsedMs);
+        log.info("[Startup] {} at {}ms after JVM start", phase, elapsedMs);
+    }
+}
@@ -0,0 +1,140 @@
+package com.experiment.metrics;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tick 端到端延迟埋点：交易所事件时间 → socket 接收 → 解析完成 → 存储提交 → 价差计算。
+ * <p>
+ * 每个阶段按交易所记录到 Micrometer Timer（内部基于 HdrHistogram 无锁 Recorder），发布 p50/p99/p999，
+ * 通过 /actuator/prometheus 与 /actuator/ticklatency 查看。
+ * WebSocket 回调在各连接自己的读线程上同步执行，因此单条消息的上下文用 ThreadLocal 传递，handler 无需改签名。
+ */
+public final class TickLatency {
+
+    public static final String METRIC = "tick.latency";
+
+    /** 交易所事件时间 → 本地 socket 接收（含时钟偏差） */
+    public static final String STAGE_EXCHANGE_TO_RECEIVE = "exchange_to_receive";
+    /** socket 接收 → 解析完成（首次写存储前） */
+    public static final String STAGE_RECEIVE_TO_PARSE = "receive_to_parse";
+    /** 单次存储写入耗时 */
+    public static final String STAGE_STORE_COMMIT = "store_commit";
+    /** socket 接收 → 存储写入完成 */
+    public static final String STAGE_RECEIVE_TO_COMMIT = "receive_to_commit";
+    /** 存储写入完成 → 价差任务读取并计算 */
+    public static final String STAGE_COMMIT_TO_SPREAD = "commit_to_spread";
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+    private static final Duration STATISTIC_EXPIRY = Duration.ofMinutes(1);
+
+    private static final ThreadLocal<Context> CONTEXT = ThreadLocal.withInitial(Context::new);
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    /** exchange:symbol → 最近一次现货价写入完成的时间（毫秒） */
+    private static final Map<String, Long> LAST_SPOT_COMMIT_MS = new ConcurrentHashMap<>();
+
+    private TickLatency() {}
+
+    /** ManagedWebSocket 收到消息、交给 handler 之前调用 */
+    public static void begin(String exchange) {
+        Context ctx = CONTEXT.get();
+        ctx.exchange = exchange;
+        ctx.receiveNanos = System.nanoTime();
+        ctx.receiveWallMs = System.currentTimeMillis();
+        ctx.eventTimeMs = 0;
+        ctx.parsed = false;
+        ctx.committed = false;
+        ctx.active = true;
+    }
+
+    /** handler 解析出交易所事件时间（毫秒）时调用，可选 */
+    public static void eventTime(long eventTimeMs) {
+        Context ctx = CONTEXT.get();
+        if (ctx.active && eventTimeMs > 0) {
+            ctx.eventTimeMs = eventTimeMs;
+        }
+    }
+
+    /** 当前线程是否正在处理一条 WebSocket 消息（begin 与 end 之间） */
+    public static boolean inMessage() {
+        return CONTEXT.get().active;
+    }
+
+    /** 当前消息中 handler 报告的交易所事件时间（毫秒），未报告或不在消息处理中时为 0 */
+    public static long currentEventTimeMs() {
+        Context ctx = CONTEXT.get();
+        return ctx.active ? ctx.eventTimeMs : 0;
+    }
+
+    /** handler 处理完成后调用 */
+    public static void end() {
+        CONTEXT.get().active = false;
+    }
+
+    /** 存储写入前调用，返回起始纳秒时间供 {@link #storeEnd} 使用 */
+    public static long storeStart() {
+        long now = System.nanoTime();
+        Context ctx = CONTEXT.get();
+        if (ctx.active && !ctx.parsed) {
+            ctx.parsed = true;
+            record(STAGE_RECEIVE_TO_PARSE, ctx.exchange, now - ctx.receiveNanos);
+        }
+        return now;
+    }
+
+    /** 存储写入完成后调用，返回本次写入耗时（纳秒） */
+    public static long storeEnd(String exchange, long startNanos) {
+        long now = System.nanoTime();
+        long elapsed = now - startNanos;
+        record(STAGE_STORE_COMMIT, exchange, elapsed);
+        Context ctx = CONTEXT.get();
+        if (ctx.active && !ctx.committed) {
+            ctx.committed = true;
+            record(STAGE_RECEIVE_TO_COMMIT, ctx.exchange, now - ctx.receiveNanos);
+            if (ctx.eventTimeMs > 0) {
+                long lagMs = ctx.receiveWallMs - ctx.eventTimeMs;
+                record(STAGE_EXCHANGE_TO_RECEIVE, ctx.exchange, TimeUnit.MILLISECONDS.toNanos(Math.max(lagMs, 0)));
+            }
+        }
+        return elapsed;
+    }
+
+    /** 现货价写入完成，记录时间供价差任务计算 commit → spread 延迟 */
+    public static void spotCommitted(String exchange, String symbol) {
+        LAST_SPOT_COMMIT_MS.put(exchange + ":" + symbol, System.currentTimeMillis());
+    }
+
+    /** 价差任务使用了某交易所的现货价时调用 */
+    public static void spreadEvaluated(String exchange, String symbol, long evaluatedAtMs) {
+        Long committedAt = LAST_SPOT_COMMIT_MS.get(exchange + ":" + symbol);
+        if (committedAt != null) {
+            record(STAGE_COMMIT_TO_SPREAD, exchange, TimeUnit.MILLISECONDS.toNanos(Math.max(evaluatedAtMs - committedAt, 0)));
+        }
+    }
+
+    private static void record(String stage, String exchange, long nanos) {
+        TIMERS.computeIfAbsent(stage + "|" + exchange, k -> Timer.builder(METRIC)
+                        .description("End-to-end tick latency by pipeline stage")
+                        .tag("stage", stage)
+                        .tag("exchange", exchange)
+                        .publishPercentiles(PERCENTILES)
+                        .distributionStatisticExpiry(STATISTIC_EXPIRY)
+                        .register(Metrics.globalRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static final class Context {
+        String exchange;
+        long receiveNanos;
+        long receiveWallMs;
+        long eventTimeMs;
+        boolean parsed;
+        boolean committed;
+        boolean active;
+    }
+}
@@ -0,0 +1,58 @@
+package com.experiment.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /actuator/ticklatency：按交易所、阶段输出 tick 延迟 p50/p99/p999（毫秒），便于定位 handler / Redis / 调度瓶颈。
+ */
+@Component
+@Endpoint(id = "ticklatency")
+public class TickLatencyEndpoint {
+
+    private final MeterRegistry meterRegistry;
+
+    public TickLatencyEndpoint(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Map<String, Object>>> latency() {
+        Map<String, Map<String, Map<String, Object>>> result = new TreeMap<>();
+        for (Timer timer : meterRegistry.find(TickLatency.METRIC).timers()) {
+            String exchange = timer.getId().getTag("exchange");
+            String stage = timer.getId().getTag("stage");
+            if (exchange == null || stage == null) continue;
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", snapshot.count());
+            for (ValueAtPercentile p : snapshot.percentileValues()) {
+                stats.put(percentileKey(p.percentile()), round(p.value(TimeUnit.MILLISECONDS)));
+            }
+            stats.put("maxMs", round(snapshot.max(TimeUnit.MILLISECONDS)));
+            result.computeIfAbsent(exchange, k -> new TreeMap<>()).put(stage, stats);
+        }
+        return result;
+    }
+
+    private static String percentileKey(double percentile) {
+        if (percentile == 0.5) return "p50Ms";
+        if (percentile == 0.99) return "p99Ms";
+        if (percentile == 0.999) return "p999Ms";
+        return "p" + percentile + "Ms";
+    }
+
+    private static double round(double ms) {
+        return Math.round(ms * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,138 @@
+package com.experiment.mmap;
+
+import com.experiment.config.Exchanges;
+import com.experiment.config.Symbols;
+import com.experiment.model.Quote;
+import com.experiment.service.MarketDataListener;
+import com.experiment.service.MarketDataService;
+import com.experiment.store.MarketDataStore.Kind;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 共享报价表写方：把 {@link MarketDataService} 每次写入存储的期货/现货报价（合并买卖盘后的完整报价）
+ * 同步写进内存映射文件，同机进程用 {@link QuoteTableReader} 无锁读取，不经 Redis。
+ * <p>
+ * 槽位按 {@link Symbols} × {@link Exchanges} 序号预分配（布局见 {@link QuoteTableLayout}），未注册的币种/交易所不导出。
+ * 每次启动在同目录写一个新文件（头部写完后才写 magic），再原子 rename 覆盖 path：已打开旧文件的读方继续读旧文件
+ * （旧映射不受影响，不会读到被截断或清零的数据），{@link QuoteTableReader#replaced()} 为 true 后重新 open 即切到新文件。
+ * 停止时只把头部 state 标为已停止，数据保留到下一次启动。
+ */
+@Component
+@ConditionalOnProperty(name = "md.mmap.enabled", havingValue = "true")
+public class MappedQuoteTable implements MarketDataListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedQuoteTable.class);
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final MarketDataService marketDataService;
+
+    /** 默认放在 tmpfs（/dev/shm），映射页不落盘 */
+    @Value("${md.mmap.path:/dev/shm/arbitrage-quotes.mdqt}")
+    private String path;
+
+    private MappedByteBuffer buf;
+
+    public MappedQuoteTable(MarketDataService marketDataService) {
+        this.marketDataService = marketDataService;
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            buf = create(Path.of(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot create quote table " + path, e);
+        }
+        marketDataService.addListener(this);
+        log.info("[QuoteTable] exporting {} symbols x {} exchanges to {}", Symbols.count(), Exchanges.count(), path);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (buf == null) return;
+        INTS.setRelease(buf, QuoteTableLayout.OFF_STATE, QuoteTableLayout.STATE_STOPPED);
+        buf.force();
+    }
+
+    private static MappedByteBuffer create(Path file) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        long size = QuoteTableLayout.fileBytes(Symbols.count(), Exchanges.count());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp-" + ProcessHandle.current().pid());
+        MappedByteBuffer b;
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // 映射在 channel 关闭及 rename 后仍然有效
+            b = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            b.order(ByteOrder.nativeOrder());
+            b.putInt(QuoteTableLayout.OFF_VERSION, QuoteTableLayout.VERSION);
+            b.putInt(QuoteTableLayout.OFF_HEADER_BYTES, QuoteTableLayout.HEADER_BYTES);
+            b.putInt(QuoteTableLayout.OFF_SLOT_BYTES, QuoteTableLayout.SLOT_BYTES);
+            b.putInt(QuoteTableLayout.OFF_SYMBOL_COUNT, Symbols.count());
+            b.putInt(QuoteTableLayout.OFF_EXCHANGE_COUNT, Exchanges.count());
+            b.putInt(QuoteTableLayout.OFF_KIND_COUNT, QuoteTableLayout.KIND_COUNT);
+            b.putInt(QuoteTableLayout.OFF_STATE, QuoteTableLayout.STATE_RUNNING);
+            b.putLong(QuoteTableLayout.OFF_CREATED_AT, System.currentTimeMillis());
+            b.putLong(QuoteTableLayout.OFF_WRITER_PID, ProcessHandle.current().pid());
+            QuoteTableLayout.writeNames(b, Symbols.keys(), Exchanges.ALL);
+            INTS.setRelease(b, QuoteTableLayout.OFF_MAGIC, QuoteTableLayout.MAGIC);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        return b;
+    }
+
+    @Override
+    public void onQuoteStored(String exchange, String symbol, Kind kind, Quote quote, long updatedAt, long bookUpdatedAt) {
+        int k = kind == Kind.FUTURES ? QuoteTableLayout.KIND_FUTURES : kind == Kind.SPOT ? QuoteTableLayout.KIND_SPOT : -1;
+        int s = Symbols.ordinal(symbol);
+        int e = Exchanges.ordinal(exchange);
+        if (k < 0 || s < 0 || e < 0) return;
+        int base = QuoteTableLayout.slotOffset(s, e, k, Exchanges.count());
+
+        long seq;
+        while (true) {
+            seq = (long) LONGS.getVolatile(buf, base + QuoteTableLayout.SLOT_SEQ);
+            if ((seq & 1) == 0 && LONGS.compareAndSet(buf, base + QuoteTableLayout.SLOT_SEQ, seq, seq + 1)) break;
+            Thread.onSpinWait();
+        }
+        buf.putLong(base + QuoteTableLayout.SLOT_UPDATED_AT, updatedAt);
+        buf.putDouble(base + QuoteTableLayout.SLOT_PRICE, toDouble(quote.price()));
+        buf.putDouble(base + QuoteTableLayout.SLOT_BID, toDouble(quote.bid()));
+        buf.putDouble(base + QuoteTableLayout.SLOT_BID_SIZE, toDouble(quote.bidSize()));
+        buf.putDouble(base + QuoteTableLayout.SLOT_ASK, toDouble(quote.ask()));
+        buf.putDouble(base + QuoteTableLayout.SLOT_ASK_SIZE, toDouble(quote.askSize()));
+        buf.putLong(base + QuoteTableLayout.SLOT_BOOK_UPDATED_AT, bookUpdatedAt);
+        LONGS.setRelease(buf, base + QuoteTableLayout.SLOT_SEQ, seq + 2);
+    }
+
+    private static double toDouble(BigDecimal v) {
+        return v != null ? v.doubleValue() : Double.NaN;
+    }
+}
@@ -0,0 +1,113 @@
+package com.experiment.mmap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 共享报价表文件布局，写方 {@link MappedQuoteTable} 与读方 {@link QuoteTableReader} 共用。所有数值为本机字节序。
+ * <p>
+ * 文件头（{@value #HEADER_BYTES} 字节）：
+ * <pre>
+ *  0  int   magic 'MDQT'（最后写入，读方看到 magic 即表示头部完整）
+ *  4  int   version
+ *  8  int   headerBytes
+ * 12  int   slotBytes
+ * 16  int   symbolCount
+ * 20  int   exchangeCount
+ * 24  int   kindCount（0 = 期货，1 = 现货）
+ * 28  int   state（1 = 写方运行中，2 = 写方已停止）
+ * 32  long  createdAt（毫秒）
+ * 40  long  writerPid
+ * 48  币种名、交易所名：依次为 short 长度 + UTF-8 字节
+ * </pre>
+ * 槽位（{@value #SLOT_BYTES} 字节，一条缓存行），下标 = (symbol × exchangeCount + exchange) × kindCount + kind：
+ * <pre>
+ *  0  long    seq（序列锁：奇数表示正在写，0 表示从未写入）
+ *  8  long    updatedAt（毫秒）
+ * 16  double  price
+ * 24  double  bid
+ * 32  double  bidSize
+ * 40  double  ask
+ * 48  double  askSize
+ * 56  long    bookUpdatedAt（毫秒，买一/卖一最近一次由行情提供的时间）
+ * </pre>
+ * 价格均为 USDT，缺失字段为 NaN。只更新最新价时买卖盘沿用旧值，读方应按 bookUpdatedAt 单独判断买卖盘是否过期。
+ */
+public final class QuoteTableLayout {
+
+    public static final int MAGIC = 0x4D445154;
+    public static final int VERSION = 2;
+    public static final int HEADER_BYTES = 4096;
+    public static final int SLOT_BYTES = 64;
+
+    public static final int KIND_FUTURES = 0;
+    public static final int KIND_SPOT = 1;
+    public static final int KIND_COUNT = 2;
+
+    public static final int STATE_RUNNING = 1;
+    public static final int STATE_STOPPED = 2;
+
+    static final int OFF_MAGIC = 0;
+    static final int OFF_VERSION = 4;
+    static final int OFF_HEADER_BYTES = 8;
+    static final int OFF_SLOT_BYTES = 12;
+    static final int OFF_SYMBOL_COUNT = 16;
+    static final int OFF_EXCHANGE_COUNT = 20;
+    static final int OFF_KIND_COUNT = 24;
+    static final int OFF_STATE = 28;
+    static final int OFF_CREATED_AT = 32;
+    static final int OFF_WRITER_PID = 40;
+    static final int OFF_NAMES = 48;
+
+    static final int SLOT_SEQ = 0;
+    static final int SLOT_UPDATED_AT = 8;
+    static final int SLOT_PRICE = 16;
+    static final int SLOT_BID = 24;
+    static final int SLOT_BID_SIZE = 32;
+    static final int SLOT_ASK = 40;
+    static final int SLOT_ASK_SIZE = 48;
+    static final int SLOT_BOOK_UPDATED_AT = 56;
+
+    private QuoteTableLayout() {}
+
+    public static long fileBytes(int symbolCount, int exchangeCount) {
+        return HEADER_BYTES + (long) symbolCount * exchangeCount * KIND_COUNT * SLOT_BYTES;
+    }
+
+    /** 槽位在文件中的偏移 */
+    public static int slotOffset(int symbol, int exchange, int kind, int exchangeCount) {
+        return HEADER_BYTES + ((symbol * exchangeCount + exchange) * KIND_COUNT + kind) * SLOT_BYTES;
+    }
+
+    /** 写入名称表（不含 magic），超出头部大小时抛 IllegalArgumentException */
+    static void writeNames(ByteBuffer buf, List<String> symbols, List<String> exchanges) {
+        int pos = OFF_NAMES;
+        for (List<String> names : List.of(symbols, exchanges)) {
+            for (String name : names) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                if (pos + Short.BYTES + bytes.length > HEADER_BYTES) {
+                    throw new IllegalArgumentException("quote table names exceed header of " + HEADER_BYTES + " bytes");
+                }
+                buf.putShort(pos, (short) bytes.length);
+                buf.put(pos + Short.BYTES, bytes);
+                pos += Short.BYTES + bytes.length;
+            }
+        }
+    }
+
+    /** 读取名称表：返回 [币种列表, 交易所列表] */
+    static List<List<String>> readNames(ByteBuffer buf, int symbolCount, int exchangeCount) {
+        List<String> symbols = new ArrayList<>(symbolCount);
+        List<String> exchanges = new ArrayList<>(exchangeCount);
+        int pos = OFF_NAMES;
+        for (int i = 0; i < symbolCount + exchangeCount; i++) {
+            byte[] bytes = new byte[buf.getShort(pos)];
+            buf.get(pos + Short.BYTES, bytes);
+            pos += Short.BYTES + bytes.length;
+            (i < symbolCount ? symbols : exchanges).add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return List.of(symbols, exchanges);
+    }
+}
@@ -0,0 +1,159 @@
+package com.experiment.mmap;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.List;
+
+/**
+ * 共享报价表读方：只读映射 {@link MappedQuoteTable} 导出的文件，按序列锁无锁读取槽位，不依赖 Spring，
+ * 同机的其他 JVM 进程可直接引用本类与 {@link QuoteTableLayout}。
+ * <p>
+ * 用法：启动时 {@link #open} 一次，用 {@link #symbolOrdinal} / {@link #exchangeOrdinal} 解析序号并缓存，
+ * 热路径调用 {@link #read} 填充复用的 {@link Entry}，不分配对象。读方应自行按 updatedAt 判断报价是否过期，
+ * 按 bookUpdatedAt 判断买卖盘是否过期。
+ * <p>
+ * 写方每次启动原子替换文件，已打开的读方仍映射旧文件；定期检查 {@link #replaced()}，为 true 时 close 后重新 open。
+ */
+public final class QuoteTableReader implements AutoCloseable {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    /** 槽位处于写入中（奇数 seq）时的最大重试次数；写方在写入中途崩溃会让 seq 永远停在奇数 */
+    private static final int MAX_READ_RETRIES = 1024;
+
+    private final Path path;
+    /** 打开时文件的标识（inode），用于判断 path 是否已被写方替换 */
+    private final Object fileKey;
+    private final FileChannel channel;
+    private final MappedByteBuffer buf;
+    private final List<String> symbols;
+    private final List<String> exchanges;
+
+    private QuoteTableReader(Path path, Object fileKey, FileChannel channel, MappedByteBuffer buf) {
+        this.path = path;
+        this.fileKey = fileKey;
+        this.channel = channel;
+        this.buf = buf;
+        int symbolCount = buf.getInt(QuoteTableLayout.OFF_SYMBOL_COUNT);
+        int exchangeCount = buf.getInt(QuoteTableLayout.OFF_EXCHANGE_COUNT);
+        List<List<String>> names = QuoteTableLayout.readNames(buf, symbolCount, exchangeCount);
+        this.symbols = names.get(0);
+        this.exchanges = names.get(1);
+    }
+
+    /** 映射文件；文件不存在、头部未写完或版本不符时抛 IOException */
+    public static QuoteTableReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            Object fileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buf.order(ByteOrder.nativeOrder());
+            if (buf.capacity() < QuoteTableLayout.HEADER_BYTES || buf.getInt(QuoteTableLayout.OFF_MAGIC) != QuoteTableLayout.MAGIC) {
+                throw new IOException("not a quote table or header incomplete: " + path);
+            }
+            VarHandle.acquireFence();
+            if (buf.getInt(QuoteTableLayout.OFF_VERSION) != QuoteTableLayout.VERSION
+                    || buf.getInt(QuoteTableLayout.OFF_SLOT_BYTES) != QuoteTableLayout.SLOT_BYTES) {
+                throw new IOException("unsupported quote table layout: " + path);
+            }
+            return new QuoteTableReader(path, fileKey, channel, buf);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public List<String> symbols() {
+        return symbols;
+    }
+
+    public List<String> exchanges() {
+        return exchanges;
+    }
+
+    /** 币种序号（如 BTCUSDT），不存在返回 -1 */
+    public int symbolOrdinal(String symbol) {
+        return symbols.indexOf(symbol);
+    }
+
+    /** 交易所序号，不存在返回 -1 */
+    public int exchangeOrdinal(String exchange) {
+        return exchanges.indexOf(exchange);
+    }
+
+    /** 写方是否仍在运行（停止后表中数据保留，但不再更新） */
+    public boolean writerRunning() {
+        return buf.getInt(QuoteTableLayout.OFF_STATE) == QuoteTableLayout.STATE_RUNNING;
+    }
+
+    /**
+     * path 是否已指向另一个文件（写方重启后原子替换）；文件系统不提供文件标识时始终返回 false。
+     * 不在热路径调用，按秒级周期检查即可。
+     */
+    public boolean replaced() {
+        if (fileKey == null) return false;
+        try {
+            return !Objects.equals(fileKey, Files.readAttributes(path, BasicFileAttributes.class).fileKey());
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /**
+     * 读取一个槽位到 into；kind 取 {@link QuoteTableLayout#KIND_FUTURES} / {@link QuoteTableLayout#KIND_SPOT}。
+     * 从未写入，或重试 {@value #MAX_READ_RETRIES} 次仍未读到一致的值（写方正在写或已在写入中途退出）时返回 false。
+     */
+    public boolean read(int symbol, int exchange, int kind, Entry into) {
+        int base = QuoteTableLayout.slotOffset(symbol, exchange, kind, exchanges.size());
+        for (int attempt = 0; attempt < MAX_READ_RETRIES; attempt++) {
+            long before = (long) LONGS.getAcquire(buf, base + QuoteTableLayout.SLOT_SEQ);
+            if (before == 0) return false;
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            into.updatedAt = buf.getLong(base + QuoteTableLayout.SLOT_UPDATED_AT);
+            into.price = buf.getDouble(base + QuoteTableLayout.SLOT_PRICE);
+            into.bid = buf.getDouble(base + QuoteTableLayout.SLOT_BID);
+            into.bidSize = buf.getDouble(base + QuoteTableLayout.SLOT_BID_SIZE);
+            into.ask = buf.getDouble(base + QuoteTableLayout.SLOT_ASK);
+            into.askSize = buf.getDouble(base + QuoteTableLayout.SLOT_ASK_SIZE);
+            into.bookUpdatedAt = buf.getLong(base + QuoteTableLayout.SLOT_BOOK_UPDATED_AT);
+            VarHandle.loadLoadFence();
+            if ((long) LONGS.getVolatile(buf, base + QuoteTableLayout.SLOT_SEQ) == before) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** 一次读取结果，调用方复用同一实例；缺失字段为 NaN */
+    public static final class Entry {
+        long updatedAt;
+        double price;
+        double bid;
+        double bidSize;
+        double ask;
+        double askSize;
+        long bookUpdatedAt;
+
+        public long updatedAt() { return updatedAt; }
+        public long bookUpdatedAt() { return bookUpdatedAt; }
+        public double price() { return price; }
+        public double bid() { return bid; }
+        public double bidSize() { return bidSize; }
+        public double ask() { return ask; }
+        public double askSize() { return askSize; }
+    }
+}
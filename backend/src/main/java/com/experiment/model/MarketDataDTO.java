@@ -9,5 +9,13 @@ public record MarketDataDTO(
         BigDecimal futuresPrice,
         BigDecimal spotPrice,
         String spotFeeRate,
-        String futuresFeeRate
+        String futuresFeeRate,
+        BigDecimal spotBid,
+        BigDecimal spotAsk,
+        BigDecimal futuresBid,
+        BigDecimal futuresAsk,
+        // 按结算周期折算的 8h 小数费率（已处理单位差异，可跨交易所比较）、结算周期（小时）、年化小数收益
+        BigDecimal fundingRate8h,
+        Integer fundingIntervalHours,
+        BigDecimal fundingAnnualized
 ) {}
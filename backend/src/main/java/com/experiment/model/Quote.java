@@ -0,0 +1,21 @@
+package com.experiment.model;
+
+import java.math.BigDecimal;
+
+/**
+ * 单个交易所单个交易对的报价：最新价与买一/卖一价及数量，未提供的字段为 null。
+ */
+public record Quote(BigDecimal price, BigDecimal bid, BigDecimal bidSize, BigDecimal ask, BigDecimal askSize) {
+
+    public static final Quote EMPTY = new Quote(null, null, null, null, null);
+
+    /** 买入参考价：有卖一用卖一，否则用最新价 */
+    public BigDecimal buyPrice() {
+        return ask != null ? ask : price;
+    }
+
+    /** 卖出参考价：有买一用买一，否则用最新价 */
+    public BigDecimal sellPrice() {
+        return bid != null ? bid : price;
+    }
+}
@@ -0,0 +1,113 @@
+package com.experiment.orderbook;
+
+import java.util.Arrays;
+
+/**
+ * 订单簿单边：价格有序的原始 double 数组（买盘降序、卖盘升序），按价格二分查找，插入/删除用 System.arraycopy。
+ * 相比 TreeMap&lt;BigDecimal, BigDecimal&gt; 无装箱、无节点分配，遍历前 N 档是顺序内存访问。
+ * 非线程安全，由 {@link OrderBook} 加锁访问。
+ */
+final class BookSide {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final boolean descending;
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private double[] sizes = new double[INITIAL_CAPACITY];
+    private int count;
+
+    BookSide(boolean descending) {
+        this.descending = descending;
+    }
+
+    int depth() {
+        return count;
+    }
+
+    void clear() {
+        count = 0;
+    }
+
+    /** 设置某价位数量，size 为 0 时删除该价位 */
+    void set(double price, double size) {
+        int idx = search(price);
+        if (idx >= 0) {
+            if (size > 0) {
+                sizes[idx] = size;
+            } else {
+                remove(idx);
+            }
+        } else if (size > 0) {
+            insert(-idx - 1, price, size);
+        }
+    }
+
+    double bestPrice() {
+        return count > 0 ? prices[0] : Double.NaN;
+    }
+
+    double bestSize() {
+        return count > 0 ? sizes[0] : Double.NaN;
+    }
+
+    /**
+     * 从最优价开始吃单，成交 notional（计价币金额）的成交均价；深度不足返回 NaN。
+     */
+    double vwap(double notional) {
+        if (notional <= 0 || count == 0) return Double.NaN;
+        double remaining = notional;
+        double qty = 0;
+        for (int i = 0; i < count; i++) {
+            double levelNotional = prices[i] * sizes[i];
+            if (levelNotional >= remaining) {
+                qty += remaining / prices[i];
+                remaining = 0;
+                break;
+            }
+            qty += sizes[i];
+            remaining -= levelNotional;
+        }
+        return remaining > 0 ? Double.NaN : notional / qty;
+    }
+
+    /** 只保留前 maxLevels 档 */
+    void truncate(int maxLevels) {
+        if (count > maxLevels) count = maxLevels;
+    }
+
+    /** 二分查找，找到返回下标，否则返回 -(插入点) - 1 */
+    private int search(double price) {
+        int lo = 0;
+        int hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            double p = prices[mid];
+            if (p == price) return mid;
+            boolean before = descending ? p > price : p < price;
+            if (before) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    private void insert(int idx, double price, double size) {
+        if (count == prices.length) {
+            prices = Arrays.copyOf(prices, count * 2);
+            sizes = Arrays.copyOf(sizes, count * 2);
+        }
+        System.arraycopy(prices, idx, prices, idx + 1, count - idx);
+        System.arraycopy(sizes, idx, sizes, idx + 1, count - idx);
+        prices[idx] = price;
+        sizes[idx] = size;
+        count++;
+    }
+
+    private void remove(int idx) {
+        System.arraycopy(prices, idx + 1, prices, idx, count - idx - 1);
+        System.arraycopy(sizes, idx + 1, sizes, idx, count - idx - 1);
+        count--;
+    }
+}
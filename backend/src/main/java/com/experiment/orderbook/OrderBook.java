@@ -0,0 +1,135 @@
+package com.experiment.orderbook;
+
+import com.experiment.fx.FxRates;
+import com.experiment.fx.QuoteCurrency;
+
+/**
+ * 单个交易所单个交易对的 L2 订单簿。
+ * <p>
+ * 写入方（WebSocket 读线程或 HTTP 拉取线程）先 {@link #clear()} 再逐档写入快照，随后按增量 {@link #updateBid}/{@link #updateAsk}，
+ * 同步完成后 {@link #markValid(long)}；检测到序号断档时 {@link #invalidate()}，直到重新同步前读取方拿到 NaN。
+ * 价格以 {@link #getQuoteCurrency()} 计价写入，读取方拿到的价格与 notional 统一按 {@link FxRates} 折算为 USDT。
+ * 读写均在对象锁内，写入是单档 O(log n) + arraycopy，锁持有时间很短；
+ * 写入方可在外层 synchronized(book) 中应用一整条增量，读取方不会看到应用到一半的状态。
+ */
+public final class OrderBook {
+
+    /** 超过该时长未更新视为过期（与行情缓存 TTL 一致） */
+    private static final long STALE_MS = 15_000;
+
+    private final String exchange;
+    private final String symbol;
+    private final BookSide bids = new BookSide(true);
+    private final BookSide asks = new BookSide(false);
+    private long sequence;
+    private boolean valid;
+    private long updatedAtMs;
+    private volatile QuoteCurrency quoteCurrency = QuoteCurrency.USDT;
+
+    OrderBook(String exchange, String symbol) {
+        this.exchange = exchange;
+        this.symbol = symbol;
+    }
+
+    public QuoteCurrency getQuoteCurrency() {
+        return quoteCurrency;
+    }
+
+    /** 写入方声明原始计价币（默认 USDT） */
+    public void setQuoteCurrency(QuoteCurrency quoteCurrency) {
+        this.quoteCurrency = quoteCurrency;
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /** 清空并置为无效，准备写入新快照 */
+    public synchronized void clear() {
+        bids.clear();
+        asks.clear();
+        valid = false;
+    }
+
+    public synchronized void updateBid(double price, double size) {
+        bids.set(price, size);
+        updatedAtMs = System.currentTimeMillis();
+    }
+
+    public synchronized void updateAsk(double price, double size) {
+        asks.set(price, size);
+        updatedAtMs = System.currentTimeMillis();
+    }
+
+    /** 快照或增量已连续应用到 sequence */
+    public synchronized void markValid(long sequence) {
+        this.sequence = sequence;
+        this.valid = true;
+        this.updatedAtMs = System.currentTimeMillis();
+    }
+
+    /** 序号断档或连接断开，等待重新同步 */
+    public synchronized void invalidate() {
+        valid = false;
+    }
+
+    /** 只保留每边前 maxLevels 档（REST 快照拉取的深度不一，避免无限增长） */
+    public synchronized void truncate(int maxLevels) {
+        bids.truncate(maxLevels);
+        asks.truncate(maxLevels);
+    }
+
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    /** 是否处于已同步状态（不考虑过期） */
+    public synchronized boolean isValid() {
+        return valid;
+    }
+
+    /** 订单簿已同步、未过期且未交叉 */
+    public synchronized boolean isUsable() {
+        return usable();
+    }
+
+    public synchronized double bestBid() {
+        return usable() ? bids.bestPrice() * FxRates.rate(quoteCurrency) : Double.NaN;
+    }
+
+    public synchronized double bestAsk() {
+        return usable() ? asks.bestPrice() * FxRates.rate(quoteCurrency) : Double.NaN;
+    }
+
+    public synchronized double bestBidSize() {
+        return usable() ? bids.bestSize() : Double.NaN;
+    }
+
+    public synchronized double bestAskSize() {
+        return usable() ? asks.bestSize() : Double.NaN;
+    }
+
+    /** 市价买入 notional（USDT）的成交均价（USDT，吃卖盘），不可用或深度不足返回 NaN */
+    public synchronized double vwapBuy(double notional) {
+        if (!usable()) return Double.NaN;
+        double fx = FxRates.rate(quoteCurrency);
+        return asks.vwap(notional / fx) * fx;
+    }
+
+    /** 市价卖出 notional（USDT）的成交均价（USDT，吃买盘），不可用或深度不足返回 NaN */
+    public synchronized double vwapSell(double notional) {
+        if (!usable()) return Double.NaN;
+        double fx = FxRates.rate(quoteCurrency);
+        return bids.vwap(notional / fx) * fx;
+    }
+
+    private boolean usable() {
+        if (!valid || bids.depth() == 0 || asks.depth() == 0) return false;
+        if (System.currentTimeMillis() - updatedAtMs > STALE_MS) return false;
+        return bids.bestPrice() < asks.bestPrice();
+    }
+}
@@ -0,0 +1,32 @@
+package com.experiment.orderbook;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 全局订单簿注册表，按 市场:交易所:交易对 索引。
+ * 目前只有价差快照读取现货簿，因此只维护 {@link #SPOT}；合约簿没有读取方，不再维护。
+ * handler / fetcher 不是 Spring Bean，与指标一样通过静态入口访问。
+ */
+public final class OrderBooks {
+
+    public static final String SPOT = "spot";
+
+    private static final Map<String, OrderBook> BOOKS = new ConcurrentHashMap<>();
+
+    private OrderBooks() {}
+
+    /** 获取（不存在则创建）订单簿，写入方使用 */
+    public static OrderBook book(String market, String exchange, String symbol) {
+        return BOOKS.computeIfAbsent(key(market, exchange, symbol), k -> new OrderBook(exchange, symbol));
+    }
+
+    /** 查找订单簿，不存在返回 null，读取方使用 */
+    public static OrderBook find(String market, String exchange, String symbol) {
+        return BOOKS.get(key(market, exchange, symbol));
+    }
+
+    private static String key(String market, String exchange, String symbol) {
+        return market + ":" + exchange + ":" + symbol;
+    }
+}
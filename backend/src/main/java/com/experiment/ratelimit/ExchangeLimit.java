@@ -0,0 +1,70 @@
+package com.experiment.ratelimit;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单个交易所的限额：按 IP 计的每秒令牌数与突发容量，令牌为各所公布的“权重”单位（无权重概念的交易所即请求数）。
+ * 同一交易所的多个 host 共用一个桶。默认值取自各所公开文档并偏保守，可用 ratelimit.limits 覆盖。
+ *
+ * @param id        交易所名，与 fetcher / WebSocket 连接名一致
+ * @param perSecond 每秒补充的令牌数
+ * @param burst     桶容量
+ * @param hosts     归属该交易所的 REST host
+ * @param weights   路径前缀 → 单次请求权重，未列出的路径权重为 1
+ */
+public record ExchangeLimit(String id, double perSecond, int burst, List<String> hosts, Map<String, Integer> weights) {
+
+    /** 未登记 host / 连接使用的限额 */
+    public static final ExchangeLimit FALLBACK = new ExchangeLimit("default", 10, 20, List.of(), Map.of());
+
+    public static final List<ExchangeLimit> DEFAULTS = List.of(
+            // USDⓈ-M 期货 2400 权重/分钟
+            new ExchangeLimit("binance", 40, 400, List.of("fapi.binance.com"),
+                    Map.of("/fapi/v1/premiumIndex", 1, "/fapi/v1/depth", 20)),
+            // 现货 6000 权重/分钟；depth limit=1000 权重 50
+            new ExchangeLimit("binance-spot", 100, 1000, List.of("api.binance.com"),
+                    Map.of("/api/v3/depth", 50, "/api/v3/exchangeInfo", 20)),
+            new ExchangeLimit("okx", 10, 20, List.of("www.okx.com"), Map.of()),
+            new ExchangeLimit("bybit", 120, 600, List.of("api.bybit.com"), Map.of()),
+            new ExchangeLimit("bitget", 20, 20, List.of("api.bitget.com"), Map.of()),
+            new ExchangeLimit("gateio", 20, 200, List.of("fx-api.gateio.ws", "api.gateio.ws"), Map.of()),
+            // 公共资源池 2000 权重/30s
+            new ExchangeLimit("kucoin", 66, 2000, List.of("api.kucoin.com", "api-futures.kucoin.com"),
+                    Map.of("/api/v1/market/orderbook/level1", 2, "/api/v1/ticker", 2, "/api/ua/v1/market/funding-rate", 2)),
+            new ExchangeLimit("bingx", 10, 100, List.of("open-api.bingx.com"), Map.of()),
+            new ExchangeLimit("htx", 50, 100, List.of("api.hbdm.com"), Map.of()),
+            new ExchangeLimit("mexc", 10, 20, List.of("api.mexc.com", "contract.mexc.com"), Map.of()),
+            new ExchangeLimit("coinex", 20, 40, List.of("api.coinex.com"), Map.of()),
+            // 1200 权重/分钟；metaAndAssetCtxs 等 info 请求权重 20
+            new ExchangeLimit("hyperliquid", 20, 1200, List.of("api.hyperliquid.xyz"), Map.of("/info", 20)),
+            new ExchangeLimit("bitfinex", 1.5, 90, List.of("api-pub.bitfinex.com"), Map.of()),
+            new ExchangeLimit("kraken", 10, 20, List.of("futures.kraken.com"), Map.of()),
+            new ExchangeLimit("dydx", 10, 100, List.of("indexer.dydx.trade"), Map.of()),
+            new ExchangeLimit("whitebit", 100, 1000, List.of("whitebit.com"), Map.of()),
+            new ExchangeLimit("lbank", 20, 200, List.of("api.lbkex.com", "lbkperp.lbank.com"), Map.of()),
+            new ExchangeLimit("cryptocom", 50, 100, List.of("api.crypto.com"), Map.of()),
+            new ExchangeLimit("coinbase", 10, 20, List.of("api.international.coinbase.com"), Map.of()),
+            new ExchangeLimit("coinw", 10, 20, List.of("api.coinw.com"), Map.of()),
+            new ExchangeLimit("bitunix", 10, 20, List.of("fapi.bitunix.com", "openapi.bitunix.com"), Map.of())
+    );
+
+    /** 路径的请求权重：取最长匹配的前缀 */
+    public int weight(String path) {
+        int weight = 1;
+        int matched = -1;
+        if (path == null) return weight;
+        for (Map.Entry<String, Integer> e : weights.entrySet()) {
+            if (path.startsWith(e.getKey()) && e.getKey().length() > matched) {
+                matched = e.getKey().length();
+                weight = e.getValue();
+            }
+        }
+        return weight;
+    }
+
+    /** 替换速率与容量，hosts / weights 不变 */
+    public ExchangeLimit withRate(double perSecond, int burst) {
+        return new ExchangeLimit(id, perSecond, burst, hosts, weights);
+    }
+}
@@ -0,0 +1,37 @@
+package com.experiment.ratelimit;
+
+import java.util.Locale;
+
+/**
+ * 请求优先级。低优先级请求不能把桶取空：取完后至少要留下 reserve 比例的容量给更高优先级，
+ * 桶紧张时资金费率与元数据请求先等待 / 被拒，价格请求最后受影响。
+ */
+public enum Priority {
+
+    PRICE(0.0),
+    FUNDING(0.1),
+    METADATA(0.25);
+
+    private final double reserve;
+
+    Priority(double reserve) {
+        this.reserve = reserve;
+    }
+
+    /** 取令牌后必须保留的容量比例 */
+    public double reserve() {
+        return reserve;
+    }
+
+    /** 按 URL 路径归类：含 funding 为资金费率，交易对/合约列表类为元数据，其余（行情、深度、指数）为价格 */
+    public static Priority classify(String path) {
+        if (path == null) return PRICE;
+        String p = path.toLowerCase(Locale.ROOT);
+        if (p.contains("funding")) return FUNDING;
+        if (p.contains("exchangeinfo") || p.endsWith("/instruments") || p.endsWith("/contracts")
+                || p.endsWith("/symbols") || p.endsWith("/markets") || p.endsWith("/currencies")) {
+            return METADATA;
+        }
+        return PRICE;
+    }
+}
@@ -0,0 +1,63 @@
+package com.experiment.ratelimit;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按 ratelimit.* 创建 {@link RateLimiter} 并设为 {@link RateLimiter#current()}。
+ * ratelimit.limits 覆盖个别交易所的速率与容量，格式 "交易所:每秒令牌/容量"，逗号分隔，如 "bingx:20/200,okx:20/40"。
+ */
+@Component
+public class RateLimitConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitConfig.class);
+
+    @Value("${ratelimit.enabled:true}")
+    private boolean enabled;
+
+    /** 实际使用公布限额的比例 */
+    @Value("${ratelimit.headroom:" + RateLimiter.DEFAULT_HEADROOM + "}")
+    private double headroom;
+
+    /** HTTP 请求等待令牌的上限，超过则本次请求直接失败 */
+    @Value("${ratelimit.max-wait-ms:" + RateLimiter.DEFAULT_MAX_WAIT_MS + "}")
+    private long maxWaitMs;
+
+    @Value("${ratelimit.limits:}")
+    private String overrides;
+
+    @PostConstruct
+    public void init() {
+        Map<String, ExchangeLimit> limits = new LinkedHashMap<>();
+        for (ExchangeLimit limit : ExchangeLimit.DEFAULTS) limits.put(limit.id(), limit);
+        List<String> applied = new ArrayList<>();
+        for (String entry : overrides.split(",")) {
+            String e = entry.trim();
+            if (e.isEmpty()) continue;
+            int colon = e.indexOf(':');
+            int slash = e.indexOf('/', colon + 1);
+            if (colon <= 0 || slash < 0) {
+                throw new IllegalArgumentException("ratelimit.limits entry must be exchange:perSecond/burst, got: " + e);
+            }
+            String id = e.substring(0, colon).trim();
+            double perSecond = Double.parseDouble(e.substring(colon + 1, slash).trim());
+            int burst = Integer.parseInt(e.substring(slash + 1).trim());
+            ExchangeLimit base = limits.get(id);
+            limits.put(id, base != null ? base.withRate(perSecond, burst) : new ExchangeLimit(id, perSecond, burst, List.of(), Map.of()));
+            applied.add(e);
+        }
+        if (headroom <= 0 || headroom > 1) {
+            throw new IllegalArgumentException("ratelimit.headroom must be in (0, 1]: " + headroom);
+        }
+        RateLimiter.set(new RateLimiter(enabled, limits.values(), headroom, maxWaitMs));
+        log.info("Rate limiter: enabled={}, headroom={}, maxWait={}ms, overrides={}", enabled, headroom, maxWaitMs, applied);
+    }
+}
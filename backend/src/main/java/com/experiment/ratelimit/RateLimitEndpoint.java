@@ -0,0 +1,21 @@
+package com.experiment.ratelimit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/ratelimits：各交易所令牌桶的速率、容量、当前余量与 429/418 封禁剩余时间。
+ */
+@Component
+@Endpoint(id = "ratelimits")
+public class RateLimitEndpoint {
+
+    @ReadOperation
+    public List<Map<String, Object>> buckets() {
+        return RateLimiter.current().snapshot();
+    }
+}
@@ -0,0 +1,30 @@
+package com.experiment.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * RestTemplate 拦截器：请求发出前向 {@link RateLimiter} 取令牌，响应为 429 / 418 时通知限流器封禁该交易所。
+ * 需排在指标拦截器之前，限流等待不计入请求耗时，被拒绝的请求也不记为 IO_ERROR。
+ */
+public class RateLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        RateLimiter limiter = RateLimiter.current();
+        URI uri = request.getURI();
+        limiter.acquire(uri);
+        ClientHttpResponse response = execution.execute(request, body);
+        int status = response.getStatusCode().value();
+        if (status == 429 || status == 418) {
+            limiter.onRateLimited(uri, status, response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,14 @@
+package com.experiment.ratelimit;
+
+import java.io.IOException;
+
+/**
+ * 请求被本地限流器拒绝（令牌等待超过上限，或交易所 429/418 封禁中），请求未发出。
+ * 继承 IOException，RestTemplate 将其包装为 ResourceAccessException，与网络错误走同一条失败路径。
+ */
+public class RateLimitedException extends IOException {
+
+    public RateLimitedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,225 @@
+package com.experiment.ratelimit;
+
+import com.experiment.metrics.IngestMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.net.URI;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 交易所级限流：HTTP 请求（经 {@link RateLimitInterceptor}）与 WebSocket 控制消息（订阅、心跳，经
+ * {@link com.experiment.websocket.ManagedWebSocket#send}）按交易所共用一个 {@link TokenBucket}，按 IP 预算计权重。
+ * <p>
+ * - HTTP：按 host 找到交易所、按路径取权重与 {@link Priority}，令牌不足时在虚拟线程上等待，超过 maxWait 直接拒绝
+ * - WebSocket：按连接名（去掉 -spot / -standby / -2 等后缀逐级匹配）找到交易所，只预约不阻塞，由调用方延迟发送
+ * - 429 / 418：按 Retry-After（缺省 429 为 5s、418 为 120s）封禁该交易所，期间 HTTP 请求不发出直接失败
+ * <p>
+ * fetcher / handler 不是 Spring Bean，与 {@link com.experiment.websocket.transport.WsTransports} 一样通过静态
+ * {@link #current()} 访问；{@link RateLimitConfig} 在启动时按配置替换，未设置时使用默认限额。
+ */
+public final class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    public static final long DEFAULT_MAX_WAIT_MS = 1_000;
+    public static final double DEFAULT_HEADROOM = 0.9;
+
+    private static final long DEFAULT_429_BLOCK_MS = 5_000;
+    private static final long DEFAULT_418_BLOCK_MS = 120_000;
+    private static final Set<String> GAUGES = ConcurrentHashMap.newKeySet();
+
+    private static volatile RateLimiter current;
+
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final double headroom;
+    private final Map<String, ExchangeLimit> limits = new ConcurrentHashMap<>();
+    private final Map<String, ExchangeLimit> byHost = new HashMap<>();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    /** 连接名 → 交易所名，避免每条消息逐级匹配 */
+    private final Map<String, String> connectionIds = new ConcurrentHashMap<>();
+
+    /**
+     * @param enabled   false 时全部放行，仍记录 429/418
+     * @param limits    各交易所限额（覆盖后的完整列表）
+     * @param headroom  实际使用的比例（0..1]，给时钟误差与其它进程留余量
+     * @param maxWaitMs HTTP 请求最长等待
+     */
+    public RateLimiter(boolean enabled, Collection<ExchangeLimit> limits, double headroom, long maxWaitMs) {
+        this.enabled = enabled;
+        this.headroom = headroom;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        for (ExchangeLimit limit : limits) {
+            this.limits.put(limit.id(), limit);
+            for (String host : limit.hosts()) byHost.put(host, limit);
+        }
+    }
+
+    public static RateLimiter current() {
+        RateLimiter l = current;
+        if (l != null) return l;
+        synchronized (RateLimiter.class) {
+            if (current == null) current = new RateLimiter(true, ExchangeLimit.DEFAULTS, DEFAULT_HEADROOM, DEFAULT_MAX_WAIT_MS);
+            return current;
+        }
+    }
+
+    static synchronized void set(RateLimiter limiter) {
+        current = limiter;
+    }
+
+    /**
+     * HTTP 请求发出前取令牌，必要时阻塞等待。
+     *
+     * @throws RateLimitedException 交易所封禁中或等待超过上限
+     */
+    public void acquire(URI uri) throws RateLimitedException {
+        ExchangeLimit limit = forHost(uri.getHost());
+        TokenBucket bucket = bucket(limit);
+        long blocked = bucket.blockedNanos();
+        if (blocked > 0) {
+            IngestMetrics.rateLimitRejected(limit.id(), "blocked");
+            throw new RateLimitedException(limit.id() + " blocked for " + TimeUnit.NANOSECONDS.toMillis(blocked) + "ms after 429/418");
+        }
+        if (!enabled) return;
+        Priority priority = Priority.classify(uri.getPath());
+        long wait = bucket.reserve(limit.weight(uri.getPath()), priority, maxWaitNanos);
+        if (wait < 0) {
+            IngestMetrics.rateLimitRejected(limit.id(), priority.name().toLowerCase());
+            throw new RateLimitedException(limit.id() + " rate limit: " + priority + " request would wait longer than "
+                    + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + "ms");
+        }
+        if (wait > 0) {
+            IngestMetrics.rateLimitWait(limit.id(), priority.name().toLowerCase(), wait);
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RateLimitedException(limit.id() + " rate limit wait interrupted");
+            }
+        }
+    }
+
+    /**
+     * WebSocket 控制消息预约一个令牌（价格优先级，不设等待上限、不受封禁影响：订阅与心跳不能丢）。
+     *
+     * @return 发送前应等待的纳秒数
+     */
+    public long reserveMessage(String connection) {
+        if (!enabled) return 0;
+        ExchangeLimit limit = forConnection(connection);
+        return bucket(limit).reserve(1, Priority.PRICE, Long.MAX_VALUE);
+    }
+
+    /** 记录交易所返回的 429（超频）/ 418（IP 已被封禁），按 Retry-After 封禁该交易所 */
+    public void onRateLimited(URI uri, int status, String retryAfter) {
+        ExchangeLimit limit = forHost(uri.getHost());
+        long blockMs = parseRetryAfterMs(retryAfter, status == 418 ? DEFAULT_418_BLOCK_MS : DEFAULT_429_BLOCK_MS);
+        bucket(limit).blockFor(TimeUnit.MILLISECONDS.toNanos(blockMs));
+        IngestMetrics.rateLimitResponse(limit.id(), String.valueOf(status));
+        log.warn("[{}] HTTP {} from {}{}, pausing requests for {}ms", limit.id(), status, uri.getHost(), uri.getPath(), blockMs);
+    }
+
+    /** 各交易所桶的当前状态（已创建的桶） */
+    public List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (TokenBucket b : buckets.values()) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("exchange", b.id());
+            m.put("perSecond", b.perSecond());
+            m.put("burst", b.burst());
+            m.put("available", Math.round(b.available() * 10) / 10.0);
+            m.put("blockedMs", TimeUnit.NANOSECONDS.toMillis(b.blockedNanos()));
+            result.add(m);
+        }
+        result.sort((a, b) -> ((String) a.get("exchange")).compareTo((String) b.get("exchange")));
+        return result;
+    }
+
+    /** 异常是否来自限流（本地拒绝或交易所 429/418），这类失败不应在本轮重试 */
+    public static boolean isRateLimited(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof RateLimitedException) return true;
+            if (t instanceof HttpStatusCodeException h) {
+                int status = h.getStatusCode().value();
+                return status == 429 || status == 418;
+            }
+        }
+        return false;
+    }
+
+    private ExchangeLimit forHost(String host) {
+        ExchangeLimit limit = host != null ? byHost.get(host) : null;
+        if (limit != null) return limit;
+        // 未登记的 host 各自一个默认限额的桶
+        return fallback(host != null ? host : "unknown");
+    }
+
+    private ExchangeLimit forConnection(String connection) {
+        String id = connectionIds.computeIfAbsent(connection, name -> {
+            String candidate = name;
+            while (true) {
+                if (limits.containsKey(candidate)) return candidate;
+                int dash = candidate.lastIndexOf('-');
+                if (dash <= 0) return name;
+                candidate = candidate.substring(0, dash);
+            }
+        });
+        return fallback(id);
+    }
+
+    /** 已登记的限额，未登记时按 {@link ExchangeLimit#FALLBACK} 登记一个 */
+    private ExchangeLimit fallback(String id) {
+        return limits.computeIfAbsent(id, k -> new ExchangeLimit(k, ExchangeLimit.FALLBACK.perSecond(),
+                ExchangeLimit.FALLBACK.burst(), List.of(), Map.of()));
+    }
+
+    private TokenBucket bucket(ExchangeLimit limit) {
+        TokenBucket bucket = buckets.get(limit.id());
+        if (bucket != null) return bucket;
+        bucket = buckets.computeIfAbsent(limit.id(), id -> new TokenBucket(id,
+                limit.perSecond() * headroom, Math.max(1, (int) (limit.burst() * headroom))));
+        registerGauge(limit.id());
+        return bucket;
+    }
+
+    /** 令牌余量 gauge 读取 current() 中的桶，配置替换后仍指向在用的限流器 */
+    private static void registerGauge(String id) {
+        if (!GAUGES.add(id)) return;
+        Gauge.builder("ratelimit.tokens", () -> {
+                    TokenBucket b = current().buckets.get(id);
+                    return b != null ? b.available() : Double.NaN;
+                })
+                .tag("exchange", id)
+                .register(Metrics.globalRegistry);
+    }
+
+    /** Retry-After 为秒数或 HTTP 日期 */
+    private static long parseRetryAfterMs(String retryAfter, long defaultMs) {
+        if (retryAfter == null || retryAfter.isBlank()) return defaultMs;
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                long at = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+                return Math.max(0, at - System.currentTimeMillis());
+            } catch (RuntimeException ignored) {
+                return defaultMs;
+            }
+        }
+    }
+}
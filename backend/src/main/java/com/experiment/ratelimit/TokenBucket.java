@@ -0,0 +1,87 @@
+package com.experiment.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁令牌桶（GCRA 形式）：只维护一个“理论到达时间” tat，每取 w 个令牌 tat 前移 w 个发放间隔，
+ * 桶内剩余令牌 = burst − max(0, tat − now) / interval。取令牌是一次 CAS，不需要后台补充线程。
+ * <p>
+ * 取令牌即预约：需要等待时先推进 tat 再由调用方睡眠/延迟执行，多个线程的预约按 CAS 顺序排队，不会超发。
+ * 另有封禁截止时间：收到 429/418 后在截止前拒绝一切请求。时间均为 System.nanoTime。
+ */
+final class TokenBucket {
+
+    private final String id;
+    private final double perSecond;
+    private final int burst;
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong tat;
+    private final AtomicLong blockedUntil;
+
+    TokenBucket(String id, double perSecond, int burst) {
+        this.id = id;
+        this.perSecond = perSecond;
+        this.burst = burst;
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / perSecond));
+        this.capacityNanos = intervalNanos * burst;
+        long now = System.nanoTime();
+        this.tat = new AtomicLong(now);
+        this.blockedUntil = new AtomicLong(now);
+    }
+
+    String id() {
+        return id;
+    }
+
+    double perSecond() {
+        return perSecond;
+    }
+
+    int burst() {
+        return burst;
+    }
+
+    /**
+     * 预约 weight 个令牌。
+     *
+     * @param maxWaitNanos 可接受的最长等待；需要更久时不预约，返回 -1
+     * @return 需要等待的纳秒数（0 表示立即可用），或 -1
+     */
+    long reserve(int weight, Priority priority, long maxWaitNanos) {
+        long limit = capacityNanos - (long) (capacityNanos * priority.reserve());
+        long cost = weight * intervalNanos;
+        for (;;) {
+            long now = System.nanoTime();
+            long current = tat.get();
+            long base = current - now > 0 ? current : now;
+            long next = base + cost;
+            long wait = next - now - limit;
+            if (wait < 0) wait = 0;
+            if (wait > maxWaitNanos) return -1;
+            if (tat.compareAndSet(current, next)) return wait;
+        }
+    }
+
+    /** 当前可用令牌数 */
+    double available() {
+        long backlog = tat.get() - System.nanoTime();
+        if (backlog <= 0) return burst;
+        return Math.max(0, burst - (double) backlog / intervalNanos);
+    }
+
+    /** 封禁到 now + nanos（只延长不缩短） */
+    void blockFor(long nanos) {
+        long until = System.nanoTime() + nanos;
+        for (;;) {
+            long current = blockedUntil.get();
+            if (until - current <= 0 || blockedUntil.compareAndSet(current, until)) return;
+        }
+    }
+
+    /** 剩余封禁纳秒数，0 表示未封禁 */
+    long blockedNanos() {
+        long left = blockedUntil.get() - System.nanoTime();
+        return left > 0 ? left : 0;
+    }
+}
@@ -21,7 +21,7 @@ public class SpreadArbitrageStatsRepository {
 
     private final JdbcTemplate jdbcTemplate;
 
-    /** 列顺序: 1=symbol, 2=exchange_buy, 3=exchange_sell, 4=spread_count, 5=avg_profit_margin_pct, 6=spot_fee_buy_pct, 7=spot_fee_sell_pct */
+    /** 列顺序: 1=symbol, 2=exchange_buy, 3=exchange_sell, 4=spread_count, 5=avg_profit_margin_pct, 6=spot_fee_buy_pct, 7=spot_fee_sell_pct, 8=exec_profit_10k_pct, 9=exec_profit_100k_pct */
     private static final RowMapper<SpreadPairStatRow> PAIR_ROW_MAPPER = (rs, i) -> new SpreadPairStatRow(
             rs.getString(1),
             rs.getString(2),
@@ -29,7 +29,9 @@ public class SpreadArbitrageStatsRepository {
             rs.getInt(4),
             rs.getBigDecimal(5),
             rs.getBigDecimal(6),
-            rs.getBigDecimal(7)
+            rs.getBigDecimal(7),
+            rs.getBigDecimal(8),
+            rs.getBigDecimal(9)
     );
 
     public SpreadArbitrageStatsRepository(JdbcTemplate jdbcTemplate) {
@@ -37,13 +39,13 @@ public class SpreadArbitrageStatsRepository {
     }
 
     /**
-     * 批量写入快照（扣费后利润率>0.05%、含买卖手续费率）。
+     * 批量写入快照（扣费后利润率>0.05%、含买卖手续费率及按订单簿深度计算的可成交利润率）。
      */
     public void saveSnapshots(List<SnapshotRow> rows) {
         if (rows.isEmpty()) return;
         LocalDateTime now = LocalDateTime.now();
-        String sql = "INSERT INTO spread_arbitrage_snapshots (symbol, exchange_buy, exchange_sell, spot_price_buy, spot_price_sell, spot_spread, profit_margin_pct, spot_fee_buy_pct, spot_fee_sell_pct, snapshot_time) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO spread_arbitrage_snapshots (symbol, exchange_buy, exchange_sell, spot_price_buy, spot_price_sell, spot_spread, profit_margin_pct, spot_fee_buy_pct, spot_fee_sell_pct, exec_profit_10k_pct, exec_profit_100k_pct, snapshot_time) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
             @Override
             public void setValues(PreparedStatement ps, int i) throws SQLException {
@@ -57,7 +59,9 @@ public class SpreadArbitrageStatsRepository {
                 ps.setBigDecimal(7, row.profitMarginPct());
                 ps.setBigDecimal(8, row.spotFeeBuyPct());
                 ps.setBigDecimal(9, row.spotFeeSellPct());
-                ps.setObject(10, now);
+                ps.setBigDecimal(10, row.execProfit10kPct());
+                ps.setBigDecimal(11, row.execProfit100kPct());
+                ps.setObject(12, now);
             }
             @Override
             public int getBatchSize() {
@@ -73,7 +77,8 @@ public class SpreadArbitrageStatsRepository {
     public Map<String, List<SpreadPairStatRow>> findTop5PairStatsGroupBySymbol() {
         String sql = "SELECT symbol, exchange_buy, exchange_sell, " +
                 "       COUNT(*) AS spread_count, AVG(profit_margin_pct) AS avg_profit_margin_pct, " +
-                "       AVG(spot_fee_buy_pct) AS spot_fee_buy_pct, AVG(spot_fee_sell_pct) AS spot_fee_sell_pct " +
+                "       AVG(spot_fee_buy_pct) AS spot_fee_buy_pct, AVG(spot_fee_sell_pct) AS spot_fee_sell_pct, " +
+                "       AVG(exec_profit_10k_pct) AS exec_profit_10k_pct, AVG(exec_profit_100k_pct) AS exec_profit_100k_pct " +
                 "FROM spread_arbitrage_snapshots " +
                 "GROUP BY symbol, exchange_buy, exchange_sell " +
                 "ORDER BY symbol, spread_count DESC";
@@ -98,7 +103,9 @@ public class SpreadArbitrageStatsRepository {
             BigDecimal spotSpread,
             BigDecimal profitMarginPct,
             BigDecimal spotFeeBuyPct,
-            BigDecimal spotFeeSellPct
+            BigDecimal spotFeeSellPct,
+            BigDecimal execProfit10kPct,
+            BigDecimal execProfit100kPct
     ) {}
 
     /** 聚合结果：组合出现次数 + 平均利润率 + 买卖手续费（供前端每币种 Top5 展示） */
@@ -109,6 +116,8 @@ public class SpreadArbitrageStatsRepository {
             int spreadCount,
             BigDecimal avgProfitMarginPct,
             BigDecimal spotFeeBuyPct,
-            BigDecimal spotFeeSellPct
+            BigDecimal spotFeeSellPct,
+            BigDecimal execProfit10kPct,
+            BigDecimal execProfit100kPct
     ) {}
 }
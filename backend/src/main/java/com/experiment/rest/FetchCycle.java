@@ -0,0 +1,172 @@
+package com.experiment.rest;
+
+import com.experiment.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 单个交易所的一轮结构化拉取：本轮所有请求并发执行、统一等待，到截止时间仍未完成的请求被取消，不会跨轮堆积。
+ * <p>
+ * - 截止时间：{@link #run} 最多阻塞 deadlineMs，超时任务通过中断取消（虚拟线程上的阻塞 socket 读写可被中断）
+ * - 并发上限：每个交易所（host）同时在途的请求数受 Semaphore 限制，上一轮未退出的慢请求会占用名额，新请求直接跳过而非排队
+ * - 重试预算：{@link #call} 仅在本轮剩余时间足够时才重试，且总次数受 maxAttempts 限制；限流拒绝与 429/418 不重试
+ * <p>
+ * StructuredTaskScope 在 JDK 21 仍为 preview，这里用共享虚拟线程执行器 + invokeAll(timeout) 达到同样的 join/cancel 语义。
+ */
+public final class FetchCycle {
+
+    private static final Logger log = LoggerFactory.getLogger(FetchCycle.class);
+
+    public static final long DEFAULT_DEADLINE_MS = 3_000;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 8;
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    /** 当前任务所属轮次的截止时间（System.nanoTime），供 {@link #call} 计算剩余重试时间 */
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private final String exchange;
+    private final long deadlineMs;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Counter skipped;
+    private final Counter cancelled;
+    private final Counter failed;
+    private final Counter retries;
+
+    public FetchCycle(String exchange) {
+        this(exchange, DEFAULT_DEADLINE_MS, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public FetchCycle(String exchange, long deadlineMs, int maxInFlight) {
+        this.exchange = exchange;
+        this.deadlineMs = deadlineMs;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.skipped = Metrics.counter("http.fetch.tasks", "exchange", exchange, "outcome", "skipped");
+        this.cancelled = Metrics.counter("http.fetch.tasks", "exchange", exchange, "outcome", "cancelled");
+        this.failed = Metrics.counter("http.fetch.tasks", "exchange", exchange, "outcome", "failed");
+        this.retries = Metrics.counter("http.fetch.retries", "exchange", exchange);
+        Gauge.builder("http.fetch.inflight", this, FetchCycle::inFlightCount)
+                .tag("exchange", exchange)
+                .register(Metrics.globalRegistry);
+    }
+
+    /** 当前在途请求数 */
+    public int inFlightCount() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    /**
+     * 并发执行本轮任务并等待全部完成或到达截止时间。
+     *
+     * @return 在截止时间内正常完成的任务数
+     */
+    public int run(List<Runnable> tasks) {
+        if (tasks.isEmpty()) return 0;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        List<Callable<Boolean>> callables = new ArrayList<>(tasks.size());
+        for (Runnable task : tasks) {
+            // 名额在任务内获取与释放：invokeAll 超时取消的未启动任务从未持有名额，不会泄漏
+            callables.add(() -> {
+                if (!inFlight.tryAcquire()) {
+                    skipped.increment();
+                    return false;
+                }
+                DEADLINE_NANOS.set(deadline);
+                try {
+                    task.run();
+                    return true;
+                } finally {
+                    DEADLINE_NANOS.remove();
+                    inFlight.release();
+                }
+            });
+        }
+
+        List<Future<Boolean>> futures;
+        try {
+            futures = EXECUTOR.invokeAll(callables, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+        int completed = 0;
+        int accepted = 0;
+        for (Future<Boolean> f : futures) {
+            try {
+                if (f.get()) {
+                    completed++;
+                    accepted++;
+                }
+            } catch (CancellationException e) {
+                cancelled.increment();
+                accepted++;
+            } catch (ExecutionException e) {
+                failed.increment();
+                accepted++;
+                log.debug("[{}] fetch task failed: {}", exchange, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (completed < accepted) {
+            log.debug("[{}] fetch cycle: {}/{} tasks completed within {}ms", exchange, completed, accepted, deadlineMs);
+        }
+        return completed;
+    }
+
+    /** 单任务版本 */
+    public int run(Runnable task) {
+        return run(List.of(task));
+    }
+
+    /**
+     * 带重试预算的单次请求：失败后仅在剩余时间 &gt; backoffMs 时才退避重试，最多 maxAttempts 次；
+     * 被限流（{@link RateLimiter#isRateLimited}）时立即放弃，重试只会继续消耗同一份额度。
+     * 必须在 {@link #run} 提交的任务内调用；在其它线程调用时只有次数限制。
+     */
+    public <T> T call(Supplier<T> request, int maxAttempts, long backoffMs) {
+        RuntimeException last = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                return request.get();
+            } catch (RuntimeException e) {
+                last = e;
+                if (attempt == maxAttempts || Thread.currentThread().isInterrupted() || remainingMs() <= backoffMs
+                        || RateLimiter.isRateLimited(e)) {
+                    break;
+                }
+                retries.increment();
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        throw last;
+    }
+
+    private static long remainingMs() {
+        Long deadline = DEADLINE_NANOS.get();
+        if (deadline == null) return Long.MAX_VALUE;
+        return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+}
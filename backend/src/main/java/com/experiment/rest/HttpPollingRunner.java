@@ -8,21 +8,29 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import com.experiment.cluster.FeedGroup;
+import com.experiment.metrics.IngestMetrics;
 import com.experiment.rest.fetcher.*;
 import com.experiment.service.MarketDataService;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * HTTP 轮询：每个交易所以独立虚拟线程按 1 秒间隔并发拉取，配合 2 秒 Redis TTL 保证数据及时更新。
+ * HTTP 轮询：每个交易所以独立虚拟线程按 1 秒间隔拉取，各交易所的轮询相位按登记顺序在周期内错开，
+ * 启动时不会同时向所有交易所发起请求（TLS 握手与首轮请求分散在第一个周期内）。
+ * 本类只登记不启动：单机模式下由 {@link com.experiment.startup.FeedBootstrap} 启动全部交易所，
+ * 集群模式（cluster.enabled=true）下由 {@link com.experiment.cluster.ClusterCoordinator} 按租约启停。
  */
 @Component
-public class HttpPollingRunner {
+public class HttpPollingRunner implements FeedGroup {
 
     private static final Logger log = LoggerFactory.getLogger(HttpPollingRunner.class);
     private static final long POLL_INTERVAL_MS = 1000;
@@ -31,7 +39,12 @@ public class HttpPollingRunner {
     private final RestTemplate restTemplate;
     private final RestTemplate sslRelaxedRestTemplate;
     private final RestTemplate longTimeoutRestTemplate;
-    private final List<HttpExchangeFetcher> fetchers = new ArrayList<>();
+    /** 交易所名 → fetcher */
+    private final Map<String, HttpExchangeFetcher> fetchers = new LinkedHashMap<>();
+    /** 正在轮询的交易所 → 轮询任务 */
+    private final Map<String, Future<?>> polling = new ConcurrentHashMap<>();
+    /** 交易所 → 轮询相位（毫秒，相对周期起点） */
+    private final Map<String, Long> phaseOffsets = new LinkedHashMap<>();
     private ExecutorService virtualExecutor;
     private final AtomicBoolean running = new AtomicBoolean(true);
 
@@ -47,33 +60,56 @@ public class HttpPollingRunner {
 
     @PostConstruct
     public void start() {
-        fetchers.add(new BinanceFetcher(marketDataService, restTemplate));
-        fetchers.add(new GateFetcher(marketDataService, restTemplate));
-        fetchers.add(new CoinExFetcher(marketDataService, restTemplate));
-        fetchers.add(new KucoinFetcher(marketDataService, restTemplate));
-        fetchers.add(new HtxFetcher(marketDataService, restTemplate));
-        fetchers.add(new BingxFetcher(marketDataService, restTemplate));
-        fetchers.add(new BybitFetcher(marketDataService, restTemplate));
-        fetchers.add(new CoinwFetcher(marketDataService, restTemplate));
-        fetchers.add(new CryptoComFetcher(marketDataService, restTemplate));
-        fetchers.add(new KrakenFetcher(marketDataService, longTimeoutRestTemplate));
-        fetchers.add(new WhiteBITFetcher(marketDataService, restTemplate));
-        fetchers.add(new HyperliquidFetcher(marketDataService, sslRelaxedRestTemplate));
-        fetchers.add(new BitunixFetcher(marketDataService, restTemplate));
-        fetchers.add(new BitfinexFetcher(marketDataService, restTemplate));
-        fetchers.add(new LBankFetcher(marketDataService, restTemplate));
-        fetchers.add(new DydxFetcher(marketDataService, restTemplate));
-        fetchers.add(new BitgetFetcher(marketDataService, restTemplate));
-        fetchers.add(new OkxFetcher(marketDataService, restTemplate));
-        fetchers.add(new MexcFetcher(marketDataService, restTemplate));
+        add(new BinanceFetcher(marketDataService, restTemplate));
+        add(new GateFetcher(marketDataService, restTemplate));
+        add(new CoinExFetcher(marketDataService, restTemplate));
+        add(new KucoinFetcher(marketDataService, restTemplate));
+        add(new HtxFetcher(marketDataService, restTemplate));
+        add(new BingxFetcher(marketDataService, restTemplate));
+        add(new BybitFetcher(marketDataService, restTemplate));
+        add(new CoinwFetcher(marketDataService, restTemplate));
+        add(new CryptoComFetcher(marketDataService, restTemplate));
+        add(new KrakenFetcher(marketDataService, longTimeoutRestTemplate));
+        add(new WhiteBITFetcher(marketDataService, restTemplate));
+        add(new HyperliquidFetcher(marketDataService, sslRelaxedRestTemplate));
+        add(new BitunixFetcher(marketDataService, restTemplate));
+        add(new BitfinexFetcher(marketDataService, restTemplate));
+        add(new LBankFetcher(marketDataService, restTemplate));
+        add(new DydxFetcher(marketDataService, restTemplate));
+        add(new BitgetFetcher(marketDataService, restTemplate));
+        add(new OkxFetcher(marketDataService, restTemplate));
+        add(new MexcFetcher(marketDataService, restTemplate));
 
+        int i = 0;
+        for (String exchange : fetchers.keySet()) {
+            phaseOffsets.put(exchange, i++ * POLL_INTERVAL_MS / fetchers.size());
+        }
         virtualExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        log.info("Registered HTTP polling for {} exchanges (virtual thread per exchange, interval {}ms)", fetchers.size(), POLL_INTERVAL_MS);
+    }
 
-        for (HttpExchangeFetcher fetcher : fetchers) {
-            virtualExecutor.submit(() -> pollLoop(fetcher));
-        }
+    private void add(HttpExchangeFetcher fetcher) {
+        fetchers.put(fetcher.getExchangeName(), fetcher);
+    }
 
-        log.info("Started HTTP polling for {} exchanges (virtual thread per exchange, interval {}ms)", fetchers.size(), POLL_INTERVAL_MS);
+    @Override
+    public Set<String> feeds() {
+        return fetchers.keySet();
+    }
+
+    @Override
+    public synchronized void startFeed(String exchange) {
+        HttpExchangeFetcher fetcher = fetchers.get(exchange);
+        if (fetcher == null || !running.get() || polling.containsKey(exchange)) return;
+        long offsetMs = phaseOffsets.get(exchange);
+        polling.put(exchange, virtualExecutor.submit(() -> pollLoop(fetcher, offsetMs)));
+    }
+
+    /** 中断该交易所的轮询线程，进行中的请求随之取消 */
+    @Override
+    public synchronized void stopFeed(String exchange) {
+        Future<?> task = polling.remove(exchange);
+        if (task != null) task.cancel(true);
     }
 
     @PreDestroy
@@ -92,13 +128,22 @@ public class HttpPollingRunner {
         }
     }
 
-    private void pollLoop(HttpExchangeFetcher fetcher) {
-        while (running.get()) {
+    private void pollLoop(HttpExchangeFetcher fetcher, long offsetMs) {
+        try {
+            Thread.sleep(offsetMs);
+        } catch (InterruptedException e) {
+            return;
+        }
+        while (running.get() && !Thread.currentThread().isInterrupted()) {
+            long start = System.nanoTime();
+            boolean success = false;
             try {
                 fetcher.fetchAndSave();
+                success = true;
             } catch (Exception e) {
-                // Ignore poll errors
+                log.debug("[{}] poll error: {}", fetcher.getExchangeName(), e.getMessage());
             }
+            IngestMetrics.httpPollCycle(fetcher.getExchangeName(), System.nanoTime() - start, success);
             try {
                 Thread.sleep(POLL_INTERVAL_MS);
             } catch (InterruptedException e) {
@@ -1,5 +1,6 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -8,8 +9,6 @@ import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Binance HTTP Fetcher - 资金费率、期货价格、现货价格兜底（原仅 WebSocket，配合 2s Redis TTL 每秒刷新）。
@@ -23,7 +22,7 @@ public class BinanceFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final FetchCycle fetchCycle = new FetchCycle("binance");
 
     public BinanceFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -37,9 +36,7 @@ public class BinanceFetcher implements HttpExchangeFetcher {
 
     @Override
     public void fetchAndSave() {
-        for (String symbol : SYMBOLS) {
-            executor.submit(() -> fetchSymbol(symbol));
-        }
+        fetchCycle.run(SYMBOLS.stream().<Runnable>map(s -> () -> fetchSymbol(s)).toList());
     }
 
     private void fetchSymbol(String symbol) {
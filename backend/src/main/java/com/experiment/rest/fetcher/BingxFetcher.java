@@ -1,5 +1,6 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -10,8 +11,6 @@ import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * BingX 纯 HTTP 拉取。7 个交易对 × 2 请求 = 14 次串行会超过 2 秒 Redis TTL，
@@ -38,7 +37,7 @@ public class BingxFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final FetchCycle fetchCycle = new FetchCycle("bingx");
 
     public BingxFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -52,16 +51,7 @@ public class BingxFetcher implements HttpExchangeFetcher {
 
     @Override
     public void fetchAndSave() {
-        var futures = SYMBOLS.stream()
-                .map(pair -> executor.submit(() -> fetchSymbol(pair.symbol, pair.stdSymbol)))
-                .toList();
-        for (var f : futures) {
-            try {
-                f.get();
-            } catch (Exception e) {
-                // Ignore
-            }
-        }
+        fetchCycle.run(SYMBOLS.stream().<Runnable>map(pair -> () -> fetchSymbol(pair.symbol, pair.stdSymbol)).toList());
     }
 
     private void fetchSymbol(String symbol, String stdSymbol) {
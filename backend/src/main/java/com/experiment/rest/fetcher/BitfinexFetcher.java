@@ -1,5 +1,6 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -20,6 +21,7 @@ public class BitfinexFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FetchCycle fetchCycle = new FetchCycle("bitfinex");
 
     public BitfinexFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -33,6 +35,10 @@ public class BitfinexFetcher implements HttpExchangeFetcher {
 
     @Override
     public void fetchAndSave() {
+        fetchCycle.run(this::fetchDerivativesStatus);
+    }
+
+    private void fetchDerivativesStatus() {
         try {
             String responseJson = restTemplate.getForObject(DERIVATIVES_STATUS_URL, String.class);
             if (responseJson != null) {
@@ -1,5 +1,6 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -9,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * Bitget HTTP Fetcher - 现货价格（WebSocket提供期货价格，现货价格需HTTP API）。
@@ -22,6 +24,7 @@ public class BitgetFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FetchCycle fetchCycle = new FetchCycle("bitget");
 
     public BitgetFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -35,13 +38,14 @@ public class BitgetFetcher implements HttpExchangeFetcher {
 
     @Override
     public void fetchAndSave() {
-        fetchSpotPrice("BTCUSDT", "BTCUSDT");
-        fetchSpotPrice("ETHUSDT", "ETHUSDT");
-        fetchSpotPrice("SOLUSDT", "SOLUSDT");
-        fetchSpotPrice("XRPUSDT", "XRPUSDT");
-        fetchSpotPrice("HYPEUSDT", "HYPEUSDT");
-        fetchSpotPrice("DOGEUSDT", "DOGEUSDT");
-        fetchSpotPrice("BNBUSDT", "BNBUSDT");
+        fetchCycle.run(List.of(
+                () -> fetchSpotPrice("BTCUSDT", "BTCUSDT"),
+                () -> fetchSpotPrice("ETHUSDT", "ETHUSDT"),
+                () -> fetchSpotPrice("SOLUSDT", "SOLUSDT"),
+                () -> fetchSpotPrice("XRPUSDT", "XRPUSDT"),
+                () -> fetchSpotPrice("HYPEUSDT", "HYPEUSDT"),
+                () -> fetchSpotPrice("DOGEUSDT", "DOGEUSDT"),
+                () -> fetchSpotPrice("BNBUSDT", "BNBUSDT")));
     }
     
     private void fetchSpotPrice(String bitgetSymbol, String stdSymbol) {
@@ -1,5 +1,6 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -10,8 +11,6 @@ import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Bitunix HTTP Fetcher - 资金费率、期货、现货。与 WebSocket 互为兜底，并发拉取避免 2s TTL 下先写数据过期。
@@ -30,7 +29,7 @@ public class BitunixFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final FetchCycle fetchCycle = new FetchCycle("bitunix");
 
     public BitunixFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -44,12 +43,7 @@ public class BitunixFetcher implements HttpExchangeFetcher {
 
     @Override
     public void fetchAndSave() {
-        var futures = SYMBOLS.stream()
-                .map(p -> executor.submit(() -> fetchSymbol(p.symbol, p.stdSymbol)))
-                .toList();
-        for (var f : futures) {
-            try { f.get(); } catch (Exception ignored) {}
-        }
+        fetchCycle.run(SYMBOLS.stream().<Runnable>map(p -> () -> fetchSymbol(p.symbol, p.stdSymbol)).toList());
     }
 
     private void fetchSymbol(String bitunixSymbol, String stdSymbol) {
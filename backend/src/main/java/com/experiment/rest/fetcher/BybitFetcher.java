@@ -1,5 +1,6 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -10,8 +11,6 @@ import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Bybit HTTP 兜底 - WebSocket 断连或推送间隔 > 2s 时，资金费率/期货/现货会空，用 REST 补充。
@@ -27,7 +26,7 @@ public class BybitFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final FetchCycle fetchCycle = new FetchCycle("bybit");
 
     public BybitFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -41,12 +40,7 @@ public class BybitFetcher implements HttpExchangeFetcher {
 
     @Override
     public void fetchAndSave() {
-        var futures = SYMBOLS.stream()
-                .map(s -> executor.submit(() -> fetchSymbol(s)))
-                .toList();
-        for (var f : futures) {
-            try { f.get(); } catch (Exception ignored) {}
-        }
+        fetchCycle.run(SYMBOLS.stream().<Runnable>map(s -> () -> fetchSymbol(s)).toList());
     }
 
     private void fetchSymbol(String symbol) {
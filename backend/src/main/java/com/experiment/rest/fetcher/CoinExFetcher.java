@@ -1,5 +1,6 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -7,9 +8,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * CoinEx HTTP Fetcher - 资金费率、期货价格、现货价格兜底（原仅 WebSocket，配合 2s Redis TTL 每秒刷新）。
@@ -25,7 +25,7 @@ public class CoinExFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final FetchCycle fetchCycle = new FetchCycle("coinex");
 
     public CoinExFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -40,10 +40,12 @@ public class CoinExFetcher implements HttpExchangeFetcher {
     @Override
     public void fetchAndSave() {
         String marketList = String.join(",", SYMBOLS);
-        executor.submit(() -> fetchFundingAndFutures(marketList));
+        List<Runnable> tasks = new ArrayList<>();
+        tasks.add(() -> fetchFundingAndFutures(marketList));
         for (String symbol : SYMBOLS) {
-            executor.submit(() -> fetchSpotPrice(symbol));
+            tasks.add(() -> fetchSpotPrice(symbol));
         }
+        fetchCycle.run(tasks);
     }
 
     private void fetchFundingAndFutures(String marketList) {
@@ -1,5 +1,6 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -11,8 +12,6 @@ import org.springframework.web.client.RestTemplate;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * CoinW HTTP Fetcher。并发拉取各交易对，现货 ticker 只拉一次，避免 2s TTL 下数据过期。
@@ -32,7 +31,7 @@ public class CoinwFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final FetchCycle fetchCycle = new FetchCycle("coinw");
 
     public CoinwFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -47,12 +46,7 @@ public class CoinwFetcher implements HttpExchangeFetcher {
     @Override
     public void fetchAndSave() {
         Map<String, BigDecimal> spotPrices = fetchSpotPrices();
-        var futures = SYMBOLS.stream()
-                .map(p -> executor.submit(() -> fetchSymbol(p.instrument, p.stdSymbol, spotPrices)))
-                .toList();
-        for (var f : futures) {
-            try { f.get(); } catch (Exception ignored) {}
-        }
+        fetchCycle.run(SYMBOLS.stream().<Runnable>map(p -> () -> fetchSymbol(p.instrument, p.stdSymbol, spotPrices)).toList());
     }
 
     private Map<String, BigDecimal> fetchSpotPrices() {
@@ -113,7 +107,7 @@ public class CoinwFetcher implements HttpExchangeFetcher {
             // Ignore fetch errors
         }
     }
-    
+
     private BigDecimal parseDecimal(JsonNode node, String key) {
         if (node == null || !node.has(key)) {
             return null;
@@ -1,5 +1,6 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -9,9 +10,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Crypto.com HTTP Fetcher - 现货价格 + 资金费率兜底（WebSocket 推送间隔长、Redis 2s TTL，用 REST 每秒刷新）。
@@ -35,7 +35,7 @@ public class CryptoComFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final FetchCycle fetchCycle = new FetchCycle("cryptocom");
 
     public CryptoComFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -49,12 +49,14 @@ public class CryptoComFetcher implements HttpExchangeFetcher {
 
     @Override
     public void fetchAndSave() {
+        List<Runnable> tasks = new ArrayList<>();
         for (SymbolPair p : SPOT_SYMBOLS) {
-            executor.submit(() -> fetchSpotPrice(p.instrumentName, p.stdSymbol));
+            tasks.add(() -> fetchSpotPrice(p.instrumentName, p.stdSymbol));
         }
         for (FundingPair p : FUNDING_SYMBOLS) {
-            executor.submit(() -> fetchFundingRate(p.instrumentName, p.stdSymbol));
+            tasks.add(() -> fetchFundingRate(p.instrumentName, p.stdSymbol));
         }
+        fetchCycle.run(tasks);
     }
 
     private void fetchSpotPrice(String instrumentName, String stdSymbol) {
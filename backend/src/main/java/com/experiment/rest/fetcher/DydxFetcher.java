@@ -1,5 +1,7 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.fx.QuoteCurrency;
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -8,8 +10,6 @@ import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * dYdX HTTP Fetcher - 资金费率、期货价格、现货价格。
@@ -26,7 +26,7 @@ public class DydxFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final FetchCycle fetchCycle = new FetchCycle("dydx");
 
     public DydxFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -47,7 +47,7 @@ public class DydxFetcher implements HttpExchangeFetcher {
             if (!root.has("markets")) return;
             JsonNode markets = root.get("markets");
 
-            var tasks = new java.util.ArrayList<java.util.concurrent.Future<?>>();
+            var tasks = new java.util.ArrayList<Runnable>();
             for (int i = 0; i < MARKET_KEYS.length; i++) {
                 int idx = i;
                 if (!markets.has(MARKET_KEYS[idx])) continue;
@@ -58,13 +58,11 @@ public class DydxFetcher implements HttpExchangeFetcher {
                 if (rate != null) marketDataService.saveFundingRate("dydx", SYMBOLS[idx], rate, null);
 
                 BigDecimal oraclePrice = parseDecimal(m, "oraclePrice");
-                if (oraclePrice != null) marketDataService.saveSpotPrice("dydx", SYMBOLS[idx], oraclePrice);
+                if (oraclePrice != null) marketDataService.saveSpotPrice("dydx", SYMBOLS[idx], QuoteCurrency.USD, oraclePrice);
 
-                tasks.add(executor.submit(() -> fetchOrderbookMid(SYMBOLS[idx], MARKET_KEYS[idx])));
-            }
-            for (var f : tasks) {
-                try { f.get(); } catch (Exception ignored) {}
+                tasks.add(() -> fetchOrderbookMid(SYMBOLS[idx], MARKET_KEYS[idx]));
             }
+            fetchCycle.run(tasks);
         } catch (Exception e) {
             // Ignore fetch errors
         }
@@ -82,13 +80,13 @@ public class DydxFetcher implements HttpExchangeFetcher {
             BigDecimal bestAsk = parseDecimal(asks.get(0), "price");
             if (bestBid != null && bestAsk != null) {
                 BigDecimal mid = bestBid.add(bestAsk).divide(BigDecimal.valueOf(2), 8, RoundingMode.HALF_UP);
-                marketDataService.saveFuturesPrice("dydx", symbol, mid);
+                marketDataService.saveFuturesPrice("dydx", symbol, QuoteCurrency.USD, mid);
             }
         } catch (Exception e) {
             // Ignore
         }
     }
-    
+
     private BigDecimal parseDecimal(JsonNode node, String key) {
         if (node == null || !node.has(key)) {
             return null;
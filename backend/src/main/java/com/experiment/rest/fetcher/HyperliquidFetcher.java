@@ -1,5 +1,7 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.fx.QuoteCurrency;
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
@@ -28,6 +30,7 @@ public class HyperliquidFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FetchCycle fetchCycle = new FetchCycle("hyperliquid");
 
     public HyperliquidFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -39,28 +42,20 @@ public class HyperliquidFetcher implements HttpExchangeFetcher {
         return "hyperliquid";
     }
 
-    private static final int RETRY_COUNT = 5;
+    private static final int RETRY_COUNT = 3;
     private static final long RETRY_DELAY_MS = 300;
 
-    /** 带重试的 HTTP POST，应对间歇性网络/SSL 失败 */
+    /** 带重试的 HTTP POST，应对间歇性网络/SSL 失败；重试次数与退避受本轮截止时间约束 */
     private String postWithRetry(HttpEntity<?> entity) {
-        Exception last = null;
-        for (int i = 0; i < RETRY_COUNT; i++) {
-            try {
-                return restTemplate.postForObject(INFO_URL, entity, String.class);
-            } catch (Exception e) {
-                last = e;
-                if (i < RETRY_COUNT - 1) {
-                    try { Thread.sleep(RETRY_DELAY_MS); } catch (InterruptedException ie) { Thread.currentThread().interrupt(); return null; }
-                }
-            }
-        }
-        if (last != null) throw last instanceof RuntimeException r ? r : new RuntimeException(last);
-        return null;
+        return fetchCycle.call(() -> restTemplate.postForObject(INFO_URL, entity, String.class), RETRY_COUNT, RETRY_DELAY_MS);
     }
 
     @Override
     public void fetchAndSave() {
+        fetchCycle.run(this::fetchMetaAndAssetCtxs);
+    }
+
+    private void fetchMetaAndAssetCtxs() {
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -111,7 +106,7 @@ public class HyperliquidFetcher implements HttpExchangeFetcher {
                                 BigDecimal rate = parseFundingRate(ctx);
                                 if (rate != null) marketDataService.saveFundingRate("hyperliquid", symbols[j], rate, null);
                                 BigDecimal spot = parseSpotPrice(ctx);
-                                if (spot != null) marketDataService.saveSpotPrice("hyperliquid", symbols[j], spot);
+                                if (spot != null) marketDataService.saveSpotPrice("hyperliquid", symbols[j], QuoteCurrency.USDC, spot);
                             }
                         }
                     }
@@ -1,5 +1,7 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.fx.QuoteCurrency;
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -15,15 +17,14 @@ import java.util.List;
  * Kraken Futures HTTP Fetcher。
  * 调用 https://futures.kraken.com/derivatives/api/v3/tickers 接口获取资金费率。
  * 使用 PF_ 永续合约（如 PF_XBTUSD），每小时资金费率 = fundingRate / indexPrice，
- * 再统一转换为 8 小时费率后入库。
+ * 按原始小时费率入库，8h / 年化折算由 FundingSchedules 统一处理。
  * API: https://docs.futures.kraken.com/
  */
 public class KrakenFetcher implements HttpExchangeFetcher {
 
     private static final String TICKER_URL = "https://futures.kraken.com/derivatives/api/v3/tickers";
-    private static final BigDecimal EIGHT = new BigDecimal("8");
 
-    // PF_=perpetual futures，按 fundingRate / indexPrice 计算每小时费率，再 ×8 转换为 8 小时费率
+    // PF_=perpetual futures，按 fundingRate / indexPrice 计算每小时费率
     private static final List<FundingSymbol> FUNDING_SYMBOLS = List.of(
             new FundingSymbol("PF_XBTUSD", "BTCUSDT"),
             new FundingSymbol("PF_ETHUSD", "ETHUSDT"),
@@ -37,6 +38,8 @@ public class KrakenFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    /** 全量 tickers 响应大，截止时间放宽到 10s */
+    private final FetchCycle fetchCycle = new FetchCycle("kraken", 10_000, 2);
 
     public KrakenFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -50,6 +53,10 @@ public class KrakenFetcher implements HttpExchangeFetcher {
 
     @Override
     public void fetchAndSave() {
+        fetchCycle.run(this::fetchTickers);
+    }
+
+    private void fetchTickers() {
         String tickerJson = fetchAllTickers();
         if (tickerJson == null) return;
         try {
@@ -90,7 +97,7 @@ public class KrakenFetcher implements HttpExchangeFetcher {
         return null;
     }
 
-    /** 8h 资金费率 = (fundingRate / indexPrice) * 8 */
+    /** 小时资金费率 = fundingRate / indexPrice */
     private void processTicker(JsonNode ticker, String stdSymbol) {
         BigDecimal fundingRateRaw = parseDecimal(ticker, "fundingRate");
         BigDecimal indexPrice = parseDecimal(ticker, "indexPrice");
@@ -100,18 +107,17 @@ public class KrakenFetcher implements HttpExchangeFetcher {
         if (markPrice == null) markPrice = parseDecimal(ticker, "mark_price");
         if (markPrice == null) markPrice = parseDecimal(ticker, "mark");
         if (fundingRateRaw != null && indexPrice != null && indexPrice.compareTo(BigDecimal.ZERO) != 0) {
-            BigDecimal hourlyRateDecimal = fundingRateRaw.divide(indexPrice, 12, java.math.RoundingMode.HALF_UP);
-            BigDecimal rate8h = hourlyRateDecimal.multiply(EIGHT);
-            marketDataService.saveFundingRate("kraken", stdSymbol, rate8h, null);
+            BigDecimal hourlyRate = fundingRateRaw.divide(indexPrice, 12, java.math.RoundingMode.HALF_UP);
+            marketDataService.saveFundingRate("kraken", stdSymbol, hourlyRate, null);
         }
 
         BigDecimal lastPrice = parseDecimal(ticker, "last");
         if (lastPrice == null) lastPrice = parseDecimal(ticker, "lastPrice");
         if (lastPrice == null) lastPrice = parseDecimal(ticker, "price");
 
-        if (markPrice != null) marketDataService.saveFuturesPrice("kraken", stdSymbol, markPrice);
-        if (indexPrice != null) marketDataService.saveSpotPrice("kraken", stdSymbol, indexPrice);
-        else if (lastPrice != null) marketDataService.saveSpotPrice("kraken", stdSymbol, lastPrice);
+        if (markPrice != null) marketDataService.saveFuturesPrice("kraken", stdSymbol, QuoteCurrency.USD, markPrice);
+        if (indexPrice != null) marketDataService.saveSpotPrice("kraken", stdSymbol, QuoteCurrency.USD, indexPrice);
+        else if (lastPrice != null) marketDataService.saveSpotPrice("kraken", stdSymbol, QuoteCurrency.USD, lastPrice);
     }
 
     private boolean parseBool(JsonNode node, String key) {
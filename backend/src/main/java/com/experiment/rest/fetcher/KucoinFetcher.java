@@ -1,5 +1,6 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -10,8 +11,6 @@ import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Kucoin 纯 HTTP。6 交易对 × 3 请求串行易超 2s TTL，改为并发拉取。
@@ -32,7 +31,7 @@ public class KucoinFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final FetchCycle fetchCycle = new FetchCycle("kucoin");
 
     public KucoinFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -46,12 +45,7 @@ public class KucoinFetcher implements HttpExchangeFetcher {
 
     @Override
     public void fetchAndSave() {
-        var futures = SYMBOLS.stream()
-                .map(p -> executor.submit(() -> fetchSymbol(p.kucoinSymbol, p.stdSymbol, p.spotSymbol)))
-                .toList();
-        for (var f : futures) {
-            try { f.get(); } catch (Exception ignored) {}
-        }
+        fetchCycle.run(SYMBOLS.stream().<Runnable>map(p -> () -> fetchSymbol(p.kucoinSymbol, p.stdSymbol, p.spotSymbol)).toList());
     }
 
     private void fetchSymbol(String kucoinSymbol, String stdSymbol, String spotSymbol) {
@@ -1,5 +1,6 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -9,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * LBank HTTP Fetcher - 资金费率、期货价格、现货价格。
@@ -23,6 +25,7 @@ public class LBankFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FetchCycle fetchCycle = new FetchCycle("lbank");
 
     public LBankFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -36,13 +39,14 @@ public class LBankFetcher implements HttpExchangeFetcher {
 
     @Override
     public void fetchAndSave() {
-        fetchSymbol("btc_usdt", "BTCUSDT");
-        fetchSymbol("eth_usdt", "ETHUSDT");
-        fetchSymbol("sol_usdt", "SOLUSDT");
-        fetchSymbol("xrp_usdt", "XRPUSDT");
-        fetchSymbol("doge_usdt", "DOGEUSDT");
-        fetchSymbol("bnb_usdt", "BNBUSDT");
-        fetchFundingRate();
+        fetchCycle.run(List.of(
+                () -> fetchSymbol("btc_usdt", "BTCUSDT"),
+                () -> fetchSymbol("eth_usdt", "ETHUSDT"),
+                () -> fetchSymbol("sol_usdt", "SOLUSDT"),
+                () -> fetchSymbol("xrp_usdt", "XRPUSDT"),
+                () -> fetchSymbol("doge_usdt", "DOGEUSDT"),
+                () -> fetchSymbol("bnb_usdt", "BNBUSDT"),
+                this::fetchFundingRate));
     }
     
     private void fetchFundingRate() {
@@ -1,5 +1,6 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -11,8 +12,6 @@ import org.springframework.web.client.RestTemplate;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * OKX HTTP 兜底 - WebSocket 断连或推送间隔时用 REST 补充。一次拉 tickers，并发拉 funding。
@@ -37,7 +36,7 @@ public class OkxFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final FetchCycle fetchCycle = new FetchCycle("okx");
 
     public OkxFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -58,12 +57,7 @@ public class OkxFetcher implements HttpExchangeFetcher {
         } catch (Exception ignored) {}
         parseTickersAndSave(swapJson, spotJson);
 
-        var futures = SYMBOLS.stream()
-                .map(s -> executor.submit(() -> fetchFunding(s)))
-                .toList();
-        for (var f : futures) {
-            try { f.get(); } catch (Exception ignored) {}
-        }
+        fetchCycle.run(SYMBOLS.stream().<Runnable>map(s -> () -> fetchFunding(s)).toList());
     }
 
     private void parseTickersAndSave(String swapJson, String spotJson) {
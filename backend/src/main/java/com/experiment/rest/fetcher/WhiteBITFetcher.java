@@ -1,5 +1,6 @@
 package com.experiment.rest.fetcher;
 
+import com.experiment.rest.FetchCycle;
 import com.experiment.rest.HttpExchangeFetcher;
 import com.experiment.service.MarketDataService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -11,8 +12,6 @@ import org.springframework.web.client.RestTemplate;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * WhiteBIT HTTP Fetcher。futures 只拉一次，现货 ticker 按 symbol 并发，避免超 2s TTL。
@@ -35,7 +34,7 @@ public class WhiteBITFetcher implements HttpExchangeFetcher {
     private final MarketDataService marketDataService;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final FetchCycle fetchCycle = new FetchCycle("whitebit");
 
     public WhiteBITFetcher(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
@@ -56,12 +55,7 @@ public class WhiteBITFetcher implements HttpExchangeFetcher {
         if (futuresJson != null) {
             parseFuturesAndSave(futuresJson);
         }
-        var futures = SPOT_PAIRS.stream()
-                .map(p -> executor.submit(() -> fetchSpotTicker(p.whitebitSymbol, p.stdSymbol)))
-                .toList();
-        for (var f : futures) {
-            try { f.get(); } catch (Exception ignored) {}
-        }
+        fetchCycle.run(SPOT_PAIRS.stream().<Runnable>map(p -> () -> fetchSpotTicker(p.whitebitSymbol, p.stdSymbol)).toList());
     }
 
     private void parseFuturesAndSave(String futuresJson) {
@@ -0,0 +1,20 @@
+package com.experiment.service;
+
+import com.experiment.metrics.TickLatency;
+
+/**
+ * 行情来源，声明顺序即优先级（靠前的优先）。
+ */
+public enum FeedSource {
+    WEBSOCKET,
+    HTTP;
+
+    /** 当前线程正在处理 WebSocket 消息时为 WEBSOCKET，否则（HTTP 轮询、REST 快照等）为 HTTP */
+    public static FeedSource current() {
+        return TickLatency.inMessage() ? WEBSOCKET : HTTP;
+    }
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
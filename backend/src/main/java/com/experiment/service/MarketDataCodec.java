@@ -0,0 +1,183 @@
+package com.experiment.service;
+
+import com.experiment.fx.QuoteCurrency;
+import com.experiment.model.Quote;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+
+/**
+ * 行情在 Redis 中的定长二进制编码，一条报价/资金费率对应 hash 中的一个字段值。
+ * <p>
+ * 布局：版本(1B) + 字段存在位图(1B) + updatedAt(8B) + 各存在字段；小数按 unscaled long(8B) + scale(1B) 存放，
+ * 超过 long 精度的数值按 18 位有效数字舍入。过期判断读取 updatedAt，不依赖 key TTL。
+ * 报价为版本 2：updatedAt 之后另有 bookUpdatedAt(8B)，即买一/卖一最近一次由行情提供的时间，买卖盘按它单独过期；
+ * 版本 1 的报价（旧的持久化状态）解码时 bookUpdatedAt 取 updatedAt。
+ */
+final class MarketDataCodec {
+
+    private static final byte VERSION = 1;
+    private static final byte QUOTE_VERSION = 2;
+    private static final int DECIMAL_BYTES = Long.BYTES + 1;
+    private static final int HEADER_BYTES = 2 + Long.BYTES;
+    private static final MathContext MAX_LONG_DIGITS = new MathContext(18, RoundingMode.HALF_UP);
+
+    // 报价字段位
+    private static final int Q_PRICE = 1;
+    private static final int Q_BID = 1 << 1;
+    private static final int Q_BID_SIZE = 1 << 2;
+    private static final int Q_ASK = 1 << 3;
+    private static final int Q_ASK_SIZE = 1 << 4;
+    private static final int Q_RAW_PRICE = 1 << 5;
+    private static final int Q_FX_RATE = 1 << 6;
+    private static final int Q_QUOTE_CCY = 1 << 7;
+
+    // 资金费率字段位
+    private static final int F_RATE = 1;
+    private static final int F_RATE_8H = 1 << 1;
+    private static final int F_ANNUALIZED = 1 << 2;
+    private static final int F_NEXT_FUNDING = 1 << 3;
+    private static final int F_INTERVAL = 1 << 4;
+
+    private MarketDataCodec() {}
+
+    /**
+     * 一条报价（价格均为 USDT）；非 USDT 计价时 quoteCcy / rawPrice / fxRate 记录折算前的原始值。
+     * bookUpdatedAt 为买一/卖一（及数量）最近一次由行情提供的时间，只更新最新价时沿用的买卖盘不刷新它。
+     */
+    record StoredQuote(Quote quote, QuoteCurrency quoteCcy, BigDecimal rawPrice, BigDecimal fxRate, long updatedAt,
+                       long bookUpdatedAt) {
+
+        /** 买卖盘早于 minUpdatedAt 时去掉买卖盘字段，只保留最新价 */
+        Quote quote(long minUpdatedAt) {
+            if (bookUpdatedAt >= minUpdatedAt) return quote;
+            return new Quote(quote.price(), null, null, null, null);
+        }
+    }
+
+    /** 一条资金费率：原始费率、8h 折算、年化、结算周期与下一次结算时间 */
+    record StoredFunding(BigDecimal rate, BigDecimal rate8h, BigDecimal annualized, Integer intervalHours,
+                         Long nextFundingTime, long updatedAt) {}
+
+    static byte[] encodeQuote(StoredQuote v) {
+        Quote q = v.quote();
+        boolean foreign = v.quoteCcy() != null && v.quoteCcy() != QuoteCurrency.USDT;
+        BigDecimal[] decimals = {q.price(), q.bid(), q.bidSize(), q.ask(), q.askSize(),
+                foreign ? v.rawPrice() : null, foreign ? v.fxRate() : null};
+        int flags = 0;
+        int size = HEADER_BYTES;
+        for (int i = 0; i < decimals.length; i++) {
+            if (decimals[i] != null) {
+                flags |= 1 << i;
+                size += DECIMAL_BYTES;
+            }
+        }
+        if (foreign) {
+            flags |= Q_QUOTE_CCY;
+            size += 1;
+        }
+        ByteBuffer buf = header(QUOTE_VERSION, size + Long.BYTES, flags, v.updatedAt());
+        buf.putLong(v.bookUpdatedAt());
+        for (BigDecimal d : decimals) {
+            if (d != null) putDecimal(buf, d);
+        }
+        if (foreign) buf.put((byte) v.quoteCcy().ordinal());
+        return buf.array();
+    }
+
+    /** 解码报价，格式不识别时返回 null */
+    static StoredQuote decodeQuote(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_BYTES || (bytes[0] != VERSION && bytes[0] != QUOTE_VERSION)) return null;
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        byte version = buf.get();
+        int flags = buf.get() & 0xFF;
+        long updatedAt = buf.getLong();
+        long bookUpdatedAt = version == QUOTE_VERSION ? buf.getLong() : updatedAt;
+        BigDecimal price = (flags & Q_PRICE) != 0 ? getDecimal(buf) : null;
+        BigDecimal bid = (flags & Q_BID) != 0 ? getDecimal(buf) : null;
+        BigDecimal bidSize = (flags & Q_BID_SIZE) != 0 ? getDecimal(buf) : null;
+        BigDecimal ask = (flags & Q_ASK) != 0 ? getDecimal(buf) : null;
+        BigDecimal askSize = (flags & Q_ASK_SIZE) != 0 ? getDecimal(buf) : null;
+        BigDecimal rawPrice = (flags & Q_RAW_PRICE) != 0 ? getDecimal(buf) : null;
+        BigDecimal fxRate = (flags & Q_FX_RATE) != 0 ? getDecimal(buf) : null;
+        QuoteCurrency ccy = (flags & Q_QUOTE_CCY) != 0 ? QuoteCurrency.values()[buf.get()] : QuoteCurrency.USDT;
+        return new StoredQuote(new Quote(price, bid, bidSize, ask, askSize), ccy, rawPrice, fxRate, updatedAt, bookUpdatedAt);
+    }
+
+    static byte[] encodeFunding(StoredFunding v) {
+        BigDecimal[] decimals = {v.rate(), v.rate8h(), v.annualized()};
+        int flags = 0;
+        int size = HEADER_BYTES;
+        for (int i = 0; i < decimals.length; i++) {
+            if (decimals[i] != null) {
+                flags |= 1 << i;
+                size += DECIMAL_BYTES;
+            }
+        }
+        if (v.nextFundingTime() != null) {
+            flags |= F_NEXT_FUNDING;
+            size += Long.BYTES;
+        }
+        if (v.intervalHours() != null) {
+            flags |= F_INTERVAL;
+            size += Short.BYTES;
+        }
+        ByteBuffer buf = header(VERSION, size, flags, v.updatedAt());
+        for (BigDecimal d : decimals) {
+            if (d != null) putDecimal(buf, d);
+        }
+        if (v.nextFundingTime() != null) buf.putLong(v.nextFundingTime());
+        if (v.intervalHours() != null) buf.putShort(v.intervalHours().shortValue());
+        return buf.array();
+    }
+
+    /** 解码资金费率，格式不识别时返回 null */
+    static StoredFunding decodeFunding(byte[] bytes) {
+        ByteBuffer buf = open(bytes);
+        if (buf == null) return null;
+        int flags = buf.get() & 0xFF;
+        long updatedAt = buf.getLong();
+        BigDecimal rate = (flags & F_RATE) != 0 ? getDecimal(buf) : null;
+        BigDecimal rate8h = (flags & F_RATE_8H) != 0 ? getDecimal(buf) : null;
+        BigDecimal annualized = (flags & F_ANNUALIZED) != 0 ? getDecimal(buf) : null;
+        Long nextFundingTime = (flags & F_NEXT_FUNDING) != 0 ? buf.getLong() : null;
+        Integer intervalHours = (flags & F_INTERVAL) != 0 ? (int) buf.getShort() : null;
+        return new StoredFunding(rate, rate8h, annualized, intervalHours, nextFundingTime, updatedAt);
+    }
+
+    private static ByteBuffer header(byte version, int size, int flags, long updatedAt) {
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.put(version);
+        buf.put((byte) flags);
+        buf.putLong(updatedAt);
+        return buf;
+    }
+
+    private static ByteBuffer open(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_BYTES || bytes[0] != VERSION) return null;
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        buf.get();
+        return buf;
+    }
+
+    private static void putDecimal(ByteBuffer buf, BigDecimal value) {
+        BigDecimal d = fit(value.stripTrailingZeros());
+        if (d.unscaledValue().bitLength() > 63) d = fit(d.round(MAX_LONG_DIGITS));
+        buf.putLong(d.unscaledValue().longValue());
+        buf.put((byte) d.scale());
+    }
+
+    /** scale 限制在 [0, 127]：整数不用负 scale，避免读出 6.7E+4 这类科学计数法 */
+    private static BigDecimal fit(BigDecimal d) {
+        if (d.scale() < 0) return d.setScale(0);
+        if (d.scale() > Byte.MAX_VALUE) return d.setScale(Byte.MAX_VALUE, RoundingMode.HALF_UP);
+        return d;
+    }
+
+    private static BigDecimal getDecimal(ByteBuffer buf) {
+        long unscaled = buf.getLong();
+        return BigDecimal.valueOf(unscaled, buf.get());
+    }
+}
@@ -0,0 +1,38 @@
+package com.experiment.service;
+
+import com.experiment.model.Quote;
+import com.experiment.store.MarketDataStore;
+
+import java.math.BigDecimal;
+
+/**
+ * 行情写入回调：{@link MarketDataService} 每次写入资金费率/期货价/现货价后同步调用，供实时分析引擎增量计算。
+ * 回调在写入方线程（WebSocket 读线程或 HTTP 拉取线程）上执行，实现必须快速返回且不抛异常。
+ */
+public interface MarketDataListener {
+
+    default void onFundingRate(String exchange, String symbol, BigDecimal rate, Long nextFundingTime) {
+    }
+
+    default void onFuturesPrice(String exchange, String symbol, BigDecimal price, BigDecimal bid, BigDecimal ask) {
+    }
+
+    default void onSpotPrice(String exchange, String symbol, BigDecimal price, BigDecimal bid, BigDecimal ask) {
+    }
+
+    /**
+     * 资金费率写入存储后回调（在该 slot 的写入顺序内），updatedAt 为存储中的更新时间。
+     * 仲裁判定未变化而跳过写入时不回调。
+     */
+    default void onFundingStored(String exchange, String symbol, BigDecimal rate, Long nextFundingTime, long updatedAt) {
+    }
+
+    /**
+     * 期货/现货报价写入存储后回调：quote 为合并了沿用买卖盘与数量的完整报价（USDT），updatedAt 为存储中的更新时间，
+     * bookUpdatedAt 为买卖盘最近一次由行情提供的时间（沿用的买卖盘按它过期）。
+     * 仲裁判定未变化而跳过写入时不回调；汇率变动重写报价时也会回调。
+     */
+    default void onQuoteStored(String exchange, String symbol, MarketDataStore.Kind kind, Quote quote, long updatedAt,
+                               long bookUpdatedAt) {
+    }
+}
@@ -1,180 +1,574 @@
 package com.experiment.service;
 
 import com.experiment.config.ExchangeFeeRates;
+import com.experiment.config.Exchanges;
+import com.experiment.funding.FundingSchedule;
+import com.experiment.funding.FundingSchedules;
+import com.experiment.fx.FxRates;
+import com.experiment.fx.QuoteCurrency;
+import com.experiment.metrics.IngestMetrics;
+import com.experiment.metrics.StartupTimeline;
+import com.experiment.metrics.TickLatency;
 import com.experiment.model.MarketDataDTO;
-import org.springframework.data.redis.core.RedisTemplate;
+import com.experiment.model.Quote;
+import com.experiment.store.MarketDataStore;
+import com.experiment.store.MarketDataStore.Kind;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+/**
+ * 行情存储：按 币种 × 交易所 × 种类 写入 {@link MarketDataStore}（md.store.type 选择 Redis / 进程内 / 堆外实现），
+ * 值为 {@link MarketDataCodec} 的二进制编码，读取一个币种全部交易所为一次 {@link MarketDataStore#snapshot}。
+ * 过期由值内的 updatedAt 判断，与存储实现无关。
+ * <p>
+ * 同一 slot 的合并、存储写入与 {@link MarketDataListener#onQuoteStored} 等回调在该 slot 的写锁（{@link SlotState}）内完成，
+ * 并发写入方落到存储与共享报价表的顺序与内存中的顺序一致，不会出现旧值后写覆盖新值；不同 slot 互不等待，
+ * 存储 I/O 与回调不在 ConcurrentHashMap 的 compute 内执行。
+ */
 @Service
 public class MarketDataService {
 
-    private static final String FUNDING_PREFIX = "funding:";
-    private static final String FUTURES_PREFIX = "futures:";
-    private static final String SPOT_PREFIX = "spot:";
+    private static final Logger log = LoggerFactory.getLogger(MarketDataService.class);
 
-    /** 所有 Redis 缓存的有效期（秒）。15s 覆盖 Kraken/Hyperliquid 等慢 fetcher 的完整轮询周期（6-10s），减少间歇性空数据 */
-    private static final long CACHE_TTL_SECONDS = 15;
+    private static final String FUNDING = "funding";
+    private static final String FUTURES = "futures";
+    private static final String SPOT = "spot";
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    /** 行情有效期（毫秒）。15s 覆盖 Kraken/Hyperliquid 等慢 fetcher 的完整轮询周期（6-10s），减少间歇性空数据 */
+    private static final long CACHE_TTL_MS = TimeUnit.SECONDS.toMillis(15);
+    private static final MarketDataCodec.StoredFunding EMPTY_FUNDING =
+            new MarketDataCodec.StoredFunding(null, null, null, null, null, 0);
 
-    public MarketDataService(RedisTemplate<String, Object> redisTemplate) {
-        this.redisTemplate = redisTemplate;
+    /** 汇率变动后的报价重写在独立线程执行，不占用 {@link FxRates} 回调所在的 WebSocket 读线程 */
+    private static final ExecutorService REPRICER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "fx-reprice");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** 恢复重放时当前值的原始 updatedAt，见 {@link #eventTimeMillis()} */
+    private static final ThreadLocal<Long> REPLAY_TIME = new ThreadLocal<>();
+    /** 应用集群其它节点转发的值时该值的 updatedAt，见 {@link #eventTimeMillis()} */
+    private static final ThreadLocal<Long> RELAY_TIME = new ThreadLocal<>();
+
+    private final MarketDataStore store;
+    private final SourceArbiter arbiter;
+    private final List<MarketDataListener> listeners = new CopyOnWriteArrayList<>();
+    /** 本节点实时写入存储的编码值（不含恢复与转发），集群模式下转发给其它节点 */
+    private final List<MarketDataStore.Visitor> storeWriteListeners = new CopyOnWriteArrayList<>();
+    /** 每个字段最近写入的报价，用于合并未提供的买一/卖一及汇率变动时重写 */
+    private final Map<Slot, SlotState<MarketDataCodec.StoredQuote>> lastQuotes = new ConcurrentHashMap<>();
+    /** 每个字段最近写入的资金费率，仅用于按 slot 串行化存储写入 */
+    private final Map<Slot, SlotState<MarketDataCodec.StoredFunding>> lastFunding = new ConcurrentHashMap<>();
+    /** 非 USDT 计价报价的最近一次原始值，汇率变动时据此重算；写入报价时在同一 slot 的写锁内更新 */
+    private final Map<Slot, RawQuote> rawQuotes = new ConcurrentHashMap<>();
+    /** 已提交、尚未执行的重写任务，同一计价币的连续变动合并为一次 */
+    private final Set<QuoteCurrency> pendingReprice = ConcurrentHashMap.newKeySet();
+
+    public MarketDataService(MarketDataStore store, SourceArbiter arbiter) {
+        this.store = store;
+        this.arbiter = arbiter;
+        log.info("Market data store: {}", store.name());
+        FxRates.addListener(this::scheduleReprice);
+    }
+
+    /** 注册行情写入回调 */
+    public void addListener(MarketDataListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 注册存储写入回调：本节点每次实时写入存储后、在该 slot 的写锁内以编码后的值同步调用，
+     * 同一 slot 的回调顺序与写入顺序一致。{@link #restore} 与 {@link #applyRelayed} 采用的值不回调。
+     */
+    public void addStoreWriteListener(MarketDataStore.Visitor listener) {
+        storeWriteListeners.add(listener);
+    }
+
+    /**
+     * 当前回调对应的行情时间（毫秒）：{@link #restore} 重放或 {@link #applyRelayed} 时为值的原始 updatedAt，
+     * 否则为当前时间
+     */
+    public static long eventTimeMillis() {
+        Long t = REPLAY_TIME.get();
+        if (t == null) t = RELAY_TIME.get();
+        return t != null ? t : System.currentTimeMillis();
+    }
+
+    /** 当前回调是否来自 {@link #restore} 重放（而非实时行情） */
+    public static boolean replaying() {
+        return REPLAY_TIME.get() != null;
+    }
+
+    /** 当前回调是否来自 {@link #applyRelayed}（集群其它节点采集的行情） */
+    public static boolean relayed() {
+        return RELAY_TIME.get() != null;
+    }
+
+    /**
+     * 恢复一条持久化的存储值（{@link MarketDataStore#forEach} 导出的字节）：保留原 updatedAt，已过期的跳过；
+     * 存储中已有更新的值时以存储为准。采用的值按原始时间重放给监听方，不经仲裁、不发布延迟指标。
+     *
+     * @return 是否采用并重放
+     */
+    public boolean restore(String symbol, String exchange, Kind kind, byte[] value) {
+        long minUpdatedAt = System.currentTimeMillis() - CACHE_TTL_MS;
+        byte[] existing = store.get(symbol, exchange, kind);
+        if (kind == Kind.FUNDING) {
+            MarketDataCodec.StoredFunding restored = MarketDataCodec.decodeFunding(value);
+            MarketDataCodec.StoredFunding current = existing != null ? MarketDataCodec.decodeFunding(existing) : null;
+            if (restored == null || restored.updatedAt() < minUpdatedAt) return false;
+            if (current != null && current.updatedAt() >= restored.updatedAt()) return false;
+            SlotState<MarketDataCodec.StoredFunding> state = state(lastFunding, new Slot(symbol, exchange, kind));
+            state.lock.lock();
+            try {
+                if (state.value != null && state.value.updatedAt() >= restored.updatedAt()) return false;
+                store.put(symbol, exchange, kind, value);
+                state.value = restored;
+            } finally {
+                state.lock.unlock();
+            }
+            notifyAs(REPLAY_TIME, restored.updatedAt(), fundingCallback(exchange, symbol, restored));
+            return true;
+        }
+        MarketDataCodec.StoredQuote restored = MarketDataCodec.decodeQuote(value);
+        MarketDataCodec.StoredQuote current = existing != null ? MarketDataCodec.decodeQuote(existing) : null;
+        if (restored == null || restored.updatedAt() < minUpdatedAt) return false;
+        if (current != null && current.updatedAt() >= restored.updatedAt()) return false;
+        SlotState<MarketDataCodec.StoredQuote> state = state(lastQuotes, new Slot(symbol, exchange, kind));
+        state.lock.lock();
+        try {
+            if (state.value != null && state.value.updatedAt() >= restored.updatedAt()) return false;
+            store.put(symbol, exchange, kind, value);
+            state.value = restored;
+        } finally {
+            state.lock.unlock();
+        }
+        notifyAs(REPLAY_TIME, restored.updatedAt(), quoteCallback(exchange, symbol, kind, restored, minUpdatedAt));
+        return true;
+    }
+
+    /**
+     * 应用集群其它节点写入的值（{@link #addStoreWriteListener} 在写入节点上收到的字节）：不经仲裁，
+     * 比本节点已有的值旧时忽略；存储非共享时（{@link MarketDataStore#shared}）同时写入本节点存储。
+     * 采用的值按原始时间回调监听方，分析引擎因此看到全部交易所的行情，而不只是本节点采集的部分。
+     *
+     * @return 是否采用
+     */
+    public boolean applyRelayed(String symbol, String exchange, Kind kind, byte[] value) {
+        Slot slot = new Slot(symbol, exchange, kind);
+        if (kind == Kind.FUNDING) {
+            MarketDataCodec.StoredFunding relayed = MarketDataCodec.decodeFunding(value);
+            if (relayed == null) return false;
+            SlotState<MarketDataCodec.StoredFunding> state = state(lastFunding, slot);
+            state.lock.lock();
+            try {
+                if (state.value != null && state.value.updatedAt() > relayed.updatedAt()) return false;
+                if (!store.shared()) store.put(symbol, exchange, kind, value);
+                state.value = relayed;
+            } finally {
+                state.lock.unlock();
+            }
+            notifyAs(RELAY_TIME, relayed.updatedAt(), fundingCallback(exchange, symbol, relayed));
+            return true;
+        }
+        MarketDataCodec.StoredQuote relayed = MarketDataCodec.decodeQuote(value);
+        if (relayed == null) return false;
+        SlotState<MarketDataCodec.StoredQuote> state = state(lastQuotes, slot);
+        state.lock.lock();
+        try {
+            // 汇率重写保留原 updatedAt，相同时间的值同样采用
+            if (state.value != null && state.value.updatedAt() > relayed.updatedAt()) return false;
+            if (!store.shared()) store.put(symbol, exchange, kind, value);
+            state.value = relayed;
+        } finally {
+            state.lock.unlock();
+        }
+        long minUpdatedAt = System.currentTimeMillis() - CACHE_TTL_MS;
+        notifyAs(RELAY_TIME, relayed.updatedAt(), quoteCallback(exchange, symbol, kind, relayed, minUpdatedAt));
+        return true;
+    }
+
+    private static Consumer<MarketDataListener> fundingCallback(String exchange, String symbol,
+                                                                MarketDataCodec.StoredFunding value) {
+        return l -> {
+            l.onFundingStored(exchange, symbol, value.rate(), value.nextFundingTime(), value.updatedAt());
+            l.onFundingRate(exchange, symbol, value.rate(), value.nextFundingTime());
+        };
+    }
+
+    private static Consumer<MarketDataListener> quoteCallback(String exchange, String symbol, Kind kind,
+                                                              MarketDataCodec.StoredQuote value, long minUpdatedAt) {
+        Quote q = value.quote(minUpdatedAt);
+        return l -> {
+            l.onQuoteStored(exchange, symbol, kind, q, value.updatedAt(), value.bookUpdatedAt());
+            if (kind == Kind.SPOT) l.onSpotPrice(exchange, symbol, q.price(), q.bid(), q.ask());
+            else l.onFuturesPrice(exchange, symbol, q.price(), q.bid(), q.ask());
+        };
+    }
+
+    /** 在 marker（{@link #REPLAY_TIME} / {@link #RELAY_TIME}）标记下回调全部监听方 */
+    private void notifyAs(ThreadLocal<Long> marker, long updatedAt, Consumer<MarketDataListener> callback) {
+        marker.set(updatedAt);
+        try {
+            for (MarketDataListener l : listeners) {
+                try {
+                    callback.accept(l);
+                } catch (RuntimeException e) {
+                    log.debug("Listener {} failed on {}: {}", l.getClass().getSimpleName(),
+                            marker == REPLAY_TIME ? "replay" : "relay", e.getMessage());
+                }
+            }
+        } finally {
+            marker.remove();
+        }
     }
 
-    public void saveFundingRate(String exchange, String symbol, BigDecimal rate, Long nextFundingTime) {
-        String key = FUNDING_PREFIX + exchange + ":" + symbol;
-        
-        // 如果没有提供nextFundingTime，自动计算下一个结算时间（每8小时一次：00:00, 08:00, 16:00 UTC）
-        if (nextFundingTime == null && rate != null) {
-            nextFundingTime = calculateNextFundingTime();
-        }
-        
-        Map<String, Object> data = new HashMap<>();
-        data.put("rate", rate != null ? rate.toString() : null);
-        data.put("nextFundingTime", nextFundingTime);
-        data.put("updatedAt", System.currentTimeMillis());
-        redisTemplate.opsForHash().putAll(key, data.entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue() != null ? e.getValue().toString() : "")));
-        redisTemplate.expire(key, CACHE_TTL_SECONDS, TimeUnit.SECONDS);
-    }
-    
     /**
-     * 计算下一个资金费率结算时间。
-     * 大多数永续合约交易所每8小时结算一次，时间点为UTC时间的00:00, 08:00, 16:00。
-     * 
-     * @return 下一个结算时间的毫秒时间戳
+     * 资金费率：保存原始费率，以及按 {@link FundingSchedules} 折算的 8h 费率、年化收益与结算周期。
+     * 未提供 nextFundingTime 时按该交易所结算规则推算下一次结算时间。
+     * 写入前经 {@link SourceArbiter} 仲裁，被丢弃的更新不写存储也不回调。
      */
-    private Long calculateNextFundingTime() {
-        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
-        
-        // 结算时间点：00:00, 08:00, 16:00 UTC
-        int[] fundingHours = {0, 8, 16};
-        
-        // 找到下一个结算时间点
-        for (int hour : fundingHours) {
-            ZonedDateTime candidate = now.withHour(hour).withMinute(0).withSecond(0).withNano(0);
-            
-            // 如果候选时间在今天且还未到，返回它
-            if (candidate.isAfter(now)) {
-                return candidate.toInstant().toEpochMilli();
+    public void saveFundingRate(String exchange, String symbol, BigDecimal rate, Long nextFundingTime) {
+        SourceArbiter.Decision decision = arbiter.offer(exchange, symbol, FUNDING, FeedSource.current(),
+                TickLatency.currentEventTimeMs(), Arrays.asList(rate, nextFundingTime));
+        if (decision == SourceArbiter.Decision.DROP) return;
+        FundingSchedule schedule = FundingSchedules.of(exchange, symbol);
+        long now = System.currentTimeMillis();
+
+        if (nextFundingTime == null && rate != null) {
+            nextFundingTime = schedule.nextSettlement(now);
+        }
+
+        MarketDataCodec.StoredFunding value = new MarketDataCodec.StoredFunding(
+                rate,
+                rate != null ? schedule.to8h(rate) : null,
+                rate != null ? schedule.annualized(rate) : null,
+                schedule.getIntervalHours(),
+                nextFundingTime,
+                now);
+        if (decision == SourceArbiter.Decision.WRITE) {
+            long start = TickLatency.storeStart();
+            Slot slot = new Slot(symbol, exchange, Kind.FUNDING);
+            SlotState<MarketDataCodec.StoredFunding> state = state(lastFunding, slot);
+            byte[] encoded = MarketDataCodec.encodeFunding(value);
+            state.lock.lock();
+            try {
+                state.value = value;
+                store.put(symbol, exchange, Kind.FUNDING, encoded);
+                notifyStoreWrite(slot, encoded);
+                for (MarketDataListener l : listeners) {
+                    try {
+                        l.onFundingStored(exchange, symbol, value.rate(), value.nextFundingTime(), value.updatedAt());
+                    } catch (RuntimeException e) {
+                        log.debug("Listener {} failed on stored funding {}:{}: {}", l.getClass().getSimpleName(), exchange, symbol, e.getMessage());
+                    }
+                }
+            } finally {
+                state.lock.unlock();
+            }
+            IngestMetrics.marketDataWrite(exchange, "funding", TickLatency.storeEnd(exchange, start));
+        }
+        for (MarketDataListener l : listeners) {
+            try {
+                l.onFundingRate(exchange, symbol, rate, nextFundingTime);
+            } catch (RuntimeException e) {
+                log.debug("Listener {} failed on funding {}:{}: {}", l.getClass().getSimpleName(), exchange, symbol, e.getMessage());
             }
         }
-        
-        // 如果今天的所有结算时间都已过去，返回明天的00:00
-        ZonedDateTime tomorrow = now.plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
-        return tomorrow.toInstant().toEpochMilli();
     }
 
     public void saveFuturesPrice(String exchange, String symbol, BigDecimal price) {
-        String key = FUTURES_PREFIX + exchange + ":" + symbol;
-        
-        Map<String, Object> data = new HashMap<>();
-        data.put("price", price != null ? price.toString() : null);
-        data.put("updatedAt", System.currentTimeMillis());
-        redisTemplate.opsForHash().putAll(key, data.entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue() != null ? e.getValue().toString() : "")));
-        redisTemplate.expire(key, CACHE_TTL_SECONDS, TimeUnit.SECONDS);
+        saveFuturesQuote(exchange, symbol, QuoteCurrency.USDT, price, null, null, null, null);
+    }
+
+    /** 非 USDT 计价的期货最新价，入库前按 {@link FxRates} 折算为 USDT */
+    public void saveFuturesPrice(String exchange, String symbol, QuoteCurrency quote, BigDecimal price) {
+        saveFuturesQuote(exchange, symbol, quote, price, null, null, null, null);
+    }
+
+    /**
+     * 期货报价：最新价 + 买一/卖一价与数量。买卖盘字段为 null 时沿用上一条报价中未过期的买卖盘（按其自身时间过期）。
+     */
+    public void saveFuturesQuote(String exchange, String symbol, BigDecimal price,
+                                 BigDecimal bid, BigDecimal bidSize, BigDecimal ask, BigDecimal askSize) {
+        saveFuturesQuote(exchange, symbol, QuoteCurrency.USDT, price, bid, bidSize, ask, askSize);
+    }
+
+    /**
+     * 以 quote 计价的期货报价，价格字段折算为 USDT 后入库，原始计价币与原始价格一并保存。
+     * 写入前经 {@link SourceArbiter} 仲裁，被丢弃的更新不写存储也不回调。
+     */
+    public void saveFuturesQuote(String exchange, String symbol, QuoteCurrency quote, BigDecimal price,
+                                 BigDecimal bid, BigDecimal bidSize, BigDecimal ask, BigDecimal askSize) {
+        SourceArbiter.Decision decision = arbiter.offer(exchange, symbol, FUTURES, FeedSource.current(),
+                TickLatency.currentEventTimeMs(), Arrays.asList(quote, price, bid, bidSize, ask, askSize));
+        if (decision == SourceArbiter.Decision.DROP) return;
+        Slot slot = new Slot(symbol, exchange, Kind.FUTURES);
+        BigDecimal usdtPrice = FxRates.toUsdt(price, quote);
+        BigDecimal usdtBid = FxRates.toUsdt(bid, quote);
+        BigDecimal usdtAsk = FxRates.toUsdt(ask, quote);
+        if (decision == SourceArbiter.Decision.WRITE) {
+            long start = TickLatency.storeStart();
+            writeQuote(slot, quote, price, bid, ask, usdtPrice, usdtBid, bidSize, usdtAsk, askSize);
+            IngestMetrics.marketDataWrite(exchange, "futures", TickLatency.storeEnd(exchange, start));
+            StartupTimeline.mark(StartupTimeline.FIRST_QUOTE);
+        } else if (quote != QuoteCurrency.USDT) {
+            rememberRaw(slot, quote, price, bid, ask);
+        }
+        for (MarketDataListener l : listeners) {
+            try {
+                l.onFuturesPrice(exchange, symbol, usdtPrice, usdtBid, usdtAsk);
+            } catch (RuntimeException e) {
+                log.debug("Listener {} failed on futures {}:{}: {}", l.getClass().getSimpleName(), exchange, symbol, e.getMessage());
+            }
+        }
     }
 
     public void saveSpotPrice(String exchange, String symbol, BigDecimal price) {
-        String key = SPOT_PREFIX + exchange + ":" + symbol;
-        Map<String, Object> data = new HashMap<>();
-        data.put("price", price != null ? price.toString() : null);
-        data.put("updatedAt", System.currentTimeMillis());
-        redisTemplate.opsForHash().putAll(key, data.entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue() != null ? e.getValue().toString() : "")));
-        redisTemplate.expire(key, CACHE_TTL_SECONDS, TimeUnit.SECONDS);
+        saveSpotQuote(exchange, symbol, QuoteCurrency.USDT, price, null, null, null, null);
+    }
+
+    /** 非 USDT 计价的现货最新价，入库前按 {@link FxRates} 折算为 USDT */
+    public void saveSpotPrice(String exchange, String symbol, QuoteCurrency quote, BigDecimal price) {
+        saveSpotQuote(exchange, symbol, quote, price, null, null, null, null);
+    }
+
+    /**
+     * 现货报价：最新价 + 买一/卖一价与数量。买卖盘字段为 null 时沿用上一条报价中未过期的买卖盘（按其自身时间过期）。
+     */
+    public void saveSpotQuote(String exchange, String symbol, BigDecimal price,
+                              BigDecimal bid, BigDecimal bidSize, BigDecimal ask, BigDecimal askSize) {
+        saveSpotQuote(exchange, symbol, QuoteCurrency.USDT, price, bid, bidSize, ask, askSize);
+    }
+
+    /**
+     * 以 quote 计价的现货报价，价格字段折算为 USDT 后入库，原始计价币与原始价格一并保存。
+     * 写入前经 {@link SourceArbiter} 仲裁，被丢弃的更新不写存储也不回调。
+     */
+    public void saveSpotQuote(String exchange, String symbol, QuoteCurrency quote, BigDecimal price,
+                              BigDecimal bid, BigDecimal bidSize, BigDecimal ask, BigDecimal askSize) {
+        SourceArbiter.Decision decision = arbiter.offer(exchange, symbol, SPOT, FeedSource.current(),
+                TickLatency.currentEventTimeMs(), Arrays.asList(quote, price, bid, bidSize, ask, askSize));
+        if (decision == SourceArbiter.Decision.DROP) return;
+        Slot slot = new Slot(symbol, exchange, Kind.SPOT);
+        BigDecimal usdtPrice = FxRates.toUsdt(price, quote);
+        BigDecimal usdtBid = FxRates.toUsdt(bid, quote);
+        BigDecimal usdtAsk = FxRates.toUsdt(ask, quote);
+        if (decision == SourceArbiter.Decision.WRITE) {
+            long start = TickLatency.storeStart();
+            writeQuote(slot, quote, price, bid, ask, usdtPrice, usdtBid, bidSize, usdtAsk, askSize);
+            IngestMetrics.marketDataWrite(exchange, "spot", TickLatency.storeEnd(exchange, start));
+            StartupTimeline.mark(StartupTimeline.FIRST_QUOTE);
+            TickLatency.spotCommitted(exchange, symbol);
+        } else if (quote != QuoteCurrency.USDT) {
+            rememberRaw(slot, quote, price, bid, ask);
+        }
+        for (MarketDataListener l : listeners) {
+            try {
+                l.onSpotPrice(exchange, symbol, usdtPrice, usdtBid, usdtAsk);
+            } catch (RuntimeException e) {
+                log.debug("Listener {} failed on spot {}:{}: {}", l.getClass().getSimpleName(), exchange, symbol, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 报价编码为一个存储值：price / bid / bidSize / ask / askSize / updatedAt / bookUpdatedAt（价格均为 USDT），
+     * 非 USDT 计价时另带 quoteCcy / rawPrice / fxRate。未提供的买卖盘字段取上一条报价中买卖盘未过期的值，
+     * 此时 bookUpdatedAt 沿用原值：只有最新价在更新时，买卖盘不会因 updatedAt 刷新而一直被当作新鲜。
+     * 合并与写入在该 slot 的写锁内完成，非 USDT 计价的原始报价也在锁内记录，与 {@link #repriceQuotes} 对该 slot 的重写互斥。
+     */
+    private void writeQuote(Slot slot, QuoteCurrency quote, BigDecimal rawPrice, BigDecimal rawBid, BigDecimal rawAsk,
+                            BigDecimal price, BigDecimal bid, BigDecimal bidSize, BigDecimal ask, BigDecimal askSize) {
+        long now = System.currentTimeMillis();
+        boolean bookProvided = bid != null || ask != null;
+        SlotState<MarketDataCodec.StoredQuote> state = state(lastQuotes, slot);
+        state.lock.lock();
+        try {
+            MarketDataCodec.StoredQuote prev = state.value;
+            if (quote != QuoteCurrency.USDT) rememberRaw(slot, quote, rawPrice, rawBid, rawAsk);
+            boolean carry = prev != null && now - prev.bookUpdatedAt() <= CACHE_TTL_MS;
+            Quote last = carry ? prev.quote() : Quote.EMPTY;
+            MarketDataCodec.StoredQuote next = new MarketDataCodec.StoredQuote(
+                    new Quote(price,
+                            bid != null ? bid : last.bid(),
+                            bidSize != null ? bidSize : last.bidSize(),
+                            ask != null ? ask : last.ask(),
+                            askSize != null ? askSize : last.askSize()),
+                    quote, rawPrice,
+                    quote != QuoteCurrency.USDT ? BigDecimal.valueOf(FxRates.rate(quote)) : null,
+                    now,
+                    bookProvided || !carry ? now : prev.bookUpdatedAt());
+            state.value = next;
+            putQuote(slot, next);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    /** 报价写入存储并回调 {@link MarketDataListener#onQuoteStored}；须持有该 slot 的写锁 */
+    private void putQuote(Slot slot, MarketDataCodec.StoredQuote value) {
+        byte[] encoded = MarketDataCodec.encodeQuote(value);
+        store.put(slot.symbol(), slot.exchange(), slot.kind(), encoded);
+        notifyStoreWrite(slot, encoded);
+        for (MarketDataListener l : listeners) {
+            try {
+                l.onQuoteStored(slot.exchange(), slot.symbol(), slot.kind(), value.quote(), value.updatedAt(), value.bookUpdatedAt());
+            } catch (RuntimeException e) {
+                log.debug("Listener {} failed on stored quote {}:{}: {}", l.getClass().getSimpleName(), slot.exchange(), slot.symbol(), e.getMessage());
+            }
+        }
     }
 
-    @SuppressWarnings("unchecked")
+    private void notifyStoreWrite(Slot slot, byte[] encoded) {
+        for (MarketDataStore.Visitor l : storeWriteListeners) {
+            try {
+                l.accept(slot.symbol(), slot.exchange(), slot.kind(), encoded);
+            } catch (RuntimeException e) {
+                log.debug("Store write listener failed on {}:{}: {}", slot.exchange(), slot.symbol(), e.getMessage());
+            }
+        }
+    }
+
+    /** 记录原始报价；未提供的买一/卖一沿用上一条 */
+    private void rememberRaw(Slot slot, QuoteCurrency quote, BigDecimal price, BigDecimal bid, BigDecimal ask) {
+        long now = System.currentTimeMillis();
+        rawQuotes.compute(slot, (k, prev) -> new RawQuote(quote, price,
+                bid != null || prev == null ? bid : prev.bid(),
+                ask != null || prev == null ? ask : prev.ask(), now));
+    }
+
+    /** FxRates 回调：把重写交给 {@link #REPRICER}，同一计价币尚未执行的任务只保留一个 */
+    private void scheduleReprice(QuoteCurrency currency) {
+        if (pendingReprice.add(currency)) {
+            REPRICER.execute(() -> {
+                pendingReprice.remove(currency);
+                repriceQuotes(currency);
+            });
+        }
+    }
+
+    /**
+     * 汇率变动后按新汇率重写仍在有效期内的非 USDT 报价。
+     * 在该 slot 的写锁内读取当前原始报价，不会用迭代开始时的旧原始价覆盖期间新写入的报价。
+     * 保留原 updatedAt（过期时间不变），只回调 {@link MarketDataListener#onQuoteStored}（价格回调等下一条行情到达时自然带上新汇率）。
+     */
+    private void repriceQuotes(QuoteCurrency currency) {
+        long now = System.currentTimeMillis();
+        BigDecimal fxRate = BigDecimal.valueOf(FxRates.rate(currency));
+        for (Map.Entry<Slot, RawQuote> e : rawQuotes.entrySet()) {
+            if (e.getValue().currency() != currency) continue;
+            if (now - e.getValue().receivedAt() > CACHE_TTL_MS) {
+                rawQuotes.remove(e.getKey(), e.getValue());
+                continue;
+            }
+            SlotState<MarketDataCodec.StoredQuote> state = lastQuotes.get(e.getKey());
+            if (state == null) continue;
+            state.lock.lock();
+            try {
+                MarketDataCodec.StoredQuote prev = state.value;
+                RawQuote raw = rawQuotes.get(e.getKey());
+                if (prev == null || raw == null || raw.currency() != currency) continue;
+                Quote q = prev.quote();
+                MarketDataCodec.StoredQuote next = new MarketDataCodec.StoredQuote(
+                        new Quote(raw.price() != null ? FxRates.toUsdt(raw.price(), currency) : q.price(),
+                                raw.bid() != null ? FxRates.toUsdt(raw.bid(), currency) : q.bid(),
+                                q.bidSize(),
+                                raw.ask() != null ? FxRates.toUsdt(raw.ask(), currency) : q.ask(),
+                                q.askSize()),
+                        prev.quoteCcy(), raw.price(), fxRate, prev.updatedAt(), prev.bookUpdatedAt());
+                state.value = next;
+                putQuote(e.getKey(), next);
+            } finally {
+                state.lock.unlock();
+            }
+        }
+    }
+
+    /** 一次快照读取币种全部交易所的资金费率与报价，过期值视为缺失 */
     public List<MarketDataDTO> getMarketDataBySymbol(String symbol) {
         String symbolUpper = symbol.toUpperCase();
         String symbolKey = symbolUpper + "USDT";
 
-        List<String> exchanges = List.of(
-                "binance", "okx", "bybit", "gateio", "mexc", "bitget",
-                "coinex", "cryptocom",
-                "kucoin", "htx", "bingx", "coinw",
-                "kraken", "bitfinex", "hyperliquid", "bitunix",
-                "whitebit", "lbank", "dydx"
-        );
+        List<String> exchanges = Exchanges.ALL;
 
         List<MarketDataDTO> result = new ArrayList<>();
+        long start = System.nanoTime();
+        MarketDataStore.Snapshot snapshot = store.snapshot(symbolKey);
+        long minUpdatedAt = System.currentTimeMillis() - CACHE_TTL_MS;
 
         for (String exchange : exchanges) {
-            BigDecimal fundingRate = getFundingRate(exchange, symbolKey);
-            Long nextFundingTime = getNextFundingTime(exchange, symbolKey);
-            BigDecimal futuresPrice = getFuturesPrice(exchange, symbolKey);
-            BigDecimal spotPrice = getSpotPrice(exchange, symbolKey);
+            MarketDataCodec.StoredFunding funding = getFunding(snapshot.get(exchange, Kind.FUNDING), minUpdatedAt);
+            Quote futures = getQuote(snapshot.get(exchange, Kind.FUTURES), minUpdatedAt);
+            Quote spot = getQuote(snapshot.get(exchange, Kind.SPOT), minUpdatedAt);
 
             result.add(new MarketDataDTO(
                     exchange,
-                    fundingRate,
-                    nextFundingTime,
-                    futuresPrice,
-                    spotPrice,
+                    funding.rate(),
+                    funding.nextFundingTime(),
+                    futures.price(),
+                    spot.price(),
                     ExchangeFeeRates.getSpotFeeRate(exchange),
-                    ExchangeFeeRates.getFuturesFeeRate(exchange)
+                    ExchangeFeeRates.getFuturesFeeRate(exchange),
+                    spot.bid(),
+                    spot.ask(),
+                    futures.bid(),
+                    futures.ask(),
+                    funding.rate8h(),
+                    funding.intervalHours(),
+                    funding.annualized()
             ));
         }
+        IngestMetrics.marketDataRead(System.nanoTime() - start);
 
         return result.stream()
                 .sorted((a, b) -> {
-                    BigDecimal ra = a.fundingRate() != null ? a.fundingRate() : BigDecimal.ZERO;
-                    BigDecimal rb = b.fundingRate() != null ? b.fundingRate() : BigDecimal.ZERO;
+                    // 按 8h 折算后的费率排序，不同结算周期之间可比
+                    BigDecimal ra = a.fundingRate8h() != null ? a.fundingRate8h() : BigDecimal.ZERO;
+                    BigDecimal rb = b.fundingRate8h() != null ? b.fundingRate8h() : BigDecimal.ZERO;
                     return rb.compareTo(ra);
                 })
                 .collect(Collectors.toList());
     }
 
-    private BigDecimal getFundingRate(String exchange, String symbol) {
-        String key = FUNDING_PREFIX + exchange + ":" + symbol;
-        Object val = redisTemplate.opsForHash().get(key, "rate");
-        if (val == null || val.toString().isEmpty()) return null;
-        try {
-            return new BigDecimal(val.toString());
-        } catch (NumberFormatException e) {
-            return null;
-        }
+    private static MarketDataCodec.StoredFunding getFunding(byte[] bytes, long minUpdatedAt) {
+        MarketDataCodec.StoredFunding v = bytes != null ? MarketDataCodec.decodeFunding(bytes) : null;
+        return v != null && v.updatedAt() >= minUpdatedAt ? v : EMPTY_FUNDING;
     }
 
-    private Long getNextFundingTime(String exchange, String symbol) {
-        String key = FUNDING_PREFIX + exchange + ":" + symbol;
-        Object val = redisTemplate.opsForHash().get(key, "nextFundingTime");
-        if (val == null || val.toString().isEmpty()) return null;
-        try {
-            return Long.parseLong(val.toString());
-        } catch (NumberFormatException e) {
-            return null;
-        }
+    private static Quote getQuote(byte[] bytes, long minUpdatedAt) {
+        MarketDataCodec.StoredQuote v = bytes != null ? MarketDataCodec.decodeQuote(bytes) : null;
+        return v != null && v.updatedAt() >= minUpdatedAt ? v.quote(minUpdatedAt) : Quote.EMPTY;
     }
 
-    private BigDecimal getFuturesPrice(String exchange, String symbol) {
-        String key = FUTURES_PREFIX + exchange + ":" + symbol;
-        Object val = redisTemplate.opsForHash().get(key, "price");
-        if (val == null || val.toString().isEmpty()) return null;
-        try {
-            return new BigDecimal(val.toString());
-        } catch (NumberFormatException e) {
-            return null;
-        }
+    private static <V> SlotState<V> state(Map<Slot, SlotState<V>> map, Slot slot) {
+        return map.computeIfAbsent(slot, k -> new SlotState<>());
     }
 
-    private BigDecimal getSpotPrice(String exchange, String symbol) {
-        String key = SPOT_PREFIX + exchange + ":" + symbol;
-        Object val = redisTemplate.opsForHash().get(key, "price");
-        if (val == null || val.toString().isEmpty()) return null;
-        try {
-            return new BigDecimal(val.toString());
-        } catch (NumberFormatException e) {
-            return null;
-        }
+    /**
+     * 一个 slot 的最近写入值及其写锁。ConcurrentHashMap 只负责创建该对象，合并、存储 I/O 与回调在 lock 内执行：
+     * 不占用 map 的桶锁，回调中再访问同一 slot 可重入；用 ReentrantLock 而非 synchronized，虚拟线程阻塞在存储 I/O 时不钉住载体线程。
+     */
+    private static final class SlotState<V> {
+        final ReentrantLock lock = new ReentrantLock();
+        V value;
     }
+
+    /** 币种 + 交易所 + 种类，标识一条报价 */
+    private record Slot(String symbol, String exchange, Kind kind) {}
+
+    private record RawQuote(QuoteCurrency currency, BigDecimal price, BigDecimal bid, BigDecimal ask, long receivedAt) {}
 }
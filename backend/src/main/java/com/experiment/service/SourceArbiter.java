@@ -0,0 +1,86 @@
+package com.experiment.service;
+
+import com.experiment.metrics.IngestMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 同一字段（交易所 + 币种 + 种类）有多个来源写入时的仲裁，位于 {@link MarketDataService} 写存储之前：
+ * - 来源优先级：高优先级来源（{@link FeedSource} 声明顺序）在 hold-ms 内写过该字段时，丢弃低优先级来源的更新；
+ *   高优先级来源静默超过 hold-ms 后由低优先级来源接管
+ * - 事件时间：带交易所事件时间的更新早于该字段已接受的事件时间时丢弃（乱序/重放）
+ * - 值未变化：与上次写入的值逐字段相等（equals，不比摘要以免碰撞吞掉真实变化；BigDecimal 精度不同按变化处理，
+ *   只会多写一次）且距上次写入不足 refresh-ms 时不写存储，但仍回调监听方（内存报价时间照常刷新）
+ * <p>
+ * 被丢弃或抑制的写入按来源计数（md.writes.suppressed，reason: priority / stale / unchanged）。
+ */
+@Component
+public class SourceArbiter {
+
+    public enum Decision {
+        /** 写存储并回调监听方 */
+        WRITE,
+        /** 值未变化：不写存储，仍回调监听方 */
+        SKIP_WRITE,
+        /** 丢弃：不写存储，不回调 */
+        DROP
+    }
+
+    /** 高优先级来源的有效期，超过后低优先级来源可接管 */
+    @Value("${md.arbitration.hold-ms:3000}")
+    private long holdMs;
+
+    /** 值未变化时最长多久强制写一次，须小于行情有效期（15s） */
+    @Value("${md.arbitration.refresh-ms:5000}")
+    private long refreshMs;
+
+    private final Map<String, FieldState> fields = new ConcurrentHashMap<>();
+
+    /**
+     * @param kind        funding / futures / spot
+     * @param eventTimeMs 交易所事件时间，0 表示未知
+     * @param value       本次写入的值（各字段组成的列表，调用后不再修改），与上次写入的值 equals 比较判断是否变化
+     */
+    public Decision offer(String exchange, String symbol, String kind, FeedSource source, long eventTimeMs, Object value) {
+        FieldState st = fields.computeIfAbsent(exchange + ":" + symbol + ":" + kind, k -> new FieldState());
+        long now = System.currentTimeMillis();
+        String reason;
+        synchronized (st) {
+            if (st.source != null && source.ordinal() > st.source.ordinal() && now - st.acceptedAt < holdMs) {
+                reason = "priority";
+            } else if (eventTimeMs > 0 && source == st.source && eventTimeMs < st.eventTimeMs) {
+                reason = "stale";
+            } else {
+                st.source = source;
+                st.acceptedAt = now;
+                if (eventTimeMs > 0) st.eventTimeMs = eventTimeMs;
+                if (st.written && Objects.equals(st.value, value) && now - st.writtenAt < refreshMs) {
+                    reason = "unchanged";
+                } else {
+                    st.written = true;
+                    st.value = value;
+                    st.writtenAt = now;
+                    return Decision.WRITE;
+                }
+            }
+        }
+        IngestMetrics.writeSuppressed(exchange, source.tag(), reason);
+        return "unchanged".equals(reason) ? Decision.SKIP_WRITE : Decision.DROP;
+    }
+
+    private static final class FieldState {
+        /** 最近一次被接受的来源 */
+        FeedSource source;
+        long acceptedAt;
+        /** 已接受的最大交易所事件时间 */
+        long eventTimeMs;
+        boolean written;
+        /** 上次写入存储的值 */
+        Object value;
+        long writtenAt;
+    }
+}
@@ -0,0 +1,114 @@
+package com.experiment.spread;
+
+import com.experiment.config.Exchanges;
+import com.experiment.config.Symbols;
+import com.experiment.service.MarketDataListener;
+import com.experiment.model.Quote;
+import com.experiment.service.MarketDataService;
+import com.experiment.store.MarketDataStore.Kind;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * 现货报价列式存储：每个币种一组按交易所序号索引的原始数组（买入价 = 卖一、卖出价 = 买一，无买卖盘时为最新价），
+ * 外加一个 long 有效位图（第 i 位表示交易所 i 有报价）。
+ * <p>
+ * 作为 {@link MarketDataListener} 挂在行情写入路径上，价差计算直接读内存数组，不再每秒按交易所逐个读 Redis。
+ * 数据取自 {@link MarketDataListener#onQuoteStored} 的合并报价（与存储中的值一致）：只有最新价的更新沿用上一条的买卖盘，
+ * 买卖盘按 bookUpdatedAt 单独过期，过期后买入/卖出价退回最新价；汇率重写也会同步到列中。
+ * 写入与快照拷贝在币种级锁内完成，计算方拿到的是同一时刻的一致视图。
+ */
+@Component
+public class SpotQuoteColumns implements MarketDataListener {
+
+    private final MarketDataService marketDataService;
+    private final Column[] columns = new Column[Symbols.count()];
+
+    public SpotQuoteColumns(MarketDataService marketDataService) {
+        if (Exchanges.count() > Long.SIZE) {
+            throw new IllegalStateException("Validity bitmap supports at most 64 exchanges: " + Exchanges.count());
+        }
+        this.marketDataService = marketDataService;
+        for (int s = 0; s < columns.length; s++) {
+            columns[s] = new Column(Exchanges.count());
+        }
+    }
+
+    @PostConstruct
+    public void register() {
+        marketDataService.addListener(this);
+    }
+
+    @Override
+    public void onQuoteStored(String exchange, String symbol, Kind kind, Quote quote, long updatedAt, long bookUpdatedAt) {
+        BigDecimal price = quote.price();
+        if (kind != Kind.SPOT || price == null || price.signum() <= 0) return;
+        int e = Exchanges.ordinal(exchange);
+        int s = Symbols.ordinal(symbol);
+        if (e < 0 || s < 0) return;
+        BigDecimal bid = quote.bid();
+        BigDecimal ask = quote.ask();
+        double last = price.doubleValue();
+        double buy = ask != null && ask.signum() > 0 ? ask.doubleValue() : last;
+        double sell = bid != null && bid.signum() > 0 ? bid.doubleValue() : last;
+        columns[s].set(e, last, buy, sell, updatedAt, bookUpdatedAt);
+    }
+
+    /**
+     * 将币种 symbol 的买入/卖出价拷贝到调用方数组（长度 ≥ 交易所数），返回有效位图；
+     * updatedAt 早于 minUpdatedAtMs 的报价视为过期，不计入位图；买卖盘早于 minUpdatedAtMs 时买入/卖出价取最新价。
+     */
+    public long snapshot(int symbol, long minUpdatedAtMs, double[] buyOut, double[] sellOut) {
+        return columns[symbol].copy(minUpdatedAtMs, buyOut, sellOut, null);
+    }
+
+    /** 同 {@link #snapshot(int, long, double[], double[])}，另将各交易所报价的更新时间（毫秒）拷贝到 updatedAtOut */
+    public long snapshot(int symbol, long minUpdatedAtMs, double[] buyOut, double[] sellOut, long[] updatedAtOut) {
+        return columns[symbol].copy(minUpdatedAtMs, buyOut, sellOut, updatedAtOut);
+    }
+
+    private static final class Column {
+        final double[] last;
+        final double[] buy;
+        final double[] sell;
+        final long[] updatedAt;
+        final long[] bookUpdatedAt;
+        long valid;
+
+        Column(int n) {
+            last = new double[n];
+            buy = new double[n];
+            sell = new double[n];
+            updatedAt = new long[n];
+            bookUpdatedAt = new long[n];
+        }
+
+        synchronized void set(int e, double lastPrice, double buyPrice, double sellPrice, long quoteTime, long bookTime) {
+            last[e] = lastPrice;
+            buy[e] = buyPrice;
+            sell[e] = sellPrice;
+            updatedAt[e] = quoteTime;
+            bookUpdatedAt[e] = bookTime;
+            valid |= 1L << e;
+        }
+
+        synchronized long copy(long minUpdatedAtMs, double[] buyOut, double[] sellOut, long[] updatedAtOut) {
+            System.arraycopy(buy, 0, buyOut, 0, buy.length);
+            System.arraycopy(sell, 0, sellOut, 0, sell.length);
+            if (updatedAtOut != null) System.arraycopy(updatedAt, 0, updatedAtOut, 0, updatedAt.length);
+            long bits = valid;
+            for (long b = valid; b != 0; b &= b - 1) {
+                int e = Long.numberOfTrailingZeros(b);
+                if (updatedAt[e] < minUpdatedAtMs) {
+                    bits &= ~(1L << e);
+                } else if (bookUpdatedAt[e] < minUpdatedAtMs) {
+                    buyOut[e] = last[e];
+                    sellOut[e] = last[e];
+                }
+            }
+            return bits;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.experiment.startup;
+
+import com.experiment.cluster.FeedGroup;
+import com.experiment.metrics.StartupTimeline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 单机模式的行情源启动：上下文刷新完成后（全部单例与行情监听方已就绪、热重启快照已恢复）、Web 服务器启动之前，
+ * 把每个 {@link FeedGroup} 的每个行情源各交给一个虚拟线程并行启动。handler 构建、连接与 TLS 握手、首轮 HTTP 请求
+ * 互不等待，也不阻塞上下文刷新。集群模式下由 {@link com.experiment.cluster.ClusterCoordinator} 按租约启停，本类不生效。
+ */
+@Component
+@ConditionalOnProperty(name = "cluster.enabled", havingValue = "false", matchIfMissing = true)
+public class FeedBootstrap implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedBootstrap.class);
+
+    private final List<FeedGroup> groups;
+    private volatile boolean running;
+
+    public FeedBootstrap(List<FeedGroup> groups) {
+        this.groups = groups;
+    }
+
+    @Override
+    public void start() {
+        StartupTimeline.mark(StartupTimeline.FEEDS_STARTING);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        int count = 0;
+        for (FeedGroup group : groups) {
+            for (String feed : group.feeds()) {
+                executor.submit(() -> startFeed(group, feed));
+                count++;
+            }
+        }
+        // 已提交的启动任务继续执行，不等待
+        executor.shutdown();
+        running = true;
+        log.info("Starting {} feeds from {} group(s) in parallel", count, groups.size());
+    }
+
+    private static void startFeed(FeedGroup group, String feed) {
+        long start = System.nanoTime();
+        try {
+            group.startFeed(feed);
+            log.debug("[{}] {} started in {}ms", feed, group.getClass().getSimpleName(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.error("[{}] failed to start {}", feed, group.getClass().getSimpleName(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        StartupTimeline.mark(StartupTimeline.APPLICATION_READY);
+    }
+
+    /** 行情源由各 FeedGroup 的 @PreDestroy 断开 */
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** 早于 Web 服务器（Integer.MAX_VALUE - 1）启动 */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.experiment.store;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 进程内存储：币种 → 交易所 → 按 {@link MarketDataStore.Kind} 索引的引用数组。单节点部署时读写都不出进程，
+ * 代价是重启丢失、其他实例不可见。
+ */
+@Component
+@ConditionalOnProperty(name = "md.store.type", havingValue = "memory")
+public class InMemoryMarketDataStore implements MarketDataStore {
+
+    private static final int KINDS = Kind.values().length;
+
+    private final Map<String, Map<String, AtomicReferenceArray<byte[]>>> symbols = new ConcurrentHashMap<>();
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public void put(String symbol, String exchange, Kind kind, byte[] value) {
+        symbols.computeIfAbsent(symbol, s -> new ConcurrentHashMap<>())
+                .computeIfAbsent(exchange, e -> new AtomicReferenceArray<>(KINDS))
+                .set(kind.ordinal(), value);
+    }
+
+    @Override
+    public byte[] get(String symbol, String exchange, Kind kind) {
+        Map<String, AtomicReferenceArray<byte[]>> exchanges = symbols.get(symbol);
+        AtomicReferenceArray<byte[]> slots = exchanges != null ? exchanges.get(exchange) : null;
+        return slots != null ? slots.get(kind.ordinal()) : null;
+    }
+
+    @Override
+    public Snapshot snapshot(String symbol) {
+        Map<String, AtomicReferenceArray<byte[]>> exchanges = symbols.get(symbol);
+        if (exchanges == null) return (exchange, kind) -> null;
+        return (exchange, kind) -> {
+            AtomicReferenceArray<byte[]> slots = exchanges.get(exchange);
+            return slots != null ? slots.get(kind.ordinal()) : null;
+        };
+    }
+
+    @Override
+    public void forEach(Visitor visitor) {
+        symbols.forEach((symbol, exchanges) -> exchanges.forEach((exchange, slots) -> {
+            for (Kind kind : Kind.values()) {
+                byte[] value = slots.get(kind.ordinal());
+                if (value != null) visitor.accept(symbol, exchange, kind, value);
+            }
+        }));
+    }
+}
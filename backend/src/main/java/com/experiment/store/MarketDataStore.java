@@ -0,0 +1,64 @@
+package com.experiment.store;
+
+/**
+ * 行情存储 SPI：按 币种 × 交易所 × 种类 保存一个已编码的值（{@code MarketDataCodec} 字节），
+ * 不关心值的内容与过期，编码、合并与过期判断都在 {@code MarketDataService}。
+ * <p>
+ * 实现由 md.store.type 选择：redis（默认，{@link RedisMarketDataStore}）、memory（{@link InMemoryMarketDataStore}）、
+ * offheap（{@link OffHeapMarketDataStore}）。实现必须线程安全：同一槽位可能被 WebSocket 与 HTTP 线程并发写入，
+ * 读方不能看到写了一半的值。
+ */
+public interface MarketDataStore {
+
+    /** 值的种类，对应 Redis hash 字段后缀 */
+    enum Kind {
+        FUNDING, FUTURES, SPOT;
+
+        private final String suffix = name().toLowerCase();
+
+        /** 字段名，如 binance:spot */
+        public String field(String exchange) {
+            return exchange + ":" + suffix;
+        }
+
+        /** 解析 field() 的结果，格式不识别时返回 null */
+        public static Kind ofField(String field) {
+            int i = field.lastIndexOf(':');
+            if (i <= 0) return null;
+            String suffix = field.substring(i + 1);
+            for (Kind k : values()) {
+                if (k.suffix.equals(suffix)) return k;
+            }
+            return null;
+        }
+    }
+
+    /** 一个币种的只读视图，缺失的槽位返回 null */
+    @FunctionalInterface
+    interface Snapshot {
+        byte[] get(String exchange, Kind kind);
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+        void accept(String symbol, String exchange, Kind kind, byte[] value);
+    }
+
+    /** 实现名称，用于日志与指标 */
+    String name();
+
+    /** 是否为集群各节点共享的存储（Redis）：共享时其它节点转发来的值已由写入节点写过，不必重复写 */
+    default boolean shared() {
+        return false;
+    }
+
+    void put(String symbol, String exchange, Kind kind, byte[] value);
+
+    byte[] get(String symbol, String exchange, Kind kind);
+
+    /** 一次读取币种全部交易所的值（Redis 实现为一次 HGETALL） */
+    Snapshot snapshot(String symbol);
+
+    /** 遍历全部已保存的值，不保证顺序，遍历期间的并发写入可能可见也可能不可见 */
+    void forEach(Visitor visitor);
+}
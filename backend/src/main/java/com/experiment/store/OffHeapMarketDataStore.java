@@ -0,0 +1,171 @@
+package com.experiment.store;
+
+import com.experiment.config.Exchanges;
+import com.experiment.config.Symbols;
+import com.experiment.metrics.IngestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 堆外定长槽位表：一块 direct ByteBuffer，行 = 币种（首次写入时分配，最多 md.store.offheap.max-symbols 行），
+ * 列 = {@link Exchanges} 序号 × {@link MarketDataStore.Kind}，每个槽位 {@value #SLOT_BYTES} 字节。
+ * 写入只做内存拷贝，不产生堆上对象，币种多时没有 GC 压力。
+ * <p>
+ * 槽位布局：seq(4B) + 长度(4B) + 值（最多 {@value #MAX_VALUE_BYTES} 字节）。seq 为序列锁：写方 CAS 到奇数、拷贝、
+ * 释放为下一个偶数；读方在前后两次读到相同的偶数 seq 时才接受拷贝结果。只支持 {@link Exchanges} 中的交易所，
+ * 其它交易所的写入丢弃并计数（md.store.rejected，reason=unknown-exchange）；行已用满后新币种的写入同样丢弃并计数
+ * （reason=table-full，首次记一条 WARN），都不向写入线程抛异常。
+ */
+@Component
+@ConditionalOnProperty(name = "md.store.type", havingValue = "offheap")
+public class OffHeapMarketDataStore implements MarketDataStore {
+
+    static final int SLOT_BYTES = 128;
+    static final int HEADER_BYTES = 8;
+    static final int MAX_VALUE_BYTES = SLOT_BYTES - HEADER_BYTES;
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapMarketDataStore.class);
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final VarHandle SEQ = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final int maxSymbols;
+    private final int rowBytes;
+    private final ByteBuffer table;
+    private final Map<String, Integer> rows = new ConcurrentHashMap<>();
+    private final String[] rowSymbols;
+    private volatile int rowCount;
+    /** 是否已记录过表满，由 rows 锁保护 */
+    private boolean fullLogged;
+
+    public OffHeapMarketDataStore(@Value("${md.store.offheap.max-symbols:1024}") int maxSymbols) {
+        this.maxSymbols = Math.max(maxSymbols, Symbols.count());
+        this.rowBytes = Exchanges.count() * KINDS.length * SLOT_BYTES;
+        this.table = ByteBuffer.allocateDirect(Math.multiplyExact(this.maxSymbols, rowBytes)).order(ByteOrder.nativeOrder());
+        this.rowSymbols = new String[this.maxSymbols];
+        for (int i = 0; i < Symbols.count(); i++) row(Symbols.key(i));
+    }
+
+    @Override
+    public String name() {
+        return "offheap";
+    }
+
+    @Override
+    public void put(String symbol, String exchange, Kind kind, byte[] value) {
+        if (value.length > MAX_VALUE_BYTES) {
+            throw new IllegalArgumentException("value of " + value.length + " bytes exceeds slot size " + MAX_VALUE_BYTES);
+        }
+        int e = Exchanges.ordinal(exchange);
+        if (e < 0) {
+            IngestMetrics.storeRejected(name(), exchange, "unknown-exchange");
+            return;
+        }
+        int row = row(symbol);
+        if (row < 0) {
+            IngestMetrics.storeRejected(name(), exchange, "table-full");
+            return;
+        }
+        int base = slot(row, e, kind);
+        int seq;
+        while (true) {
+            seq = (int) SEQ.getVolatile(table, base);
+            if ((seq & 1) == 0 && SEQ.compareAndSet(table, base, seq, seq + 1)) break;
+            Thread.onSpinWait();
+        }
+        table.putInt(base + Integer.BYTES, value.length);
+        table.put(base + HEADER_BYTES, value);
+        SEQ.setRelease(table, base, seq + 2);
+    }
+
+    @Override
+    public byte[] get(String symbol, String exchange, Kind kind) {
+        Integer row = rows.get(symbol);
+        int e = Exchanges.ordinal(exchange);
+        return row != null && e >= 0 ? read(slot(row, e, kind)) : null;
+    }
+
+    @Override
+    public Snapshot snapshot(String symbol) {
+        Integer row = rows.get(symbol);
+        if (row == null) return (exchange, kind) -> null;
+        byte[][] values = new byte[Exchanges.count() * KINDS.length][];
+        for (int e = 0; e < Exchanges.count(); e++) {
+            for (Kind kind : KINDS) {
+                values[e * KINDS.length + kind.ordinal()] = read(slot(row, e, kind));
+            }
+        }
+        return (exchange, kind) -> {
+            int e = Exchanges.ordinal(exchange);
+            return e >= 0 ? values[e * KINDS.length + kind.ordinal()] : null;
+        };
+    }
+
+    @Override
+    public void forEach(Visitor visitor) {
+        int count = rowCount;
+        for (int r = 0; r < count; r++) {
+            String symbol = rowSymbols[r];
+            for (int e = 0; e < Exchanges.count(); e++) {
+                for (Kind kind : KINDS) {
+                    byte[] value = read(slot(r, e, kind));
+                    if (value != null) visitor.accept(symbol, Exchanges.name(e), kind, value);
+                }
+            }
+        }
+    }
+
+    /** 序列锁读：seq 为 0 表示从未写入 */
+    private byte[] read(int base) {
+        while (true) {
+            int before = (int) SEQ.getAcquire(table, base);
+            if (before == 0) return null;
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int length = table.getInt(base + Integer.BYTES);
+            byte[] value = length >= 0 && length <= MAX_VALUE_BYTES ? new byte[length] : null;
+            if (value != null) table.get(base + HEADER_BYTES, value);
+            VarHandle.loadLoadFence();
+            if (value != null && (int) SEQ.getVolatile(table, base) == before) return value;
+        }
+    }
+
+    /** 币种所在行，首次出现时分配；行已用满时返回 -1 */
+    private int row(String symbol) {
+        Integer row = rows.get(symbol);
+        if (row != null) return row;
+        synchronized (rows) {
+            row = rows.get(symbol);
+            if (row != null) return row;
+            if (rowCount >= maxSymbols) {
+                if (!fullLogged) {
+                    fullLogged = true;
+                    log.warn("Off-heap store full: {} symbols (md.store.offheap.max-symbols), dropping writes for new symbols such as {}",
+                            maxSymbols, symbol);
+                }
+                return -1;
+            }
+            int r = rowCount;
+            rowSymbols[r] = symbol;
+            rows.put(symbol, r);
+            rowCount = r + 1;
+            return r;
+        }
+    }
+
+    private int slot(int row, int exchange, Kind kind) {
+        return row * rowBytes + (exchange * KINDS.length + kind.ordinal()) * SLOT_BYTES;
+    }
+}
@@ -0,0 +1,84 @@
+package com.experiment.store;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis 存储：每个币种一个 hash（md:BTCUSDT），字段为 交易所:种类（binance:funding / binance:futures / binance:spot）。
+ * 多实例共享、重启保留；每次写入一次 HSET，读取一个币种一次 HGETALL。
+ */
+@Component
+@ConditionalOnProperty(name = "md.store.type", havingValue = "redis", matchIfMissing = true)
+public class RedisMarketDataStore implements MarketDataStore {
+
+    private static final String KEY_PREFIX = "md:";
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final HashOperations<String, String, byte[]> hashOps;
+
+    public RedisMarketDataStore(RedisTemplate<String, byte[]> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.hashOps = redisTemplate.opsForHash();
+    }
+
+    @Override
+    public String name() {
+        return "redis";
+    }
+
+    @Override
+    public boolean shared() {
+        return true;
+    }
+
+    @Override
+    public void put(String symbol, String exchange, Kind kind, byte[] value) {
+        hashOps.put(KEY_PREFIX + symbol, kind.field(exchange), value);
+    }
+
+    @Override
+    public byte[] get(String symbol, String exchange, Kind kind) {
+        return hashOps.get(KEY_PREFIX + symbol, kind.field(exchange));
+    }
+
+    @Override
+    public Snapshot snapshot(String symbol) {
+        Map<String, byte[]> fields = hashOps.entries(KEY_PREFIX + symbol);
+        return (exchange, kind) -> fields.get(kind.field(exchange));
+    }
+
+    @Override
+    public void forEach(Visitor visitor) {
+        for (String key : scanKeys()) {
+            String symbol = key.substring(KEY_PREFIX.length());
+            hashOps.entries(key).forEach((field, value) -> {
+                Kind kind = Kind.ofField(field);
+                if (kind != null && value != null) {
+                    visitor.accept(symbol, field.substring(0, field.lastIndexOf(':')), kind, value);
+                }
+            });
+        }
+    }
+
+    /** SCAN md:*，不用 KEYS 阻塞 Redis */
+    private List<String> scanKeys() {
+        return redisTemplate.execute((RedisCallback<List<String>>) c -> {
+            List<String> keys = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(256).build();
+            try (Cursor<byte[]> cursor = c.keyCommands().scan(options)) {
+                cursor.forEachRemaining(k -> keys.add(new String(k, StandardCharsets.UTF_8)));
+            }
+            return keys;
+        });
+    }
+}
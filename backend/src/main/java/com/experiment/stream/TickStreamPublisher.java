@@ -0,0 +1,225 @@
+package com.experiment.stream;
+
+import com.experiment.config.Symbols;
+import com.experiment.metrics.IngestMetrics;
+import com.experiment.metrics.TickLatency;
+import com.experiment.model.Quote;
+import com.experiment.service.MarketDataListener;
+import com.experiment.service.MarketDataService;
+import com.experiment.store.MarketDataStore.Kind;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 行情 tick 总线：把 {@link MarketDataService} 写入存储的每条资金费率/期货/现货值发布到 Redis Streams，
+ * 下游服务通过消费者组（XREADGROUP）逐条消费，不再轮询被覆盖的 hash。仲裁判定未变化而跳过写入的更新不发布，
+ * 汇率变动重写的报价作为新值发布。
+ * <p>
+ * - stream：ticks.stream.shards 为 0 时每个币种一个（ticks:BTCUSDT），否则按币种哈希分到 ticks:{0..shards-1}
+ * - 写入路径只做一次 offer 到有界队列，队列满时丢弃并计数；专用线程按 batch-size / flush-ms 攒批，
+ *   一次 pipeline 发送整批 XADD，每条带 MAXLEN ~ maxlen 近似裁剪，stream 内存有上限
+ * - 启动时为 ticks.stream.groups 中的消费者组在每个 stream 上执行 XGROUP CREATE MKSTREAM（已存在则忽略）
+ * <p>
+ * 字段（字符串）：kind（funding / futures / spot）、ex、sym、px、bid、ask（合并沿用买卖盘后的完整报价）、rate、
+ * nft（下一次结算时间）、ts（交易所事件时间，毫秒；行情未带事件时间时为写入时间），缺失字段不写。
+ */
+@Component
+@ConditionalOnProperty(name = "ticks.stream.enabled", havingValue = "true")
+public class TickStreamPublisher implements MarketDataListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TickStreamPublisher.class);
+    private static final String KEY_PREFIX = "ticks:";
+
+    private final MarketDataService marketDataService;
+    private final StringRedisTemplate redis;
+
+    /** 0 表示每个币种一个 stream */
+    @Value("${ticks.stream.shards:0}")
+    private int shards;
+
+    @Value("${ticks.stream.maxlen:100000}")
+    private long maxlen;
+
+    @Value("${ticks.stream.batch-size:256}")
+    private int batchSize;
+
+    @Value("${ticks.stream.flush-ms:5}")
+    private long flushMs;
+
+    @Value("${ticks.stream.queue-capacity:65536}")
+    private int queueCapacity;
+
+    /** 启动时确保存在的消费者组，逗号分隔 */
+    @Value("${ticks.stream.groups:}")
+    private String groups;
+
+    private BlockingQueue<Tick> queue;
+    private Thread flusher;
+    private volatile boolean running = true;
+
+    public TickStreamPublisher(MarketDataService marketDataService, StringRedisTemplate redis) {
+        this.marketDataService = marketDataService;
+        this.redis = redis;
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        createGroups();
+        flusher = new Thread(this::flushLoop, "tick-stream-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        marketDataService.addListener(this);
+        log.info("[TickStream] publishing to {} stream(s), maxlen ~{}, batch {}",
+                shards > 0 ? shards : Symbols.count(), maxlen, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (flusher != null) flusher.interrupt();
+    }
+
+    @Override
+    public void onFundingStored(String exchange, String symbol, BigDecimal rate, Long nextFundingTime, long updatedAt) {
+        offer(new Tick("funding", exchange, symbol, null, null, null, rate, nextFundingTime, eventTime(updatedAt)));
+    }
+
+    @Override
+    public void onQuoteStored(String exchange, String symbol, Kind kind, Quote quote, long updatedAt, long bookUpdatedAt) {
+        String name = kind == Kind.SPOT ? "spot" : "futures";
+        offer(new Tick(name, exchange, symbol, quote.price(), quote.bid(), quote.ask(), null, null, eventTime(updatedAt)));
+    }
+
+    /** 当前消息的交易所事件时间，未报告时（HTTP 拉取、汇率重写）取存储中的更新时间 */
+    private static long eventTime(long updatedAt) {
+        long eventTimeMs = TickLatency.currentEventTimeMs();
+        return eventTimeMs > 0 ? eventTimeMs : updatedAt;
+    }
+
+    /** 恢复重放的历史值不发布，下游只收到实时行情；集群其它节点转发来的行情已由采集节点发布 */
+    private void offer(Tick tick) {
+        if (MarketDataService.replaying() || MarketDataService.relayed()) return;
+        if (!queue.offer(tick)) {
+            IngestMetrics.tickStreamDropped();
+        }
+    }
+
+    /** 币种所在的 stream key */
+    String streamKey(String symbol) {
+        if (shards <= 0) return KEY_PREFIX + symbol;
+        return KEY_PREFIX + Math.floorMod(symbol.hashCode(), shards);
+    }
+
+    private List<String> streamKeys() {
+        List<String> keys = new ArrayList<>();
+        if (shards > 0) {
+            for (int i = 0; i < shards; i++) keys.add(KEY_PREFIX + i);
+        } else {
+            for (int s = 0; s < Symbols.count(); s++) keys.add(KEY_PREFIX + Symbols.key(s));
+        }
+        return keys;
+    }
+
+    private void createGroups() {
+        for (String group : Arrays.stream(groups.split(",")).map(String::trim).filter(g -> !g.isEmpty()).toList()) {
+            for (String key : streamKeys()) {
+                try {
+                    redis.execute((RedisCallback<Object>) c -> {
+                        c.streamCommands().xGroupCreate(bytes(key), group, ReadOffset.latest(), true);
+                        return null;
+                    });
+                } catch (Exception e) {
+                    // BUSYGROUP：组已存在
+                    log.debug("[TickStream] group {} on {}: {}", group, key, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void flushLoop() {
+        List<Tick> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Tick first = queue.poll(flushMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                publish(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                IngestMetrics.tickStreamFailed(batch.size());
+                log.debug("[TickStream] publish failed for {} tick(s): {}", batch.size(), e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /** 一次 pipeline 发送整批 XADD */
+    private void publish(List<Tick> batch) {
+        long start = System.nanoTime();
+        XAddOptions options = XAddOptions.maxlen(maxlen).approximateTrimming(true);
+        redis.executePipelined((RedisCallback<Object>) c -> {
+            for (Tick tick : batch) {
+                MapRecord<byte[], byte[], byte[]> record = StreamRecords.newRecord()
+                        .in(bytes(streamKey(tick.symbol())))
+                        .ofMap(tick.fields());
+                c.streamCommands().xAdd(record, options);
+            }
+            return null;
+        });
+        IngestMetrics.tickStreamPublished(batch.size(), System.nanoTime() - start);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Tick(String kind, String exchange, String symbol, BigDecimal price, BigDecimal bid, BigDecimal ask,
+                        BigDecimal rate, Long nextFundingTime, long ts) {
+
+        Map<byte[], byte[]> fields() {
+            Map<byte[], byte[]> m = new LinkedHashMap<>();
+            put(m, "kind", kind);
+            put(m, "ex", exchange);
+            put(m, "sym", symbol);
+            put(m, "px", price);
+            put(m, "bid", bid);
+            put(m, "ask", ask);
+            put(m, "rate", rate);
+            put(m, "nft", nextFundingTime);
+            put(m, "ts", ts);
+            return m;
+        }
+
+        private static void put(Map<byte[], byte[]> m, String field, Object value) {
+            if (value == null) return;
+            String s = value instanceof BigDecimal d ? d.toPlainString() : value.toString();
+            m.put(bytes(field), bytes(s));
+        }
+    }
+}
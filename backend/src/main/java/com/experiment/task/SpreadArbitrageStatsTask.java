@@ -1,120 +1,353 @@
 package com.experiment.task;
 
+import com.experiment.cluster.ClusterCoordinator;
 import com.experiment.config.ExchangeFeeRates;
-import com.experiment.model.MarketDataDTO;
+import com.experiment.config.Exchanges;
+import com.experiment.config.FeeSchedule;
+import com.experiment.config.SpreadSnapshotTableMigration;
+import com.experiment.config.Symbols;
+import com.experiment.metrics.IngestMetrics;
+import com.experiment.metrics.TickLatency;
+import com.experiment.orderbook.OrderBook;
+import com.experiment.orderbook.OrderBooks;
 import com.experiment.repository.SpreadArbitrageStatsRepository;
-import com.experiment.service.MarketDataService;
+import com.experiment.spread.SpotQuoteColumns;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
- * 每秒计算现货价差利润率：扣减买入/卖出手续费（一 maker 一 taker 且总手续费最小），
+ * 每秒计算现货价差利润率（买入按卖一、卖出按买一，无买卖盘时退回最新价）：扣减买入/卖出手续费（一 maker 一 taker 且总手续费最小），
  * 仅将扣费后利润率 &gt; 0.05% 的快照写入 spread_arbitrage_snapshots，并记录买卖手续费率。
+ * 两边都有本地订单簿时，另按吃单 $10k / $100k 的 VWAP 成交价（双边 taker）记录可成交利润率。
+ * <p>
+ * 报价取自 {@link SpotQuoteColumns} 的列式数组，交易所/币种均为序号，手续费矩阵按同一序号索引：
+ * 热循环只做 double 运算与数组读取，超过阈值的候选才按 BigDecimal 精确重算并生成快照行。
+ * <p>
+ * 集群模式下只有分析主节点（{@link ClusterCoordinator#isAnalyticsLeader()}）计算并写入，其它节点跳过，快照表中每一拍只有一份完整结果。
  */
 @Component
 public class SpreadArbitrageStatsTask {
 
     private static final Logger log = LoggerFactory.getLogger(SpreadArbitrageStatsTask.class);
-    private static final List<String> SYMBOLS = List.of("BTC", "ETH", "SOL", "XRP", "HYPE", "DOGE", "BNB");
     /** 扣费后利润率阈值：仅写入大于此值的数据 */
     private static final BigDecimal THRESHOLD_PCT = new BigDecimal("0.05");
+    /** double 预筛阈值，略低于 THRESHOLD_PCT 以吸收浮点误差，最终以 BigDecimal 判断为准 */
+    private static final double PREFILTER_PCT = THRESHOLD_PCT.doubleValue() - 1e-6;
+    /** 超过该时长未更新的报价不参与计算（与行情缓存 TTL 一致） */
+    private static final long STALE_MS = 15_000;
+    /** 可成交利润率的吃单金额（USDT） */
+    private static final double EXEC_NOTIONAL_10K = 10_000;
+    private static final double EXEC_NOTIONAL_100K = 100_000;
 
-    private final MarketDataService marketDataService;
+    /** 调度周期 */
+    private static final long PERIOD_MS = 1000;
+    /** 冷启动时等待各数据源首次推送的时长；热重启恢复了行情时不等待 */
+    private static final long INITIAL_DELAY_MS = 10_000;
+
+    private final SpotQuoteColumns quotes;
     private final SpreadArbitrageStatsRepository repository;
+    private final SpreadSnapshotTableMigration migration;
+    /** 集群模式下的协调器，单机模式下不存在 */
+    private final ObjectProvider<ClusterCoordinator> cluster;
+
+    /** 计算并行度，0 表示 CPU 核数 */
+    @Value("${spread.parallelism:0}")
+    private int parallelism;
+
+    /** 单轮计算截止时间（毫秒），各分片在币种之间检查，超时即停止，未算完的币种本轮丢弃 */
+    @Value("${spread.deadline-ms:800}")
+    private long deadlineMs;
+
+    /** 表结构迁移未结束时最多暂存的快照行数，超出的丢弃并计入 spread.snapshot.dropped */
+    @Value("${spread.migration-buffer-rows:50000}")
+    private int migrationBufferRows;
 
-    public SpreadArbitrageStatsTask(MarketDataService marketDataService,
-                                   SpreadArbitrageStatsRepository repository) {
-        this.marketDataService = marketDataService;
+    /** 专用调度线程，不与其它 @Scheduled 任务共享 */
+    private ScheduledExecutorService scheduler;
+    /** 按币种分片并行计算 */
+    private ForkJoinPool pool;
+    /** 冷启动时首轮计算的最早时间（毫秒） */
+    private long readyAtMs;
+    /** 已从热重启快照恢复行情，见 {@link #markWarm()} */
+    private volatile boolean warm;
+    /** 迁移期间暂存的快照行，只在调度线程上访问 */
+    private final List<SpreadArbitrageStatsRepository.SnapshotRow> pendingRows = new ArrayList<>();
+
+    public SpreadArbitrageStatsTask(SpotQuoteColumns quotes,
+                                   SpreadArbitrageStatsRepository repository,
+                                   SpreadSnapshotTableMigration migration,
+                                   ObjectProvider<ClusterCoordinator> cluster) {
+        this.quotes = quotes;
         this.repository = repository;
+        this.migration = migration;
+        this.cluster = cluster;
+    }
+
+    @PostConstruct
+    public void start() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("spread-eval-" + t.getPoolIndex());
+            return t;
+        }, null, false);
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "spread-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        long now = System.currentTimeMillis();
+        readyAtMs = now + INITIAL_DELAY_MS;
+        scheduleAt(now + PERIOD_MS);
+        log.info("[SpreadArbitrageStats] started, parallelism={}, deadline={}ms", threads, deadlineMs);
+    }
+
+    /** 行情已从热重启快照恢复，下一拍即开始计算，不再等待冷启动延迟 */
+    public void markWarm() {
+        warm = true;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+        if (pool != null) pool.shutdownNow();
+    }
+
+    /** 在 scheduledMs 这一拍执行一轮 */
+    private void scheduleAt(long scheduledMs) {
+        try {
+            scheduler.schedule(() -> tick(scheduledMs),
+                    Math.max(scheduledMs - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 已停止
+        }
+    }
+
+    /**
+     * 执行一轮后按固定节拍安排下一轮：本轮结束时已经错过的拍直接跳过并计数，不补跑，
+     * 下一轮对齐到尚未到来的最近一拍。
+     */
+    private void tick(long scheduledMs) {
+        try {
+            run();
+        } finally {
+            long next = scheduledMs + PERIOD_MS;
+            long now = System.currentTimeMillis();
+            if (now >= next) {
+                long skipped = (now - next) / PERIOD_MS + 1;
+                IngestMetrics.spreadOverrun(skipped);
+                log.debug("[SpreadArbitrageStats] cycle overran by {}ms, skipped {} tick(s)", now - scheduledMs - PERIOD_MS, skipped);
+                next += skipped * PERIOD_MS;
+            }
+            scheduleAt(next);
+        }
     }
 
     /**
      * 每秒执行一次，将扣费后利润率>0.05%的组合写入快照表。
+     * 币种按分片提交到专用 ForkJoinPool 并行计算，分片在币种之间检查截止时间，超时即停止并计入 deadline missed。
      */
-    @Scheduled(fixedRate = 1000, initialDelay = 10_000)
-    public void run() {
+    void run() {
+        try {
+            runCycle();
+        } catch (Exception e) {
+            // 异常不能打断调度循环
+            log.warn("[SpreadArbitrageStats] cycle error: {}", e.getMessage());
+        }
+    }
+
+    private void runCycle() {
+        long cycleStart = System.nanoTime();
+        long startMs = System.currentTimeMillis();
+        if (!warm && startMs < readyAtMs) return;
+        ClusterCoordinator coordinator = cluster.getIfAvailable();
+        if (coordinator != null && !coordinator.isAnalyticsLeader()) return;
+
+        // 本轮统一使用同一份手续费快照，配置热更新不会在一轮中途生效
+        FeeSchedule fees = ExchangeFeeRates.current();
+        int symbolCount = Symbols.count();
+        int chunks = Math.min(symbolCount, pool.getParallelism() * 2);
+        int chunkSize = (symbolCount + chunks - 1) / chunks;
+        long deadlineNanos = cycleStart + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        List<ForkJoinTask<Partition>> tasks = new ArrayList<>();
+        for (int from = 0; from < symbolCount; from += chunkSize) {
+            int lo = from;
+            int hi = Math.min(from + chunkSize, symbolCount);
+            tasks.add(pool.submit(() -> collectRange(lo, hi, fees, startMs, deadlineNanos)));
+        }
+
         List<SpreadArbitrageStatsRepository.SnapshotRow> rows = new ArrayList<>();
-        for (String symbol : SYMBOLS) {
+        int missed = 0;
+        for (ForkJoinTask<Partition> task : tasks) {
             try {
-                collectSnapshots(symbol, rows);
-            } catch (Exception e) {
-                log.warn("[SpreadArbitrageStats] symbol={} error: {}", symbol, e.getMessage());
+                // 分片自行在截止时间后停止；额外等待一个周期只为兜底单个币种异常耗时的情况
+                Partition partition = task.get(Math.max(deadlineNanos - System.nanoTime(), 0)
+                        + TimeUnit.MILLISECONDS.toNanos(PERIOD_MS), TimeUnit.NANOSECONDS);
+                rows.addAll(partition.rows());
+                if (!partition.complete()) missed++;
+            } catch (TimeoutException e) {
+                missed++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.warn("[SpreadArbitrageStats] partition error: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
             }
         }
-        if (!rows.isEmpty()) {
-            repository.saveSnapshots(rows);
-            log.debug("[SpreadArbitrageStats] saved {} snapshot rows", rows.size());
+        if (missed > 0) {
+            IngestMetrics.spreadDeadlineMissed(missed);
+            log.debug("[SpreadArbitrageStats] {} partition(s) missed the {}ms deadline", missed, deadlineMs);
         }
+        IngestMetrics.spreadEvaluate(System.nanoTime() - cycleStart);
+
+        if (!migration.isDone()) {
+            // 新增列可能尚未就绪：暂存到迁移结束后的第一轮一并写入
+            bufferDuringMigration(rows);
+        } else {
+            if (!pendingRows.isEmpty()) {
+                rows.addAll(0, pendingRows);
+                pendingRows.clear();
+            }
+            flush(rows);
+        }
+        IngestMetrics.spreadCycle(System.nanoTime() - cycleStart);
+    }
+
+    private void bufferDuringMigration(List<SpreadArbitrageStatsRepository.SnapshotRow> rows) {
+        int room = Math.max(migrationBufferRows - pendingRows.size(), 0);
+        if (rows.size() > room) {
+            IngestMetrics.snapshotDropped("migration", rows.size() - room);
+            log.debug("[SpreadArbitrageStats] table migration still running, buffer full, dropped {} snapshot rows", rows.size() - room);
+        }
+        pendingRows.addAll(rows.subList(0, Math.min(room, rows.size())));
+    }
+
+    private void flush(List<SpreadArbitrageStatsRepository.SnapshotRow> rows) {
+        if (rows.isEmpty()) return;
+        long flushStart = System.nanoTime();
+        repository.saveSnapshots(rows);
+        IngestMetrics.snapshotFlush(rows.size(), System.nanoTime() - flushStart);
+        log.debug("[SpreadArbitrageStats] saved {} snapshot rows", rows.size());
     }
 
+    /** 一个分片的结果；complete 为 false 表示到截止时间时仍有币种未计算 */
+    private record Partition(List<SpreadArbitrageStatsRepository.SnapshotRow> rows, boolean complete) {}
+
     /**
-     * 仅使用现货价参与价差计算与写入，不使用期货价替代。
+     * 计算币种序号 [lo, hi) 的快照行，在 ForkJoinPool 工作线程内执行，列快照缓冲区按分片分配。
+     * 每个币种开始前检查截止时间（ForkJoinTask.cancel 不会中断正在运行的分片），超时返回已算出的部分。
+     */
+    private Partition collectRange(int lo, int hi, FeeSchedule fees, long evaluatedAtMs, long deadlineNanos) {
+        double[] buyPrices = new double[Exchanges.count()];
+        double[] sellPrices = new double[Exchanges.count()];
+        List<SpreadArbitrageStatsRepository.SnapshotRow> rows = new ArrayList<>();
+        for (int s = lo; s < hi; s++) {
+            if (System.nanoTime() - deadlineNanos > 0) return new Partition(rows, false);
+            try {
+                collectSnapshots(s, fees, evaluatedAtMs, buyPrices, sellPrices, rows);
+            } catch (Exception e) {
+                log.warn("[SpreadArbitrageStats] symbol={} error: {}", Symbols.base(s), e.getMessage());
+            }
+        }
+        return new Partition(rows, true);
+    }
+
+    /**
+     * 仅使用现货报价参与价差计算与写入，不使用期货价替代。
      * 若用期货价替代缺失的现货价，会导致 (spot_price_sell - spot_price_buy)/spot_price_buy 与
      * 真实现货价差不一致，profit_margin_pct 与按表内价格重算结果不符，且可能误写入本应过滤的负利润率记录。
+     * <p>
+     * 买入按卖一（ask）、卖出按买一（bid），无买卖盘的交易所退回最新价；对每个有序组合 (买, 卖) 分别判断，
+     * 写入的 spot_price_buy / spot_price_sell 即实际使用的 ask / bid。
      */
-    private void collectSnapshots(String symbol, List<SpreadArbitrageStatsRepository.SnapshotRow> out) {
-        List<MarketDataDTO> data = marketDataService.getMarketDataBySymbol(symbol);
-        List<BigDecimal> prices = new ArrayList<>();
-        List<String> exchanges = new ArrayList<>();
-        for (MarketDataDTO d : data) {
-            BigDecimal spotPrice = d.spotPrice();
-            if (spotPrice != null && spotPrice.compareTo(BigDecimal.ZERO) > 0) {
-                prices.add(spotPrice);
-                exchanges.add(d.exchange());
-            }
+    private void collectSnapshots(int symbolIdx, FeeSchedule fees, long evaluatedAtMs,
+                                  double[] buyPrices, double[] sellPrices,
+                                  List<SpreadArbitrageStatsRepository.SnapshotRow> out) {
+        long valid = quotes.snapshot(symbolIdx, evaluatedAtMs - STALE_MS, buyPrices, sellPrices);
+        String symbolKey = Symbols.key(symbolIdx);
+        for (long b = valid; b != 0; b &= b - 1) {
+            TickLatency.spreadEvaluated(Exchanges.name(Long.numberOfTrailingZeros(b)), symbolKey, evaluatedAtMs);
         }
-        int n = prices.size();
-        if (n < 2) return;
-
-        for (int i = 0; i < n; i++) {
-            for (int j = i + 1; j < n; j++) {
-                BigDecimal pi = prices.get(i);
-                BigDecimal pj = prices.get(j);
-                BigDecimal lo = pi.min(pj);
-                BigDecimal hi = pi.max(pj);
-                String exchangeBuy = pi.compareTo(pj) <= 0 ? exchanges.get(i) : exchanges.get(j);
-                String exchangeSell = pi.compareTo(pj) <= 0 ? exchanges.get(j) : exchanges.get(i);
-                BigDecimal spotPriceBuy = pi.compareTo(pj) <= 0 ? pi : pj;
-                BigDecimal spotPriceSell = pi.compareTo(pj) <= 0 ? pj : pi;
-                BigDecimal spotSpread = spotPriceSell.subtract(spotPriceBuy);
-
-                // 原始价差利润率(%)
-                BigDecimal rawMarginPct = hi.subtract(lo).divide(lo, 6, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100));
-
-                // 一 maker 一 taker，且总手续费最小
-                BigDecimal makerBuy = ExchangeFeeRates.getSpotMakerFeePct(exchangeBuy);
-                BigDecimal takerBuy = ExchangeFeeRates.getSpotTakerFeePct(exchangeBuy);
-                BigDecimal makerSell = ExchangeFeeRates.getSpotMakerFeePct(exchangeSell);
-                BigDecimal takerSell = ExchangeFeeRates.getSpotTakerFeePct(exchangeSell);
-                if (makerBuy == null || takerBuy == null || makerSell == null || takerSell == null) continue;
-
-                BigDecimal totalA = makerBuy.add(takerSell); // 买 maker、卖 taker
-                BigDecimal totalB = takerBuy.add(makerSell);  // 买 taker、卖 maker
-                BigDecimal feeBuyPct;
-                BigDecimal feeSellPct;
-                if (totalA.compareTo(totalB) <= 0) {
-                    feeBuyPct = makerBuy;
-                    feeSellPct = takerSell;
-                } else {
-                    feeBuyPct = takerBuy;
-                    feeSellPct = makerSell;
-                }
-
-                BigDecimal profitMarginPct = rawMarginPct.subtract(feeBuyPct).subtract(feeSellPct);
-                if (profitMarginPct.compareTo(THRESHOLD_PCT) <= 0) continue;
-
-                out.add(new SpreadArbitrageStatsRepository.SnapshotRow(
-                        symbol, exchangeBuy, exchangeSell,
-                        spotPriceBuy, spotPriceSell, spotSpread, profitMarginPct, feeBuyPct, feeSellPct
-                ));
+        if (Long.bitCount(valid) < 2) return;
+
+        int n = Exchanges.count();
+        double[] feeMatrix = fees.spotPairFeeMatrix();
+        for (long bi = valid; bi != 0; bi &= bi - 1) {
+            int buy = Long.numberOfTrailingZeros(bi);
+            double buyPrice = buyPrices[buy];
+            int row = buy * n;
+            for (long bj = valid & ~(1L << buy); bj != 0; bj &= bj - 1) {
+                int sell = Long.numberOfTrailingZeros(bj);
+                double sellPrice = sellPrices[sell];
+                if (sellPrice <= buyPrice) continue;
+                // 缺手续费时矩阵为 NaN，比较恒为 false
+                double pct = (sellPrice - buyPrice) / buyPrice * 100 - feeMatrix[row + sell];
+                if (!(pct > PREFILTER_PCT)) continue;
+                SpreadArbitrageStatsRepository.SnapshotRow snapshot = snapshotRow(symbolIdx, buy, sell, buyPrice, sellPrice, fees);
+                if (snapshot != null) out.add(snapshot);
             }
         }
     }
+
+    /** 按 BigDecimal 精确重算候选组合，扣费后利润率未超过阈值返回 null */
+    private static SpreadArbitrageStatsRepository.SnapshotRow snapshotRow(int symbolIdx, int buy, int sell,
+                                                                         double buyPrice, double sellPrice, FeeSchedule fees) {
+        BigDecimal spotPriceBuy = BigDecimal.valueOf(buyPrice);
+        BigDecimal spotPriceSell = BigDecimal.valueOf(sellPrice);
+        BigDecimal spotSpread = spotPriceSell.subtract(spotPriceBuy);
+
+        // 原始价差利润率(%)：在买入所按 ask 买、在卖出所按 bid 卖
+        BigDecimal rawMarginPct = spotSpread.divide(spotPriceBuy, 6, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100));
+        BigDecimal profitMarginPct = rawMarginPct.subtract(fees.spotPairFeePct(buy, sell));
+        if (profitMarginPct.compareTo(THRESHOLD_PCT) <= 0) return null;
+
+        String symbolKey = Symbols.key(symbolIdx);
+        String exchangeBuy = Exchanges.name(buy);
+        String exchangeSell = Exchanges.name(sell);
+        BigDecimal takerBuy = fees.getSpotTakerPct(buy);
+        BigDecimal takerSell = fees.getSpotTakerPct(sell);
+        return new SpreadArbitrageStatsRepository.SnapshotRow(
+                Symbols.base(symbolIdx), exchangeBuy, exchangeSell,
+                spotPriceBuy, spotPriceSell, spotSpread, profitMarginPct,
+                fees.spotPairBuyFeePct(buy, sell), fees.spotPairSellFeePct(buy, sell),
+                executableProfitPct(symbolKey, exchangeBuy, takerBuy, exchangeSell, takerSell, EXEC_NOTIONAL_10K),
+                executableProfitPct(symbolKey, exchangeBuy, takerBuy, exchangeSell, takerSell, EXEC_NOTIONAL_100K)
+        );
+    }
+
+    /**
+     * 在买入所吃卖盘、在卖出所吃买盘各成交 notional 的可成交利润率（%），双边均按 taker 扣费。
+     * 任一边无可用订单簿或深度不足时返回 null。
+     */
+    private static BigDecimal executableProfitPct(String symbolKey, String exchangeBuy, BigDecimal takerBuyPct,
+                                                  String exchangeSell, BigDecimal takerSellPct, double notional) {
+        OrderBook buyBook = OrderBooks.find(OrderBooks.SPOT, exchangeBuy, symbolKey);
+        OrderBook sellBook = OrderBooks.find(OrderBooks.SPOT, exchangeSell, symbolKey);
+        if (buyBook == null || sellBook == null) return null;
+        double buyPrice = buyBook.vwapBuy(notional);
+        double sellPrice = sellBook.vwapSell(notional);
+        if (Double.isNaN(buyPrice) || Double.isNaN(sellPrice)) return null;
+        double pct = (sellPrice - buyPrice) / buyPrice * 100
+                - takerBuyPct.doubleValue() - takerSellPct.doubleValue();
+        return BigDecimal.valueOf(pct).setScale(4, RoundingMode.HALF_UP);
+    }
 }
@@ -0,0 +1,99 @@
+package com.experiment.warm;
+
+import com.experiment.alert.AlertEngine;
+import com.experiment.carry.CarryEngine;
+import com.experiment.service.MarketDataService;
+import com.experiment.store.MarketDataStore;
+import com.experiment.task.SpreadArbitrageStatsTask;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 热重启：停机时把存储中的最新报价与资金费率（含结算周期与下一次结算时间）、提醒引擎计时中/已触发的组合状态、
+ * 资金费率套利引擎（{@link CarryEngine}）各交易所的输入写入本地快照文件（{@link WarmStateFile}）；启动时在全部单例初始化完成、行情连接建立之前映射读取并恢复。
+ * <p>
+ * 恢复的行情保留原始 updatedAt，经 {@link MarketDataService#restore} 写回存储并按原始时间重放给价差列、
+ * 资金费率套利引擎等监听方，过期规则照常生效（停机超过行情有效期的值直接丢弃）。
+ * 资金费率套利的排名由 {@link CarryEngine#restoreState} 直接恢复并重算，不依赖行情能否重放。
+ * 恢复到行情后 {@link SpreadArbitrageStatsTask} 不再等待冷启动延迟。
+ */
+@Component
+@ConditionalOnProperty(name = "warm.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmRestart implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmRestart.class);
+
+    private final MarketDataService marketDataService;
+    private final MarketDataStore store;
+    private final AlertEngine alertEngine;
+    private final CarryEngine carryEngine;
+    private final SpreadArbitrageStatsTask spreadTask;
+
+    @Value("${warm.file:data/warm-state.bin}")
+    private String file;
+
+    /** 快照早于该时长（毫秒）时整体忽略 */
+    @Value("${warm.max-age-ms:600000}")
+    private long maxAgeMs;
+
+    public WarmRestart(MarketDataService marketDataService, MarketDataStore store,
+                       AlertEngine alertEngine, CarryEngine carryEngine, SpreadArbitrageStatsTask spreadTask) {
+        this.marketDataService = marketDataService;
+        this.store = store;
+        this.alertEngine = alertEngine;
+        this.carryEngine = carryEngine;
+        this.spreadTask = spreadTask;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        Path path = Path.of(file);
+        try {
+            WarmStateFile.Contents contents = WarmStateFile.read(path);
+            if (contents == null) return;
+            long ageMs = System.currentTimeMillis() - contents.savedAt();
+            if (ageMs > maxAgeMs) {
+                log.info("[WarmRestart] ignoring snapshot {} saved {}s ago", path, ageMs / 1000);
+                return;
+            }
+            int quotes = 0;
+            for (WarmStateFile.Entry e : contents.entries()) {
+                if (marketDataService.restore(e.symbol(), e.exchange(), e.kind(), e.value())) quotes++;
+            }
+            int alerts = alertEngine.restoreState(contents.alerts());
+            int carry = carryEngine.restoreState(contents.carry());
+            if (quotes > 0) spreadTask.markWarm();
+            log.info("[WarmRestart] restored {}/{} market values, {} alert state(s) and {} carry leg(s) from snapshot saved {}ms ago in {}ms",
+                    quotes, contents.entries().size(), alerts, carry, ageMs, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("[WarmRestart] failed to restore {}, starting cold: {}", path, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void save() {
+        long start = System.nanoTime();
+        Path path = Path.of(file);
+        try {
+            List<WarmStateFile.Entry> entries = new ArrayList<>();
+            store.forEach((symbol, exchange, kind, value) -> entries.add(new WarmStateFile.Entry(symbol, exchange, kind, value)));
+            List<AlertEngine.PairSnapshot> alerts = alertEngine.exportState();
+            List<CarryEngine.LegSnapshot> carry = carryEngine.exportState();
+            WarmStateFile.write(path, entries, alerts, carry);
+            log.info("[WarmRestart] saved {} market values, {} alert state(s) and {} carry leg(s) to {} in {}ms",
+                    entries.size(), alerts.size(), carry.size(), path, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("[WarmRestart] failed to save {}: {}", path, e.getMessage());
+        }
+    }
+}
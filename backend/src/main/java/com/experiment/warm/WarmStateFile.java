@@ -0,0 +1,146 @@
+package com.experiment.warm;
+
+import com.experiment.alert.AlertEngine;
+import com.experiment.carry.CarryEngine;
+import com.experiment.store.MarketDataStore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 热重启快照文件（大端）：
+ * <pre>
+ * int magic 'MDWS' | int version | long savedAt
+ * int 行情条数 × { byte kind | str symbol | str exchange | short 长度 + 存储值字节 }
+ * int 提醒状态条数 × { str ruleId | str symbol | str buy | str sell | long aboveSince | byte open | long lastOpenAt }
+ * int 资金费率套利输入条数 × { str symbol | str exchange | double funding8hPct | long fundingAt
+ *                              | double perpAsk | double perpBid | long perpAt | double spotAsk | long spotAt }（version 2 起）
+ * </pre>
+ * str 为 short 长度 + UTF-8。version 1 的文件仍可读取，没有资金费率套利部分。写入先落临时文件再原子替换，读取时只读映射整个文件。
+ */
+final class WarmStateFile {
+
+    private static final int MAGIC = 0x4D445753;
+    private static final int VERSION = 2;
+
+    private WarmStateFile() {}
+
+    record Entry(String symbol, String exchange, MarketDataStore.Kind kind, byte[] value) {}
+
+    record Contents(long savedAt, List<Entry> entries, List<AlertEngine.PairSnapshot> alerts,
+                    List<CarryEngine.LegSnapshot> carry) {}
+
+    static void write(Path file, List<Entry> entries, List<AlertEngine.PairSnapshot> alerts,
+                      List<CarryEngine.LegSnapshot> carry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entries.size() * 96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(entries.size());
+            for (Entry e : entries) {
+                out.writeByte(e.kind().ordinal());
+                writeString(out, e.symbol());
+                writeString(out, e.exchange());
+                out.writeShort(e.value().length);
+                out.write(e.value());
+            }
+            out.writeInt(alerts.size());
+            for (AlertEngine.PairSnapshot a : alerts) {
+                writeString(out, a.ruleId());
+                writeString(out, a.symbol());
+                writeString(out, a.buy());
+                writeString(out, a.sell());
+                out.writeLong(a.aboveSince());
+                out.writeBoolean(a.open());
+                out.writeLong(a.lastOpenAt());
+            }
+            out.writeInt(carry.size());
+            for (CarryEngine.LegSnapshot c : carry) {
+                writeString(out, c.symbol());
+                writeString(out, c.exchange());
+                out.writeDouble(c.funding8hPct());
+                out.writeLong(c.fundingAt());
+                out.writeDouble(c.perpAsk());
+                out.writeDouble(c.perpBid());
+                out.writeLong(c.perpAt());
+                out.writeDouble(c.spotAsk());
+                out.writeLong(c.spotAt());
+            }
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, bytes.toByteArray());
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** 读取快照；文件不存在返回 null，格式不识别或截断时抛 IOException */
+    static Contents read(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (buf.remaining() < 16 || buf.getInt() != MAGIC) {
+                throw new IOException("unrecognized warm state file " + file);
+            }
+            int version = buf.getInt();
+            if (version < 1 || version > VERSION) throw new IOException("unsupported warm state file version " + version);
+            long savedAt = buf.getLong();
+            MarketDataStore.Kind[] kinds = MarketDataStore.Kind.values();
+            int count = buf.getInt();
+            List<Entry> entries = new ArrayList<>(Math.min(count, 1 << 16));
+            for (int i = 0; i < count; i++) {
+                int kind = buf.get();
+                String symbol = readString(buf);
+                String exchange = readString(buf);
+                byte[] value = new byte[buf.getShort() & 0xFFFF];
+                buf.get(value);
+                if (kind >= 0 && kind < kinds.length) entries.add(new Entry(symbol, exchange, kinds[kind], value));
+            }
+            int alertCount = buf.getInt();
+            List<AlertEngine.PairSnapshot> alerts = new ArrayList<>(Math.min(alertCount, 1 << 16));
+            for (int i = 0; i < alertCount; i++) {
+                alerts.add(new AlertEngine.PairSnapshot(readString(buf), readString(buf), readString(buf), readString(buf),
+                        buf.getLong(), buf.get() != 0, buf.getLong()));
+            }
+            List<CarryEngine.LegSnapshot> carry = new ArrayList<>();
+            if (version >= 2) {
+                int carryCount = buf.getInt();
+                for (int i = 0; i < carryCount; i++) {
+                    carry.add(new CarryEngine.LegSnapshot(readString(buf), readString(buf), buf.getDouble(), buf.getLong(),
+                            buf.getDouble(), buf.getDouble(), buf.getLong(), buf.getDouble(), buf.getLong()));
+                }
+            }
+            return new Contents(savedAt, entries, alerts, carry);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("truncated warm state file " + file, e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(b.length);
+        out.write(b);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] b = new byte[buf.getShort() & 0xFFFF];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
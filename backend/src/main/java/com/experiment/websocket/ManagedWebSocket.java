@@ -1,18 +1,33 @@
 package com.experiment.websocket;
 
+import com.experiment.metrics.IngestMetrics;
+import com.experiment.metrics.TickLatency;
+import com.experiment.ratelimit.RateLimiter;
+import com.experiment.websocket.transport.GzipInflater;
+import com.experiment.websocket.transport.WsConnection;
+import com.experiment.websocket.transport.WsListener;
+import com.experiment.websocket.transport.WsOptions;
+import com.experiment.websocket.transport.WsTransport;
+import com.experiment.websocket.transport.WsTransports;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipException;
 
 /**
- * 统一 WebSocket 客户端，负责连接、断线检测、重连与心跳。
+ * 统一 WebSocket 客户端，负责连接、断线检测、重连与心跳；底层连接由 {@link WsTransports#current()} 建立。
+ * 重连与心跳定时任务由全部客户端共享的一个调度线程执行。
+ * 发出的订阅、心跳等控制消息计入交易所限流（与 HTTP 请求共用 IP 额度），额度不足时延迟发送，同一连接内保持顺序。
  */
 public class ManagedWebSocket {
 
@@ -22,22 +37,27 @@ public class ManagedWebSocket {
     private static final long MAX_RECONNECT_DELAY_MS = 60_000;
     private static final double RECONNECT_BACKOFF_MULTIPLIER = 2.0;
 
-    private final String exchangeName;
-    private final URI uri;
-    private final ExchangeWebSocketHandler handler;
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread t = new Thread(r, "ws-reconnect");
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "ws-scheduler");
         t.setDaemon(true);
         return t;
     });
 
-    private volatile WebSocketConnection connection;
+    private final String exchangeName;
+    private final URI uri;
+    private final ExchangeWebSocketHandler handler;
+
+    /** 当前连接尝试；旧连接迟到的回调与当前 session 不符时忽略 */
+    private volatile Session session;
     private volatile long nextReconnectDelayMs = INITIAL_RECONNECT_DELAY_MS;
     private volatile ScheduledFuture<?> reconnectFuture;
     private volatile ScheduledFuture<?> heartbeatFuture;
     private final AtomicBoolean running = new AtomicBoolean(true);
     /** 最后收到消息的时间（毫秒），用于诊断推送频率与断连 */
     private final AtomicLong lastMessageTimeMs = new AtomicLong(0);
+    private final Object sendLock = new Object();
+    /** 等待限流额度的发送，按调用顺序排队；非空时后续发送一律排在队尾，由 sendLock 保护 */
+    private final ArrayDeque<PendingSend> pendingSends = new ArrayDeque<>();
 
     public ManagedWebSocket(String exchangeName, URI uri, ExchangeWebSocketHandler handler) {
         this.exchangeName = exchangeName;
@@ -47,11 +67,16 @@ public class ManagedWebSocket {
 
     public void connect() {
         if (!running.get()) return;
+        Session s = new Session();
+        session = s;
         try {
-            connection = new WebSocketConnection(uri, this);
-            connection.connect();
+            WsTransport transport = WsTransports.current();
+            // CoinEx 要求 permessage-deflate，其余按 ws.deflate 配置
+            boolean deflate = "coinex".equals(exchangeName) || transport.deflate().appliesTo(exchangeName);
+            s.connection = transport.connect(uri, new WsOptions(exchangeName, deflate), s);
         } catch (Exception e) {
             log.error("[{}] 连接失败: {}", exchangeName, e.getMessage());
+            session = null;
             scheduleReconnect();
         }
     }
@@ -60,49 +85,106 @@ public class ManagedWebSocket {
         running.set(false);
         cancelReconnect();
         cancelHeartbeat();
-        if (connection != null) {
-            connection.close();
-            connection = null;
+        Session s = session;
+        if (s != null && s.connection != null) {
+            s.connection.close();
         }
     }
 
+    /**
+     * 强制断开当前连接（不等待 close 握手）并按初始间隔重连，用于连接未断开但已停止推送的情况。
+     */
+    public void forceReconnect() {
+        Session s = session;
+        if (s == null || s.connection == null || !running.get()) return;
+        nextReconnectDelayMs = INITIAL_RECONNECT_DELAY_MS;
+        s.connection.abort("stalled");
+    }
+
     public void send(String text) {
-        WebSocketConnection conn = connection;
-        if (conn != null && conn.isOpen()) {
-            conn.send(text);
-        } else {
+        Session s = session;
+        if (s == null || s.connection == null) return;
+        synchronized (sendLock) {
+            long now = System.nanoTime();
+            long due = now + RateLimiter.current().reserveMessage(exchangeName);
+            PendingSend last = pendingSends.peekLast();
+            if (last == null && due - now <= 0) {
+                s.connection.send(text);
+                return;
+            }
+            if (last != null && last.dueNanos() - due > 0) due = last.dueNanos();
+            pendingSends.addLast(new PendingSend(s, text, due));
+            if (last == null) scheduler.schedule(this::drainPendingSends, due - now, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** 按顺序发出已到期的排队消息，队列未空时按新队首的到期时间再次调度 */
+    private void drainPendingSends() {
+        synchronized (sendLock) {
+            long now = System.nanoTime();
+            PendingSend next;
+            while ((next = pendingSends.peekFirst()) != null && next.dueNanos() - now <= 0) {
+                pendingSends.pollFirst();
+                // 到期时连接已换成新的则丢弃：新连接的 onConnected 会重新订阅
+                if (session == next.session()) next.session().connection.send(next.text());
+            }
+            if (next != null) scheduler.schedule(this::drainPendingSends, next.dueNanos() - now, TimeUnit.NANOSECONDS);
         }
     }
 
     public boolean isOpen() {
-        WebSocketConnection conn = connection;
-        return conn != null && conn.isOpen();
+        Session s = session;
+        return s != null && s.connection != null && s.connection.isOpen();
     }
 
     public String getExchangeName() {
         return exchangeName;
     }
 
-    void onConnectionOpened(WebSocketConnection conn) {
+    private void onConnectionOpened() {
         nextReconnectDelayMs = INITIAL_RECONNECT_DELAY_MS;
         handler.onConnected(this);
         startHeartbeat();
     }
 
-    void onConnectionClosed(WebSocketConnection conn, int code, String reason) {
-        connection = null;
+    private void onConnectionClosed(int code, String reason) {
         cancelHeartbeat();
         handler.onClosed(code, reason);
-        // 1000=正常关闭, 1006=异常关闭(如服务器超时断开)，均有自动重连，INFO 级别即可
-        log.info("[{}] 连接关闭: {} - {} (将重连)", exchangeName, code, reason);
         if (running.get()) {
+            // 1000=正常关闭, 1006=异常关闭(如服务器超时断开)，均有自动重连，INFO 级别即可
+            log.info("[{}] 连接关闭: {} - {} (将重连)", exchangeName, code, reason);
             scheduleReconnect();
         }
     }
 
     void onMessage(String message) {
         lastMessageTimeMs.set(System.currentTimeMillis());
-        handler.onMessage(message);
+        IngestMetrics.wsMessage(exchangeName);
+        TickLatency.begin(exchangeName);
+        try {
+            handler.onMessage(message);
+        } finally {
+            TickLatency.end();
+        }
+    }
+
+    /**
+     * 二进制消息：gzip 压缩的（如 CoinEx）用池化 Inflater 解压，否则按 UTF-8 解码。解压失败或解压后超过
+     * ws.transport.max-message-bytes 的消息丢弃并计数（gzip 魔数开头的数据不可能是合法 UTF-8 文本）。
+     */
+    private void onBinaryMessage(ByteBuffer bytes) {
+        if (GzipInflater.isGzip(bytes)) {
+            try {
+                onMessage(new String(GzipInflater.inflate(bytes, WsTransports.current().maxMessageBytes()), StandardCharsets.UTF_8));
+            } catch (ZipException e) {
+                IngestMetrics.wsRejected(exchangeName, "gzip");
+                log.warn("[{}] gzip 消息已丢弃: {}", exchangeName, e.getMessage());
+            }
+            return;
+        }
+        byte[] data = new byte[bytes.remaining()];
+        bytes.get(data);
+        onMessage(new String(data, StandardCharsets.UTF_8));
     }
 
     /** 诊断：是否已连接 */
@@ -116,17 +198,14 @@ public class ManagedWebSocket {
         return t == 0 ? -1 : System.currentTimeMillis() - t;
     }
 
-    void onError(Exception ex) {
-        log.error("[{}] WebSocket 错误", exchangeName, ex);
-        handler.onError(ex);
-        if (!isOpen() && running.get()) {
-            scheduleReconnect();
-        }
+    private void onError(Throwable error) {
+        log.error("[{}] WebSocket 错误", exchangeName, error);
+        handler.onError(error instanceof Exception e ? e : new RuntimeException(error));
     }
-
     private void scheduleReconnect() {
         if (!running.get() || reconnectFuture != null) return;
         log.info("[{}] {}ms 后重连", exchangeName, nextReconnectDelayMs);
+        IngestMetrics.reconnect(exchangeName);
         reconnectFuture = scheduler.schedule(() -> {
             reconnectFuture = null;
             if (running.get()) {
@@ -165,80 +244,40 @@ public class ManagedWebSocket {
         }
     }
 
+    private record PendingSend(Session session, String text, long dueNanos) {}
+
     /**
-     * 底层 WebSocket 连接，委托给 org.java_websocket
+     * 一次连接尝试的回调；传输层保证失败或断开时必有一次 onClose，重连只在这里调度。
      */
-    static class WebSocketConnection extends org.java_websocket.client.WebSocketClient {
-
-        private final ManagedWebSocket manager;
-
-        WebSocketConnection(URI uri, ManagedWebSocket manager) {
-            super(uri);
-            this.manager = manager;
-            // Enable permessage-deflate compression for CoinEx (required by their API)
-            if ("coinex".equals(manager.exchangeName)) {
-                try {
-                    // Request permessage-deflate extension in the handshake
-                    this.addHeader("Sec-WebSocket-Extensions", "permessage-deflate");
-                } catch (Exception e) {
-                    // If header setting fails, log but continue
-                }
-            }
-        }
+    private final class Session implements WsListener {
+
+        volatile WsConnection connection;
 
         @Override
-        public void onOpen(org.java_websocket.handshake.ServerHandshake handshake) {
-            manager.onConnectionOpened(this);
+        public void onOpen() {
+            if (session == this) onConnectionOpened();
         }
 
         @Override
-        public void onMessage(String message) {
-            manager.onMessage(message);
+        public void onText(String message) {
+            if (session == this) onMessage(message);
         }
 
         @Override
-        public void onMessage(java.nio.ByteBuffer bytes) {
-            // Handle binary messages (potentially gzip compressed)
-            // For CoinEx, binary messages might be gzip compressed
-            if ("coinex".equals(manager.exchangeName)) {
-                try {
-                    java.util.zip.GZIPInputStream gzip = new java.util.zip.GZIPInputStream(
-                        new java.io.ByteArrayInputStream(bytes.array(), bytes.position(), bytes.remaining()));
-                    java.io.BufferedReader reader = new java.io.BufferedReader(
-                        new java.io.InputStreamReader(gzip, java.nio.charset.StandardCharsets.UTF_8));
-                    StringBuilder decompressed = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        decompressed.append(line);
-                    }
-                    manager.onMessage(decompressed.toString());
-                    return;
-                } catch (Exception e) {
-                    // If decompression fails, try to decode as UTF-8 string
-                    try {
-                        String message = new String(bytes.array(), bytes.position(), bytes.remaining(), java.nio.charset.StandardCharsets.UTF_8);
-                        manager.onMessage(message);
-                    } catch (Exception e2) {
-                    }
-                }
-            } else {
-                // For other exchanges, decode as UTF-8 string
-                try {
-                    String message = new String(bytes.array(), bytes.position(), bytes.remaining(), java.nio.charset.StandardCharsets.UTF_8);
-                    manager.onMessage(message);
-                } catch (Exception e) {
-                }
-            }
+        public void onBinary(ByteBuffer message) {
+            if (session == this) onBinaryMessage(message);
         }
 
         @Override
-        public void onClose(int code, String reason, boolean remote) {
-            manager.onConnectionClosed(this, code, reason);
+        public void onClose(int code, String reason) {
+            if (session != this) return;
+            session = null;
+            onConnectionClosed(code, reason);
         }
 
         @Override
-        public void onError(Exception ex) {
-            manager.onError(ex);
+        public void onError(Throwable error) {
+            if (session == this) ManagedWebSocket.this.onError(error);
         }
     }
 }
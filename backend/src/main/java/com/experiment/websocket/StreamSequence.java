@@ -0,0 +1,42 @@
+package com.experiment.websocket;
+
+/**
+ * 一条推送所属的流（通常即 topic）及其单调序号（更新 id 或事件时间），供冗余连接按流去重：
+ * 同一流只转发序号严格更大的消息，另一条连接晚到的同一条或更旧的消息被丢弃。
+ * <p>
+ * 字段提取为轻量字符串扫描（取首个匹配字段），不为去重额外解析整条 JSON。
+ */
+public record StreamSequence(String stream, long sequence) {
+
+    /** 取首个 "name":"value" 的字符串值，缺失时返回 null */
+    public static String stringField(String json, String name) {
+        int i = valueStart(json, name);
+        if (i < 0 || i >= json.length() || json.charAt(i) != '"') return null;
+        int end = json.indexOf('"', i + 1);
+        return end < 0 ? null : json.substring(i + 1, end);
+    }
+
+    /** 取首个 "name":123 或 "name":"123" 的整数值，缺失或非整数时返回 -1 */
+    public static long longField(String json, String name) {
+        int i = valueStart(json, name);
+        if (i < 0 || i >= json.length()) return -1;
+        if (json.charAt(i) == '"') i++;
+        long value = 0;
+        int digits = 0;
+        for (; i < json.length(); i++, digits++) {
+            char c = json.charAt(i);
+            if (c < '0' || c > '9') break;
+            value = value * 10 + (c - '0');
+        }
+        return digits == 0 ? -1 : value;
+    }
+
+    private static int valueStart(String json, String name) {
+        String key = "\"" + name + "\"";
+        int i = json.indexOf(key);
+        if (i < 0) return -1;
+        i += key.length();
+        while (i < json.length() && (json.charAt(i) == ':' || Character.isWhitespace(json.charAt(i)))) i++;
+        return i;
+    }
+}
@@ -0,0 +1,350 @@
+package com.experiment.websocket;
+
+import com.experiment.metrics.IngestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 单个交易所行情流的订阅管理：
+ * - 运行时增删 topic，通过交易所的 subscribe/unsubscribe 操作下发，无需重启或重建连接
+ * - 按 {@link SubscriptionProtocol#maxTopicsPerConnection()} 将 topic 分片到多条连接，超出上限时自动新开连接
+ * - 每条连接（重）连上后自动重发该分片的全部订阅
+ * - 可选冗余模式：每个分片同时维持主/备两条连接（可指向不同端点），按消息内容去重，
+ *   任一条断开或静默超过 stallMs 时另一条继续供数，静默的连接被强制重连，避免退避重连期间的数据空档；
+ *   去重按流记录最近转发的序号（{@link SubscriptionProtocol#sequenceOf}），只转发更新的消息
+ */
+public class SubscriptionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(SubscriptionManager.class);
+
+    private static final long STALL_CHECK_INTERVAL_MS = 1_000;
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "ws-stall-watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final String name;
+    private final URI uri;
+    private final URI standbyUri;
+    private final ExchangeWebSocketHandler handler;
+    private final SubscriptionProtocol protocol;
+    private final List<Shard> shards = new CopyOnWriteArrayList<>();
+    private final Map<String, Shard> topicToShard = new ConcurrentHashMap<>();
+    private volatile Consumer<ManagedWebSocket> shardListener = c -> {};
+    private volatile Consumer<ManagedWebSocket> shardRemovedListener = c -> {};
+    private volatile boolean started;
+    private volatile boolean redundant;
+    private volatile long stallMs;
+    private volatile ScheduledFuture<?> watchdogFuture;
+
+    public <H extends ExchangeWebSocketHandler & SubscriptionProtocol> SubscriptionManager(String name, URI uri, H handler) {
+        this(name, uri, uri, handler);
+    }
+
+    /**
+     * @param standbyUri 冗余模式下备用连接的端点，可与 uri 相同
+     */
+    public <H extends ExchangeWebSocketHandler & SubscriptionProtocol> SubscriptionManager(String name, URI uri, URI standbyUri, H handler) {
+        this.name = name;
+        this.uri = uri;
+        this.standbyUri = standbyUri;
+        this.handler = handler;
+        this.protocol = handler;
+    }
+
+    /**
+     * 开启冗余模式，须在 {@link #start()} 之前调用。
+     *
+     * @param stallMs 连接已连上但超过该时长未收到消息即视为卡死
+     */
+    public void enableRedundancy(long stallMs) {
+        this.redundant = true;
+        this.stallMs = stallMs;
+    }
+
+    public boolean isRedundant() {
+        return redundant;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** 新建分片连接时回调（供 WebSocketRunner 纳入诊断/停止列表） */
+    public void setShardListener(Consumer<ManagedWebSocket> shardListener) {
+        this.shardListener = shardListener;
+    }
+
+    /** 分片因退订为空而关闭时回调（供 WebSocketRunner 移出诊断/停止列表） */
+    public void setShardRemovedListener(Consumer<ManagedWebSocket> shardRemovedListener) {
+        this.shardRemovedListener = shardRemovedListener;
+    }
+
+    /** topic 格式是否被该交易所接受 */
+    public boolean isValidTopic(String topic) {
+        return protocol.isValidTopic(topic);
+    }
+
+    /** 按 initialTopics 建立分片并连接 */
+    public synchronized void start() {
+        started = true;
+        assign(protocol.initialTopics());
+        for (Shard shard : shards) {
+            shard.connect();
+        }
+        if (redundant) {
+            watchdogFuture = WATCHDOG.scheduleAtFixedRate(this::checkStalls,
+                    STALL_CHECK_INTERVAL_MS, STALL_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** 运行时新增 topic，已订阅的忽略 */
+    public synchronized void subscribe(Collection<String> topics) {
+        Map<Shard, List<String>> added = assign(topics);
+        for (Map.Entry<Shard, List<String>> e : added.entrySet()) {
+            Shard shard = e.getKey();
+            if (!shard.connectRequested) {
+                if (started) shard.connect();
+            } else {
+                shard.send(e.getValue(), true);
+            }
+        }
+    }
+
+    /** 运行时退订 topic；非首个分片退订为空后断开 */
+    public synchronized void unsubscribe(Collection<String> topics) {
+        Map<Shard, List<String>> removed = new ConcurrentHashMap<>();
+        for (String topic : topics) {
+            Shard shard = topicToShard.remove(topic);
+            if (shard == null) continue;
+            shard.topics.remove(topic);
+            removed.computeIfAbsent(shard, k -> new ArrayList<>()).add(topic);
+        }
+        for (Map.Entry<Shard, List<String>> e : removed.entrySet()) {
+            Shard shard = e.getKey();
+            shard.send(e.getValue(), false);
+            if (shard.topics.isEmpty() && shards.indexOf(shard) > 0) {
+                shards.remove(shard);
+                shard.disconnect();
+                for (Leg leg : shard.legs) {
+                    shardRemovedListener.accept(leg.client);
+                }
+                log.info("[{}] shard {} has no topics left, disconnected", name, shard.name);
+            }
+        }
+    }
+
+    /** 当前已订阅的 topic */
+    public Set<String> getTopics() {
+        return new LinkedHashSet<>(topicToShard.keySet());
+    }
+
+    /** 当前所有分片连接（冗余模式下含备用连接） */
+    public List<ManagedWebSocket> getClients() {
+        return shards.stream().flatMap(s -> s.legs.stream()).map(l -> l.client).toList();
+    }
+
+    public void disconnect() {
+        started = false;
+        if (watchdogFuture != null) {
+            watchdogFuture.cancel(false);
+            watchdogFuture = null;
+        }
+        for (Shard shard : shards) {
+            shard.disconnect();
+        }
+    }
+
+    /** 某条连接静默超时而同分片另一条仍在推送时，强制重连静默的一条 */
+    private void checkStalls() {
+        for (Shard shard : shards) {
+            for (Leg leg : shard.legs) {
+                long silence = leg.silenceMs();
+                if (!leg.client.isOpen() || silence < stallMs) continue;
+                boolean otherAlive = shard.legs.stream().anyMatch(o -> o != leg && o.client.isOpen() && o.silenceMs() < stallMs);
+                if (otherAlive) {
+                    log.warn("[{}] no message for {}ms while peer is live, forcing reconnect", leg.client.getExchangeName(), silence);
+                    IngestMetrics.wsStall(leg.client.getExchangeName());
+                    leg.client.forceReconnect();
+                }
+            }
+        }
+    }
+
+    /** 为新 topic 选择分片（优先填满已有分片），返回每个分片新增的 topic */
+    private Map<Shard, List<String>> assign(Collection<String> topics) {
+        Map<Shard, List<String>> added = new ConcurrentHashMap<>();
+        int capacity = protocol.maxTopicsPerConnection();
+        for (String topic : topics) {
+            if (topicToShard.containsKey(topic)) continue;
+            Shard target = null;
+            for (Shard shard : shards) {
+                if (shard.topics.size() < capacity) {
+                    target = shard;
+                    break;
+                }
+            }
+            if (target == null) {
+                target = newShard();
+            }
+            target.topics.add(topic);
+            topicToShard.put(topic, target);
+            added.computeIfAbsent(target, k -> new ArrayList<>()).add(topic);
+        }
+        return added;
+    }
+
+    private Shard newShard() {
+        int index = shards.size();
+        String shardName = index == 0 ? name : name + "#" + index;
+        Shard shard = new Shard(shardName);
+        shards.add(shard);
+        if (index > 0) {
+            log.info("[{}] topic count exceeds {} per connection, opening shard {}", name, protocol.maxTopicsPerConnection(), shardName);
+        }
+        for (Leg leg : shard.legs) {
+            shardListener.accept(leg.client);
+        }
+        return shard;
+    }
+
+    /**
+     * 一个 topic 分片：一条主连接，冗余模式下再加一条备用连接，两条订阅相同 topic。
+     */
+    private final class Shard {
+
+        private final String name;
+        private final List<Leg> legs;
+        private final Set<String> topics = ConcurrentHashMap.newKeySet();
+        /** 冗余模式下每个流最近转发的序号，不大于它的消息已由另一条连接送达或已过时 */
+        private final Map<String, Long> lastSequence = new ConcurrentHashMap<>();
+        private volatile boolean connectRequested;
+
+        Shard(String shardName) {
+            this.name = shardName;
+            this.legs = redundant
+                    ? List.of(new Leg(this, shardName, uri), new Leg(this, shardName + "-standby", standbyUri))
+                    : List.of(new Leg(this, shardName, uri));
+        }
+
+        void connect() {
+            connectRequested = true;
+            for (Leg leg : legs) {
+                leg.client.connect();
+            }
+        }
+
+        void disconnect() {
+            for (Leg leg : legs) {
+                leg.client.disconnect();
+            }
+        }
+
+        void send(List<String> batch, boolean subscribe) {
+            for (Leg leg : legs) {
+                leg.send(batch, subscribe);
+            }
+        }
+
+        void dispatch(Leg from, String message) {
+            if (legs.size() > 1 && isDuplicate(message)) {
+                IngestMetrics.wsDuplicate(from.client.getExchangeName());
+                return;
+            }
+            handler.onMessage(message);
+        }
+
+        private boolean isDuplicate(String message) {
+            StreamSequence seq = protocol.sequenceOf(message);
+            if (seq == null) return false;
+            boolean[] newer = {false};
+            lastSequence.compute(seq.stream(), (k, last) -> {
+                if (last != null && seq.sequence() <= last) return last;
+                newer[0] = true;
+                return seq.sequence();
+            });
+            return !newer[0];
+        }
+    }
+
+    /**
+     * 分片内的一条连接：转发 handler 回调，连接建立后重发本分片全部订阅。
+     */
+    private final class Leg implements ExchangeWebSocketHandler {
+
+        private final Shard shard;
+        private final ManagedWebSocket client;
+        private volatile long connectedAtMs;
+
+        Leg(Shard shard, String legName, URI legUri) {
+            this.shard = shard;
+            this.client = new ManagedWebSocket(legName, legUri, this);
+        }
+
+        void send(List<String> batch, boolean subscribe) {
+            if (!client.isOpen() || batch.isEmpty()) return;
+            int perMessage = Math.max(1, protocol.maxTopicsPerMessage());
+            for (int i = 0; i < batch.size(); i += perMessage) {
+                List<String> chunk = batch.subList(i, Math.min(i + perMessage, batch.size()));
+                client.send(subscribe ? protocol.subscribeMessage(chunk) : protocol.unsubscribeMessage(chunk));
+            }
+        }
+
+        /** 距本连接最近一次收到消息（或连上）的毫秒数 */
+        long silenceMs() {
+            long sinceConnected = System.currentTimeMillis() - connectedAtMs;
+            long age = client.getLastMessageAgeMs();
+            return age < 0 ? sinceConnected : Math.min(age, sinceConnected);
+        }
+
+        @Override
+        public void onConnected(ManagedWebSocket c) {
+            connectedAtMs = System.currentTimeMillis();
+            handler.onConnected(c);
+            List<String> all = new ArrayList<>(shard.topics);
+            send(all, true);
+            log.info("[{}] subscribed {} topics", c.getExchangeName(), all.size());
+        }
+
+        @Override
+        public void onMessage(String message) {
+            shard.dispatch(this, message);
+        }
+
+        @Override
+        public void onClosed(int code, String reason) {
+            handler.onClosed(code, reason);
+        }
+
+        @Override
+        public void onError(Exception ex) {
+            handler.onError(ex);
+        }
+
+        @Override
+        public String getHeartbeatMessage() {
+            return handler.getHeartbeatMessage();
+        }
+
+        @Override
+        public long getHeartbeatIntervalMs() {
+            return handler.getHeartbeatIntervalMs();
+        }
+    }
+}
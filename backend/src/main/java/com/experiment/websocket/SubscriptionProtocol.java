@@ -0,0 +1,53 @@
+package com.experiment.websocket;
+
+import java.util.List;
+
+/**
+ * 交易所订阅协议：由 handler 实现，描述如何把一组 topic 编码成订阅/退订消息，以及单连接的 topic 上限。
+ * 配合 {@link SubscriptionManager} 使用，handler 不再在 onConnected 中硬编码订阅报文。
+ */
+public interface SubscriptionProtocol {
+
+    /**
+     * 启动时默认订阅的 topic（格式由交易所决定，如 Binance 的 btcusdt@ticker、Bybit 的 tickers.BTCUSDT）。
+     */
+    List<String> initialTopics();
+
+    /**
+     * 生成订阅消息。topics 数量不超过 {@link #maxTopicsPerMessage()}。
+     */
+    String subscribeMessage(List<String> topics);
+
+    /**
+     * 生成退订消息。topics 数量不超过 {@link #maxTopicsPerMessage()}。
+     */
+    String unsubscribeMessage(List<String> topics);
+
+    /**
+     * 冗余模式下用于去重的流标识与序号；返回 null 的消息（订阅回执、pong 等）不去重直接转发。
+     */
+    default StreamSequence sequenceOf(String message) {
+        return null;
+    }
+
+    /**
+     * 校验运行时提交的 topic 格式，不合法的由订阅管理 API 以 400 拒绝，避免在编码订阅消息时抛异常。
+     */
+    default boolean isValidTopic(String topic) {
+        return topic != null && !topic.isBlank() && topic.chars().noneMatch(Character::isWhitespace);
+    }
+
+    /**
+     * 单条连接最多承载的 topic 数，超过时由 SubscriptionManager 新开连接分片。
+     */
+    default int maxTopicsPerConnection() {
+        return 200;
+    }
+
+    /**
+     * 单条订阅消息最多携带的 topic 数。
+     */
+    default int maxTopicsPerMessage() {
+        return 50;
+    }
+}
@@ -1,5 +1,8 @@
 package com.experiment.websocket;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.springframework.context.annotation.DependsOn;
@@ -7,7 +10,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -31,10 +37,14 @@ public class WebSocketDiagnosticRunner {
     private static final Set<String> HTTP_FALLBACK_EXCHANGES = Set.of("lbank", "bitunix");
 
     private final WebSocketRunner webSocketRunner;
+    private final MeterRegistry meterRegistry;
+    /** 每条连接注册的 Gauge，连接移出时一并移除 */
+    private final Map<ManagedWebSocket, List<Meter>> gauges = new ConcurrentHashMap<>();
     private ScheduledExecutorService scheduler;
 
-    public WebSocketDiagnosticRunner(WebSocketRunner webSocketRunner) {
+    public WebSocketDiagnosticRunner(WebSocketRunner webSocketRunner, MeterRegistry meterRegistry) {
         this.webSocketRunner = webSocketRunner;
+        this.meterRegistry = meterRegistry;
     }
 
     @PostConstruct
@@ -45,6 +55,7 @@ public class WebSocketDiagnosticRunner {
             return t;
         });
         scheduler.scheduleAtFixedRate(this::runDiagnostic, DIAG_INTERVAL_SEC, DIAG_INTERVAL_SEC, TimeUnit.SECONDS);
+        webSocketRunner.addClientListener(this::registerGauges, this::removeGauges);
         log.info("WebSocket diagnostic started (interval {}s, stale threshold {}s)", DIAG_INTERVAL_SEC, STALE_THRESHOLD_SEC);
     }
 
@@ -55,6 +66,25 @@ public class WebSocketDiagnosticRunner {
         }
     }
 
+    /**
+     * 连接状态与最后消息时间同时以 Gauge 暴露，便于告警而不必解析日志。连接由行情流启动或订阅分片时才创建，
+     * 因此在 {@link WebSocketRunner} 加入连接时注册、移出时移除，而不是启动时遍历一次。
+     */
+    private void registerGauges(ManagedWebSocket client) {
+        gauges.computeIfAbsent(client, c -> List.of(
+                Gauge.builder("ws.connected", c, ws -> ws.isConnected() ? 1 : 0)
+                        .tag("exchange", c.getExchangeName())
+                        .register(meterRegistry),
+                Gauge.builder("ws.last.message.age.seconds", c, ws -> ws.getLastMessageAgeMs() / 1000.0)
+                        .tag("exchange", c.getExchangeName())
+                        .register(meterRegistry)));
+    }
+
+    private void removeGauges(ManagedWebSocket client) {
+        List<Meter> meters = gauges.remove(client);
+        if (meters != null) meters.forEach(meterRegistry::remove);
+    }
+
     private void runDiagnostic() {
         for (ManagedWebSocket client : webSocketRunner.getClients()) {
             String name = client.getExchangeName();
@@ -1,80 +1,147 @@
 package com.experiment.websocket;
 
+import com.experiment.cluster.FeedGroup;
 import com.experiment.service.MarketDataService;
 import com.experiment.websocket.handler.*;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * WebSocket 行情源：按交易所登记连接工厂，每次启动新建 handler 与连接（ManagedWebSocket 断开后不可复用）。
+ * 本类只登记不连接：单机模式下由 {@link com.experiment.startup.FeedBootstrap} 并行启动全部交易所，
+ * 集群模式（cluster.enabled=true）下由 {@link com.experiment.cluster.ClusterCoordinator} 按租约启停。
+ * 启停按交易所加锁（锁对象为该交易所的工厂），不同交易所可并发启动。
+ */
 @Component
-public class WebSocketRunner {
+@DependsOn("wsTransportConfig")
+public class WebSocketRunner implements FeedGroup {
 
     private static final Logger log = LoggerFactory.getLogger(WebSocketRunner.class);
 
     private final MarketDataService marketDataService;
-    private final List<ManagedWebSocket> clients = new ArrayList<>();
-
-    public WebSocketRunner(MarketDataService marketDataService) {
+    private final RestTemplate restTemplate;
+    private final List<ManagedWebSocket> clients = new CopyOnWriteArrayList<>();
+    /** 连接加入 / 移出 clients 时的回调（诊断指标），见 {@link #addClientListener} */
+    private final List<Consumer<ManagedWebSocket>> clientAddedListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<ManagedWebSocket>> clientRemovedListeners = new CopyOnWriteArrayList<>();
+    /** 支持运行时增删订阅的行情流，key 为流名（如 binance、binance-spot） */
+    private final Map<String, SubscriptionManager> subscriptions = new ConcurrentSkipListMap<>();
+    /** 交易所 → 新建该交易所全部连接的工厂 */
+    private final Map<String, Supplier<Feed>> factories = new LinkedHashMap<>();
+    /** 正在运行的交易所 */
+    private final Map<String, Feed> running = new ConcurrentHashMap<>();
+
+    /** 开启主备双连接的行情流，逗号分隔，如 binance,binance-spot,okx,bybit */
+    @Value("${ws.redundant.streams:}")
+    private String redundantStreams;
+
+    /** 冗余模式下连接静默超过该时长即强制重连 */
+    @Value("${ws.redundant.stall-ms:5000}")
+    private long redundantStallMs;
+
+    public WebSocketRunner(MarketDataService marketDataService, RestTemplate restTemplate) {
         this.marketDataService = marketDataService;
+        this.restTemplate = restTemplate;
     }
 
     @PostConstruct
     public void start() {
-        try {
+        factories.put("binance", () -> {
             BinanceHandler binanceHandler = new BinanceHandler(marketDataService);
-            clients.add(binanceHandler.createFuturesClient());
-            clients.add(binanceHandler.createSpotClient());
-
-            OkxHandler okxHandler = new OkxHandler(marketDataService);
-            clients.add(okxHandler.createClient());
-
+            return Feed.of(List.of(binanceHandler.createFuturesSubscriptions(), binanceHandler.createSpotSubscriptions(),
+                    new BinanceDepthHandler(restTemplate).createSubscriptions()));
+        });
+        factories.put("okx", () -> Feed.of(List.of(new OkxHandler(marketDataService).createSubscriptions())));
+        factories.put("bybit", () -> {
             BybitHandler bybitHandler = new BybitHandler(marketDataService);
-            clients.add(bybitHandler.createFuturesClient());
-            clients.add(bybitHandler.createSpotClient());
-
-            GateHandler gateHandler = new GateHandler(marketDataService);
-            clients.add(gateHandler.createClient());
-
-            MexcHandler mexcHandler = new MexcHandler(marketDataService);
-            clients.add(mexcHandler.createClient());
-
-            BitgetHandler bitgetHandler = new BitgetHandler(marketDataService);
-            clients.add(bitgetHandler.createClient());
-
-            CoinExHandler coinExHandler = new CoinExHandler(marketDataService);
-            clients.add(coinExHandler.createClient());
-
-            CryptoComHandler cryptoComHandler = new CryptoComHandler(marketDataService);
-            clients.add(cryptoComHandler.createClient());
-
-            HyperliquidHandler hyperliquidHandler = new HyperliquidHandler(marketDataService);
-            clients.add(hyperliquidHandler.createClient());
-
-            BitunixHandler bitunixHandler = new BitunixHandler(marketDataService);
-            clients.add(bitunixHandler.createClient());
-
-            LBankHandler lBankHandler = new LBankHandler(marketDataService);
-            clients.add(lBankHandler.createClient());
+            return Feed.of(List.of(bybitHandler.createFuturesSubscriptions(), bybitHandler.createSpotSubscriptions()));
+        });
+        factories.put("gateio", () -> Feed.of(new GateHandler(marketDataService).createClient()));
+        factories.put("mexc", () -> Feed.of(new MexcHandler(marketDataService).createClient()));
+        factories.put("bitget", () -> Feed.of(new BitgetHandler(marketDataService).createClient()));
+        factories.put("coinex", () -> Feed.of(new CoinExHandler(marketDataService).createClient()));
+        factories.put("cryptocom", () -> Feed.of(new CryptoComHandler(marketDataService).createClient()));
+        factories.put("hyperliquid", () -> Feed.of(new HyperliquidHandler(marketDataService).createClient()));
+        factories.put("bitunix", () -> Feed.of(new BitunixHandler(marketDataService).createClient()));
+        factories.put("lbank", () -> Feed.of(new LBankHandler(marketDataService).createClient()));
+        factories.put("dydx", () -> Feed.of(new DydxHandler(marketDataService).createClient()));
+        factories.put("bitfinex", () -> Feed.of(new BitfinexHandler(marketDataService).createClient()));
+        log.info("Registered {} WebSocket feeds", factories.size());
+    }
 
-            DydxHandler dydxHandler = new DydxHandler(marketDataService);
-            clients.add(dydxHandler.createClient());
+    @Override
+    public Set<String> feeds() {
+        return factories.keySet();
+    }
 
-            BitfinexHandler bitfinexHandler = new BitfinexHandler(marketDataService);
-            clients.add(bitfinexHandler.createClient());
+    @Override
+    public void startFeed(String exchange) {
+        Supplier<Feed> factory = factories.get(exchange);
+        if (factory == null) return;
+        synchronized (factory) {
+            if (running.containsKey(exchange)) return;
+            try {
+                Feed feed = factory.get();
+                for (SubscriptionManager manager : feed.managers()) {
+                    register(manager);
+                    manager.start();
+                }
+                for (ManagedWebSocket client : feed.clients()) {
+                    addClient(client);
+                    client.connect();
+                }
+                running.put(exchange, feed);
+            } catch (Exception e) {
+                log.error("Failed to start WebSocket clients for {}", exchange, e);
+            }
+        }
+    }
 
-            for (ManagedWebSocket client : clients) {
-                client.connect();
+    @Override
+    public void stopFeed(String exchange) {
+        Supplier<Feed> factory = factories.get(exchange);
+        if (factory == null) return;
+        synchronized (factory) {
+            Feed feed = running.remove(exchange);
+            if (feed == null) return;
+            for (SubscriptionManager manager : feed.managers()) {
+                subscriptions.remove(manager.getName());
+                manager.getClients().forEach(this::removeClient);
+                manager.disconnect();
+            }
+            for (ManagedWebSocket client : feed.clients()) {
+                removeClient(client);
+                disconnect(client);
             }
+        }
+    }
 
-            log.info("Started {} WebSocket connections (unified client with reconnect)", clients.size());
-        } catch (Exception e) {
-            log.error("Failed to start WebSocket clients", e);
+    /** 分片连接由 SubscriptionManager 创建时自动加入 clients、退订关闭时移出，供诊断与停止使用 */
+    private void register(SubscriptionManager manager) {
+        if (Arrays.stream(redundantStreams.split(",")).map(String::trim).anyMatch(manager.getName()::equals)) {
+            manager.enableRedundancy(redundantStallMs);
+            log.info("[{}] redundant standby connection enabled (stall {}ms)", manager.getName(), redundantStallMs);
         }
+        manager.setShardListener(this::addClient);
+        manager.setShardRemovedListener(this::removeClient);
+        subscriptions.put(manager.getName(), manager);
     }
 
     /** 供诊断组件使用 */
@@ -82,14 +149,57 @@ public class WebSocketRunner {
         return clients;
     }
 
+    /**
+     * 注册连接加入 / 移出回调。连接在行情流启动（FeedBootstrap、集群分配）或订阅分片时才创建，
+     * 晚于各组件的 @PostConstruct；注册时已有的连接立即回调 added。
+     */
+    public void addClientListener(Consumer<ManagedWebSocket> added, Consumer<ManagedWebSocket> removed) {
+        clientAddedListeners.add(added);
+        clientRemovedListeners.add(removed);
+        clients.forEach(added);
+    }
+
+    private void addClient(ManagedWebSocket client) {
+        clients.add(client);
+        for (Consumer<ManagedWebSocket> l : clientAddedListeners) l.accept(client);
+    }
+
+    private void removeClient(ManagedWebSocket client) {
+        if (!clients.remove(client)) return;
+        for (Consumer<ManagedWebSocket> l : clientRemovedListeners) l.accept(client);
+    }
+
+    /** 供订阅管理 API 使用 */
+    public Map<String, SubscriptionManager> getSubscriptions() {
+        return subscriptions;
+    }
+
     @PreDestroy
     public void stop() {
+        for (SubscriptionManager manager : subscriptions.values()) {
+            manager.disconnect();
+        }
         for (ManagedWebSocket client : clients) {
-            try {
-                client.disconnect();
-            } catch (Exception e) {
-                log.warn("Error disconnecting WebSocket: {}", e.getMessage());
-            }
+            disconnect(client);
+        }
+    }
+
+    private static void disconnect(ManagedWebSocket client) {
+        try {
+            client.disconnect();
+        } catch (Exception e) {
+            log.warn("Error disconnecting WebSocket: {}", e.getMessage());
+        }
+    }
+
+    /** 一个交易所的全部连接：订阅管理的行情流 + 独立连接 */
+    private record Feed(List<SubscriptionManager> managers, List<ManagedWebSocket> clients) {
+        static Feed of(List<SubscriptionManager> managers) {
+            return new Feed(managers, List.of());
+        }
+
+        static Feed of(ManagedWebSocket client) {
+            return new Feed(List.of(), List.of(client));
         }
     }
 }
@@ -0,0 +1,256 @@
+package com.experiment.websocket.handler;
+
+import com.experiment.metrics.IngestMetrics;
+import com.experiment.orderbook.OrderBook;
+import com.experiment.orderbook.OrderBooks;
+import com.experiment.websocket.ExchangeWebSocketHandler;
+import com.experiment.websocket.ManagedWebSocket;
+import com.experiment.websocket.StreamSequence;
+import com.experiment.websocket.SubscriptionManager;
+import com.experiment.websocket.SubscriptionProtocol;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Binance 现货 L2 订单簿：按官方流程维护本地簿。
+ * <p>
+ * 1. 订阅 symbol@depth@100ms 增量流，未同步前缓存事件
+ * 2. REST 拉取 /api/v3/depth 快照得到 lastUpdateId
+ * 3. 丢弃 u &lt;= lastUpdateId 的事件，第一条应用的事件须满足 U &lt;= lastUpdateId+1 &lt;= u
+ * 4. 之后每条事件的 U 必须等于上一条 u+1，否则视为断档，作废本地簿并重新拉快照
+ */
+public class BinanceDepthHandler implements ExchangeWebSocketHandler, SubscriptionProtocol {
+
+    private static final String SPOT_WS = "wss://stream.binance.com:9443/stream";
+    private static final String SNAPSHOT_URL = "https://api.binance.com/api/v3/depth?symbol=%s&limit=1000";
+    private static final List<String> SYMBOLS = List.of("BTCUSDT", "ETHUSDT", "SOLUSDT", "XRPUSDT", "HYPEUSDT", "DOGEUSDT", "BNBUSDT");
+    private static final int MAX_LEVELS = 1000;
+    /** 快照未返回前最多缓存的增量事件数 */
+    private static final int MAX_BUFFERED = 2_000;
+    /** 同一交易对两次快照请求的最小间隔 */
+    private static final long SNAPSHOT_RETRY_MS = 1_000;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong requestId = new AtomicLong();
+    private final Map<String, DepthSync> syncs = new ConcurrentHashMap<>();
+
+    public BinanceDepthHandler(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    public SubscriptionManager createSubscriptions() {
+        return new SubscriptionManager("binance-depth", URI.create(SPOT_WS), this);
+    }
+
+    /** 增量深度 stream 名，如 btcusdt@depth@100ms */
+    public static String depthTopic(String symbol) {
+        return symbol.toLowerCase(Locale.ROOT) + "@depth@100ms";
+    }
+
+    @Override
+    public List<String> initialTopics() {
+        return SYMBOLS.stream().map(BinanceDepthHandler::depthTopic).toList();
+    }
+
+    @Override
+    public String subscribeMessage(List<String> topics) {
+        return request("SUBSCRIBE", topics);
+    }
+
+    @Override
+    public String unsubscribeMessage(List<String> topics) {
+        return request("UNSUBSCRIBE", topics);
+    }
+
+    private String request(String method, List<String> topics) {
+        ObjectNode req = objectMapper.createObjectNode();
+        req.put("method", method);
+        ArrayNode params = req.putArray("params");
+        topics.forEach(params::add);
+        req.put("id", requestId.incrementAndGet());
+        return req.toString();
+    }
+
+    /** 流名 + 末个更新 id u */
+    @Override
+    public StreamSequence sequenceOf(String message) {
+        String stream = StreamSequence.stringField(message, "stream");
+        long last = StreamSequence.longField(message, "u");
+        return stream == null || last < 0 ? null : new StreamSequence(stream, last);
+    }
+
+    @Override
+    public void onConnected(ManagedWebSocket client) {
+        log.info("Binance depth WebSocket connected");
+        // 重连期间的增量已丢失，全部重新同步
+        for (DepthSync sync : syncs.values()) {
+            synchronized (sync) {
+                sync.reset();
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(String message) {
+        try {
+            JsonNode root = objectMapper.readTree(message);
+            JsonNode data = root.get("data");
+            if (data == null || !"depthUpdate".equals(data.path("e").asText())) return;
+            String symbol = data.get("s").asText();
+            DepthSync sync = syncs.computeIfAbsent(symbol, DepthSync::new);
+            synchronized (sync) {
+                if (!sync.synced) {
+                    sync.buffer.addLast(data);
+                    if (sync.buffer.size() > MAX_BUFFERED) sync.buffer.removeFirst();
+                    requestSnapshotIfNeeded(sync);
+                    return;
+                }
+                long first = data.get("U").asLong();
+                long last = data.get("u").asLong();
+                // 快照后的首个事件须跨过快照：U <= lastUpdateId+1 <= u；之后才要求严格连续 U == 上一条 u+1
+                if (sync.awaitingFirst && last <= sync.lastUpdateId) return;
+                if (sync.awaitingFirst ? first > sync.lastUpdateId + 1 : first != sync.lastUpdateId + 1) {
+                    IngestMetrics.bookGap("binance");
+                    log.debug("Binance depth gap {}: expected U={}, got U={}", symbol, sync.lastUpdateId + 1, first);
+                    sync.reset();
+                    sync.buffer.addLast(data);
+                    requestSnapshotIfNeeded(sync);
+                    return;
+                }
+                apply(sync.book, data);
+                sync.lastUpdateId = last;
+                sync.awaitingFirst = false;
+                sync.book.markValid(last);
+            }
+        } catch (Exception e) {
+            IngestMetrics.parseFailure("binance-depth");
+            log.warn("Binance depth parse error: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onClosed(int code, String reason) {
+        for (DepthSync sync : syncs.values()) {
+            synchronized (sync) {
+                sync.reset();
+            }
+        }
+    }
+
+    private void requestSnapshotIfNeeded(DepthSync sync) {
+        long now = System.currentTimeMillis();
+        if (sync.snapshotPending || now - sync.lastSnapshotRequestMs < SNAPSHOT_RETRY_MS) return;
+        sync.snapshotPending = true;
+        sync.lastSnapshotRequestMs = now;
+        int generation = sync.generation;
+        Thread.ofVirtual().name("binance-depth-snapshot").start(() -> loadSnapshot(sync, generation));
+    }
+
+    private void loadSnapshot(DepthSync sync, int generation) {
+        JsonNode snapshot = null;
+        try {
+            String json = restTemplate.getForObject(String.format(SNAPSHOT_URL, sync.symbol), String.class);
+            if (json != null) snapshot = objectMapper.readTree(json);
+        } catch (Exception e) {
+            log.debug("Binance depth snapshot {} failed: {}", sync.symbol, e.getMessage());
+        }
+        synchronized (sync) {
+            sync.snapshotPending = false;
+            // 请求期间发生过断档/重连，缓存已清空，此快照作废
+            if (generation != sync.generation) return;
+            if (snapshot == null || !snapshot.has("lastUpdateId")) return;
+            long lastUpdateId = snapshot.get("lastUpdateId").asLong();
+            OrderBook book = sync.book;
+            book.clear();
+            for (JsonNode level : snapshot.path("bids")) {
+                book.updateBid(level.get(0).asDouble(), level.get(1).asDouble());
+            }
+            for (JsonNode level : snapshot.path("asks")) {
+                book.updateAsk(level.get(0).asDouble(), level.get(1).asDouble());
+            }
+            long applied = lastUpdateId;
+            boolean first = true;
+            while (!sync.buffer.isEmpty()) {
+                JsonNode event = sync.buffer.removeFirst();
+                long u = event.get("u").asLong();
+                if (u <= applied) continue;
+                long firstId = event.get("U").asLong();
+                if (first ? firstId > applied + 1 : firstId != applied + 1) {
+                    // 快照早于缓存中最早的事件或缓存本身断档，下一条消息触发重新拉取
+                    IngestMetrics.bookGap("binance");
+                    sync.buffer.clear();
+                    book.invalidate();
+                    return;
+                }
+                apply(book, event);
+                applied = u;
+                first = false;
+            }
+            book.truncate(MAX_LEVELS);
+            sync.lastUpdateId = applied;
+            // 缓存中没有跨过快照的事件时，首个实时事件仍按跨越规则校验
+            sync.awaitingFirst = first;
+            sync.synced = true;
+            book.markValid(applied);
+            IngestMetrics.bookSynced("binance");
+        }
+    }
+
+    private static void apply(OrderBook book, JsonNode event) {
+        synchronized (book) {
+            applyLevels(book, event);
+        }
+    }
+
+    private static void applyLevels(OrderBook book, JsonNode event) {
+        for (JsonNode level : event.path("b")) {
+            book.updateBid(level.get(0).asDouble(), level.get(1).asDouble());
+        }
+        for (JsonNode level : event.path("a")) {
+            book.updateAsk(level.get(0).asDouble(), level.get(1).asDouble());
+        }
+    }
+
+    /** 单个交易对的同步状态，所有字段在 synchronized(this) 内访问 */
+    private static final class DepthSync {
+        final String symbol;
+        final OrderBook book;
+        final Deque<JsonNode> buffer = new ArrayDeque<>();
+        long lastUpdateId;
+        boolean synced;
+        /** 已应用快照但尚未应用任何增量 */
+        boolean awaitingFirst;
+        boolean snapshotPending;
+        long lastSnapshotRequestMs;
+        int generation;
+
+        DepthSync(String symbol) {
+            this.symbol = symbol;
+            this.book = OrderBooks.book(OrderBooks.SPOT, "binance", symbol);
+        }
+
+        void reset() {
+            generation++;
+            synced = false;
+            awaitingFirst = false;
+            buffer.clear();
+            book.invalidate();
+        }
+    }
+}
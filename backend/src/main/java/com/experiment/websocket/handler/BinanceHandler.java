@@ -1,36 +1,102 @@
 package com.experiment.websocket.handler;
 
+import com.experiment.fx.FxRates;
+import com.experiment.metrics.IngestMetrics;
+import com.experiment.metrics.TickLatency;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
 import com.experiment.websocket.ExchangeWebSocketHandler;
 import com.experiment.websocket.ManagedWebSocket;
+import com.experiment.websocket.StreamSequence;
+import com.experiment.websocket.SubscriptionManager;
+import com.experiment.websocket.SubscriptionProtocol;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.net.URI;
-
-public class BinanceHandler implements ExchangeWebSocketHandler {
-
-    private static final String FUTURES_WS = "wss://fstream.binance.com/stream?streams=btcusdt@markPrice@1s/ethusdt@markPrice@1s/solusdt@markPrice@1s/xrpusdt@markPrice@1s/hypeusdt@markPrice@1s/dogeusdt@markPrice@1s/bnbusdt@markPrice@1s";
-    private static final String SPOT_WS = "wss://stream.binance.com:9443/stream?streams=btcusdt@ticker/ethusdt@ticker/solusdt@ticker/xrpusdt@ticker/hypeusdt@ticker/dogeusdt@ticker/bnbusdt@ticker";
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BinanceHandler implements ExchangeWebSocketHandler, SubscriptionProtocol {
+
+    /** 组合流端点，stream 名通过 SUBSCRIBE/UNSUBSCRIBE 动态下发 */
+    private static final String FUTURES_WS = "wss://fstream.binance.com/stream";
+    private static final String SPOT_WS = "wss://stream.binance.com:9443/stream";
+    /** 冗余模式下现货备用连接走仅行情端点 */
+    private static final String SPOT_WS_STANDBY = "wss://data-stream.binance.vision/stream";
+    private static final List<String> SYMBOLS = List.of("BTCUSDT", "ETHUSDT", "SOLUSDT", "XRPUSDT", "HYPEUSDT", "DOGEUSDT", "BNBUSDT");
+    /** USDC/USDT 现货，只喂给 {@link FxRates}，不作为行情入库 */
+    private static final String FX_SYMBOL = "USDCUSDT";
+    /** 合约单连接最多 200 个 stream，现货 1024 个 */
+    private static final int FUTURES_MAX_STREAMS = 200;
+    private static final int SPOT_MAX_STREAMS = 1024;
 
     private final Logger log = LoggerFactory.getLogger(getClass());
     private final MarketDataService marketDataService;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong requestId = new AtomicLong();
 
     public BinanceHandler(MarketDataService marketDataService) {
         this.marketDataService = marketDataService;
     }
 
-    public ManagedWebSocket createFuturesClient() {
-        return new ManagedWebSocket("binance", URI.create(FUTURES_WS), this);
+    public SubscriptionManager createFuturesSubscriptions() {
+        return new SubscriptionManager("binance", URI.create(FUTURES_WS), this);
+    }
+
+    public SubscriptionManager createSpotSubscriptions() {
+        return new SubscriptionManager("binance-spot", URI.create(SPOT_WS), URI.create(SPOT_WS_STANDBY), new BinanceSpotHandler());
+    }
+
+    /** 合约 stream 名，如 btcusdt@markPrice@1s */
+    public static String futuresTopic(String symbol) {
+        return symbol.toLowerCase(Locale.ROOT) + "@markPrice@1s";
+    }
+
+    /** 现货 stream 名，如 btcusdt@ticker */
+    public static String spotTopic(String symbol) {
+        return symbol.toLowerCase(Locale.ROOT) + "@ticker";
+    }
+
+    @Override
+    public List<String> initialTopics() {
+        return SYMBOLS.stream().map(BinanceHandler::futuresTopic).toList();
+    }
+
+    @Override
+    public String subscribeMessage(List<String> topics) {
+        return request("SUBSCRIBE", topics);
+    }
+
+    @Override
+    public String unsubscribeMessage(List<String> topics) {
+        return request("UNSUBSCRIBE", topics);
+    }
+
+    @Override
+    public StreamSequence sequenceOf(String message) {
+        return eventTimeSequence(message);
+    }
+
+    @Override
+    public int maxTopicsPerConnection() {
+        return FUTURES_MAX_STREAMS;
     }
 
-    public ManagedWebSocket createSpotClient() {
-        return new ManagedWebSocket("binance-spot", URI.create(SPOT_WS), new BinanceSpotHandler());
+    private String request(String method, List<String> topics) {
+        ObjectNode req = objectMapper.createObjectNode();
+        req.put("method", method);
+        ArrayNode params = req.putArray("params");
+        topics.forEach(params::add);
+        req.put("id", requestId.incrementAndGet());
+        return req.toString();
     }
 
     private void saveFundingRate(String symbol, BigDecimal rate, Long nextFundingTime) {
@@ -41,8 +107,11 @@ public class BinanceHandler implements ExchangeWebSocketHandler {
         if (price != null) marketDataService.saveFuturesPrice("binance", symbol, price);
     }
 
-    private void saveSpotPrice(String symbol, BigDecimal price) {
-        if (price != null) marketDataService.saveSpotPrice("binance", symbol, price);
+    /** 流名 + 事件时间 E */
+    static StreamSequence eventTimeSequence(String message) {
+        String stream = StreamSequence.stringField(message, "stream");
+        long eventTime = StreamSequence.longField(message, "E");
+        return stream == null || eventTime < 0 ? null : new StreamSequence(stream, eventTime);
     }
 
     private BigDecimal parseDecimal(JsonNode node, String key) {
@@ -71,6 +140,7 @@ public class BinanceHandler implements ExchangeWebSocketHandler {
             JsonNode data = root.get("data");
             if (data == null) return;
             String symbol = data.get("s").asText();
+            if (data.has("E")) TickLatency.eventTime(data.get("E").asLong());
             if (streamName.contains("markPrice")) {
                 BigDecimal rate = parseDecimal(data, "r");
                 Long nextFundingTime = data.has("T") ? data.get("T").asLong() : null;
@@ -82,12 +152,40 @@ public class BinanceHandler implements ExchangeWebSocketHandler {
             if (RedisShutdownUtil.isRedisShutdownException(e)) {
                 log.debug("Binance parse error (Redis shutdown): {}", e.getMessage());
             } else {
+                IngestMetrics.parseFailure("binance");
                 log.warn("Binance parse error: {}", e.getMessage());
             }
         }
     }
 
-    private class BinanceSpotHandler implements ExchangeWebSocketHandler {
+    private class BinanceSpotHandler implements ExchangeWebSocketHandler, SubscriptionProtocol {
+        @Override
+        public List<String> initialTopics() {
+            List<String> topics = new ArrayList<>(SYMBOLS.stream().map(BinanceHandler::spotTopic).toList());
+            topics.add(spotTopic(FX_SYMBOL));
+            return topics;
+        }
+
+        @Override
+        public String subscribeMessage(List<String> topics) {
+            return request("SUBSCRIBE", topics);
+        }
+
+        @Override
+        public String unsubscribeMessage(List<String> topics) {
+            return request("UNSUBSCRIBE", topics);
+        }
+
+        @Override
+        public int maxTopicsPerConnection() {
+            return SPOT_MAX_STREAMS;
+        }
+
+        @Override
+        public StreamSequence sequenceOf(String message) {
+            return eventTimeSequence(message);
+        }
+
         @Override
         public void onConnected(ManagedWebSocket client) {
             log.info("Binance spot WebSocket connected");
@@ -100,12 +198,23 @@ public class BinanceHandler implements ExchangeWebSocketHandler {
                 JsonNode data = root.get("data");
                 if (data == null) return;
                 String symbol = data.has("s") ? data.get("s").asText() : null;
+                if (data.has("E")) TickLatency.eventTime(data.get("E").asLong());
                 BigDecimal price = parseDecimal(data, "c");
-                if (symbol != null && price != null) saveSpotPrice(symbol, price);
+                if (FX_SYMBOL.equals(symbol)) {
+                    FxRates.onUsdcUsdt(FxRates.mid(price, parseDecimal(data, "b"), parseDecimal(data, "a")));
+                    return;
+                }
+                // @ticker 自带买一/卖一：b/B 为买一价/量，a/A 为卖一价/量
+                if (symbol != null && price != null) {
+                    marketDataService.saveSpotQuote("binance", symbol, price,
+                            parseDecimal(data, "b"), parseDecimal(data, "B"),
+                            parseDecimal(data, "a"), parseDecimal(data, "A"));
+                }
             } catch (Exception e) {
                 if (RedisShutdownUtil.isRedisShutdownException(e)) {
                     log.debug("Binance spot parse error (Redis shutdown): {}", e.getMessage());
                 } else {
+                    IngestMetrics.parseFailure("binance-spot");
                     log.warn("Binance spot parse error: {}", e.getMessage());
                 }
             }
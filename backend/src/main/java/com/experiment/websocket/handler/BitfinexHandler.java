@@ -1,5 +1,8 @@
 package com.experiment.websocket.handler;
 
+import com.experiment.fx.FxRates;
+import com.experiment.fx.QuoteCurrency;
+import com.experiment.metrics.IngestMetrics;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
 import com.experiment.websocket.ExchangeWebSocketHandler;
@@ -14,11 +17,14 @@ import java.net.URI;
 
 /**
  * Bitfinex WebSocket - 永续期货资金费率、期货价格、现货价格。
+ * 行情以 USD 计价，入库时折算为 USDT；同时订阅 tUSTUSD 为 {@link FxRates} 提供 USDT/USD 汇率。
  * WebSocket: wss://api-pub.bitfinex.com/ws/2
  */
 public class BitfinexHandler implements ExchangeWebSocketHandler {
 
     private static final String WS_URL = "wss://api-pub.bitfinex.com/ws/2";
+    /** USDT/USD 现货（Bitfinex 内部以 UST 表示 USDT） */
+    private static final String FX_SYMBOL = "tUSTUSD";
 
     private final Logger log = LoggerFactory.getLogger(getClass());
     private final MarketDataService marketDataService;
@@ -52,6 +58,8 @@ public class BitfinexHandler implements ExchangeWebSocketHandler {
             client.send("{\"event\":\"subscribe\",\"channel\":\"ticker\",\"symbol\":\"tXRPUSD:USD\"}");
             client.send("{\"event\":\"subscribe\",\"channel\":\"ticker\",\"symbol\":\"tDOGEUSD:USD\"}");
             client.send("{\"event\":\"subscribe\",\"channel\":\"ticker\",\"symbol\":\"tBNBUSD:USD\"}");
+            // USDT/USD 汇率，USD 计价行情据此折算为 USDT
+            client.send("{\"event\":\"subscribe\",\"channel\":\"ticker\",\"symbol\":\"" + FX_SYMBOL + "\"}");
             // Subscribe to funding ticker for perpetuals (fUSD contains FRR - Flash Return Rate)
             client.send("{\"event\":\"subscribe\",\"channel\":\"ticker\",\"symbol\":\"fUSD\"}");
         } catch (Exception e) {
@@ -86,73 +94,24 @@ public class BitfinexHandler implements ExchangeWebSocketHandler {
                         // FRR (Flash Return Rate) is P2P lending rate, not perpetual funding rate.
                         // Perpetual funding rate is now fetched via HTTP API (BitfinexFetcher) from Derivatives Status API.
                         // Skip FRR - it's not the correct funding rate for perpetuals.
+                    } else if (FX_SYMBOL.equals(symbolKey)) {
+                        FxRates.onUsdtUsd(FxRates.mid(parseDecimal(data, 6), parseDecimal(data, 0), parseDecimal(data, 2)));
                     } else if (symbolKey != null && symbolKey.startsWith("t")) {
-                        // Spot ticker format: [BID, BID_SIZE, ASK, ASK_SIZE, DAILY_CHANGE, DAILY_CHANGE_PERC, LAST_PRICE, VOLUME, HIGH, LOW]
-                        BigDecimal lastPrice = parseDecimal(data, 6); // LAST_PRICE at index 6
-                        String symbol = null;
-                        if ("tBTCUSD".equals(symbolKey)) {
-                            symbol = "BTCUSDT";
-                            if (lastPrice != null && lastPrice.compareTo(BigDecimal.ZERO) > 0) {
-                                // Bitfinex现货ticker只提供现货价格
-                                marketDataService.saveSpotPrice("bitfinex", symbol, lastPrice);
-                            }
-                        } else if ("tETHUSD".equals(symbolKey)) {
-                            symbol = "ETHUSDT";
-                            if (lastPrice != null && lastPrice.compareTo(BigDecimal.ZERO) > 0) {
-                                // Bitfinex现货ticker只提供现货价格
-                                marketDataService.saveSpotPrice("bitfinex", symbol, lastPrice);
-                            }
-                        } else if ("tSOLUSD".equals(symbolKey)) {
-                            symbol = "SOLUSDT";
-                            if (lastPrice != null && lastPrice.compareTo(BigDecimal.ZERO) > 0) {
-                                marketDataService.saveSpotPrice("bitfinex", symbol, lastPrice);
-                            }
-                        } else if ("tXRPUSD".equals(symbolKey)) {
-                            symbol = "XRPUSDT";
-                            if (lastPrice != null && lastPrice.compareTo(BigDecimal.ZERO) > 0) {
-                                marketDataService.saveSpotPrice("bitfinex", symbol, lastPrice);
-                            }
-                        } else if ("tDOGEUSD".equals(symbolKey)) {
-                            symbol = "DOGEUSDT";
-                            if (lastPrice != null && lastPrice.compareTo(BigDecimal.ZERO) > 0) {
-                                marketDataService.saveSpotPrice("bitfinex", symbol, lastPrice);
-                            }
-                        } else if ("tBNBUSD".equals(symbolKey)) {
-                            symbol = "BNBUSDT";
-                            if (lastPrice != null && lastPrice.compareTo(BigDecimal.ZERO) > 0) {
-                                marketDataService.saveSpotPrice("bitfinex", symbol, lastPrice);
-                            }
-                        } else if ("tBTCUSD:USD".equals(symbolKey)) {
-                            // Perpetual ticker for BTC - format same as spot ticker
-                            symbol = "BTCUSDT";
-                            if (lastPrice != null && lastPrice.compareTo(BigDecimal.ZERO) > 0) {
-                                marketDataService.saveFuturesPrice("bitfinex", symbol, lastPrice);
-                            }
-                        } else if ("tETHUSD:USD".equals(symbolKey)) {
-                            // Perpetual ticker for ETH - format same as spot ticker
-                            symbol = "ETHUSDT";
-                            if (lastPrice != null && lastPrice.compareTo(BigDecimal.ZERO) > 0) {
-                                marketDataService.saveFuturesPrice("bitfinex", symbol, lastPrice);
-                            }
-                        } else if ("tSOLUSD:USD".equals(symbolKey)) {
-                            symbol = "SOLUSDT";
-                            if (lastPrice != null && lastPrice.compareTo(BigDecimal.ZERO) > 0) {
-                                marketDataService.saveFuturesPrice("bitfinex", symbol, lastPrice);
-                            }
-                        } else if ("tXRPUSD:USD".equals(symbolKey)) {
-                            symbol = "XRPUSDT";
-                            if (lastPrice != null && lastPrice.compareTo(BigDecimal.ZERO) > 0) {
-                                marketDataService.saveFuturesPrice("bitfinex", symbol, lastPrice);
-                            }
-                        } else if ("tDOGEUSD:USD".equals(symbolKey)) {
-                            symbol = "DOGEUSDT";
-                            if (lastPrice != null && lastPrice.compareTo(BigDecimal.ZERO) > 0) {
-                                marketDataService.saveFuturesPrice("bitfinex", symbol, lastPrice);
-                            }
-                        } else if ("tBNBUSD:USD".equals(symbolKey)) {
-                            symbol = "BNBUSDT";
-                            if (lastPrice != null && lastPrice.compareTo(BigDecimal.ZERO) > 0) {
-                                marketDataService.saveFuturesPrice("bitfinex", symbol, lastPrice);
+                        // Ticker format (spot and perpetual): [BID, BID_SIZE, ASK, ASK_SIZE, DAILY_CHANGE, DAILY_CHANGE_PERC, LAST_PRICE, VOLUME, HIGH, LOW]
+                        // tBTCUSD → BTCUSDT（现货），tBTCUSD:USD → BTCUSDT（永续）
+                        boolean perpetual = symbolKey.endsWith(":USD");
+                        String pair = perpetual ? symbolKey.substring(1, symbolKey.length() - 4) : symbolKey.substring(1);
+                        String symbol = pair.substring(0, pair.length() - 3) + "USDT";
+                        BigDecimal lastPrice = parseDecimal(data, 6);
+                        if (lastPrice != null && lastPrice.compareTo(BigDecimal.ZERO) > 0) {
+                            BigDecimal bid = parseDecimal(data, 0);
+                            BigDecimal bidSize = abs(parseDecimal(data, 1));
+                            BigDecimal ask = parseDecimal(data, 2);
+                            BigDecimal askSize = abs(parseDecimal(data, 3));
+                            if (perpetual) {
+                                marketDataService.saveFuturesQuote("bitfinex", symbol, QuoteCurrency.USD, lastPrice, bid, bidSize, ask, askSize);
+                            } else {
+                                marketDataService.saveSpotQuote("bitfinex", symbol, QuoteCurrency.USD, lastPrice, bid, bidSize, ask, askSize);
                             }
                         }
                     }
@@ -162,18 +121,23 @@ public class BitfinexHandler implements ExchangeWebSocketHandler {
             if (RedisShutdownUtil.isRedisShutdownException(e)) {
                 log.debug("Bitfinex parse error (Redis shutdown): {}", e.getMessage());
             } else {
+                IngestMetrics.parseFailure("bitfinex");
                 log.warn("Bitfinex parse error: {}", e.getMessage());
             }
         }
     }
 
+    private static BigDecimal abs(BigDecimal v) {
+        return v != null ? v.abs() : null;
+    }
+
     private BigDecimal parseDecimal(JsonNode node, int index) {
         if (!node.isArray() || node.size() <= index) return null;
         JsonNode n = node.get(index);
         if (n.isNull()) return null;
         try {
             if (n.isNumber()) {
-                return new BigDecimal(n.asDouble());
+                return BigDecimal.valueOf(n.asDouble());
             }
             return new BigDecimal(n.asText());
         } catch (NumberFormatException e) {
@@ -1,5 +1,7 @@
 package com.experiment.websocket.handler;
 
+import com.experiment.metrics.IngestMetrics;
+import com.experiment.metrics.TickLatency;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
 import com.experiment.websocket.ExchangeWebSocketHandler;
@@ -45,6 +47,7 @@ public class BitgetHandler implements ExchangeWebSocketHandler {
 
             JsonNode data = root.get("data");
             if (data == null) return;
+            if (root.has("ts")) TickLatency.eventTime(root.get("ts").asLong());
 
             if (data.isArray()) {
                 for (JsonNode item : data) processTicker(item);
@@ -55,6 +58,7 @@ public class BitgetHandler implements ExchangeWebSocketHandler {
             if (RedisShutdownUtil.isRedisShutdownException(e)) {
                 log.debug("Bitget parse error (Redis shutdown): {}", e.getMessage());
             } else {
+                IngestMetrics.parseFailure("bitget");
                 log.warn("Bitget parse error: {}", e.getMessage());
             }
         }
@@ -1,5 +1,6 @@
 package com.experiment.websocket.handler;
 
+import com.experiment.metrics.IngestMetrics;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
 import com.experiment.websocket.ExchangeWebSocketHandler;
@@ -78,6 +79,7 @@ public class BitunixHandler implements ExchangeWebSocketHandler {
             if (RedisShutdownUtil.isRedisShutdownException(e)) {
                 log.debug("Bitunix parse error (Redis shutdown): {}", e.getMessage());
             } else {
+                IngestMetrics.parseFailure("bitunix");
                 log.warn("Bitunix parse error: {}", e.getMessage());
             }
         }
@@ -1,21 +1,32 @@
 package com.experiment.websocket.handler;
 
+import com.experiment.metrics.IngestMetrics;
+import com.experiment.metrics.TickLatency;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
 import com.experiment.websocket.ExchangeWebSocketHandler;
 import com.experiment.websocket.ManagedWebSocket;
+import com.experiment.websocket.StreamSequence;
+import com.experiment.websocket.SubscriptionManager;
+import com.experiment.websocket.SubscriptionProtocol;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.net.URI;
+import java.util.List;
 
-public class BybitHandler implements ExchangeWebSocketHandler {
+public class BybitHandler implements ExchangeWebSocketHandler, SubscriptionProtocol {
 
     private static final String FUTURES_WS = "wss://stream.bybit.com/v5/public/linear";
     private static final String SPOT_WS = "wss://stream.bybit.com/v5/public/spot";
+    private static final List<String> SYMBOLS = List.of("BTCUSDT", "ETHUSDT", "SOLUSDT", "XRPUSDT", "HYPEUSDT", "DOGEUSDT", "BNBUSDT");
+    /** 现货单条 subscribe 请求最多 10 个 args，合约无此限制，统一按 10 分批 */
+    private static final int MAX_ARGS_PER_REQUEST = 10;
 
     private final Logger log = LoggerFactory.getLogger(getClass());
     private final MarketDataService marketDataService;
@@ -25,12 +36,45 @@ public class BybitHandler implements ExchangeWebSocketHandler {
         this.marketDataService = marketDataService;
     }
 
-    public ManagedWebSocket createFuturesClient() {
-        return new ManagedWebSocket("bybit", URI.create(FUTURES_WS), this);
+    public SubscriptionManager createFuturesSubscriptions() {
+        return new SubscriptionManager("bybit", URI.create(FUTURES_WS), this);
     }
 
-    public ManagedWebSocket createSpotClient() {
-        return new ManagedWebSocket("bybit-spot", URI.create(SPOT_WS), new BybitSpotHandler());
+    public SubscriptionManager createSpotSubscriptions() {
+        return new SubscriptionManager("bybit-spot", URI.create(SPOT_WS), new BybitSpotHandler());
+    }
+
+    /** ticker topic，如 tickers.BTCUSDT（合约与现货相同） */
+    public static String tickerTopic(String symbol) {
+        return "tickers." + symbol;
+    }
+
+    @Override
+    public List<String> initialTopics() {
+        return SYMBOLS.stream().map(BybitHandler::tickerTopic).toList();
+    }
+
+    @Override
+    public String subscribeMessage(List<String> topics) {
+        return request("subscribe", topics);
+    }
+
+    @Override
+    public String unsubscribeMessage(List<String> topics) {
+        return request("unsubscribe", topics);
+    }
+
+    @Override
+    public int maxTopicsPerMessage() {
+        return MAX_ARGS_PER_REQUEST;
+    }
+
+    private String request(String op, List<String> topics) {
+        ObjectNode req = objectMapper.createObjectNode();
+        req.put("op", op);
+        ArrayNode args = req.putArray("args");
+        topics.forEach(args::add);
+        return req.toString();
     }
 
     private BigDecimal parseDecimal(JsonNode node, String key) {
@@ -44,10 +88,23 @@ public class BybitHandler implements ExchangeWebSocketHandler {
         }
     }
 
+    @Override
+    public StreamSequence sequenceOf(String message) {
+        return tickerSequence(message);
+    }
+
+    /** topic + 跨序号 cs，缺失时用推送时间 ts */
+    static StreamSequence tickerSequence(String message) {
+        String topic = StreamSequence.stringField(message, "topic");
+        if (topic == null) return null;
+        long seq = StreamSequence.longField(message, "cs");
+        if (seq < 0) seq = StreamSequence.longField(message, "ts");
+        return seq < 0 ? null : new StreamSequence(topic, seq);
+    }
+
     @Override
     public void onConnected(ManagedWebSocket client) {
         log.info("Bybit futures WebSocket connected");
-        client.send("{\"op\":\"subscribe\",\"args\":[\"tickers.BTCUSDT\",\"tickers.ETHUSDT\",\"tickers.SOLUSDT\",\"tickers.XRPUSDT\",\"tickers.HYPEUSDT\",\"tickers.DOGEUSDT\",\"tickers.BNBUSDT\"]}");
     }
 
     @Override
@@ -61,6 +118,7 @@ public class BybitHandler implements ExchangeWebSocketHandler {
             if (data == null) return;
             String symbol = data.has("symbol") ? data.get("symbol").asText() : null;
             if (symbol == null) return;
+            if (root.has("ts")) TickLatency.eventTime(root.get("ts").asLong());
 
             BigDecimal fundingRate = parseDecimal(data, "fundingRate");
             Long nextFundingTime = data.has("nextFundingTime") && !data.get("nextFundingTime").asText().isEmpty()
@@ -74,22 +132,49 @@ public class BybitHandler implements ExchangeWebSocketHandler {
             }
             BigDecimal futuresPrice = markPrice != null ? markPrice : lastPrice;
             if (futuresPrice != null) {
-                marketDataService.saveFuturesPrice("bybit", symbol, futuresPrice);
+                marketDataService.saveFuturesQuote("bybit", symbol, futuresPrice,
+                        parseDecimal(data, "bid1Price"), parseDecimal(data, "bid1Size"),
+                        parseDecimal(data, "ask1Price"), parseDecimal(data, "ask1Size"));
             }
         } catch (Exception e) {
             if (RedisShutdownUtil.isRedisShutdownException(e)) {
                 log.debug("Bybit parse error (Redis shutdown): {}", e.getMessage());
             } else {
+                IngestMetrics.parseFailure("bybit");
                 log.warn("Bybit parse error: {}", e.getMessage());
             }
         }
     }
 
-    private class BybitSpotHandler implements ExchangeWebSocketHandler {
+    private class BybitSpotHandler implements ExchangeWebSocketHandler, SubscriptionProtocol {
+        @Override
+        public List<String> initialTopics() {
+            return BybitHandler.this.initialTopics();
+        }
+
+        @Override
+        public String subscribeMessage(List<String> topics) {
+            return request("subscribe", topics);
+        }
+
+        @Override
+        public String unsubscribeMessage(List<String> topics) {
+            return request("unsubscribe", topics);
+        }
+
+        @Override
+        public int maxTopicsPerMessage() {
+            return MAX_ARGS_PER_REQUEST;
+        }
+
+        @Override
+        public StreamSequence sequenceOf(String message) {
+            return tickerSequence(message);
+        }
+
         @Override
         public void onConnected(ManagedWebSocket client) {
             log.info("Bybit spot WebSocket connected");
-            client.send("{\"op\":\"subscribe\",\"args\":[\"tickers.BTCUSDT\",\"tickers.ETHUSDT\",\"tickers.SOLUSDT\",\"tickers.XRPUSDT\",\"tickers.HYPEUSDT\",\"tickers.DOGEUSDT\",\"tickers.BNBUSDT\"]}");
         }
 
         @Override
@@ -99,14 +184,19 @@ public class BybitHandler implements ExchangeWebSocketHandler {
                 JsonNode data = root.get("data");
                 if (data == null) return;
                 String symbol = data.has("symbol") ? data.get("symbol").asText() : null;
+                if (root.has("ts")) TickLatency.eventTime(root.get("ts").asLong());
                 BigDecimal lastPrice = parseDecimal(data, "lastPrice");
                 if (symbol != null && lastPrice != null) {
-                    marketDataService.saveSpotPrice("bybit", symbol, lastPrice);
+                    // 现货 ticker 推送不一定带买一/卖一，缺失时只写最新价
+                    marketDataService.saveSpotQuote("bybit", symbol, lastPrice,
+                            parseDecimal(data, "bid1Price"), parseDecimal(data, "bid1Size"),
+                            parseDecimal(data, "ask1Price"), parseDecimal(data, "ask1Size"));
                 }
             } catch (Exception e) {
                 if (RedisShutdownUtil.isRedisShutdownException(e)) {
                     log.debug("Bybit spot parse error (Redis shutdown): {}", e.getMessage());
                 } else {
+                    IngestMetrics.parseFailure("bybit-spot");
                     log.warn("Bybit spot parse error: {}", e.getMessage());
                 }
             }
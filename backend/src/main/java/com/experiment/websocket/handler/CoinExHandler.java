@@ -1,5 +1,6 @@
 package com.experiment.websocket.handler;
 
+import com.experiment.metrics.IngestMetrics;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
 import com.experiment.websocket.ExchangeWebSocketHandler;
@@ -59,22 +60,22 @@ public class CoinExHandler implements ExchangeWebSocketHandler {
             
             // 处理订阅确认消息 - 可能是result字段或method为state.subscribe的响应
             if (root.has("id") && root.has("result")) {
-                log.info("CoinEx subscription confirmed: {}", message);
+                log.debug("CoinEx subscription confirmed: {}", message);
                 return;
             }
             if (root.has("id") && "state.subscribe".equals(method)) {
-                log.info("CoinEx subscription response: {}", message);
+                log.debug("CoinEx subscription response: {}", message);
                 return;
             }
             
             // 记录所有收到的消息以便调试（INFO级别以便排查问题）
-            log.info("CoinEx received message - method: {}, message length: {}", method, message.length());
-            log.info("CoinEx message content: {}", message.length() > 800 ? message.substring(0, 800) + "..." : message);
+            log.debug("CoinEx received message - method: {}, message length: {}", method, message.length());
+            log.debug("CoinEx message content: {}", message.length() > 800 ? message.substring(0, 800) + "..." : message);
             
             // 只处理 state.update 消息
             if (!"state.update".equals(method)) {
                 if (!method.isEmpty()) {
-                    log.info("CoinEx ignoring message with method: {}", method);
+                    log.debug("CoinEx ignoring message with method: {}", method);
                 }
                 return;
             }
@@ -83,7 +84,7 @@ public class CoinExHandler implements ExchangeWebSocketHandler {
             if (lastStateUpdateTimeMs > 0) {
                 long intervalMs = now - lastStateUpdateTimeMs;
                 if (intervalMs > 2000) {
-                    log.info("CoinEx state.update 推送间隔 {}ms (超过2s，Redis TTL会过期)", intervalMs);
+                    log.debug("CoinEx state.update 推送间隔 {}ms (超过2s，Redis TTL会过期)", intervalMs);
                 } else {
                     log.debug("CoinEx state.update 推送间隔 {}ms", intervalMs);
                 }
@@ -119,34 +120,35 @@ public class CoinExHandler implements ExchangeWebSocketHandler {
                 if (fundingRate != null) {
                     marketDataService.saveFundingRate("coinex", symbol, fundingRate, nextFundingTime);
                     hasData = true;
-                    log.info("CoinEx saved funding rate for {}: {}", symbol, fundingRate);
+                    log.debug("CoinEx saved funding rate for {}: {}", symbol, fundingRate);
                 }
                 if (markPrice != null) {
                     marketDataService.saveFuturesPrice("coinex", symbol, markPrice);
                     hasData = true;
-                    log.info("CoinEx saved futures price for {}: {}", symbol, markPrice);
+                    log.debug("CoinEx saved futures price for {}: {}", symbol, markPrice);
                 }
                 if (indexPrice != null) {
                     marketDataService.saveSpotPrice("coinex", symbol, indexPrice);
                     hasData = true;
-                    log.info("CoinEx saved spot price for {}: {}", symbol, indexPrice);
+                    log.debug("CoinEx saved spot price for {}: {}", symbol, indexPrice);
                 }
             }
             
             if (!hasData) {
                 log.warn("CoinEx state.update message processed but no valid data found for BTCUSDT/ETHUSDT");
-                log.info("CoinEx state_list items: {}", data.get("state_list").size());
+                log.debug("CoinEx state_list items: {}", data.get("state_list").size());
                 // 记录第一个item的market名称以便调试
                 if (data.get("state_list").size() > 0) {
                     JsonNode firstItem = data.get("state_list").get(0);
                     String firstMarket = firstItem.has("market") ? firstItem.get("market").asText() : "unknown";
-                    log.info("CoinEx first market in list: {}", firstMarket);
+                    log.debug("CoinEx first market in list: {}", firstMarket);
                 }
             }
         } catch (Exception e) {
             if (RedisShutdownUtil.isRedisShutdownException(e)) {
                 log.debug("CoinEx parse error (Redis shutdown): {}", e.getMessage());
             } else {
+                IngestMetrics.parseFailure("coinex");
                 log.warn("CoinEx parse error: {} - Message: {}", e.getMessage(), message.length() > 200 ? message.substring(0, 200) + "..." : message);
             }
         }
@@ -1,5 +1,7 @@
 package com.experiment.websocket.handler;
 
+import com.experiment.fx.QuoteCurrency;
+import com.experiment.metrics.IngestMetrics;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
 import com.experiment.websocket.ExchangeWebSocketHandler;
@@ -56,7 +58,7 @@ public class CoinbaseHandler implements ExchangeWebSocketHandler {
                             if (price == null) continue;
                             String symbol = productId.contains("BTC") ? "BTCUSDT" : productId.contains("ETH") ? "ETHUSDT" : null;
                             if (symbol != null) {
-                                marketDataService.saveSpotPrice("coinbase", symbol, price);
+                                marketDataService.saveSpotPrice("coinbase", symbol, QuoteCurrency.USD, price);
                             }
                         }
                     }
@@ -66,6 +68,7 @@ public class CoinbaseHandler implements ExchangeWebSocketHandler {
             if (RedisShutdownUtil.isRedisShutdownException(e)) {
                 log.debug("Coinbase parse error (Redis shutdown): {}", e.getMessage());
             } else {
+                IngestMetrics.parseFailure("coinbase");
                 log.warn("Coinbase parse error: {}", e.getMessage());
             }
         }
@@ -1,5 +1,7 @@
 package com.experiment.websocket.handler;
 
+import com.experiment.fx.QuoteCurrency;
+import com.experiment.metrics.IngestMetrics;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
 import com.experiment.websocket.ExchangeWebSocketHandler;
@@ -99,14 +101,15 @@ public class CoinbaseIntxHandler implements ExchangeWebSocketHandler {
                 BigDecimal markPrice = parseDecimal(root, "mark_price");
                 BigDecimal indexPrice = parseDecimal(root, "index_price");
                 if (markPrice != null) {
-                    marketDataService.saveFuturesPrice("coinbase", symbol, markPrice);
+                    marketDataService.saveFuturesPrice("coinbase", symbol, QuoteCurrency.USDC, markPrice);
                 }
-                if (indexPrice != null) marketDataService.saveSpotPrice("coinbase", symbol, indexPrice);
+                if (indexPrice != null) marketDataService.saveSpotPrice("coinbase", symbol, QuoteCurrency.USDC, indexPrice);
             }
         } catch (Exception e) {
             if (RedisShutdownUtil.isRedisShutdownException(e)) {
                 log.debug("Coinbase INTX parse error (Redis shutdown): {}", e.getMessage());
             } else {
+                IngestMetrics.parseFailure("coinbase-intx");
                 log.warn("Coinbase INTX parse error: {}", e.getMessage());
             }
         }
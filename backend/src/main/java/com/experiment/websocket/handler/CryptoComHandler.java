@@ -1,5 +1,7 @@
 package com.experiment.websocket.handler;
 
+import com.experiment.fx.QuoteCurrency;
+import com.experiment.metrics.IngestMetrics;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
 import com.experiment.websocket.ExchangeWebSocketHandler;
@@ -66,9 +68,9 @@ public class CryptoComHandler implements ExchangeWebSocketHandler {
             
             // 记录所有收到的消息以便调试（INFO级别以便排查问题）
             String method = root.has("method") ? root.get("method").asText() : "";
-            log.info("Crypto.com received message - method: {}, length: {}", method, message.length());
+            log.debug("Crypto.com received message - method: {}, length: {}", method, message.length());
             if (!method.equals("public/heartbeat") && !method.equals("public/respond-heartbeat")) {
-                log.info("Crypto.com message content: {}", message.length() > 500 ? message.substring(0, 500) + "..." : message);
+                log.debug("Crypto.com message content: {}", message.length() > 500 ? message.substring(0, 500) + "..." : message);
             }
             
             // 处理订阅确认消息 - 但订阅响应可能包含初始数据，需要继续处理
@@ -78,16 +80,16 @@ public class CryptoComHandler implements ExchangeWebSocketHandler {
                     JsonNode result = root.get("result");
                     // 如果result中有data数组且不为空，说明包含数据，需要继续处理
                     if (result.has("data") && result.get("data").isArray() && result.get("data").size() > 0) {
-                        log.info("Crypto.com subscription response with data, will process");
+                        log.debug("Crypto.com subscription response with data, will process");
                         // 继续处理，不return
                     } else {
                         // 没有数据，只是订阅确认
-                        log.info("Crypto.com subscription confirmed: {}", message);
+                        log.debug("Crypto.com subscription confirmed: {}", message);
                         return;
                     }
                 } else if (root.has("code") && root.get("code").asInt() == 0) {
                     // 只有code=0，没有result字段，可能是简单的确认
-                    log.info("Crypto.com subscription confirmed: {}", message);
+                    log.debug("Crypto.com subscription confirmed: {}", message);
                     return;
                 }
             }
@@ -198,7 +200,7 @@ public class CryptoComHandler implements ExchangeWebSocketHandler {
                         }
                         marketDataService.saveFundingRate("cryptocom", symbol, rate, nextTime);
                         hasData = true;
-                        log.info("Crypto.com saved funding rate for {}: {}", symbol, rate);
+                        log.debug("Crypto.com saved funding rate for {}: {}", symbol, rate);
                     }
                 }
             } else if (baseChannel.equals("ticker") || channel.startsWith("ticker.")) {
@@ -211,9 +213,9 @@ public class CryptoComHandler implements ExchangeWebSocketHandler {
                     if (last == null) last = parseDecimal(data, "c"); // close price
                     if (last == null) last = parseDecimal(data, "b"); // bid price
                     if (last != null) {
-                        marketDataService.saveFuturesPrice("cryptocom", symbol, last);
+                        marketDataService.saveFuturesPrice("cryptocom", symbol, QuoteCurrency.USD, last);
                         hasData = true;
-                        log.info("Crypto.com saved futures price (ticker) for {}: {}", symbol, last);
+                        log.debug("Crypto.com saved futures price (ticker) for {}: {}", symbol, last);
                     }
                     
                     // Crypto.com期货ticker只提供期货价格，不保存现货价格
@@ -235,9 +237,9 @@ public class CryptoComHandler implements ExchangeWebSocketHandler {
                         mark = parseDecimal(data, "price");
                     }
                     if (mark != null) {
-                        marketDataService.saveFuturesPrice("cryptocom", symbol, mark);
+                        marketDataService.saveFuturesPrice("cryptocom", symbol, QuoteCurrency.USD, mark);
                         hasData = true;
-                        log.info("Crypto.com saved futures price (mark) for {}: {}", symbol, mark);
+                        log.debug("Crypto.com saved futures price (mark) for {}: {}", symbol, mark);
                     }
                 }
             } else if (baseChannel.equals("index") || channel.startsWith("index.")) {
@@ -275,9 +277,9 @@ public class CryptoComHandler implements ExchangeWebSocketHandler {
                     }
                     
                     if (index != null) {
-                        marketDataService.saveSpotPrice("cryptocom", symbol, index);
+                        marketDataService.saveSpotPrice("cryptocom", symbol, QuoteCurrency.USD, index);
                         hasData = true;
-                        log.info("Crypto.com saved spot price (index) for {}: {}", symbol, index);
+                        log.debug("Crypto.com saved spot price (index) for {}: {}", symbol, index);
                     } else {
                         log.warn("Crypto.com index channel data but no valid price found for {}, channel: {}, data: {}", 
                             symbol, channel, data.toString().length() > 300 ? data.toString().substring(0, 300) + "..." : data.toString());
@@ -295,12 +297,13 @@ public class CryptoComHandler implements ExchangeWebSocketHandler {
                 }
                 log.warn("Crypto.com channel {} processed but no valid data found, instrument: {}, data keys: {}", 
                     channel, instrument, keys.isEmpty() ? "none" : String.join(", ", keys));
-                log.info("Crypto.com data content: {}", data.toString().length() > 300 ? data.toString().substring(0, 300) + "..." : data.toString());
+                log.debug("Crypto.com data content: {}", data.toString().length() > 300 ? data.toString().substring(0, 300) + "..." : data.toString());
             }
         } catch (Exception e) {
             if (RedisShutdownUtil.isRedisShutdownException(e)) {
                 log.debug("Crypto.com parse error (Redis shutdown): {}", e.getMessage());
             } else {
+                IngestMetrics.parseFailure("cryptocom");
                 log.warn("Crypto.com parse error: {} - Message: {}", e.getMessage(),
                     message.length() > 200 ? message.substring(0, 200) + "..." : message);
             }
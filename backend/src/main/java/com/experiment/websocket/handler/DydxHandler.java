@@ -1,5 +1,7 @@
 package com.experiment.websocket.handler;
 
+import com.experiment.fx.QuoteCurrency;
+import com.experiment.metrics.IngestMetrics;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
 import com.experiment.websocket.ExchangeWebSocketHandler;
@@ -98,9 +100,9 @@ public class DydxHandler implements ExchangeWebSocketHandler {
                                 BigDecimal lastPrice = parseDecimal(market, "lastPrice");
                                 BigDecimal indexPrice = parseDecimal(market, "indexPrice");
                                 BigDecimal oraclePrice = parseDecimal(market, "oraclePrice");
-                                if (lastPrice != null) marketDataService.saveFuturesPrice("dydx", symbol, lastPrice);
-                                if (indexPrice != null) marketDataService.saveSpotPrice("dydx", symbol, indexPrice);
-                                else if (oraclePrice != null) marketDataService.saveSpotPrice("dydx", symbol, oraclePrice);
+                                if (lastPrice != null) marketDataService.saveFuturesPrice("dydx", symbol, QuoteCurrency.USD, lastPrice);
+                                if (indexPrice != null) marketDataService.saveSpotPrice("dydx", symbol, QuoteCurrency.USD, indexPrice);
+                                else if (oraclePrice != null) marketDataService.saveSpotPrice("dydx", symbol, QuoteCurrency.USD, oraclePrice);
                             }
                         }
                     }
@@ -116,7 +118,7 @@ public class DydxHandler implements ExchangeWebSocketHandler {
                         JsonNode trades = contents.get("trades");
                         if (trades.size() > 0) {
                             BigDecimal price = parseDecimal(trades.get(trades.size() - 1), "price");
-                            if (price != null) marketDataService.saveFuturesPrice("dydx", symbol, price);
+                            if (price != null) marketDataService.saveFuturesPrice("dydx", symbol, QuoteCurrency.USD, price);
                         }
                     }
                 }
@@ -126,6 +128,7 @@ public class DydxHandler implements ExchangeWebSocketHandler {
             if (RedisShutdownUtil.isRedisShutdownException(e)) {
                 log.debug("dYdX parse error (Redis shutdown): {}", e.getMessage());
             } else {
+                IngestMetrics.parseFailure("dydx");
                 log.warn("dYdX parse error: {}", e.getMessage());
             }
         }
@@ -1,5 +1,7 @@
 package com.experiment.websocket.handler;
 
+import com.experiment.metrics.IngestMetrics;
+import com.experiment.metrics.TickLatency;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
 import com.experiment.websocket.ExchangeWebSocketHandler;
@@ -42,6 +44,7 @@ public class GateHandler implements ExchangeWebSocketHandler {
             if (!"futures.tickers".equals(root.has("channel") ? root.get("channel").asText() : "")) return;
             JsonNode result = root.get("result");
             if (result == null || !result.isArray()) return;
+            if (root.has("time_ms")) TickLatency.eventTime(root.get("time_ms").asLong());
 
             for (JsonNode item : result) {
                 String contract = item.has("contract") ? item.get("contract").asText() : "";
@@ -63,6 +66,7 @@ public class GateHandler implements ExchangeWebSocketHandler {
             if (RedisShutdownUtil.isRedisShutdownException(e)) {
                 log.debug("Gate.io parse error (Redis shutdown): {}", e.getMessage());
             } else {
+                IngestMetrics.parseFailure("gateio");
                 log.warn("Gate.io parse error: {}", e.getMessage());
             }
         }
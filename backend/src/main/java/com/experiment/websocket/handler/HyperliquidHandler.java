@@ -1,5 +1,7 @@
 package com.experiment.websocket.handler;
 
+import com.experiment.fx.QuoteCurrency;
+import com.experiment.metrics.IngestMetrics;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
 import com.experiment.websocket.ExchangeWebSocketHandler;
@@ -63,43 +65,43 @@ public class HyperliquidHandler implements ExchangeWebSocketHandler {
                     if (mids.has("BTC")) {
                         BigDecimal btcPrice = parseDecimal(mids, "BTC");
                         if (btcPrice != null) {
-                            marketDataService.saveFuturesPrice("hyperliquid", "BTCUSDT", btcPrice);
+                            marketDataService.saveFuturesPrice("hyperliquid", "BTCUSDT", QuoteCurrency.USDC, btcPrice);
                         }
                     }
                     if (mids.has("ETH")) {
                         BigDecimal ethPrice = parseDecimal(mids, "ETH");
                         if (ethPrice != null) {
-                            marketDataService.saveFuturesPrice("hyperliquid", "ETHUSDT", ethPrice);
+                            marketDataService.saveFuturesPrice("hyperliquid", "ETHUSDT", QuoteCurrency.USDC, ethPrice);
                         }
                     }
                     if (mids.has("SOL")) {
                         BigDecimal solPrice = parseDecimal(mids, "SOL");
                         if (solPrice != null) {
-                            marketDataService.saveFuturesPrice("hyperliquid", "SOLUSDT", solPrice);
+                            marketDataService.saveFuturesPrice("hyperliquid", "SOLUSDT", QuoteCurrency.USDC, solPrice);
                         }
                     }
                     if (mids.has("XRP")) {
                         BigDecimal xrpPrice = parseDecimal(mids, "XRP");
                         if (xrpPrice != null) {
-                            marketDataService.saveFuturesPrice("hyperliquid", "XRPUSDT", xrpPrice);
+                            marketDataService.saveFuturesPrice("hyperliquid", "XRPUSDT", QuoteCurrency.USDC, xrpPrice);
                         }
                     }
                     if (mids.has("HYPE")) {
                         BigDecimal hypePrice = parseDecimal(mids, "HYPE");
                         if (hypePrice != null) {
-                            marketDataService.saveFuturesPrice("hyperliquid", "HYPEUSDT", hypePrice);
+                            marketDataService.saveFuturesPrice("hyperliquid", "HYPEUSDT", QuoteCurrency.USDC, hypePrice);
                         }
                     }
                     if (mids.has("DOGE")) {
                         BigDecimal dogePrice = parseDecimal(mids, "DOGE");
                         if (dogePrice != null) {
-                            marketDataService.saveFuturesPrice("hyperliquid", "DOGEUSDT", dogePrice);
+                            marketDataService.saveFuturesPrice("hyperliquid", "DOGEUSDT", QuoteCurrency.USDC, dogePrice);
                         }
                     }
                     if (mids.has("BNB")) {
                         BigDecimal bnbPrice = parseDecimal(mids, "BNB");
                         if (bnbPrice != null) {
-                            marketDataService.saveFuturesPrice("hyperliquid", "BNBUSDT", bnbPrice);
+                            marketDataService.saveFuturesPrice("hyperliquid", "BNBUSDT", QuoteCurrency.USDC, bnbPrice);
                         }
                     }
                 }
@@ -109,6 +111,7 @@ public class HyperliquidHandler implements ExchangeWebSocketHandler {
             if (RedisShutdownUtil.isRedisShutdownException(e)) {
                 log.debug("Hyperliquid parse error (Redis shutdown): {}", e.getMessage());
             } else {
+                IngestMetrics.parseFailure("hyperliquid");
                 log.warn("Hyperliquid parse error: {}", e.getMessage());
             }
         }
@@ -1,5 +1,6 @@
 package com.experiment.websocket.handler;
 
+import com.experiment.metrics.IngestMetrics;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
 import com.experiment.websocket.ExchangeWebSocketHandler;
@@ -105,6 +106,7 @@ public class LBankHandler implements ExchangeWebSocketHandler {
             if (RedisShutdownUtil.isRedisShutdownException(e)) {
                 log.debug("LBank parse error (Redis shutdown): {}", e.getMessage());
             } else {
+                IngestMetrics.parseFailure("lbank");
                 log.warn("LBank parse error: {}", e.getMessage());
             }
         }
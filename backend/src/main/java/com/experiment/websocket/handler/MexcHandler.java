@@ -1,5 +1,6 @@
 package com.experiment.websocket.handler;
 
+import com.experiment.metrics.IngestMetrics;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
 import com.experiment.websocket.ExchangeWebSocketHandler;
@@ -70,6 +71,7 @@ public class MexcHandler implements ExchangeWebSocketHandler {
             if (RedisShutdownUtil.isRedisShutdownException(e)) {
                 log.debug("MEXC parse error (Redis shutdown): {}", e.getMessage());
             } else {
+                IngestMetrics.parseFailure("mexc");
                 log.warn("MEXC parse error: {}", e.getMessage());
             }
         }
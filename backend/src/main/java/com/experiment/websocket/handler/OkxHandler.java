@@ -1,62 +1,114 @@
 package com.experiment.websocket.handler;
 
+import com.experiment.config.Symbols;
+import com.experiment.metrics.IngestMetrics;
+import com.experiment.metrics.TickLatency;
+import com.experiment.orderbook.OrderBook;
+import com.experiment.orderbook.OrderBooks;
 import com.experiment.service.MarketDataService;
 import com.experiment.util.RedisShutdownUtil;
 import com.experiment.websocket.ExchangeWebSocketHandler;
 import com.experiment.websocket.ManagedWebSocket;
+import com.experiment.websocket.StreamSequence;
+import com.experiment.websocket.SubscriptionManager;
+import com.experiment.websocket.SubscriptionProtocol;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 
-public class OkxHandler implements ExchangeWebSocketHandler {
+public class OkxHandler implements ExchangeWebSocketHandler, SubscriptionProtocol {
 
     private static final String WS_URL = "wss://ws.okx.com:8443/ws/v5/public";
+    /** 冗余模式下备用连接走 AWS 端点 */
+    private static final String WS_URL_STANDBY = "wss://wsaws.okx.com:8443/ws/v5/public";
+    private static final List<String> BASES = Symbols.BASES;
 
     private final Logger log = LoggerFactory.getLogger(getClass());
     private final MarketDataService marketDataService;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile SubscriptionManager subscriptions;
 
     public OkxHandler(MarketDataService marketDataService) {
         this.marketDataService = marketDataService;
     }
 
-    public ManagedWebSocket createClient() {
-        return new ManagedWebSocket("okx", URI.create(WS_URL), this);
+    public SubscriptionManager createSubscriptions() {
+        subscriptions = new SubscriptionManager("okx", URI.create(WS_URL), URI.create(WS_URL_STANDBY), this);
+        return subscriptions;
+    }
+
+    /** topic 格式 channel:instId，如 tickers:BTC-USDT-SWAP */
+    public static String topic(String channel, String instId) {
+        return channel + ":" + instId;
+    }
+
+    @Override
+    public List<String> initialTopics() {
+        List<String> topics = new ArrayList<>();
+        for (String base : BASES) {
+            topics.add(topic("funding-rate", base + "-USDT-SWAP"));
+            topics.add(topic("tickers", base + "-USDT-SWAP"));
+            topics.add(topic("tickers", base + "-USDT"));
+            topics.add(topic("books", base + "-USDT"));
+        }
+        return topics;
+    }
+
+    /** 须为 channel:instId，冒号两侧均非空；books 只接受现货 instId */
+    @Override
+    public boolean isValidTopic(String topic) {
+        if (!SubscriptionProtocol.super.isValidTopic(topic)) return false;
+        int idx = topic.indexOf(':');
+        if (idx <= 0 || idx >= topic.length() - 1) return false;
+        return !(topic.startsWith("books:") && topic.endsWith("-SWAP"));
+    }
+
+    /** channel:instId + books 的 seqId，其余频道用数据时间 ts */
+    @Override
+    public StreamSequence sequenceOf(String message) {
+        String channel = StreamSequence.stringField(message, "channel");
+        String instId = StreamSequence.stringField(message, "instId");
+        if (channel == null || instId == null || message.contains("\"event\"")) return null;
+        long seq = "books".equals(channel)
+                ? StreamSequence.longField(message, "seqId")
+                : StreamSequence.longField(message, "ts");
+        return seq < 0 ? null : new StreamSequence(topic(channel, instId), seq);
+    }
+
+    @Override
+    public String subscribeMessage(List<String> topics) {
+        return request("subscribe", topics);
+    }
+
+    @Override
+    public String unsubscribeMessage(List<String> topics) {
+        return request("unsubscribe", topics);
+    }
+
+    private String request(String op, List<String> topics) {
+        ObjectNode req = objectMapper.createObjectNode();
+        req.put("op", op);
+        ArrayNode args = req.putArray("args");
+        for (String topic : topics) {
+            int idx = topic.indexOf(':');
+            args.addObject()
+                    .put("channel", topic.substring(0, idx))
+                    .put("instId", topic.substring(idx + 1));
+        }
+        return req.toString();
     }
 
     @Override
     public void onConnected(ManagedWebSocket client) {
         log.info("OKX WebSocket connected");
-        String subscribe = """
-                {"op":"subscribe","args":[
-                    {"channel":"funding-rate","instId":"BTC-USDT-SWAP"},
-                    {"channel":"funding-rate","instId":"ETH-USDT-SWAP"},
-                    {"channel":"funding-rate","instId":"SOL-USDT-SWAP"},
-                    {"channel":"funding-rate","instId":"XRP-USDT-SWAP"},
-                    {"channel":"funding-rate","instId":"HYPE-USDT-SWAP"},
-                    {"channel":"funding-rate","instId":"DOGE-USDT-SWAP"},
-                    {"channel":"funding-rate","instId":"BNB-USDT-SWAP"},
-                    {"channel":"tickers","instId":"BTC-USDT-SWAP"},
-                    {"channel":"tickers","instId":"ETH-USDT-SWAP"},
-                    {"channel":"tickers","instId":"SOL-USDT-SWAP"},
-                    {"channel":"tickers","instId":"XRP-USDT-SWAP"},
-                    {"channel":"tickers","instId":"HYPE-USDT-SWAP"},
-                    {"channel":"tickers","instId":"DOGE-USDT-SWAP"},
-                    {"channel":"tickers","instId":"BNB-USDT-SWAP"},
-                    {"channel":"tickers","instId":"BTC-USDT"},
-                    {"channel":"tickers","instId":"ETH-USDT"},
-                    {"channel":"tickers","instId":"SOL-USDT"},
-                    {"channel":"tickers","instId":"XRP-USDT"},
-                    {"channel":"tickers","instId":"HYPE-USDT"},
-                    {"channel":"tickers","instId":"DOGE-USDT"},
-                    {"channel":"tickers","instId":"BNB-USDT"}
-                ]}
-                """;
-        client.send(subscribe);
     }
 
     @Override
@@ -68,21 +120,20 @@ public class OkxHandler implements ExchangeWebSocketHandler {
             if (arg == null) return;
             String channel = arg.has("channel") ? arg.get("channel").asText() : "";
             String instId = arg.has("instId") ? arg.get("instId").asText() : "";
-            String symbol = "";
-            if (instId.contains("BTC")) symbol = "BTCUSDT";
-            else if (instId.contains("ETH")) symbol = "ETHUSDT";
-            else if (instId.contains("SOL")) symbol = "SOLUSDT";
-            else if (instId.contains("XRP")) symbol = "XRPUSDT";
-            else if (instId.contains("HYPE")) symbol = "HYPEUSDT";
-            else if (instId.contains("DOGE")) symbol = "DOGEUSDT";
-            else if (instId.contains("BNB")) symbol = "BNBUSDT";
-            
-            // 如果symbol为空，说明instId不是支持的币种，跳过处理
-            if (symbol.isEmpty()) return;
+            // BTC-USDT-SWAP / BTC-USDT → BTCUSDT，运行时新增的 instId 同样适用
+            String[] parts = instId.split("-");
+            if (parts.length < 2) return;
+            String symbol = parts[0] + parts[1];
+
+            if ("books".equals(channel)) {
+                handleBook(instId, symbol, root);
+                return;
+            }
 
             JsonNode data = root.get("data");
             if (data == null || !data.isArray() || data.isEmpty()) return;
             JsonNode item = data.get(0);
+            if (item.has("ts")) TickLatency.eventTime(item.get("ts").asLong());
 
             if ("funding-rate".equals(channel)) {
                 BigDecimal rate = parseDecimal(item, "fundingRate");
@@ -90,21 +141,75 @@ public class OkxHandler implements ExchangeWebSocketHandler {
                 marketDataService.saveFundingRate("okx", symbol, rate, nextFundingTime);
             } else if ("tickers".equals(channel)) {
                 BigDecimal last = parseDecimal(item, "last");
+                BigDecimal bid = parseDecimal(item, "bidPx");
+                BigDecimal bidSize = parseDecimal(item, "bidSz");
+                BigDecimal ask = parseDecimal(item, "askPx");
+                BigDecimal askSize = parseDecimal(item, "askSz");
                 if (instId.contains("SWAP")) {
-                    marketDataService.saveFuturesPrice("okx", symbol, last);
+                    marketDataService.saveFuturesQuote("okx", symbol, last, bid, bidSize, ask, askSize);
                 } else {
-                    marketDataService.saveSpotPrice("okx", symbol, last);
+                    marketDataService.saveSpotQuote("okx", symbol, last, bid, bidSize, ask, askSize);
                 }
             }
         } catch (Exception e) {
             if (RedisShutdownUtil.isRedisShutdownException(e)) {
                 log.debug("OKX parse error (Redis shutdown): {}", e.getMessage());
             } else {
+                IngestMetrics.parseFailure("okx");
                 log.warn("OKX parse error: {}", e.getMessage());
             }
         }
     }
 
+    /**
+     * books 频道：首条为 snapshot，之后为 update；update 的 prevSeqId 必须等于上一条 seqId，
+     * 否则视为断档，作废本地簿并退订/重订该 instId 以获取新快照。
+     */
+    private void handleBook(String instId, String symbol, JsonNode root) {
+        JsonNode data = root.get("data");
+        if (data == null || !data.isArray() || data.isEmpty()) return;
+        JsonNode item = data.get(0);
+        // 只有现货簿有读取方（价差快照的可成交利润率），合约 books 推送不维护
+        if (instId.endsWith("-SWAP")) return;
+        OrderBook book = OrderBooks.book(OrderBooks.SPOT, "okx", symbol);
+        long seqId = item.path("seqId").asLong();
+        long prevSeqId = item.path("prevSeqId").asLong(-1);
+        synchronized (book) {
+            boolean snapshot = "snapshot".equals(root.path("action").asText());
+            if (snapshot) {
+                book.clear();
+            } else if (!book.isValid()) {
+                // 已作废，等待重订后的 snapshot
+                return;
+            } else if (prevSeqId != book.getSequence()) {
+                // 无变化的 update 满足 prevSeqId == seqId == 上一条 seqId，同样能通过此检查
+                IngestMetrics.bookGap("okx");
+                book.invalidate();
+                resubscribe(topic("books", instId));
+                return;
+            }
+            for (JsonNode level : item.path("bids")) {
+                book.updateBid(level.get(0).asDouble(), level.get(1).asDouble());
+            }
+            for (JsonNode level : item.path("asks")) {
+                book.updateAsk(level.get(0).asDouble(), level.get(1).asDouble());
+            }
+            book.markValid(seqId);
+            if (snapshot) {
+                IngestMetrics.bookSynced("okx");
+            }
+        }
+    }
+
+    private void resubscribe(String topic) {
+        SubscriptionManager manager = subscriptions;
+        if (manager == null) return;
+        Thread.ofVirtual().start(() -> {
+            manager.unsubscribe(List.of(topic));
+            manager.subscribe(List.of(topic));
+        });
+    }
+
     private BigDecimal parseDecimal(JsonNode node, String key) {
         if (!node.has(key)) return null;
         String s = node.get(key).asText();
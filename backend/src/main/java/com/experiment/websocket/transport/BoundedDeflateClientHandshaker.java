@@ -0,0 +1,154 @@
+package com.experiment.websocket.transport;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CorruptedWebSocketFrameException;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketCloseStatus;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketClientExtension;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketClientExtensionHandshaker;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtension;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionData;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionDecoder;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionEncoder;
+
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * permessage-deflate 握手沿用 Netty 的 handshaker，只把解码器换成 {@link BoundedInflateDecoder}：
+ * Netty 4.1.101 的解码器不限制解压后的大小，压缩比极高的单帧（8MB 可解出数 GB）在到达
+ * {@code WebSocketFrameAggregator} 之前就已整段分配。这里边解压边累计，一条消息解压后超过上限即以 1009 断开。
+ */
+final class BoundedDeflateClientHandshaker implements WebSocketClientExtensionHandshaker {
+
+    private static final String SERVER_NO_CONTEXT = "server_no_context_takeover";
+
+    private final WebSocketClientExtensionHandshaker delegate;
+    private final int maxMessageBytes;
+
+    BoundedDeflateClientHandshaker(WebSocketClientExtensionHandshaker delegate, int maxMessageBytes) {
+        this.delegate = delegate;
+        this.maxMessageBytes = maxMessageBytes;
+    }
+
+    @Override
+    public WebSocketExtensionData newRequestData() {
+        return delegate.newRequestData();
+    }
+
+    @Override
+    public WebSocketClientExtension handshakeExtension(WebSocketExtensionData extensionData) {
+        WebSocketClientExtension extension = delegate.handshakeExtension(extensionData);
+        if (extension == null) return null;
+        boolean noContext = extensionData.parameters().containsKey(SERVER_NO_CONTEXT);
+        return new WebSocketClientExtension() {
+            @Override
+            public int rsv() {
+                return extension.rsv();
+            }
+
+            @Override
+            public WebSocketExtensionEncoder newExtensionEncoder() {
+                return extension.newExtensionEncoder();
+            }
+
+            @Override
+            public WebSocketExtensionDecoder newExtensionDecoder() {
+                return new BoundedInflateDecoder(maxMessageBytes, noContext);
+            }
+        };
+    }
+
+    /**
+     * 解压 RSV1 置位的数据帧及其后续分片。每条连接一个 raw Inflater，服务端未声明 server_no_context_takeover 时跨消息保留窗口。
+     */
+    static final class BoundedInflateDecoder extends WebSocketExtensionDecoder {
+
+        private static final byte[] FRAME_TAIL = {0x00, 0x00, (byte) 0xFF, (byte) 0xFF};
+        private static final int CHUNK = 8192;
+
+        private final int maxMessageBytes;
+        private final boolean noContext;
+        private final byte[] chunk = new byte[CHUNK];
+        private Inflater inflater;
+        private boolean inMessage;
+        private long messageBytes;
+
+        BoundedInflateDecoder(int maxMessageBytes, boolean noContext) {
+            this.maxMessageBytes = maxMessageBytes;
+            this.noContext = noContext;
+        }
+
+        @Override
+        public boolean acceptInboundMessage(Object msg) throws Exception {
+            if (!super.acceptInboundMessage(msg)) return false;
+            WebSocketFrame frame = (WebSocketFrame) msg;
+            if (frame instanceof TextWebSocketFrame || frame instanceof BinaryWebSocketFrame) {
+                return (frame.rsv() & WebSocketExtension.RSV1) != 0;
+            }
+            return frame instanceof ContinuationWebSocketFrame && inMessage;
+        }
+
+        @Override
+        protected void decode(ChannelHandlerContext ctx, WebSocketFrame frame, List<Object> out) throws Exception {
+            if (inflater == null) inflater = new Inflater(true);
+            if (!(frame instanceof ContinuationWebSocketFrame)) messageBytes = 0;
+            boolean last = frame.isFinalFragment();
+            ByteBuf content = frame.content();
+            int length = content.readableBytes();
+            byte[] input = new byte[length + (last ? FRAME_TAIL.length : 0)];
+            content.getBytes(content.readerIndex(), input, 0, length);
+            if (last) System.arraycopy(FRAME_TAIL, 0, input, length, FRAME_TAIL.length);
+            inflater.setInput(input);
+
+            ByteBuf decompressed = ctx.alloc().buffer(Math.min(Math.max(length * 2, 256), maxMessageBytes));
+            try {
+                int n;
+                while ((n = inflater.inflate(chunk)) > 0) {
+                    messageBytes += n;
+                    if (messageBytes > maxMessageBytes) {
+                        throw new CorruptedWebSocketFrameException(WebSocketCloseStatus.MESSAGE_TOO_BIG,
+                                "Inflated message exceeds " + maxMessageBytes + " bytes");
+                    }
+                    decompressed.writeBytes(chunk, 0, n);
+                }
+                if (inflater.needsDictionary()) {
+                    throw new CorruptedWebSocketFrameException(WebSocketCloseStatus.INVALID_PAYLOAD_DATA, "Preset dictionary not supported");
+                }
+            } catch (DataFormatException e) {
+                decompressed.release();
+                inMessage = false;
+                throw new CorruptedWebSocketFrameException(WebSocketCloseStatus.INVALID_PAYLOAD_DATA, e.getMessage(), e);
+            } catch (RuntimeException e) {
+                decompressed.release();
+                inMessage = false;
+                throw e;
+            }
+
+            inMessage = !last;
+            if (last && (noContext || inflater.finished())) inflater.reset();
+            int rsv = frame.rsv() & ~WebSocketExtension.RSV1;
+            if (frame instanceof TextWebSocketFrame) {
+                out.add(new TextWebSocketFrame(last, rsv, decompressed));
+            } else if (frame instanceof BinaryWebSocketFrame) {
+                out.add(new BinaryWebSocketFrame(last, rsv, decompressed));
+            } else {
+                out.add(new ContinuationWebSocketFrame(last, rsv, decompressed));
+            }
+        }
+
+        @Override
+        public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+            if (inflater != null) {
+                inflater.end();
+                inflater = null;
+            }
+            super.handlerRemoved(ctx);
+        }
+    }
+}
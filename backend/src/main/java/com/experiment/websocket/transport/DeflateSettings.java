@@ -0,0 +1,41 @@
+package com.experiment.websocket.transport;
+
+import java.util.Set;
+
+/**
+ * permessage-deflate（RFC 7692）协商参数。
+ * <p>
+ * 默认保留服务端上下文（不请求 server_no_context_takeover）、窗口 15 位：行情 JSON 帧之间重复度高，
+ * 跨消息共享字典的压缩率远高于逐条独立压缩，代价是每条连接一个 32KB 解压窗口。客户端只发订阅与心跳，
+ * 允许服务端要求 client_no_context_takeover / client_max_window_bits。
+ *
+ * @param enabled                 是否对全部连接请求压缩（CoinEx 无论如何都请求）
+ * @param exclude                 不请求压缩的连接名；匹配连接名本身或其 "名-" 前缀，如 okx 同时匹配 okx-2、okx-standby
+ * @param serverNoContextTakeover 请求服务端每条消息重置压缩上下文
+ * @param serverMaxWindowBits     请求的服务端 LZ77 窗口位数（8..15）
+ * @param compressionLevel        客户端发出消息的压缩级别（0..9）
+ */
+public record DeflateSettings(boolean enabled, Set<String> exclude, boolean serverNoContextTakeover,
+                              int serverMaxWindowBits, int compressionLevel) {
+
+    public static final DeflateSettings DEFAULT = new DeflateSettings(true, Set.of(), false, 15, 6);
+
+    public DeflateSettings {
+        exclude = Set.copyOf(exclude);
+        if (serverMaxWindowBits < 8 || serverMaxWindowBits > 15) {
+            throw new IllegalArgumentException("serverMaxWindowBits must be in [8, 15]: " + serverMaxWindowBits);
+        }
+        if (compressionLevel < 0 || compressionLevel > 9) {
+            throw new IllegalArgumentException("compressionLevel must be in [0, 9]: " + compressionLevel);
+        }
+    }
+
+    /** 该连接是否请求压缩 */
+    public boolean appliesTo(String connection) {
+        if (!enabled) return false;
+        for (String e : exclude) {
+            if (connection.equals(e) || connection.startsWith(e + "-")) return false;
+        }
+        return true;
+    }
+}
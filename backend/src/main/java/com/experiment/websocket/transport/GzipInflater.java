@@ -0,0 +1,107 @@
+package com.experiment.websocket.transport;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * 解压交易所以二进制帧发送的 gzip 消息（如 CoinEx）。
+ * <p>
+ * Inflater 持有本地 zlib 内存，每条消息 new GZIPInputStream 既分配又依赖 Cleaner 回收；这里复用一个有界池中的
+ * raw Inflater，自行跳过 gzip 头，并按尾部 ISIZE 一次分配输出数组。ISIZE 来自对端、不可信：超过调用方给出的上限即拒绝，
+ * 实际解压长度超过 ISIZE 同样拒绝，分配不会超过上限。
+ */
+public final class GzipInflater {
+
+    private static final int MAX_POOLED = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private static final Queue<Inflater> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+    private GzipInflater() {}
+
+    /** 是否以 gzip 魔数开头 */
+    public static boolean isGzip(ByteBuffer data) {
+        int p = data.position();
+        return data.remaining() >= 18 && (data.get(p) & 0xFF) == 0x1F && (data.get(p + 1) & 0xFF) == 0x8B;
+    }
+
+    /**
+     * 解压单成员 gzip 数据，不移动 data 的 position
+     *
+     * @param maxBytes 解压后长度上限，超过时抛 {@link ZipException}
+     */
+    public static byte[] inflate(ByteBuffer data, int maxBytes) throws ZipException {
+        if (!isGzip(data)) throw new ZipException("Not in GZIP format");
+        ByteBuffer in = data.duplicate();
+        int start = in.position();
+        int end = in.limit();
+        if (in.get(start + 2) != 8) throw new ZipException("Unsupported compression method");
+        int flags = in.get(start + 3) & 0xFF;
+        int p = start + 10;
+        if ((flags & FEXTRA) != 0) p += 2 + ((in.get(p) & 0xFF) | (in.get(p + 1) & 0xFF) << 8);
+        if ((flags & FNAME) != 0) p = skipZeroTerminated(in, p, end);
+        if ((flags & FCOMMENT) != 0) p = skipZeroTerminated(in, p, end);
+        if ((flags & FHCRC) != 0) p += 2;
+        if (p > end - 8) throw new ZipException("Truncated GZIP header");
+        // ISIZE：原始长度 mod 2^32，小端
+        int size = (in.get(end - 4) & 0xFF) | (in.get(end - 3) & 0xFF) << 8
+                | (in.get(end - 2) & 0xFF) << 16 | (in.get(end - 1) & 0xFF) << 24;
+        if (size < 0 || size > maxBytes) {
+            throw new ZipException("GZIP member of " + Integer.toUnsignedString(size) + " bytes exceeds limit " + maxBytes);
+        }
+
+        Inflater inflater = acquire();
+        try {
+            inflater.setInput(in.limit(end - 8).position(p));
+            byte[] out = new byte[size];
+            int n = 0;
+            while (n < size && !inflater.finished()) {
+                int r = inflater.inflate(out, n, size - n);
+                if (r == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                n += r;
+            }
+            if (n != size) throw new ZipException("Corrupt GZIP data: expected " + size + " bytes, got " + n);
+            // ISIZE 偏小：剩余数据仍能解出内容时不静默截断
+            if (!inflater.finished() && inflater.inflate(new byte[1]) > 0) {
+                throw new ZipException("Corrupt GZIP data: more than " + size + " bytes");
+            }
+            return out;
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage());
+        } finally {
+            release(inflater);
+        }
+    }
+
+    private static int skipZeroTerminated(ByteBuffer in, int p, int end) throws ZipException {
+        while (p < end && in.get(p) != 0) p++;
+        if (p >= end) throw new ZipException("Truncated GZIP header");
+        return p + 1;
+    }
+
+    private static Inflater acquire() {
+        Inflater inflater = POOL.poll();
+        if (inflater == null) return new Inflater(true);
+        POOLED.decrementAndGet();
+        return inflater;
+    }
+
+    private static void release(Inflater inflater) {
+        inflater.reset();
+        if (POOLED.incrementAndGet() <= MAX_POOLED) {
+            POOL.offer(inflater);
+        } else {
+            POOLED.decrementAndGet();
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.experiment.websocket.transport;
+
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.framing.CloseFrame;
+import org.java_websocket.handshake.ServerHandshake;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * 基于 org.java_websocket 的传输层（ws.transport.type=java-websocket），每条连接各占一个读线程和一个写线程。
+ * 保留作回退：Netty 实现出问题时可不改代码切回。deflate 连接使用带 {@link PerMessageDeflateExtension} 的 draft，
+ * 协商失败时按无扩展连接；不上报 ws.bytes 指标。
+ */
+public class JavaWebSocketTransport implements WsTransport {
+
+    private final int maxMessageBytes;
+    private final DeflateSettings deflate;
+
+    public JavaWebSocketTransport(int maxMessageBytes, DeflateSettings deflate) {
+        this.maxMessageBytes = maxMessageBytes;
+        this.deflate = deflate;
+    }
+
+    @Override
+    public String name() {
+        return "java-websocket";
+    }
+
+    @Override
+    public WsConnection connect(URI uri, WsOptions options, WsListener listener) {
+        Client client = options.deflate() ? new Client(uri, deflateDraft(), listener) : new Client(uri, new Draft_6455(List.of(), maxMessageBytes), listener);
+        client.connect();
+        return client;
+    }
+
+    @Override
+    public DeflateSettings deflate() {
+        return deflate;
+    }
+
+    @Override
+    public int maxMessageBytes() {
+        return maxMessageBytes;
+    }
+
+    private Draft_6455 deflateDraft() {
+        PerMessageDeflateExtension extension = new PerMessageDeflateExtension();
+        extension.setServerNoContextTakeover(deflate.serverNoContextTakeover());
+        extension.setClientNoContextTakeover(false);
+        return new Draft_6455(List.of(extension), maxMessageBytes);
+    }
+
+    private static final class Client extends WebSocketClient implements WsConnection {
+
+        private final WsListener listener;
+
+        Client(URI uri, Draft_6455 draft, WsListener listener) {
+            super(uri, draft);
+            this.listener = listener;
+        }
+
+        @Override
+        public void onOpen(ServerHandshake handshake) {
+            listener.onOpen();
+        }
+
+        @Override
+        public void onMessage(String message) {
+            listener.onText(message);
+        }
+
+        @Override
+        public void onMessage(ByteBuffer bytes) {
+            listener.onBinary(bytes);
+        }
+
+        @Override
+        public void onClose(int code, String reason, boolean remote) {
+            listener.onClose(code, reason);
+        }
+
+        @Override
+        public void onError(Exception ex) {
+            listener.onError(ex);
+        }
+
+        @Override
+        public void send(String text) {
+            if (isOpen()) super.send(text);
+        }
+
+        @Override
+        public void abort(String reason) {
+            closeConnection(CloseFrame.ABNORMAL_CLOSE, reason);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.experiment.websocket.transport;
+
+import com.experiment.metrics.IngestMetrics;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketClientProtocolConfig;
+import io.netty.handler.codec.http.websocketx.WebSocketClientProtocolHandler;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrameAggregator;
+import io.netty.handler.codec.http.websocketx.WebSocketVersion;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketClientExtensionHandler;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionDecoder;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateClientExtensionHandshaker;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 基于 Netty 的传输层：全部连接共享一个 NIO 事件循环组（ws.transport.threads 个线程）完成连接、TLS、握手、
+ * 帧编解码与 ping/pong；每条连接的消息回调交给一个串行执行器在虚拟线程上运行，解析与入库不占用事件循环，
+ * 同一连接内仍按收到顺序执行。回调积压超过 {@value #HIGH_WATERMARK} 条时暂停读该连接直到追上，
+ * 由 TCP 反压到交易所。
+ * <p>
+ * {@link WsOptions#deflate()} 的连接在握手中按 {@link DeflateSettings} 请求 permessage-deflate，解压在事件循环上由
+ * {@link BoundedDeflateClientHandshaker} 的解码器完成（每条连接一个 Inflater，保留上下文时跨消息复用窗口，
+解压后超过 ws.transport.max-message-bytes 即断开）。每条连接按名称上报 ws.bytes：
+ * wire 在 pipeline 最前端统计 TLS 解密前的字节，decoded 统计解压、聚合后的消息体字节，两者之比即压缩收益。
+ */
+public class NettyWsTransport implements WsTransport {
+
+    public static final int DEFAULT_MAX_MESSAGE_BYTES = 8 * 1024 * 1024;
+
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final long HANDSHAKE_TIMEOUT_MS = 10_000;
+    private static final long CLOSE_TIMEOUT_MS = 5_000;
+    private static final int HIGH_WATERMARK = 10_000;
+
+    private final EventLoopGroup group;
+    private final ExecutorService callbacks = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("ws-callback-", 0).factory());
+    private final SslContext sslContext;
+    private final int maxMessageBytes;
+    private final DeflateSettings deflate;
+
+    /**
+     * @param threads         事件循环线程数，0 表示 max(2, CPU 核数 / 2)
+     * @param maxMessageBytes 单条消息（聚合后）上限
+     * @param deflate         permessage-deflate 协商参数
+     */
+    public NettyWsTransport(int threads, int maxMessageBytes, DeflateSettings deflate) {
+        int n = threads > 0 ? threads : Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        this.group = new NioEventLoopGroup(n, new DefaultThreadFactory("ws-loop", true));
+        this.maxMessageBytes = maxMessageBytes;
+        this.deflate = deflate;
+        try {
+            this.sslContext = SslContextBuilder.forClient().build();
+        } catch (SSLException e) {
+            throw new IllegalStateException("Cannot create TLS context for WebSocket transport", e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "netty";
+    }
+
+    @Override
+    public DeflateSettings deflate() {
+        return deflate;
+    }
+
+    @Override
+    public int maxMessageBytes() {
+        return maxMessageBytes;
+    }
+
+    @Override
+    public WsConnection connect(URI uri, WsOptions options, WsListener listener) {
+        boolean secure = "wss".equalsIgnoreCase(uri.getScheme());
+        String host = uri.getHost();
+        int port = uri.getPort() > 0 ? uri.getPort() : secure ? 443 : 80;
+        NettyConnection conn = new NettyConnection(options.name(), listener, new SerialExecutor(callbacks));
+        WebSocketClientProtocolConfig config = WebSocketClientProtocolConfig.newBuilder()
+                .webSocketUri(uri)
+                .version(WebSocketVersion.V13)
+                .allowExtensions(options.deflate())
+                .maxFramePayloadLength(maxMessageBytes)
+                .handleCloseFrames(false)
+                .dropPongFrames(true)
+                .handshakeTimeoutMillis(HANDSHAKE_TIMEOUT_MS)
+                .build();
+
+        Bootstrap bootstrap = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT_MS)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ChannelPipeline p = ch.pipeline();
+                        p.addLast(new WireBytesCounter(options.name()));
+                        if (secure) p.addLast(sslHandler(ch, host, port));
+                        p.addLast(new HttpClientCodec());
+                        p.addLast(new HttpObjectAggregator(64 * 1024));
+                        if (options.deflate()) p.addLast(compressionHandler());
+                        p.addLast(new WebSocketClientProtocolHandler(config));
+                        p.addLast(new WebSocketFrameAggregator(maxMessageBytes));
+                        p.addLast(conn);
+                    }
+                });
+        ChannelFuture future = bootstrap.connect(host, port);
+        conn.channel = future.channel();
+        future.addListener((ChannelFutureListener) f -> {
+            if (!f.isSuccess()) conn.failed(f.cause());
+        });
+        return conn;
+    }
+
+    /**
+     * 只请求 permessage-deflate（不带已废弃的 deflate-frame）。允许服务端指定 client_max_window_bits 与
+     * client_no_context_takeover：客户端只发少量控制消息，由服务端决定即可。
+     */
+    private WebSocketClientExtensionHandler compressionHandler() {
+        return new WebSocketClientExtensionHandler(new BoundedDeflateClientHandshaker(new PerMessageDeflateClientExtensionHandshaker(
+                deflate.compressionLevel(), true, deflate.serverMaxWindowBits(), true, deflate.serverNoContextTakeover()),
+                maxMessageBytes));
+    }
+
+    /** 启用主机名校验（Netty 默认不校验证书主机名） */
+    private SslHandler sslHandler(SocketChannel ch, String host, int port) {
+        SslHandler handler = sslContext.newHandler(ch.alloc(), host, port);
+        SSLParameters params = handler.engine().getSSLParameters();
+        params.setEndpointIdentificationAlgorithm("HTTPS");
+        handler.engine().setSSLParameters(params);
+        return handler;
+    }
+
+    @Override
+    public void shutdown() {
+        group.shutdownGracefully(0, 2, TimeUnit.SECONDS);
+        callbacks.shutdown();
+    }
+
+    /** pipeline 最前端：统计 TLS 解密前从 socket 读到的字节 */
+    private static final class WireBytesCounter extends ChannelInboundHandlerAdapter {
+
+        private final String name;
+
+        WireBytesCounter(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            if (msg instanceof ByteBuf buf) IngestMetrics.wsBytes(name, "wire", buf.readableBytes());
+            ctx.fireChannelRead(msg);
+        }
+    }
+
+    /** 一条连接：既是 pipeline 末端的帧处理器，也是交给上层的 {@link WsConnection} */
+    private static final class NettyConnection extends SimpleChannelInboundHandler<WebSocketFrame> implements WsConnection {
+
+        private final String name;
+        private final WsListener listener;
+        private final SerialExecutor serial;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Channel channel;
+        private volatile boolean open;
+        private volatile boolean closeSent;
+        private volatile int closeCode = 1006;
+        private volatile String closeReason = "";
+
+        NettyConnection(String name, WsListener listener, SerialExecutor serial) {
+            this.name = name;
+            this.listener = listener;
+            this.serial = serial;
+        }
+
+        @Override
+        public void send(String text) {
+            Channel ch = channel;
+            if (open && ch != null) ch.writeAndFlush(new TextWebSocketFrame(text));
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            Channel ch = channel;
+            if (ch == null) return;
+            if (!open) {
+                ch.close();
+                return;
+            }
+            closeSent = true;
+            ch.writeAndFlush(new CloseWebSocketFrame(1000, "")).addListener(f ->
+                    ch.eventLoop().schedule(() -> { ch.close(); }, CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public void abort(String reason) {
+            closeCode = 1006;
+            closeReason = reason;
+            Channel ch = channel;
+            if (ch != null) ch.close();
+        }
+
+        void failed(Throwable cause) {
+            serial.execute(() -> listener.onError(cause));
+            fireClose(-1, String.valueOf(cause.getMessage()));
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, WebSocketFrame frame) {
+            if (frame instanceof TextWebSocketFrame || frame instanceof BinaryWebSocketFrame) {
+                IngestMetrics.wsBytes(name, "decoded", frame.content().readableBytes());
+            }
+            if (frame instanceof TextWebSocketFrame text) {
+                String message = text.text();
+                dispatch(ctx, () -> listener.onText(message));
+            } else if (frame instanceof BinaryWebSocketFrame binary) {
+                ByteBuffer message = ByteBuffer.wrap(ByteBufUtil.getBytes(binary.content()));
+                dispatch(ctx, () -> listener.onBinary(message));
+            } else if (frame instanceof CloseWebSocketFrame close) {
+                closeCode = close.statusCode();
+                closeReason = close.reasonText() != null ? close.reasonText() : "";
+                if (closeSent) {
+                    ctx.close();
+                } else {
+                    closeSent = true;
+                    ctx.writeAndFlush(new CloseWebSocketFrame()).addListener(ChannelFutureListener.CLOSE);
+                }
+            }
+        }
+
+        /** 回调积压过多时暂停读取；排在积压之后的恢复任务执行时，前面的回调都已处理完 */
+        private void dispatch(ChannelHandlerContext ctx, Runnable callback) {
+            serial.execute(callback);
+            Channel ch = ctx.channel();
+            if (serial.pending() > HIGH_WATERMARK && ch.config().isAutoRead()) {
+                ch.config().setAutoRead(false);
+                serial.execute(() -> ch.eventLoop().execute(() -> ch.config().setAutoRead(true)));
+            }
+        }
+
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+            if (evt == WebSocketClientProtocolHandler.ClientHandshakeStateEvent.HANDSHAKE_COMPLETE) {
+                open = true;
+                // 扩展协商成功时 WebSocketClientExtensionHandler 已在 pipeline 中加入解码器
+                IngestMetrics.wsDeflateNegotiated(name, ctx.pipeline().get(WebSocketExtensionDecoder.class) != null);
+                serial.execute(listener::onOpen);
+            } else if (evt == WebSocketClientProtocolHandler.ClientHandshakeStateEvent.HANDSHAKE_TIMEOUT) {
+                serial.execute(() -> listener.onError(new TimeoutException("WebSocket handshake timed out")));
+                ctx.close();
+            } else {
+                super.userEventTriggered(ctx, evt);
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            serial.execute(() -> listener.onError(cause));
+            ctx.close();
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            open = false;
+            fireClose(closeCode, closeReason);
+            super.channelInactive(ctx);
+        }
+
+        private void fireClose(int code, String reason) {
+            open = false;
+            if (closed.compareAndSet(false, true)) {
+                serial.execute(() -> listener.onClose(code, reason));
+            }
+        }
+    }
+}
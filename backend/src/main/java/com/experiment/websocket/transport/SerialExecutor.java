@@ -0,0 +1,64 @@
+package com.experiment.websocket.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 串行执行器：任务按提交顺序在 delegate 上逐个执行，同一时刻至多一个在跑。
+ * 用于把一条连接的回调从共享事件循环移到虚拟线程上，既不阻塞事件循环，又保持单连接内的消息顺序。
+ */
+final class SerialExecutor implements Executor {
+
+    private static final Logger log = LoggerFactory.getLogger(SerialExecutor.class);
+
+    private final Executor delegate;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    SerialExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        pending.incrementAndGet();
+        schedule();
+    }
+
+    /** 已提交未执行完的任务数 */
+    int pending() {
+        return pending.get();
+    }
+
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            delegate.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    log.warn("WebSocket callback failed: {}", t.toString());
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }
+        } finally {
+            draining.set(false);
+            if (!tasks.isEmpty()) schedule();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.experiment.websocket.transport;
+
+/**
+ * 一条 WebSocket 连接。send 线程安全，未连接或已关闭时静默丢弃。
+ */
+public interface WsConnection {
+
+    void send(String text);
+
+    boolean isOpen();
+
+    /** 发送 close 帧正常关闭 */
+    void close();
+
+    /** 不等待 close 握手直接断开，回调 onClose(1006, reason) */
+    void abort(String reason);
+}
@@ -0,0 +1,20 @@
+package com.experiment.websocket.transport;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 连接事件回调，文本/二进制消息均为聚合后的完整消息。
+ */
+public interface WsListener {
+
+    void onOpen();
+
+    void onText(String message);
+
+    void onBinary(ByteBuffer message);
+
+    /** code 为对端 close 帧的状态码；异常断开为 1006，从未连上为 -1 */
+    void onClose(int code, String reason);
+
+    void onError(Throwable error);
+}
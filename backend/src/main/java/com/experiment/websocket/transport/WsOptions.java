@@ -0,0 +1,10 @@
+package com.experiment.websocket.transport;
+
+/**
+ * 单条连接的选项。
+ *
+ * @param name    连接名（交易所或分片名），用于日志与线程命名
+ * @param deflate 握手时请求 permessage-deflate，参数见 {@link DeflateSettings}
+ */
+public record WsOptions(String name, boolean deflate) {
+}
@@ -0,0 +1,28 @@
+package com.experiment.websocket.transport;
+
+import java.net.URI;
+
+/**
+ * WebSocket 传输层：建立连接并把帧事件回调给 {@link WsListener}。{@link com.experiment.websocket.ManagedWebSocket}
+ * 只依赖本接口，重连、心跳与消息分发语义与具体实现无关。实现由 ws.transport 选择，见 {@link WsTransports}。
+ * <p>
+ * 回调约定：同一连接的回调严格按收到顺序串行执行；连接失败或断开时先 onError（如有）再 onClose，onClose 至多一次。
+ */
+public interface WsTransport {
+
+    /** 实现名称，用于日志 */
+    String name();
+
+    /** 异步建立连接，立即返回；握手结果通过 listener 回调 */
+    WsConnection connect(URI uri, WsOptions options, WsListener listener);
+
+    /** permessage-deflate 协商参数，连接方据此决定 {@link WsOptions#deflate()} */
+    DeflateSettings deflate();
+
+    /** 单条消息上限（字节，ws.transport.max-message-bytes），解压后的消息同样受此限制 */
+    int maxMessageBytes();
+
+    /** 释放共享资源（事件循环等），应用停止时调用 */
+    default void shutdown() {
+    }
+}
@@ -0,0 +1,71 @@
+package com.experiment.websocket.transport;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 按 ws.transport.type 与 ws.deflate.* 创建传输层并设为 {@link WsTransports#current()}；应用停止时释放事件循环。
+ * {@link com.experiment.websocket.WebSocketRunner} 依赖本 bean，保证连接先于事件循环关闭。
+ */
+@Component
+public class WsTransportConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(WsTransportConfig.class);
+
+    /** netty / java-websocket */
+    @Value("${ws.transport.type:netty}")
+    private String type;
+
+    /** Netty 事件循环线程数，0 表示 max(2, CPU 核数 / 2) */
+    @Value("${ws.transport.threads:0}")
+    private int threads;
+
+    /** 单条消息上限（字节） */
+    @Value("${ws.transport.max-message-bytes:" + NettyWsTransport.DEFAULT_MAX_MESSAGE_BYTES + "}")
+    private int maxMessageBytes;
+
+    /** 对全部连接请求 permessage-deflate */
+    @Value("${ws.deflate.enabled:true}")
+    private boolean deflateEnabled;
+
+    /** 不请求压缩的连接名，逗号分隔 */
+    @Value("${ws.deflate.exclude:}")
+    private String deflateExclude;
+
+    @Value("${ws.deflate.server-no-context-takeover:false}")
+    private boolean serverNoContextTakeover;
+
+    @Value("${ws.deflate.server-max-window-bits:15}")
+    private int serverMaxWindowBits;
+
+    @Value("${ws.deflate.compression-level:6}")
+    private int compressionLevel;
+
+    private WsTransport transport;
+
+    @PostConstruct
+    public void init() {
+        Set<String> exclude = Arrays.stream(deflateExclude.split(","))
+                .map(String::trim).filter(s -> !s.isEmpty()).collect(Collectors.toSet());
+        DeflateSettings deflate = new DeflateSettings(deflateEnabled, exclude, serverNoContextTakeover,
+                serverMaxWindowBits, compressionLevel);
+        transport = "java-websocket".equalsIgnoreCase(type)
+                ? new JavaWebSocketTransport(maxMessageBytes, deflate)
+                : new NettyWsTransport(threads, maxMessageBytes, deflate);
+        WsTransports.set(transport);
+        log.info("WebSocket transport: {}, {}", transport.name(), deflate);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        transport.shutdown();
+    }
+}
@@ -0,0 +1,25 @@
+package com.experiment.websocket.transport;
+
+/**
+ * 当前使用的 {@link WsTransport}。由 {@link WsTransportConfig} 按 ws.transport 在行情源启动前设置；
+ * 未设置时（如独立诊断工具）使用默认参数的 {@link NettyWsTransport}。
+ */
+public final class WsTransports {
+
+    private static volatile WsTransport current;
+
+    private WsTransports() {}
+
+    public static WsTransport current() {
+        WsTransport t = current;
+        if (t != null) return t;
+        synchronized (WsTransports.class) {
+            if (current == null) current = new NettyWsTransport(0, NettyWsTransport.DEFAULT_MAX_MESSAGE_BYTES, DeflateSettings.DEFAULT);
+            return current;
+        }
+    }
+
+    static synchronized void set(WsTransport transport) {
+        current = transport;
+    }
+}
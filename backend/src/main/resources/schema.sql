@@ -10,6 +10,8 @@ CREATE TABLE IF NOT EXISTS spread_arbitrage_snapshots (
     profit_margin_pct DECIMAL(10,4) NOT NULL COMMENT '扣费后利润率% = 原始价差% - 买入手续费% - 卖出手续费%',
     spot_fee_buy_pct DECIMAL(10,4) NULL COMMENT '买入交易所现货手续费率%',
     spot_fee_sell_pct DECIMAL(10,4) NULL COMMENT '卖出交易所现货手续费率%',
+    exec_profit_10k_pct DECIMAL(10,4) NULL COMMENT '按订单簿吃单 $10k 的可成交利润率%（双边 taker），无订单簿为 NULL',
+    exec_profit_100k_pct DECIMAL(10,4) NULL COMMENT '按订单簿吃单 $100k 的可成交利润率%（双边 taker），无订单簿或深度不足为 NULL',
     snapshot_time DATETIME(3) NOT NULL COMMENT '快照时间',
     INDEX idx_symbol_time (symbol, snapshot_time),
     INDEX idx_symbol_pair (symbol, exchange_buy, exchange_sell)
@@ -0,0 +1,111 @@
+package com.experiment.orderbook;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookSideTest {
+
+    @Test
+    void bidsKeepHighestPriceFirst() {
+        BookSide bids = new BookSide(true);
+
+        bids.set(100, 1);
+        bids.set(102, 2);
+        bids.set(101, 3);
+
+        assertEquals(3, bids.depth());
+        assertEquals(102, bids.bestPrice());
+        assertEquals(2, bids.bestSize());
+    }
+
+    @Test
+    void asksKeepLowestPriceFirst() {
+        BookSide asks = new BookSide(false);
+
+        asks.set(102, 2);
+        asks.set(100, 1);
+        asks.set(101, 3);
+
+        assertEquals(100, asks.bestPrice());
+        assertEquals(1, asks.bestSize());
+    }
+
+    @Test
+    void existingLevelIsReplacedAndZeroSizeDeletes() {
+        BookSide asks = new BookSide(false);
+        asks.set(100, 1);
+        asks.set(101, 1);
+
+        asks.set(100, 5);
+        assertEquals(2, asks.depth());
+        assertEquals(5, asks.bestSize());
+
+        asks.set(100, 0);
+        assertEquals(1, asks.depth());
+        assertEquals(101, asks.bestPrice());
+
+        // 删除不存在的价位不影响已有档位
+        asks.set(99, 0);
+        assertEquals(1, asks.depth());
+    }
+
+    @Test
+    void emptySideHasNoBestPrice() {
+        BookSide bids = new BookSide(true);
+        bids.set(100, 1);
+        bids.clear();
+
+        assertEquals(0, bids.depth());
+        assertTrue(Double.isNaN(bids.bestPrice()));
+        assertTrue(Double.isNaN(bids.bestSize()));
+    }
+
+    @Test
+    void growsBeyondInitialCapacityInOrder() {
+        BookSide asks = new BookSide(false);
+        for (int i = 200; i > 0; i--) asks.set(i, 1);
+
+        assertEquals(200, asks.depth());
+        assertEquals(1, asks.bestPrice());
+        for (int i = 1; i < 200; i++) asks.set(i, 0);
+        assertEquals(200, asks.bestPrice());
+    }
+
+    @Test
+    void vwapWalksLevelsFromBestPrice() {
+        BookSide asks = new BookSide(false);
+        asks.set(100, 1);
+        asks.set(200, 1);
+
+        assertEquals(100, asks.vwap(50), 1e-9);
+        assertEquals(100, asks.vwap(100), 1e-9);
+        // 100 买 1 个 + 100 买 0.5 个：均价 200 / 1.5
+        assertEquals(200 / 1.5, asks.vwap(200), 1e-9);
+        assertEquals(150, asks.vwap(300), 1e-9);
+    }
+
+    @Test
+    void vwapIsNaNWhenDepthIsInsufficient() {
+        BookSide bids = new BookSide(true);
+        bids.set(100, 1);
+
+        assertTrue(Double.isNaN(bids.vwap(100.01)));
+        assertTrue(Double.isNaN(bids.vwap(0)));
+        assertTrue(Double.isNaN(new BookSide(true).vwap(1)));
+    }
+
+    @Test
+    void truncateKeepsBestLevels() {
+        BookSide bids = new BookSide(true);
+        for (int i = 1; i <= 10; i++) bids.set(i, 1);
+
+        bids.truncate(3);
+
+        assertEquals(3, bids.depth());
+        assertEquals(10, bids.bestPrice());
+        assertEquals(9, bids.vwap(27), 1e-9);
+        assertTrue(Double.isNaN(bids.vwap(28)));
+    }
+}
@@ -0,0 +1,89 @@
+package com.experiment.orderbook;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderBookTest {
+
+    @Test
+    void bookIsUnusableUntilMarkedValid() {
+        OrderBook book = book();
+
+        assertFalse(book.isUsable());
+        assertTrue(Double.isNaN(book.bestBid()));
+
+        book.markValid(42);
+
+        assertTrue(book.isUsable());
+        assertEquals(42, book.getSequence());
+        assertEquals(100, book.bestBid());
+        assertEquals(101, book.bestAsk());
+        assertEquals(2, book.bestBidSize());
+        assertEquals(3, book.bestAskSize());
+    }
+
+    @Test
+    void invalidateAndClearHideTheBook() {
+        OrderBook book = book();
+        book.markValid(1);
+
+        book.invalidate();
+        assertFalse(book.isUsable());
+        assertTrue(Double.isNaN(book.vwapBuy(10)));
+
+        book.markValid(2);
+        book.clear();
+        assertFalse(book.isValid());
+        assertTrue(Double.isNaN(book.bestAsk()));
+    }
+
+    @Test
+    void crossedBookIsUnusable() {
+        OrderBook book = book();
+        book.markValid(1);
+
+        book.updateBid(101, 1);
+
+        assertFalse(book.isUsable());
+        book.updateBid(101, 0);
+        assertTrue(book.isUsable());
+    }
+
+    @Test
+    void vwapBuyTakesAsksAndVwapSellTakesBids() {
+        OrderBook book = book();
+        book.updateAsk(102, 10);
+        book.updateBid(99, 10);
+        book.markValid(1);
+
+        // 卖一 101 x 3 = 303，再吃 102 x 1
+        assertEquals(405 / (3 + 1.0), book.vwapBuy(405), 1e-9);
+        // 买一 100 x 2 = 200，再吃 99 x 1
+        assertEquals(299 / (2 + 1.0), book.vwapSell(299), 1e-9);
+        assertTrue(Double.isNaN(book.vwapSell(100 * 2 + 99 * 10 + 1)));
+    }
+
+    @Test
+    void truncateKeepsBestLevelsOnBothSides() {
+        OrderBook book = book();
+        book.updateBid(99, 1);
+        book.updateAsk(102, 1);
+        book.markValid(1);
+
+        book.truncate(1);
+
+        assertTrue(Double.isNaN(book.vwapBuy(101 * 3 + 1)));
+        assertTrue(Double.isNaN(book.vwapSell(100 * 2 + 1)));
+    }
+
+    /** 买一 100 x 2、卖一 101 x 3，尚未同步 */
+    private static OrderBook book() {
+        OrderBook book = new OrderBook("test", "BTCUSDT");
+        book.updateBid(100, 2);
+        book.updateAsk(101, 3);
+        return book;
+    }
+}
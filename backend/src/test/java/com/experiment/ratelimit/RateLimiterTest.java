@@ -0,0 +1,87 @@
+package com.experiment.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final ExchangeLimit TEST = new ExchangeLimit("test", 1, 4, List.of("api.test"),
+            Map.of("/api/v1/depth", 2, "/api/v1/depth/full", 4));
+
+    @Test
+    void metadataRequestsAreRejectedBeforePriceRequests() throws Exception {
+        RateLimiter limiter = limiter(true);
+        for (int i = 0; i < 3; i++) limiter.acquire(uri("/api/v1/ticker"));
+
+        assertThrows(RateLimitedException.class, () -> limiter.acquire(uri("/api/v1/exchangeInfo")));
+        limiter.acquire(uri("/api/v1/ticker"));
+        assertThrows(RateLimitedException.class, () -> limiter.acquire(uri("/api/v1/ticker")));
+    }
+
+    @Test
+    void pathWeightUsesLongestPrefix() throws Exception {
+        RateLimiter limiter = limiter(true);
+
+        limiter.acquire(uri("/api/v1/depth?symbol=BTCUSDT"));
+        limiter.acquire(uri("/api/v1/depth?symbol=ETHUSDT"));
+
+        assertThrows(RateLimitedException.class, () -> limiter.acquire(uri("/api/v1/ticker")));
+        assertEquals(4, TEST.weight("/api/v1/depth/full"));
+        assertEquals(1, TEST.weight("/api/v1/ticker"));
+    }
+
+    @Test
+    void rateLimitedResponseBlocksRequestsEvenWhenDisabled() {
+        RateLimiter limiter = limiter(false);
+        assertDoesNotThrow(() -> limiter.acquire(uri("/api/v1/ticker")));
+
+        limiter.onRateLimited(uri("/api/v1/ticker"), 429, "30");
+
+        assertThrows(RateLimitedException.class, () -> limiter.acquire(uri("/api/v1/ticker")));
+        long blockedMs = (Long) limiter.snapshot().get(0).get("blockedMs");
+        assertTrue(blockedMs > 20_000 && blockedMs <= 30_000, "blockedMs " + blockedMs);
+    }
+
+    @Test
+    void messagesShareTheExchangeBucketBySuffixedConnectionName() {
+        RateLimiter limiter = limiter(true);
+
+        for (int i = 0; i < 4; i++) assertEquals(0, limiter.reserveMessage("test-spot-2"));
+
+        assertTrue(limiter.reserveMessage("test-standby") > 0);
+        assertEquals(1, limiter.snapshot().size());
+        assertEquals("test", limiter.snapshot().get(0).get("exchange"));
+    }
+
+    @Test
+    void disabledLimiterDoesNotDelayMessages() {
+        RateLimiter limiter = limiter(false);
+
+        for (int i = 0; i < 10; i++) assertEquals(0, limiter.reserveMessage("test"));
+    }
+
+    @Test
+    void pathsAreClassifiedByPriority() {
+        assertEquals(Priority.FUNDING, Priority.classify("/fapi/v1/fundingRate"));
+        assertEquals(Priority.METADATA, Priority.classify("/api/v3/exchangeInfo"));
+        assertEquals(Priority.METADATA, Priority.classify("/api/v5/public/instruments"));
+        assertEquals(Priority.PRICE, Priority.classify("/api/v3/ticker/bookTicker"));
+        assertEquals(Priority.PRICE, Priority.classify(null));
+    }
+
+    private static RateLimiter limiter(boolean enabled) {
+        return new RateLimiter(enabled, List.of(TEST), 1.0, 0);
+    }
+
+    private static URI uri(String path) {
+        return URI.create("https://api.test" + path);
+    }
+}
@@ -0,0 +1,80 @@
+package com.experiment.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void fullBucketServesBurstWithoutWaiting() {
+        TokenBucket bucket = new TokenBucket("test", 1, 10);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, bucket.reserve(1, Priority.PRICE, 0));
+        }
+        assertEquals(-1, bucket.reserve(1, Priority.PRICE, 0));
+    }
+
+    @Test
+    void reservationBeyondBurstWaitsAboutOneInterval() {
+        TokenBucket bucket = new TokenBucket("test", 1, 2);
+        bucket.reserve(2, Priority.PRICE, 0);
+
+        long wait = bucket.reserve(1, Priority.PRICE, 2 * SECOND);
+
+        assertTrue(wait > SECOND / 2 && wait <= SECOND, "wait " + wait);
+        // 预约已推进 tat，下一次要排在它之后
+        assertTrue(bucket.reserve(1, Priority.PRICE, 2 * SECOND) > wait);
+    }
+
+    @Test
+    void weightCountsAsThatManyTokens() {
+        TokenBucket bucket = new TokenBucket("test", 1, 10);
+
+        assertEquals(0, bucket.reserve(7, Priority.PRICE, 0));
+        assertEquals(-1, bucket.reserve(4, Priority.PRICE, 0));
+        assertEquals(0, bucket.reserve(3, Priority.PRICE, 0));
+    }
+
+    @Test
+    void tokensRefillOverTime() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket("test", 100, 2);
+        bucket.reserve(2, Priority.PRICE, 0);
+        assertTrue(bucket.available() < 1);
+
+        Thread.sleep(50);
+
+        assertEquals(2, bucket.available());
+        assertEquals(0, bucket.reserve(2, Priority.PRICE, 0));
+    }
+
+    @Test
+    void lowerPrioritiesLeaveCapacityForPrices() {
+        TokenBucket bucket = new TokenBucket("test", 1, 20);
+
+        // 元数据请求取完后至少留 25%（5 个），资金费率留 10%（2 个）
+        assertEquals(0, bucket.reserve(15, Priority.METADATA, 0));
+        assertEquals(-1, bucket.reserve(1, Priority.METADATA, 0));
+        assertEquals(0, bucket.reserve(1, Priority.FUNDING, 0));
+        assertEquals(-1, bucket.reserve(3, Priority.FUNDING, 0));
+        assertEquals(0, bucket.reserve(4, Priority.PRICE, 0));
+        assertEquals(-1, bucket.reserve(1, Priority.PRICE, 0));
+    }
+
+    @Test
+    void blockOnlyExtends() {
+        TokenBucket bucket = new TokenBucket("test", 1, 1);
+        assertEquals(0, bucket.blockedNanos());
+
+        bucket.blockFor(10 * SECOND);
+        bucket.blockFor(SECOND);
+
+        assertTrue(bucket.blockedNanos() > 5 * SECOND);
+    }
+}
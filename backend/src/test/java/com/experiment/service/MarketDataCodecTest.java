@@ -0,0 +1,132 @@
+package com.experiment.service;
+
+import com.experiment.fx.QuoteCurrency;
+import com.experiment.model.Quote;
+import com.experiment.service.MarketDataCodec.StoredFunding;
+import com.experiment.service.MarketDataCodec.StoredQuote;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MarketDataCodecTest {
+
+    @Test
+    void usdtQuoteRoundTripsWithBookTime() {
+        Quote quote = new Quote(dec("67000.5"), dec("67000.4"), dec("1.25"), dec("67000.6"), dec("0.003"));
+        StoredQuote stored = new StoredQuote(quote, QuoteCurrency.USDT, null, null, 2_000L, 1_500L);
+
+        StoredQuote decoded = MarketDataCodec.decodeQuote(MarketDataCodec.encodeQuote(stored));
+
+        assertEquals(quote, decoded.quote());
+        assertEquals(QuoteCurrency.USDT, decoded.quoteCcy());
+        assertNull(decoded.rawPrice());
+        assertNull(decoded.fxRate());
+        assertEquals(2_000L, decoded.updatedAt());
+        assertEquals(1_500L, decoded.bookUpdatedAt());
+    }
+
+    @Test
+    void foreignQuoteKeepsRawPriceRateAndCurrency() {
+        Quote quote = new Quote(dec("66990.1"), null, null, null, null);
+        StoredQuote stored = new StoredQuote(quote, QuoteCurrency.USDC, dec("67000"), dec("0.99985"), 10L, 10L);
+
+        StoredQuote decoded = MarketDataCodec.decodeQuote(MarketDataCodec.encodeQuote(stored));
+
+        assertEquals(quote, decoded.quote());
+        assertEquals(QuoteCurrency.USDC, decoded.quoteCcy());
+        assertEquals("67000", decoded.rawPrice().toPlainString());
+        assertEquals(dec("0.99985"), decoded.fxRate());
+    }
+
+    @Test
+    void usdtQuoteDropsRawPriceAndRate() {
+        Quote quote = new Quote(dec("1"), null, null, null, null);
+        StoredQuote stored = new StoredQuote(quote, QuoteCurrency.USDT, dec("1"), dec("1"), 10L, 10L);
+
+        StoredQuote decoded = MarketDataCodec.decodeQuote(MarketDataCodec.encodeQuote(stored));
+
+        assertNull(decoded.rawPrice());
+        assertNull(decoded.fxRate());
+    }
+
+    @Test
+    void versionOneQuoteUsesUpdatedAtAsBookTime() {
+        // 版本 1：无 bookUpdatedAt，只有 price 与 bid
+        ByteBuffer buf = ByteBuffer.allocate(2 + Long.BYTES + 2 * (Long.BYTES + 1));
+        buf.put((byte) 1).put((byte) 0b11).putLong(5_000L);
+        buf.putLong(6700050L).put((byte) 2);
+        buf.putLong(670004L).put((byte) 1);
+
+        StoredQuote decoded = MarketDataCodec.decodeQuote(buf.array());
+
+        assertEquals(new Quote(dec("67000.50"), dec("67000.4"), null, null, null), decoded.quote());
+        assertEquals(QuoteCurrency.USDT, decoded.quoteCcy());
+        assertEquals(5_000L, decoded.updatedAt());
+        assertEquals(5_000L, decoded.bookUpdatedAt());
+    }
+
+    @Test
+    void staleBookIsStrippedFromQuote() {
+        Quote quote = new Quote(dec("2"), dec("1.9"), dec("5"), dec("2.1"), dec("6"));
+        StoredQuote stored = new StoredQuote(quote, QuoteCurrency.USDT, null, null, 2_000L, 1_000L);
+
+        assertEquals(quote, stored.quote(1_000L));
+        assertEquals(new Quote(dec("2"), null, null, null, null), stored.quote(1_001L));
+    }
+
+    @Test
+    void decimalsAreStoredWithoutTrailingZerosOrExponent() {
+        Quote quote = new Quote(dec("67000.000"), dec("6.7E+4"), null, null, null);
+
+        Quote decoded = MarketDataCodec.decodeQuote(MarketDataCodec.encodeQuote(
+                new StoredQuote(quote, QuoteCurrency.USDT, null, null, 1L, 1L))).quote();
+
+        assertEquals("67000", decoded.price().toString());
+        assertEquals("67000", decoded.bid().toString());
+    }
+
+    @Test
+    void decimalsBeyondLongPrecisionAreRounded() {
+        Quote quote = new Quote(dec("0.12345678901234567890123"), null, null, null, null);
+
+        Quote decoded = MarketDataCodec.decodeQuote(MarketDataCodec.encodeQuote(
+                new StoredQuote(quote, QuoteCurrency.USDT, null, null, 1L, 1L))).quote();
+
+        assertEquals(dec("0.123456789012345679"), decoded.price());
+    }
+
+    @Test
+    void fundingRoundTrips() {
+        StoredFunding funding = new StoredFunding(dec("0.0001"), dec("0.0002"), dec("0.219"), 4, 1_700_000_000_000L, 42L);
+
+        assertEquals(funding, MarketDataCodec.decodeFunding(MarketDataCodec.encodeFunding(funding)));
+    }
+
+    @Test
+    void fundingWithoutOptionalFieldsRoundTrips() {
+        StoredFunding funding = new StoredFunding(dec("-0.0003"), null, null, null, null, 42L);
+
+        assertEquals(funding, MarketDataCodec.decodeFunding(MarketDataCodec.encodeFunding(funding)));
+    }
+
+    @Test
+    void unrecognizedBytesDecodeToNull() {
+        byte[] quote = MarketDataCodec.encodeQuote(new StoredQuote(new Quote(dec("1"), null, null, null, null),
+                QuoteCurrency.USDT, null, null, 1L, 1L));
+
+        assertNull(MarketDataCodec.decodeQuote(null));
+        assertNull(MarketDataCodec.decodeQuote(new byte[3]));
+        assertNull(MarketDataCodec.decodeQuote("67000.5".getBytes()));
+        assertNull(MarketDataCodec.decodeFunding(null));
+        // 资金费率只有版本 1，版本 2 的报价不能当资金费率解码
+        assertNull(MarketDataCodec.decodeFunding(quote));
+    }
+
+    private static BigDecimal dec(String value) {
+        return new BigDecimal(value);
+    }
+}
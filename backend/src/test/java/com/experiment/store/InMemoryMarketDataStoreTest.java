@@ -0,0 +1,9 @@
+package com.experiment.store;
+
+class InMemoryMarketDataStoreTest extends MarketDataStoreContractTest {
+
+    @Override
+    protected MarketDataStore createStore() {
+        return new InMemoryMarketDataStore();
+    }
+}
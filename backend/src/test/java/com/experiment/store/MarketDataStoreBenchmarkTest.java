@@ -0,0 +1,94 @@
+package com.experiment.store;
+
+import com.experiment.config.Exchanges;
+import com.experiment.config.Symbols;
+import com.experiment.store.MarketDataStore.Kind;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * 进程内存储的读写吞吐基准（-Dbenchmark=true 时运行）：按真实的 币种 × 交易所 × 种类 分布写入、单点读取与按币种快照，
+ * 值为 64 字节（接近 {@code MarketDataCodec} 报价编码的长度）。只打印结果，不做断言。
+ * Redis 的吞吐取决于网络往返，不在此比较。
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MarketDataStoreBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 200;
+
+    @Test
+    void memory() {
+        run(new InMemoryMarketDataStore());
+    }
+
+    @Test
+    void offheap() {
+        run(new OffHeapMarketDataStore(Symbols.count()));
+    }
+
+    private static void run(MarketDataStore store) {
+        byte[] value = MarketDataStoreContractTest.value(1, 64);
+        Kind[] kinds = Kind.values();
+        int slots = Symbols.count() * Exchanges.count() * kinds.length;
+        long sink = 0;
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += round(store, value, kinds);
+        }
+
+        long putNanos = 0;
+        long getNanos = 0;
+        long snapshotNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long t0 = System.nanoTime();
+            for (int s = 0; s < Symbols.count(); s++) {
+                for (int e = 0; e < Exchanges.count(); e++) {
+                    for (Kind kind : kinds) {
+                        store.put(Symbols.key(s), Exchanges.name(e), kind, value);
+                    }
+                }
+            }
+            long t1 = System.nanoTime();
+            for (int s = 0; s < Symbols.count(); s++) {
+                for (int e = 0; e < Exchanges.count(); e++) {
+                    for (Kind kind : kinds) {
+                        sink += store.get(Symbols.key(s), Exchanges.name(e), kind).length;
+                    }
+                }
+            }
+            long t2 = System.nanoTime();
+            for (int s = 0; s < Symbols.count(); s++) {
+                MarketDataStore.Snapshot snapshot = store.snapshot(Symbols.key(s));
+                for (int e = 0; e < Exchanges.count(); e++) {
+                    sink += snapshot.get(Exchanges.name(e), Kind.SPOT).length;
+                }
+            }
+            long t3 = System.nanoTime();
+            putNanos += t1 - t0;
+            getNanos += t2 - t1;
+            snapshotNanos += t3 - t2;
+        }
+
+        long ops = (long) ROUNDS * slots;
+        System.out.printf("[%s] put %.0f ns/op, get %.0f ns/op, snapshot %.2f us/symbol (sink %d)%n",
+                store.name(),
+                (double) putNanos / ops,
+                (double) getNanos / ops,
+                snapshotNanos / 1000.0 / ((long) ROUNDS * Symbols.count()),
+                sink);
+    }
+
+    private static long round(MarketDataStore store, byte[] value, Kind[] kinds) {
+        long sink = 0;
+        for (int s = 0; s < Symbols.count(); s++) {
+            for (int e = 0; e < Exchanges.count(); e++) {
+                for (Kind kind : kinds) {
+                    store.put(Symbols.key(s), Exchanges.name(e), kind, value);
+                    sink += store.get(Symbols.key(s), Exchanges.name(e), kind).length;
+                }
+            }
+        }
+        return sink;
+    }
+}
@@ -0,0 +1,206 @@
+package com.experiment.store;
+
+import com.experiment.store.MarketDataStore.Kind;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link MarketDataStore} 契约：每个实现一个子类，跑同一组用例。
+ * 子类用 {@link #symbol(String)} 生成币种名，共享存储（Redis）可借此隔离并在 {@link #cleanUp} 中清理。
+ */
+abstract class MarketDataStoreContractTest {
+
+    protected MarketDataStore store;
+
+    /** 每个用例一个新实例 */
+    protected abstract MarketDataStore createStore();
+
+    /** 用例中使用的币种名 */
+    protected String symbol(String base) {
+        return base + "USDT";
+    }
+
+    /** 用例结束后清理写入的数据 */
+    protected void cleanUp() {
+    }
+
+    @BeforeEach
+    void setUp() {
+        store = createStore();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    void putThenGetReturnsSameBytes() {
+        byte[] value = value(1, 40);
+        store.put(symbol("BTC"), "binance", Kind.SPOT, value);
+
+        assertArrayEquals(value, store.get(symbol("BTC"), "binance", Kind.SPOT));
+    }
+
+    @Test
+    void laterPutReplacesValue() {
+        store.put(symbol("BTC"), "okx", Kind.FUTURES, value(1, 60));
+        store.put(symbol("BTC"), "okx", Kind.FUTURES, value(2, 20));
+
+        assertArrayEquals(value(2, 20), store.get(symbol("BTC"), "okx", Kind.FUTURES));
+    }
+
+    @Test
+    void missingSlotIsNull() {
+        store.put(symbol("BTC"), "binance", Kind.SPOT, value(1, 10));
+
+        assertNull(store.get(symbol("BTC"), "binance", Kind.FUNDING));
+        assertNull(store.get(symbol("BTC"), "okx", Kind.SPOT));
+        assertNull(store.get(symbol("ETH"), "binance", Kind.SPOT));
+    }
+
+    @Test
+    void kindsAreIndependentSlots() {
+        store.put(symbol("ETH"), "bybit", Kind.FUNDING, value(1, 30));
+        store.put(symbol("ETH"), "bybit", Kind.FUTURES, value(2, 50));
+        store.put(symbol("ETH"), "bybit", Kind.SPOT, value(3, 70));
+
+        assertArrayEquals(value(1, 30), store.get(symbol("ETH"), "bybit", Kind.FUNDING));
+        assertArrayEquals(value(2, 50), store.get(symbol("ETH"), "bybit", Kind.FUTURES));
+        assertArrayEquals(value(3, 70), store.get(symbol("ETH"), "bybit", Kind.SPOT));
+    }
+
+    @Test
+    void snapshotReturnsOnlyThatSymbol() {
+        store.put(symbol("SOL"), "binance", Kind.SPOT, value(1, 40));
+        store.put(symbol("SOL"), "gateio", Kind.FUNDING, value(2, 30));
+        store.put(symbol("XRP"), "binance", Kind.SPOT, value(3, 40));
+
+        MarketDataStore.Snapshot snapshot = store.snapshot(symbol("SOL"));
+
+        assertArrayEquals(value(1, 40), snapshot.get("binance", Kind.SPOT));
+        assertArrayEquals(value(2, 30), snapshot.get("gateio", Kind.FUNDING));
+        assertNull(snapshot.get("gateio", Kind.SPOT));
+        assertNull(snapshot.get("okx", Kind.SPOT));
+    }
+
+    @Test
+    void snapshotOfUnknownSymbolIsEmpty() {
+        MarketDataStore.Snapshot snapshot = store.snapshot(symbol("DOGE"));
+
+        assertNull(snapshot.get("binance", Kind.SPOT));
+    }
+
+    @Test
+    void forEachVisitsEveryStoredValue() {
+        Map<String, byte[]> written = new HashMap<>();
+        int n = 0;
+        for (String base : List.of("BTC", "ETH")) {
+            for (String exchange : List.of("binance", "okx", "kraken")) {
+                for (Kind kind : Kind.values()) {
+                    byte[] value = value(++n, 24 + n);
+                    store.put(symbol(base), exchange, kind, value);
+                    written.put(symbol(base) + "|" + exchange + "|" + kind, value);
+                }
+            }
+        }
+
+        Map<String, byte[]> visited = new HashMap<>();
+        store.forEach((symbol, exchange, kind, value) -> {
+            String key = symbol + "|" + exchange + "|" + kind;
+            if (written.containsKey(key)) visited.put(key, value);
+        });
+
+        assertEquals(written.keySet(), visited.keySet());
+        written.forEach((key, value) -> assertArrayEquals(value, visited.get(key), key));
+    }
+
+    /**
+     * 多个写线程反复覆盖同一组槽位，读线程不能读到写了一半的值：每个值整段同一字节，长度随字节变化。
+     */
+    @Test
+    void concurrentPutAndGetNeverTears() throws Exception {
+        int writers = 4;
+        int readers = 4;
+        int writes = 5_000;
+        List<String> exchanges = List.of("binance", "okx");
+        AtomicBoolean torn = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(writers + readers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int seed = w;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < writes; i++) {
+                        int fill = (seed * writes + i) % 100 + 1;
+                        store.put(symbol("BNB"), exchanges.get(i & 1), Kind.SPOT, value(fill, fill));
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> readerFutures = new ArrayList<>();
+            for (int r = 0; r < readers; r++) {
+                readerFutures.add(pool.submit(() -> {
+                    start.await();
+                    while (!done.get()) {
+                        for (String exchange : exchanges) {
+                            if (!consistent(store.get(symbol("BNB"), exchange, Kind.SPOT))) torn.set(true);
+                            if (!consistent(store.snapshot(symbol("BNB")).get(exchange, Kind.SPOT))) torn.set(true);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+            done.set(true);
+            for (Future<?> f : readerFutures) f.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertFalse(torn.get(), "reader observed a partially written value");
+        for (String exchange : exchanges) {
+            assertTrue(consistent(store.get(symbol("BNB"), exchange, Kind.SPOT)));
+        }
+    }
+
+    /** 长度为 length、每个字节都是 fill 的值 */
+    static byte[] value(int fill, int length) {
+        byte[] value = new byte[length];
+        Arrays.fill(value, (byte) fill);
+        return value;
+    }
+
+    /** null（尚未写入）或 {@link #value(int, int)} 中 fill 与 length 相同的值 */
+    private static boolean consistent(byte[] value) {
+        if (value == null) return true;
+        if (value.length == 0 || value.length != value[0]) return false;
+        for (byte b : value) {
+            if (b != value[0]) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,88 @@
+package com.experiment.store;
+
+import com.experiment.config.Symbols;
+import com.experiment.store.MarketDataStore.Kind;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OffHeapMarketDataStoreTest extends MarketDataStoreContractTest {
+
+    /** 全局注册表没有挂任何注册表时计数器不计数 */
+    private static final SimpleMeterRegistry REGISTRY = new SimpleMeterRegistry();
+
+    @BeforeAll
+    static void registerMetrics() {
+        Metrics.addRegistry(REGISTRY);
+    }
+
+    @AfterAll
+    static void removeMetrics() {
+        Metrics.removeRegistry(REGISTRY);
+    }
+
+    @Override
+    protected MarketDataStore createStore() {
+        return new OffHeapMarketDataStore(64);
+    }
+
+    @Test
+    void unknownExchangeIsSkippedAndCounted() {
+        double before = rejected();
+
+        store.put(symbol("BTC"), "no-such-exchange", Kind.SPOT, value(1, 10));
+
+        assertNull(store.get(symbol("BTC"), "no-such-exchange", Kind.SPOT));
+        assertEquals(before + 1, rejected());
+    }
+
+    @Test
+    void valueLargerThanSlotIsRejected() {
+        byte[] tooLarge = value(1, OffHeapMarketDataStore.MAX_VALUE_BYTES + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> store.put(symbol("BTC"), "binance", Kind.SPOT, tooLarge));
+    }
+
+    @Test
+    void symbolsOutsideTheRegistryGetTheirOwnRow() {
+        store.put("PEPEUSDT", "binance", Kind.SPOT, value(7, 16));
+
+        assertArrayEquals(value(7, 16), store.get("PEPEUSDT", "binance", Kind.SPOT));
+        assertNull(store.get(symbol("BTC"), "binance", Kind.SPOT));
+    }
+
+    @Test
+    void writesForNewSymbolsAreDroppedOnceTableIsFull() {
+        int free = Symbols.count() < 64 ? 64 - Symbols.count() : 0;
+        for (int i = 0; i < free; i++) {
+            store.put("FILL" + i + "USDT", "binance", Kind.SPOT, value(1, 8));
+        }
+        double before = rejected("binance", "table-full");
+
+        store.put("OVERFLOWUSDT", "binance", Kind.SPOT, value(2, 8));
+
+        assertNull(store.get("OVERFLOWUSDT", "binance", Kind.SPOT));
+        assertEquals(before + 1, rejected("binance", "table-full"));
+        store.put(symbol("BTC"), "binance", Kind.SPOT, value(3, 8));
+        assertArrayEquals(value(3, 8), store.get(symbol("BTC"), "binance", Kind.SPOT));
+    }
+
+    private static double rejected() {
+        return rejected("no-such-exchange", "unknown-exchange");
+    }
+
+    private static double rejected(String exchange, String reason) {
+        Counter counter = REGISTRY.find("md.store.rejected")
+                .tags("store", "offheap", "exchange", exchange, "reason", reason)
+                .counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,72 @@
+package com.experiment.store;
+
+import com.experiment.config.RedisConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 连接 REDIS_HOST / REDIS_PORT / REDIS_PASSWORD（默认 localhost:6379、无密码），Redis 不可达时跳过。
+ * 币种名带本次运行的随机前缀，不与真实行情的 md:{SYMBOL} 冲突，用例结束后删除。
+ */
+class RedisMarketDataStoreTest extends MarketDataStoreContractTest {
+
+    private static final String RUN = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, byte[]> template;
+
+    private final Set<String> symbols = ConcurrentHashMap.newKeySet();
+
+    @BeforeAll
+    static void connect() {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(
+                System.getenv().getOrDefault("REDIS_HOST", "localhost"),
+                Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379")));
+        String password = System.getenv("REDIS_PASSWORD");
+        if (password != null && !password.isEmpty()) config.setPassword(password);
+        connectionFactory = new LettuceConnectionFactory(config);
+        connectionFactory.afterPropertiesSet();
+        boolean reachable;
+        try {
+            connectionFactory.getConnection().ping();
+            reachable = true;
+        } catch (Exception e) {
+            reachable = false;
+        }
+        assumeTrue(reachable, "Redis not reachable, skipping");
+        template = new RedisConfig().redisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        if (connectionFactory != null) connectionFactory.destroy();
+    }
+
+    @Override
+    protected MarketDataStore createStore() {
+        return new RedisMarketDataStore(template);
+    }
+
+    @Override
+    protected String symbol(String base) {
+        String symbol = "TEST" + RUN + base + "USDT";
+        symbols.add(symbol);
+        return symbol;
+    }
+
+    @Override
+    protected void cleanUp() {
+        for (String symbol : symbols) {
+            template.delete("md:" + symbol);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.experiment.websocket.handler;
+
+import com.experiment.orderbook.OrderBook;
+import com.experiment.orderbook.OrderBooks;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinanceDepthHandlerTest {
+
+    @Test
+    void snapshotDropsOldEventsAndAppliesBufferedOnes() throws Exception {
+        SnapshotStub rest = new SnapshotStub();
+        rest.snapshots.add(snapshot(3, "[[\"100\",\"1\"],[\"99\",\"1\"]]", "[[\"101\",\"1\"]]"));
+        BinanceDepthHandler handler = new BinanceDepthHandler(rest);
+
+        handler.onMessage(depth("SNAPAUSDT", 1, 2, "[[\"100\",\"9\"]]", "[]"));
+        handler.onMessage(depth("SNAPAUSDT", 3, 5, "[[\"100\",\"2\"]]", "[]"));
+        handler.onMessage(depth("SNAPAUSDT", 6, 7, "[[\"99\",\"0\"]]", "[[\"102\",\"4\"]]"));
+        OrderBook book = awaitSynced("SNAPAUSDT", 7);
+
+        // u=2 早于快照被丢弃，3..5 跨过快照、6..7 连续，均已应用
+        assertEquals(100, book.bestBid());
+        assertEquals(2, book.bestBidSize());
+        assertEquals(101, book.bestAsk());
+        assertTrue(Double.isNaN(book.vwapSell(201)));
+        assertEquals(List.of("https://api.binance.com/api/v3/depth?symbol=SNAPAUSDT&limit=1000"), rest.urls);
+    }
+
+    @Test
+    void gapInvalidatesBookUntilNextSnapshot() throws Exception {
+        SnapshotStub rest = new SnapshotStub();
+        rest.snapshots.add(snapshot(10, "[[\"100\",\"1\"]]", "[[\"101\",\"1\"]]"));
+        rest.snapshots.add(snapshot(20, "[[\"200\",\"1\"]]", "[[\"201\",\"1\"]]"));
+        BinanceDepthHandler handler = new BinanceDepthHandler(rest);
+
+        handler.onMessage(depth("GAPAUSDT", 9, 11, "[]", "[]"));
+        OrderBook book = awaitSynced("GAPAUSDT", 11);
+        handler.onMessage(depth("GAPAUSDT", 12, 12, "[[\"100\",\"3\"]]", "[]"));
+        assertEquals(3, book.bestBidSize());
+
+        // 期望 U=13，收到 15：作废本地簿，等下一条消息在重试间隔后重新拉快照
+        handler.onMessage(depth("GAPAUSDT", 15, 16, "[]", "[]"));
+        assertFalse(book.isValid());
+        assertTrue(Double.isNaN(book.bestBid()));
+        Thread.sleep(1_100);
+        handler.onMessage(depth("GAPAUSDT", 17, 21, "[[\"200\",\"5\"]]", "[]"));
+
+        awaitSynced("GAPAUSDT", 21);
+        assertEquals(200, book.bestBid());
+        assertEquals(5, book.bestBidSize());
+        assertEquals(201, book.bestAsk());
+        assertEquals(2, rest.urls.size());
+    }
+
+    @Test
+    void firstLiveEventMustStraddleSnapshot() throws Exception {
+        SnapshotStub rest = new SnapshotStub();
+        rest.snapshots.add(snapshot(10, "[[\"100\",\"1\"]]", "[[\"101\",\"1\"]]"));
+        BinanceDepthHandler handler = new BinanceDepthHandler(rest);
+
+        // 缓存中唯一的事件早于快照，同步后首个实时事件仍按 U <= lastUpdateId+1 <= u 校验
+        handler.onMessage(depth("FIRSTAUSDT", 5, 8, "[]", "[]"));
+        OrderBook book = awaitSynced("FIRSTAUSDT", 10);
+        handler.onMessage(depth("FIRSTAUSDT", 9, 10, "[[\"100\",\"7\"]]", "[]"));
+        handler.onMessage(depth("FIRSTAUSDT", 8, 12, "[[\"100\",\"2\"]]", "[]"));
+
+        assertTrue(book.isValid());
+        assertEquals(12, book.getSequence());
+        assertEquals(2, book.bestBidSize());
+    }
+
+    /** 等待快照线程完成同步并应用到 sequence */
+    private static OrderBook awaitSynced(String symbol, long sequence) throws InterruptedException {
+        OrderBook book = OrderBooks.book(OrderBooks.SPOT, "binance", symbol);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!(book.isValid() && book.getSequence() == sequence) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(book.isValid(), "book not synced");
+        assertEquals(sequence, book.getSequence());
+        return book;
+    }
+
+    private static String depth(String symbol, long first, long last, String bids, String asks) {
+        return "{\"stream\":\"" + BinanceDepthHandler.depthTopic(symbol) + "\",\"data\":{\"e\":\"depthUpdate\",\"s\":\""
+                + symbol + "\",\"U\":" + first + ",\"u\":" + last + ",\"b\":" + bids + ",\"a\":" + asks + "}}";
+    }
+
+    private static String snapshot(long lastUpdateId, String bids, String asks) {
+        return "{\"lastUpdateId\":" + lastUpdateId + ",\"bids\":" + bids + ",\"asks\":" + asks + "}";
+    }
+
+    /** 按顺序返回预置的快照，记录请求的 URL */
+    private static final class SnapshotStub extends RestTemplate {
+        final Queue<String> snapshots = new ConcurrentLinkedQueue<>();
+        final List<String> urls = new ArrayList<>();
+
+        @Override
+        public <T> T getForObject(String url, Class<T> responseType, Object... uriVariables) {
+            synchronized (urls) {
+                urls.add(url);
+            }
+            return responseType.cast(snapshots.poll());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.experiment.websocket.transport;
+
+import com.experiment.websocket.transport.BoundedDeflateClientHandshaker.BoundedInflateDecoder;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CorruptedWebSocketFrameException;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketCloseStatus;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtension;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedInflateDecoderTest {
+
+    private static final String MESSAGE = "{\"topic\":\"tickers.BTCUSDT\",\"data\":{\"lastPrice\":\"67000.5\"}}";
+
+    @Test
+    void inflatesCompressedMessagesAcrossContext() {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        EmbeddedChannel channel = new EmbeddedChannel(new BoundedInflateDecoder(1024, false));
+
+        // 未声明 server_no_context_takeover：第二条消息引用第一条的窗口
+        for (int i = 0; i < 2; i++) {
+            channel.writeInbound(new TextWebSocketFrame(true, WebSocketExtension.RSV1,
+                    Unpooled.wrappedBuffer(compress(deflater, MESSAGE.getBytes(StandardCharsets.UTF_8), true))));
+            TextWebSocketFrame frame = channel.readInbound();
+            assertEquals(MESSAGE, frame.text());
+            assertEquals(0, frame.rsv());
+            frame.release();
+        }
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void uncompressedFramesPassThrough() {
+        EmbeddedChannel channel = new EmbeddedChannel(new BoundedInflateDecoder(1024, false));
+
+        channel.writeInbound(new TextWebSocketFrame(MESSAGE));
+
+        TextWebSocketFrame frame = channel.readInbound();
+        assertEquals(MESSAGE, frame.text());
+        frame.release();
+    }
+
+    @Test
+    void fragmentedMessageOverLimitIsRejected() {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        EmbeddedChannel channel = new EmbeddedChannel(new BoundedInflateDecoder(64 * 1024, true));
+        // 首个分片解压 32KB 未超限；后续分片让整条消息累计超过 64KB
+        channel.writeInbound(new BinaryWebSocketFrame(false, WebSocketExtension.RSV1,
+                Unpooled.wrappedBuffer(compress(deflater, new byte[32 * 1024], false))));
+        WebSocketFrame first = channel.readInbound();
+        assertEquals(32 * 1024, first.content().readableBytes());
+        first.release();
+        byte[] rest = compress(deflater, new byte[1 << 20], true);
+
+        CorruptedWebSocketFrameException e = assertThrows(CorruptedWebSocketFrameException.class,
+                () -> channel.writeInbound(new ContinuationWebSocketFrame(true, 0,
+                        Unpooled.wrappedBuffer(rest))));
+        assertEquals(WebSocketCloseStatus.MESSAGE_TOO_BIG, e.closeStatus());
+        assertTrue(channel.inboundMessages().isEmpty());
+        channel.finishAndReleaseAll();
+    }
+
+    /** permessage-deflate：raw deflate + SYNC_FLUSH，消息最后一个分片去掉末尾 00 00 FF FF */
+    private static byte[] compress(Deflater deflater, byte[] data, boolean last) {
+        deflater.setInput(data);
+        byte[] out = new byte[data.length + 1024];
+        int n = deflater.deflate(out, 0, out.length, Deflater.SYNC_FLUSH);
+        return Arrays.copyOf(out, last ? n - 4 : n);
+    }
+}
@@ -0,0 +1,95 @@
+package com.experiment.websocket.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GzipInflaterTest {
+
+    private static final byte[] MESSAGE = "{\"method\":\"deals.update\",\"data\":{\"market\":\"BTCUSDT\"}}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void inflatesWithinLimitWithoutMovingPosition() throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(gzip(MESSAGE));
+
+        assertTrue(GzipInflater.isGzip(data));
+        assertArrayEquals(MESSAGE, GzipInflater.inflate(data, 1024));
+        assertEquals(0, data.position());
+        // 池中复用的 Inflater 已 reset
+        assertArrayEquals(MESSAGE, GzipInflater.inflate(data, MESSAGE.length));
+    }
+
+    @Test
+    void inflatesFromBufferPosition() throws IOException {
+        byte[] gz = gzip(MESSAGE);
+        ByteBuffer data = ByteBuffer.allocate(gz.length + 3);
+        data.position(3);
+        data.put(gz).position(3);
+
+        assertArrayEquals(MESSAGE, GzipInflater.inflate(data, 1024));
+    }
+
+    @Test
+    void declaredSizeOverLimitIsRejectedBeforeInflating() throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(gzip(new byte[1 << 20]));
+
+        ZipException e = assertThrows(ZipException.class, () -> GzipInflater.inflate(data, 64 * 1024));
+        assertTrue(e.getMessage().contains("exceeds limit"), e.getMessage());
+    }
+
+    @Test
+    void understatedSizeIsRejected() throws IOException {
+        // ISIZE 改小到 10：按 ISIZE 分配，多出的数据不能被截断放行
+        byte[] gz = gzip(new byte[1 << 20]);
+        setSize(gz, 10);
+
+        ZipException e = assertThrows(ZipException.class, () -> GzipInflater.inflate(ByteBuffer.wrap(gz), 64 * 1024));
+        assertTrue(e.getMessage().contains("more than 10 bytes"), e.getMessage());
+    }
+
+    @Test
+    void overstatedSizeIsRejected() throws IOException {
+        byte[] gz = gzip(MESSAGE);
+        setSize(gz, MESSAGE.length + 100);
+
+        assertThrows(ZipException.class, () -> GzipInflater.inflate(ByteBuffer.wrap(gz), 1024));
+    }
+
+    @Test
+    void nonGzipDataIsRejected() {
+        ByteBuffer plain = ByteBuffer.wrap(MESSAGE);
+
+        assertFalse(GzipInflater.isGzip(plain));
+        assertFalse(GzipInflater.isGzip(ByteBuffer.wrap(new byte[]{0x1F, (byte) 0x8B})));
+        assertThrows(ZipException.class, () -> GzipInflater.inflate(plain, 1024));
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    /** 改写尾部 ISIZE（小端） */
+    private static void setSize(byte[] gz, int size) {
+        int end = gz.length;
+        gz[end - 4] = (byte) size;
+        gz[end - 3] = (byte) (size >>> 8);
+        gz[end - 2] = (byte) (size >>> 16);
+        gz[end - 1] = (byte) (size >>> 24);
+    }
+}
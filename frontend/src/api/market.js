@@ -12,3 +12,10 @@ export async function getSpreadStats() {
   const { data } = await axios.get(`${API_BASE}/spread-stats`)
   return data
 }
+
+/** 订阅价差实时提醒（SSE），返回取消订阅函数 */
+export function subscribeAlerts(onAlert) {
+  const source = new EventSource(`${API_BASE}/alerts/stream`)
+  source.addEventListener('alert', e => onAlert(JSON.parse(e.data)))
+  return () => source.close()
+}